@@ -0,0 +1,36 @@
+package com.example.projetoRestSpringBoot.config;
+
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+
+@Configuration
+@ConfigurationProperties(prefix = "digest")
+public class DigestConfig {
+    private boolean habilitado = true;
+    // Departamento -> e-mail(s) do responsável, separados por ";"
+    private Map<String, String> departamentos = new HashMap<>();
+
+    public DigestConfig() {
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public Map<String, String> getDepartamentos() {
+        return departamentos;
+    }
+
+    public void setDepartamentos(Map<String, String> departamentos) {
+        this.departamentos = departamentos;
+    }
+}
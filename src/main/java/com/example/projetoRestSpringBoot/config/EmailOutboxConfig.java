@@ -0,0 +1,70 @@
+package com.example.projetoRestSpringBoot.config;
+
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+
+@Configuration
+@ConfigurationProperties(prefix = "email.outbox")
+public class EmailOutboxConfig {
+    private int threads = 2;
+    private int lote = 100;
+    private int mensagensPorConexao = 25;
+    private int maxTentativas = 5;
+    private Duration backoffInicial = Duration.ofSeconds(30);
+    private Duration backoffMaximo = Duration.ofHours(1);
+
+    public EmailOutboxConfig() {
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getLote() {
+        return lote;
+    }
+
+    public void setLote(int lote) {
+        this.lote = lote;
+    }
+
+    public int getMensagensPorConexao() {
+        return mensagensPorConexao;
+    }
+
+    public void setMensagensPorConexao(int mensagensPorConexao) {
+        this.mensagensPorConexao = mensagensPorConexao;
+    }
+
+    public int getMaxTentativas() {
+        return maxTentativas;
+    }
+
+    public void setMaxTentativas(int maxTentativas) {
+        this.maxTentativas = maxTentativas;
+    }
+
+    public Duration getBackoffInicial() {
+        return backoffInicial;
+    }
+
+    public void setBackoffInicial(Duration backoffInicial) {
+        this.backoffInicial = backoffInicial;
+    }
+
+    public Duration getBackoffMaximo() {
+        return backoffMaximo;
+    }
+
+    public void setBackoffMaximo(Duration backoffMaximo) {
+        this.backoffMaximo = backoffMaximo;
+    }
+}
@@ -9,6 +9,8 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "file")
 public class FileStorageConfig {
     private String uploadDir;
+    private int importThreads = 2;
+    private int importQueueCapacity = 10;
 
     public FileStorageConfig() {
     }
@@ -20,4 +22,20 @@ public class FileStorageConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
+
+    public int getImportThreads() {
+        return importThreads;
+    }
+
+    public void setImportThreads(int importThreads) {
+        this.importThreads = importThreads;
+    }
+
+    public int getImportQueueCapacity() {
+        return importQueueCapacity;
+    }
+
+    public void setImportQueueCapacity(int importQueueCapacity) {
+        this.importQueueCapacity = importQueueCapacity;
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.projetoRestSpringBoot.config;
+
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+
+@Configuration
+@ConfigurationProperties(prefix = "report")
+public class ReportConfig {
+    private boolean hotReload;
+    private String sourceDir;
+    private int batchThreads = 4;
+    private int batchMaxRelatorios = 500;
+
+    public ReportConfig() {
+    }
+
+    public boolean isHotReload() {
+        return hotReload;
+    }
+
+    public void setHotReload(boolean hotReload) {
+        this.hotReload = hotReload;
+    }
+
+    public String getSourceDir() {
+        return sourceDir;
+    }
+
+    public void setSourceDir(String sourceDir) {
+        this.sourceDir = sourceDir;
+    }
+
+    public int getBatchThreads() {
+        return batchThreads;
+    }
+
+    public void setBatchThreads(int batchThreads) {
+        this.batchThreads = batchThreads;
+    }
+
+    public int getBatchMaxRelatorios() {
+        return batchMaxRelatorios;
+    }
+
+    public void setBatchMaxRelatorios(int batchMaxRelatorios) {
+        this.batchMaxRelatorios = batchMaxRelatorios;
+    }
+}
@@ -61,8 +61,11 @@ public class SecurityConfig {
                                         "/auth/autenticar",
                                         "/auth/atualizar/**",
                                         "/swagger-ui/**",
-                                        "/v3/api-docs/**"
+                                        "/v3/api-docs/**",
+                                        "/actuator/health"
                                 ).permitAll()
+                                // Métricas e o SQL capturado pelo profiler só para administradores
+                                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                                 .requestMatchers(
                                         "/api/**",
                                         "/auth/criarUsuario")
@@ -0,0 +1,43 @@
+package com.example.projetoRestSpringBoot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "server-timing")
+public class ServerTimingConfig {
+    // Ligado só no perfil dev: o cabeçalho expõe o tempo de SQL e de cada etapa para quem chama a API
+    private boolean habilitado = false;
+    // Uma linha de log com o tempo de cada etapa para requisições acima do limite
+    private boolean logLentas = true;
+    private Duration limiteLenta = Duration.ofSeconds(2);
+
+    public ServerTimingConfig() {
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public boolean isLogLentas() {
+        return logLentas;
+    }
+
+    public void setLogLentas(boolean logLentas) {
+        this.logLentas = logLentas;
+    }
+
+    public Duration getLimiteLenta() {
+        return limiteLenta;
+    }
+
+    public void setLimiteLenta(Duration limiteLenta) {
+        this.limiteLenta = limiteLenta;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.projetoRestSpringBoot.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "sql-profiler")
+public class SqlProfilerConfig {
+    private boolean habilitado = true;
+    // A partir de quantas execuções do mesmo SELECT na requisição ele é tratado como suspeita de N+1
+    private int limiteNMaisUm = 5;
+
+    public SqlProfilerConfig() {
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public int getLimiteNMaisUm() {
+        return limiteNMaisUm;
+    }
+
+    public void setLimiteNMaisUm(int limiteNMaisUm) {
+        this.limiteNMaisUm = limiteNMaisUm;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.projetoRestSpringBoot.config.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+// Transação servida pela réplica lê o cache de segundo nível mas não o alimenta: a réplica pode estar
+// atrasada e o cache (curso, permissões) guardaria o dado antigo por até uma hora. Quem preenche o cache
+// são as leituras e escritas no primário. Sem open-in-view o EntityManager termina com a transação.
+class CacheForaDaReplica implements TransactionExecutionListener {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final LeituraConsistente consistencia;
+
+    CacheForaDaReplica(ObjectProvider<EntityManagerFactory> entityManagerFactory, LeituraConsistente consistencia) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.consistencia = consistencia;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure != null || !transaction.isNewTransaction() || !transaction.isReadOnly()
+                || consistencia.lerDoPrimario()) {
+            return;
+        }
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        EntityManager entityManager = factory != null
+                ? EntityManagerFactoryUtils.getTransactionalEntityManager(factory) : null;
+        if (entityManager != null) {
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+    }
+}
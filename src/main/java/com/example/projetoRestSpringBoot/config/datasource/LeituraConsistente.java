@@ -0,0 +1,82 @@
+package com.example.projetoRestSpringBoot.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+// Read-your-writes: depois de um commit com escrita, as leituras da mesma requisição e do mesmo
+// usuário vão para o primário durante a janela, tempo que a réplica tem para alcançá-lo.
+// Fora de requisição (jobs de importação, agendamentos) o controle é pela thread.
+public class LeituraConsistente implements TransactionExecutionListener {
+
+    private static final String ESCRITA_ATTRIBUTE = LeituraConsistente.class.getName() + ".escrita";
+
+    private final long janelaNanos;
+    private final Cache<String, Boolean> escritasPorUsuario;
+    private final ThreadLocal<Long> escritaNaThread = new ThreadLocal<>();
+
+    public LeituraConsistente(Duration janela) {
+        this.janelaNanos = janela.toNanos();
+        this.escritasPorUsuario = Caffeine.newBuilder()
+                .expireAfterWrite(janela)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            registrarEscrita();
+        }
+    }
+
+    public void registrarEscrita() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ESCRITA_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        } else {
+            escritaNaThread.set(System.nanoTime());
+        }
+        String usuario = usuarioAtual();
+        if (usuario != null) {
+            escritasPorUsuario.put(usuario, Boolean.TRUE);
+        }
+    }
+
+    public long getJanelaNanos() {
+        return janelaNanos;
+    }
+
+    public boolean lerDoPrimario() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            if (attributes.getAttribute(ESCRITA_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+                return true;
+            }
+        } else {
+            Long escrita = escritaNaThread.get();
+            if (escrita != null && System.nanoTime() - escrita < janelaNanos) {
+                return true;
+            }
+        }
+        String usuario = usuarioAtual();
+        return usuario != null && escritasPorUsuario.getIfPresent(usuario) != null;
+    }
+
+    private static String usuarioAtual() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.projetoRestSpringBoot.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Destino das transações somente leitura: a réplica, ou o primário quando a leitura precisa enxergar uma escrita recente
+class LeituraRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARIO = "primario";
+    static final String REPLICA = "replica";
+
+    private final LeituraConsistente consistencia;
+
+    LeituraRoutingDataSource(DataSource primario, DataSource replica, LeituraConsistente consistencia) {
+        this.consistencia = consistencia;
+        setTargetDataSources(Map.of(PRIMARIO, primario, REPLICA, replica));
+        setDefaultTargetDataSource(replica);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return consistencia.lerDoPrimario() ? PRIMARIO : REPLICA;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.projetoRestSpringBoot.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Só entra quando datasource.replica.jdbc-url está configurado; sem ela tudo continua no spring.datasource.
+// Transações readOnly vão para a réplica, o resto (e qualquer acesso fora de transação) para o primário.
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica")
+    HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    LeituraConsistente leituraConsistente(
+            @Value("${datasource.leitura-primario-apos-escrita:5s}") Duration janela) {
+        return new LeituraConsistente(janela);
+    }
+
+    @Bean
+    CacheForaDaReplica cacheForaDaReplica(ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                          LeituraConsistente consistencia) {
+        return new CacheForaDaReplica(entityManagerFactory, consistencia);
+    }
+
+    // O proxy só pega a conexão física no primeiro comando, quando o readOnly da transação já foi aplicado
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primaryDataSource") DataSource primario,
+                          @Qualifier("replicaDataSource") DataSource replica,
+                          LeituraConsistente consistencia) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primario);
+        proxy.setReadOnlyDataSource(new LeituraRoutingDataSource(primario, replica, consistencia));
+        return proxy;
+    }
+}
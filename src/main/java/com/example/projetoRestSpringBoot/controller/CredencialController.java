@@ -6,7 +6,9 @@ import com.example.projetoRestSpringBoot.dto.IntervaloDataDTO;
 import com.example.projetoRestSpringBoot.enums.CredencialStatus;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.model.Credencial;
+import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.service.CredencialService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
 import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +17,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/credencial/v1")
@@ -28,6 +32,9 @@ public class CredencialController implements CredencialControllerDocs {
     @Autowired
     private CredencialService service;
 
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
             MediaType.APPLICATION_XML_VALUE,
             MediaType.APPLICATION_YAML_VALUE})
@@ -39,15 +46,26 @@ public class CredencialController implements CredencialControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "id"));
-        var result = service.findAll(pageable);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(etagLista(), () -> service.findAll(pageable));
+    }
+
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<CollectionModel<EntityModel<CredencialDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        return RequisicaoCondicional.responder(etagLista(), () -> service.findAllCursor(cursor, size, direction));
     }
 
 
     @GetMapping(value = "/buscarPorId/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public CredencialDTO findById (@PathVariable("id") long id) {
-        return service.findById(id);
+    public ResponseEntity<CredencialDTO> findById (@PathVariable("id") long id) {
+        return RequisicaoCondicional.responder(naoModificado -> service.findById(id, naoModificado));
     }
 
     @PostMapping(consumes = {
@@ -76,8 +94,7 @@ public class CredencialController implements CredencialControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "dataVencimento"));
-        var result = service.findByStatus(status, pageable);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(etagLista(), () -> service.findByStatus(status, pageable));
     }
 
 
@@ -122,8 +139,10 @@ public class CredencialController implements CredencialControllerDocs {
                     MediaType.APPLICATION_XML_VALUE,
                     MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public CredencialDTO update(@RequestBody CredencialDTO credencial) {
-        return service.update(credencial);
+    public ResponseEntity<CredencialDTO> update(@RequestBody CredencialDTO credencial,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var dto = service.update(credencial, ifMatch);
+        return ResponseEntity.ok().eTag(service.etag(dto.getId())).body(dto);
     }
 
 
@@ -153,4 +172,25 @@ public class CredencialController implements CredencialControllerDocs {
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .body(file);
     }
+
+    @GetMapping(value = "/exportar/stream", produces = {
+            MediaTypes.APPLICATION_XLSX_VALUE,
+            MediaTypes.APPLICATION_TEXT_CSV_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPageStreaming(HttpServletRequest request) {
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+        StreamingResponseBody body = service.exportPageStreaming(acceptHeader);
+
+        var fileExtension = MediaTypes.APPLICATION_TEXT_CSV_VALUE.equalsIgnoreCase(acceptHeader) ? ".csv" : ".xlsx";
+        var filename = "credenciais" + fileExtension;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(acceptHeader))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private String etagLista() {
+        return alteracoes.etagFraco(Credencial.class, Funcionario.class);
+    }
 }
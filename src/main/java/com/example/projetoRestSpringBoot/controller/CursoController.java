@@ -2,9 +2,11 @@ package com.example.projetoRestSpringBoot.controller;
 
 import com.example.projetoRestSpringBoot.controller.docs.CursoControllerDocs;
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.model.Curso;
 import com.example.projetoRestSpringBoot.service.CursoService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
 import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,14 +15,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -29,6 +35,9 @@ public class CursoController implements CursoControllerDocs {
     @Autowired
     private CursoService service;
 
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
             MediaType.APPLICATION_XML_VALUE,
             MediaType.APPLICATION_YAML_VALUE})
@@ -40,9 +49,23 @@ public class CursoController implements CursoControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "nome"));
-        var result = service.findAll(pageable);
-        HateoasLinkManager.addCursoListPageLinks(result);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Curso.class), () -> {
+            var result = service.findAll(pageable);
+            HateoasLinkManager.addCursoListPageLinks(result);
+            return result;
+        });
+    }
+
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<CollectionModel<EntityModel<CursoDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Curso.class), () -> service.findAllCursor(cursor, size, direction));
     }
 
     @GetMapping(value = "/buscarPorNome/{nome}", produces = {MediaType.APPLICATION_JSON_VALUE,
@@ -56,15 +79,17 @@ public class CursoController implements CursoControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "nome"));
-        var result = service.findByName(nome, pageable);
-        HateoasLinkManager.addCursoListPageLinks(result);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Curso.class), () -> {
+            var result = service.findByName(nome, pageable);
+            HateoasLinkManager.addCursoListPageLinks(result);
+            return result;
+        });
     }
 
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public CursoDTO findById (@PathVariable("id") long id) {
-        return service.findById(id);
+    public ResponseEntity<CursoDTO> findById (@PathVariable("id") long id) {
+        return RequisicaoCondicional.responder(naoModificado -> service.findById(id, naoModificado));
     }
 
     @PostMapping(consumes = {
@@ -88,8 +113,10 @@ public class CursoController implements CursoControllerDocs {
                     MediaType.APPLICATION_XML_VALUE,
                     MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public CursoDTO update(@RequestBody CursoDTO curso) {
-        return service.update(curso);
+    public ResponseEntity<CursoDTO> update(@RequestBody CursoDTO curso,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var dto = service.update(curso, ifMatch);
+        return ResponseEntity.ok().eTag(service.etag(dto.getId())).body(dto);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -119,13 +146,45 @@ public class CursoController implements CursoControllerDocs {
                 .body(file);
     }
 
+    @GetMapping(value = "/exportar/stream", produces = {
+            MediaTypes.APPLICATION_XLSX_VALUE,
+            MediaTypes.APPLICATION_TEXT_CSV_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPageStreaming(HttpServletRequest request) {
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+        StreamingResponseBody body = service.exportPageStreaming(acceptHeader);
+
+        var fileExtension = MediaTypes.APPLICATION_TEXT_CSV_VALUE.equalsIgnoreCase(acceptHeader) ? ".csv" : ".xlsx";
+        var filename = "cursos" + fileExtension;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(acceptHeader))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
 
     @PostMapping(value="/importar",
             produces = {
                     MediaType.APPLICATION_JSON_VALUE,
                     MediaType.APPLICATION_XML_VALUE,
                     MediaType.APPLICATION_YAML_VALUE})
-    public List<CursoDTO> importarCursos (@RequestParam ("file") MultipartFile file) {
-        return service.importarArquivo(file);
+    public ResponseEntity<ImportacaoJobDTO> importarCursos (@RequestParam ("file") MultipartFile file) {
+        ImportacaoJobDTO job = service.importarArquivo(file);
+        URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(status).body(job);
+    }
+
+    @GetMapping(value="/importar/{jobId}",
+            produces = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_XML_VALUE,
+                    MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ImportacaoJobDTO consultarImportacao (@PathVariable("jobId") String jobId) {
+        return service.consultarImportacao(jobId);
     }
 }
@@ -1,14 +1,17 @@
 package com.example.projetoRestSpringBoot.controller;
 
 import com.example.projetoRestSpringBoot.controller.docs.EmailControllerDocs;
+import com.example.projetoRestSpringBoot.dto.EmailStatusDTO;
 import com.example.projetoRestSpringBoot.dto.request.EmailRequestDTO;
 import com.example.projetoRestSpringBoot.service.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
 
 @RestController
 @RequestMapping("/api/email/v1")
@@ -19,22 +22,33 @@ public class EmailController implements EmailControllerDocs {
 
     @PostMapping
     @Override
-    public ResponseEntity<String> sendEmail(@RequestBody EmailRequestDTO emailRequest) {
-        System.out.println("USER: " + System.getenv("EMAIL_USERNAME"));
-        System.out.println("PASS: " + (System.getenv("EMAIL_PASSWORD") != null ? "****" : "NULL"));
-
-        service.sentSimpleEmail(emailRequest);
-
-        return new ResponseEntity<>("E-mail enviado com sucesso", HttpStatus.OK);
+    public ResponseEntity<EmailStatusDTO> sendEmail(@RequestBody EmailRequestDTO emailRequest) {
+        return aceito(service.sentSimpleEmail(emailRequest));
     }
 
     @PostMapping(value ="/anexo", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Override
-    public ResponseEntity<String> sendEmailWithAttachment(
+    public ResponseEntity<EmailStatusDTO> sendEmailWithAttachment(
             @RequestParam("emailRequest") String emailRequest,
             @RequestParam("attachment") MultipartFile attachment) {
-        service.senEmailWithAttachment(emailRequest,  attachment);
+        return aceito(service.senEmailWithAttachment(emailRequest, attachment));
+    }
+
+    @GetMapping(value = "/{id}",
+            produces = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_XML_VALUE,
+                    MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public EmailStatusDTO consultar(@PathVariable("id") Long id) {
+        return service.consultar(id);
+    }
 
-        return new ResponseEntity<>("E-mail e anexo enviado com sucesso", HttpStatus.OK);
+    private static ResponseEntity<EmailStatusDTO> aceito(EmailStatusDTO email) {
+        URI status = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/email/v1/{id}")
+                .buildAndExpand(email.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(status).body(email);
     }
 }
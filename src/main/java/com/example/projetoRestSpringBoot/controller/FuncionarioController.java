@@ -2,12 +2,14 @@ package com.example.projetoRestSpringBoot.controller;
 
 import com.example.projetoRestSpringBoot.controller.docs.FuncionariosControllerDocs;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
 import com.example.projetoRestSpringBoot.dto.IntervaloDataDTO;
 import com.example.projetoRestSpringBoot.enums.FuncionarioSituacao;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.service.FuncionarioService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
 import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
 import org.springframework.core.io.Resource;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,14 +18,18 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -32,6 +38,9 @@ public class FuncionarioController implements FuncionariosControllerDocs {
     @Autowired
     private FuncionarioService service;
 
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
             MediaType.APPLICATION_XML_VALUE,
             MediaType.APPLICATION_YAML_VALUE})
@@ -43,9 +52,23 @@ public class FuncionarioController implements FuncionariosControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "nome"));
-        var result = service.findAll(pageable);
-        HateoasLinkManager.addFuncionarioListPageLinks(result);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Funcionario.class), () -> {
+            var result = service.findAll(pageable);
+            HateoasLinkManager.addFuncionarioListPageLinks(result);
+            return result;
+        });
+    }
+
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<CollectionModel<EntityModel<FuncionarioDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Funcionario.class), () -> service.findAllCursor(cursor, size, direction));
     }
 
     @GetMapping(value = "/buscarPorNome/{nome}", produces = {MediaType.APPLICATION_JSON_VALUE,
@@ -59,9 +82,11 @@ public class FuncionarioController implements FuncionariosControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "nome"));
-        var result = service.findByName(nome, pageable);
-        HateoasLinkManager.addFuncionarioListPageLinks(result);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Funcionario.class), () -> {
+            var result = service.findByName(nome, pageable);
+            HateoasLinkManager.addFuncionarioListPageLinks(result);
+            return result;
+        });
     }
 
     @GetMapping(value = "/buscarPorSituacao/{situacao}", produces = {MediaType.APPLICATION_JSON_VALUE,
@@ -76,9 +101,11 @@ public class FuncionarioController implements FuncionariosControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "nome"));
-        var result = service.findBySituacao(situacao, pageable);
-        HateoasLinkManager.addFuncionarioListPageLinks(result);
-        return ResponseEntity.ok(result);
+        return RequisicaoCondicional.responder(alteracoes.etagFraco(Funcionario.class), () -> {
+            var result = service.findBySituacao(situacao, pageable);
+            HateoasLinkManager.addFuncionarioListPageLinks(result);
+            return result;
+        });
     }
 
     @PostMapping(value = "/buscarPorAdmissao",
@@ -103,9 +130,8 @@ public class FuncionarioController implements FuncionariosControllerDocs {
 
     @GetMapping(value = "/buscarPorId/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public FuncionarioDTO findById (@PathVariable("id") long id) {
-        var funcionario = service.findById(id);
-        return funcionario;
+    public ResponseEntity<FuncionarioDTO> findById (@PathVariable("id") long id) {
+        return RequisicaoCondicional.responder(naoModificado -> service.findById(id, naoModificado));
     }
 
     @GetMapping(value = "buscarPorMatricula/{matricula}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
@@ -133,8 +159,23 @@ public class FuncionarioController implements FuncionariosControllerDocs {
                     MediaType.APPLICATION_XML_VALUE,
                     MediaType.APPLICATION_YAML_VALUE})
     //@Override
-    public List<FuncionarioDTO> importarFuncionarios (@RequestParam ("file") MultipartFile file) {
-        return service.importarArquivo(file);
+    public ResponseEntity<ImportacaoJobDTO> importarFuncionarios (@RequestParam ("file") MultipartFile file) {
+        ImportacaoJobDTO job = service.importarArquivo(file);
+        URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(status).body(job);
+    }
+
+    @GetMapping(value="/importar/{jobId}",
+            produces = {
+                    MediaType.APPLICATION_JSON_VALUE,
+                    MediaType.APPLICATION_XML_VALUE,
+                    MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ImportacaoJobDTO consultarImportacao (@PathVariable("jobId") String jobId) {
+        return service.consultarImportacao(jobId);
     }
 
     @PutMapping(consumes = {
@@ -146,8 +187,10 @@ public class FuncionarioController implements FuncionariosControllerDocs {
                     MediaType.APPLICATION_XML_VALUE,
                     MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public FuncionarioDTO update(@RequestBody FuncionarioDTO funcionario) {
-        return service.update(funcionario);
+    public ResponseEntity<FuncionarioDTO> update(@RequestBody FuncionarioDTO funcionario,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var dto = service.update(funcionario, ifMatch);
+        return ResponseEntity.ok().eTag(service.etag(dto.getId())).body(dto);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -176,4 +219,21 @@ public class FuncionarioController implements FuncionariosControllerDocs {
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .body(file);
     }
+
+    @GetMapping(value = "/exportar/stream", produces = {
+            MediaTypes.APPLICATION_XLSX_VALUE,
+            MediaTypes.APPLICATION_TEXT_CSV_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPageStreaming(HttpServletRequest request) {
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+        StreamingResponseBody body = service.exportPageStreaming(acceptHeader);
+
+        var fileExtension = MediaTypes.APPLICATION_TEXT_CSV_VALUE.equalsIgnoreCase(acceptHeader) ? ".csv" : ".xlsx";
+        var filename = "funcionarios" + fileExtension;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(acceptHeader))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.projetoRestSpringBoot.controller;
+
+import com.example.projetoRestSpringBoot.service.etag.Versionado;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// GET condicional: se o If-None-Match bate com o ETag responde 304 sem executar a consulta,
+// o mapeamento e a serialização do corpo
+final class RequisicaoCondicional {
+
+    private RequisicaoCondicional() {
+    }
+
+    static <T> ResponseEntity<T> responder(String etag, Supplier<T> corpo) {
+        if (requisicao().checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(corpo.get());
+    }
+
+    // Para um único registro o ETag sai da mesma leitura que monta o corpo: o serviço recebe
+    // a comparação com o If-None-Match e devolve o corpo vazio quando a versão lida é a do cliente
+    static <T> ResponseEntity<T> responder(Function<Predicate<String>, Versionado<T>> leitura) {
+        Versionado<T> lido = leitura.apply(requisicao()::checkNotModified);
+        if (lido.corpo() == null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(lido.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(lido.etag()).body(lido.corpo());
+    }
+
+    private static ServletWebRequest requisicao() {
+        var attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
+        return new ServletWebRequest(attributes.getRequest());
+    }
+}
@@ -3,10 +3,14 @@ package com.example.projetoRestSpringBoot.controller;
 import com.example.projetoRestSpringBoot.controller.docs.TreinamentoControllerDocs;
 import com.example.projetoRestSpringBoot.dto.IntervaloDataDTO;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.dto.request.RelatorioLoteRequestDTO;
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.model.Treinamento;
 import com.example.projetoRestSpringBoot.service.TreinamentoService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -14,12 +18,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -29,6 +35,9 @@ public class TreinamentoController implements TreinamentoControllerDocs {
     @Autowired
     private TreinamentoService service;
 
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE,
             MediaType.APPLICATION_XML_VALUE,
             MediaType.APPLICATION_YAML_VALUE})
@@ -40,14 +49,26 @@ public class TreinamentoController implements TreinamentoControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "dataVencimento"));
-        return ResponseEntity.ok(service.findAll(pageable));
+        return RequisicaoCondicional.responder(etagLista(), () -> service.findAll(pageable));
+    }
+
+    @GetMapping(value = "/cursor", produces = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_XML_VALUE,
+            MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<CollectionModel<EntityModel<TreinamentoDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    ) {
+        return RequisicaoCondicional.responder(etagLista(), () -> service.findAllCursor(cursor, size, direction));
     }
 
 
     @GetMapping(value = "buscarPorId/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public TreinamentoDTO findById (@PathVariable("id") long id) {
-        return service.findById(id);
+    public ResponseEntity<TreinamentoDTO> findById (@PathVariable("id") long id) {
+        return RequisicaoCondicional.responder(naoModificado -> service.findById(id, naoModificado));
     }
 
     @GetMapping(value="/buscarPorStatus/{status}",produces = {MediaType.APPLICATION_JSON_VALUE,
@@ -62,7 +83,7 @@ public class TreinamentoController implements TreinamentoControllerDocs {
     ) {
         var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "dataVencimento"));
-        return ResponseEntity.ok(service.findByStatus(status, pageable));
+        return RequisicaoCondicional.responder(etagLista(), () -> service.findByStatus(status, pageable));
     }
 
     @PostMapping(value="/buscarPorInstrutor",
@@ -129,8 +150,10 @@ public class TreinamentoController implements TreinamentoControllerDocs {
                     MediaType.APPLICATION_XML_VALUE,
                     MediaType.APPLICATION_YAML_VALUE})
     @Override
-    public TreinamentoDTO update(@RequestBody TreinamentoDTO treinamento) {
-        return service.update(treinamento);
+    public ResponseEntity<TreinamentoDTO> update(@RequestBody TreinamentoDTO treinamento,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        var dto = service.update(treinamento, ifMatch);
+        return ResponseEntity.ok().eTag(service.etag(dto.getId())).body(dto);
     }
 
     @DeleteMapping(value = "/{id}")
@@ -160,6 +183,23 @@ public class TreinamentoController implements TreinamentoControllerDocs {
                 .body(file);
     }
 
+    @GetMapping(value = "/exportar/stream", produces = {
+            MediaTypes.APPLICATION_XLSX_VALUE,
+            MediaTypes.APPLICATION_TEXT_CSV_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportPageStreaming(HttpServletRequest request) {
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+        StreamingResponseBody body = service.exportPageStreaming(acceptHeader);
+
+        var fileExtension = MediaTypes.APPLICATION_TEXT_CSV_VALUE.equalsIgnoreCase(acceptHeader) ? ".csv" : ".xlsx";
+        var filename = "treinamentos" + fileExtension;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(acceptHeader))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
 
     @GetMapping(value = "/exportar/{id}", produces = MediaTypes.APPLICATION_PDF_VALUE)
         @Override
@@ -174,4 +214,28 @@ public class TreinamentoController implements TreinamentoControllerDocs {
                     .body(file);
         }
 
+    @PostMapping(value = "/exportar/lote",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE},
+            produces = {MediaTypes.APPLICATION_ZIP_VALUE, MediaTypes.APPLICATION_PDF_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportarLote(
+            @RequestBody RelatorioLoteRequestDTO lote,
+            HttpServletRequest request
+    ) {
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+        StreamingResponseBody body = service.exportarLote(lote, acceptHeader);
+
+        var fileExtension = MediaTypes.APPLICATION_PDF_VALUE.equalsIgnoreCase(acceptHeader) ? ".pdf" : ".zip";
+        var filename = "treinamentos_lote" + fileExtension;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(acceptHeader))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // A listagem também mostra nome do funcionário e do curso
+    private String etagLista() {
+        return alteracoes.etagFraco(Treinamento.class, Funcionario.class, Curso.class);
+    }
 }
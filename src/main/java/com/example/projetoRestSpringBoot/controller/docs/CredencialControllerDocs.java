@@ -14,14 +14,18 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.io.Resource;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -52,6 +56,29 @@ public interface CredencialControllerDocs {
             @RequestParam(value = "direction", defaultValue = "asc") String direction
     );
 
+    @Operation(summary = "Buscar todas as credenciais por cursor",
+            description = "Endpoint para percorrer todas as credenciais ordenados por id, sem total de páginas. " +
+                    "A resposta traz o link next com o cursor da próxima página enquanto houver registros",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = CredencialDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<CollectionModel<EntityModel<CredencialDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
     @Operation(summary = "Buscar credenciais por intervalo de datas de emissão",
             description = "Endpoint para retornar uma lista paginada com HATEOAS, de credenciais filtrados pela data de emissão",
             responses = {
@@ -128,6 +155,25 @@ public interface CredencialControllerDocs {
     );
 
 
+    @Operation(summary = "Exportar credenciais em streaming",
+            description = "Endpoint para exportar o banco de credenciais em CSV ou XLSX, escrevendo as linhas direto na resposta sem carregar a tabela inteira em memória",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaTypes.APPLICATION_XLSX_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_TEXT_CSV_VALUE)
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<StreamingResponseBody> exportPageStreaming(
+            HttpServletRequest request
+    );
+
+
 
     @Operation(summary = "Buscar uma credencial pelo id",
             description = "Endpoint para retornar uma credencial especifica filtrada pelo id",
@@ -139,12 +185,13 @@ public interface CredencialControllerDocs {
                             @Content(schema = @Schema(implementation = CredencialDTO.class))
                     ),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    CredencialDTO findById(@PathVariable("id") long id);
+    ResponseEntity<CredencialDTO> findById(@PathVariable("id") long id);
 
     @Operation(summary = "Cadastrar uma nova credencial",
             description = "Endpoint para cadastrar uma nova credencial",
@@ -176,9 +223,12 @@ public interface CredencialControllerDocs {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    CredencialDTO update(@RequestBody CredencialDTO credencial);
+    ResponseEntity<CredencialDTO> update(@RequestBody CredencialDTO credencial,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @Operation(summary = "Apagar uma credencial",
             description = "Endpoint para apagar uma credencial especifica filtrada pelo id",
@@ -1,6 +1,7 @@
 package com.example.projetoRestSpringBoot.controller.docs;
 
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.model.Curso;
@@ -12,13 +13,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.io.Resource;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -50,6 +55,29 @@ public interface CursoControllerDocs {
             @RequestParam(value = "direction", defaultValue = "asc") String direction
     );
 
+    @Operation(summary = "Buscar todos os cursos por cursor",
+            description = "Endpoint para percorrer todos os cursos ordenados por nome, sem total de páginas. " +
+                    "A resposta traz o link next com o cursor da próxima página enquanto houver registros",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = CursoDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<CollectionModel<EntityModel<CursoDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
     @Operation(summary = "Buscar cursos por nome",
             description = "Endpoint para retornar uma lista paginada com HATEOAS, de cursos filtrados pelo nome",
             responses = {
@@ -88,12 +116,13 @@ public interface CursoControllerDocs {
                             @Content(schema = @Schema(implementation = CursoDTO.class))
                     ),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    CursoDTO findById(@PathVariable("id") long id);
+    ResponseEntity<CursoDTO> findById(@PathVariable("id") long id);
 
     @Operation(summary = "Cadastrar um novo curso",
             description = "Endpoint para cadastrar um novo curso",
@@ -125,9 +154,12 @@ public interface CursoControllerDocs {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    CursoDTO update(@RequestBody CursoDTO curso);
+    ResponseEntity<CursoDTO> update(@RequestBody CursoDTO curso,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @Operation(summary = "Apagar um curso",
             description = "Endpoint para apagar um curso especifico filtrado pelo id",
@@ -147,24 +179,43 @@ public interface CursoControllerDocs {
     ResponseEntity<?> delete(@PathVariable("id") long id);
 
     @Operation(summary = "Criar vários cursos por meio de upload de arquivo",
-            description = "Endpoint para criar vários cursos por meio de upload de arquivo em formatos CSV ou XLSX",
+            description = "Recebe um arquivo CSV ou XLSX e agenda a importação em segundo plano. " +
+                    "Retorna o id do job; o andamento é consultado em /importar/{jobId}",
+            responses = {
+                    @ApiResponse(
+                            description = "Accepted",
+                            responseCode = "202",
+                            content = {
+                                    @Content(
+                                            schema = @Schema(implementation = ImportacaoJobDTO.class)
+                                    )
+
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+                    @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content),
+            })
+    ResponseEntity<ImportacaoJobDTO> importarCursos(MultipartFile file);
+
+    @Operation(summary = "Consultar importação de cursos",
+            description = "Retorna o status do job de importação: linhas processadas, importadas, rejeitadas e linhas por segundo. " +
+                    "Quando o job termina, inclui o relatório com as linhas rejeitadas",
             responses = {
                     @ApiResponse(
                             description = "Success",
                             responseCode = "200",
                             content = {
                                     @Content(
-                                            schema = @Schema(implementation = CursoDTO.class)
+                                            schema = @Schema(implementation = ImportacaoJobDTO.class)
                                     )
 
                             }),
-                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
-                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    List<CursoDTO> importarCursos(MultipartFile file);
+    ImportacaoJobDTO consultarImportacao(String jobId);
 
     @Operation(summary = "Exportar cursos",
             description = "Endpoint para exportar o banco de cursos em arquivos nos formatos CSV ou XLSX",
@@ -188,4 +239,23 @@ public interface CursoControllerDocs {
 
     );
 
+
+    @Operation(summary = "Exportar cursos em streaming",
+            description = "Endpoint para exportar o banco de cursos em CSV ou XLSX, escrevendo as linhas direto na resposta sem carregar a tabela inteira em memória",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaTypes.APPLICATION_XLSX_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_TEXT_CSV_VALUE)
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<StreamingResponseBody> exportPageStreaming(
+            HttpServletRequest request
+    );
+
 }
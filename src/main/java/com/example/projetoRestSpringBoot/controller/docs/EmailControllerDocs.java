@@ -1,9 +1,8 @@
 package com.example.projetoRestSpringBoot.controller.docs;
 
+import com.example.projetoRestSpringBoot.dto.EmailStatusDTO;
 import com.example.projetoRestSpringBoot.dto.request.EmailRequestDTO;
-import com.example.projetoRestSpringBoot.dto.security.TokenDTO;
 import io.swagger.v3.oas.annotations.Operation;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,30 +12,50 @@ import org.springframework.web.multipart.MultipartFile;
 
 public interface EmailControllerDocs {
     @Operation(summary = "Enviar e-mail",
-            description = "Endpoint para o envio de e-mails simples",
+            description = "Coloca o e-mail na fila de envio e retorna o id para acompanhar o status",
             tags = {"e-Mail"},
             responses = {
                     @ApiResponse(
-                            description = "Success",
-                            responseCode = "200",
+                            description = "Accepted",
+                            responseCode = "202",
                             content = {
                                     @Content(
                                             mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                            array = @ArraySchema(schema = @Schema(implementation = EmailRequestDTO.class))
+                                            schema = @Schema(implementation = EmailStatusDTO.class)
                                     )
 
                             }),
-                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
-                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
 
-    ResponseEntity<String> sendEmail(EmailRequestDTO emailRequestDTO);
+    ResponseEntity<EmailStatusDTO> sendEmail(EmailRequestDTO emailRequestDTO);
 
     @Operation(summary = "Enviar e-mail com anexo",
-            description = "Endpoint para o envio de e-mails com anexo",
+            description = "Coloca o e-mail com anexo na fila de envio e retorna o id para acompanhar o status",
+            tags = {"e-Mail"},
+            responses = {
+                    @ApiResponse(
+                            description = "Accepted",
+                            responseCode = "202",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            schema = @Schema(implementation = EmailStatusDTO.class)
+                                    )
+
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+
+    ResponseEntity<EmailStatusDTO> sendEmailWithAttachment(String emailRequestJson, MultipartFile multipartFile);
+
+    @Operation(summary = "Consultar e-mail",
+            description = "Retorna o status do envio: pendente, enviando, enviado ou falhou, com o número de tentativas " +
+                    "e o último erro",
             tags = {"e-Mail"},
             responses = {
                     @ApiResponse(
@@ -44,17 +63,14 @@ public interface EmailControllerDocs {
                             responseCode = "200",
                             content = {
                                     @Content(
-                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
-                                            array = @ArraySchema(schema = @Schema(implementation = EmailRequestDTO.class))
+                                            schema = @Schema(implementation = EmailStatusDTO.class)
                                     )
 
                             }),
-                    @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-
-    ResponseEntity<String> sendEmailWithAttachment(String emailRequestJson, MultipartFile multipartFile);
+    EmailStatusDTO consultar(Long id);
 }
@@ -3,7 +3,9 @@ package com.example.projetoRestSpringBoot.controller.docs;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.dto.IntervaloDataDTO;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.dto.request.RelatorioLoteRequestDTO;
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.model.Treinamento;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
@@ -13,13 +15,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.core.io.Resource;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -50,6 +56,29 @@ public interface TreinamentoControllerDocs {
             @RequestParam(value = "direction", defaultValue = "asc") String direction
     );
 
+    @Operation(summary = "Buscar todos os treinamentos por cursor",
+            description = "Endpoint para percorrer todos os treinamentos ordenados por data de vencimento, sem total de páginas. " +
+                    "A resposta traz o link next com o cursor da próxima página enquanto houver registros",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(
+                                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                                            array = @ArraySchema(schema = @Schema(implementation = TreinamentoDTO.class))
+                                    )
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<CollectionModel<EntityModel<TreinamentoDTO>>> findAllCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "12") int size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction
+    );
+
 
     @Operation(summary = "Exportar treinamentos",
             description = "Endpoint para exportar o banco de treinamentos em arquivos nos formatos CSV ou XLSX",
@@ -75,6 +104,25 @@ public interface TreinamentoControllerDocs {
     );
 
 
+    @Operation(summary = "Exportar treinamentos em streaming",
+            description = "Endpoint para exportar o banco de treinamentos em CSV ou XLSX, escrevendo as linhas direto na resposta sem carregar a tabela inteira em memória",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaTypes.APPLICATION_XLSX_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_TEXT_CSV_VALUE)
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<StreamingResponseBody> exportPageStreaming(
+            HttpServletRequest request
+    );
+
+
 
 
     @Operation(summary = "Buscar um treinamento pelo id",
@@ -87,12 +135,13 @@ public interface TreinamentoControllerDocs {
                             @Content(schema = @Schema(implementation = TreinamentoDTO.class))
                     ),
                     @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+                    @ApiResponse(description = "Not Modified", responseCode = "304", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    TreinamentoDTO findById(@PathVariable("id") long id);
+    ResponseEntity<TreinamentoDTO> findById(@PathVariable("id") long id);
 
     @Operation(summary = "Cadastrar um novo treinamento",
             description = "Endpoint para cadastrar um novo treinamento",
@@ -124,9 +173,12 @@ public interface TreinamentoControllerDocs {
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
                     @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Conflict", responseCode = "409", content = @Content),
+                    @ApiResponse(description = "Precondition Failed", responseCode = "412", content = @Content),
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
-    TreinamentoDTO update(@RequestBody TreinamentoDTO treinamento);
+    ResponseEntity<TreinamentoDTO> update(@RequestBody TreinamentoDTO treinamento,
+                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch);
 
     @Operation(summary = "Apagar um treinamento",
             description = "Endpoint para apagar um treinamento especifico filtrado pelo id",
@@ -261,4 +313,24 @@ public interface TreinamentoControllerDocs {
                     @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
             })
     ResponseEntity<Resource> exportarPorId(@PathVariable("id") long id);
+
+    @Operation(summary = "Exportar relatórios de treinamento em lote",
+            description = "Endpoint para gerar os relatórios PDF de vários funcionários, informando a lista de ids ou o departamento. Retorna um ZIP com um PDF por funcionário ou um único PDF mesclado, conforme o header Accept",
+            responses = {
+                    @ApiResponse(
+                            description = "Success",
+                            responseCode = "200",
+                            content = {
+                                    @Content(mediaType = MediaTypes.APPLICATION_ZIP_VALUE),
+                                    @Content(mediaType = MediaTypes.APPLICATION_PDF_VALUE)
+                            }),
+                    @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+                    @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+                    @ApiResponse(description = "Internal error", responseCode = "500", content = @Content),
+            })
+    ResponseEntity<StreamingResponseBody> exportarLote(
+            RelatorioLoteRequestDTO lote,
+            HttpServletRequest request
+    );
 }
@@ -0,0 +1,23 @@
+package com.example.projetoRestSpringBoot.dto;
+
+import com.example.projetoRestSpringBoot.enums.EmailStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmailStatusDTO {
+    private Long id;
+    private EmailStatus status;
+    private String destinatarios;
+    private String assunto;
+    private String anexo;
+    private int tentativas;
+    private Instant criadoEm;
+    // Só enquanto houver nova tentativa agendada
+    private Instant proximaTentativa;
+    private Instant enviadoEm;
+    private String ultimoErro;
+}
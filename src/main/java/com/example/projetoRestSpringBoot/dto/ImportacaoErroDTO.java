@@ -0,0 +1,13 @@
+package com.example.projetoRestSpringBoot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportacaoErroDTO {
+    private int linha;
+    private String mensagem;
+}
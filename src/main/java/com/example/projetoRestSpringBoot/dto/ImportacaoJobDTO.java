@@ -0,0 +1,27 @@
+package com.example.projetoRestSpringBoot.dto;
+
+import com.example.projetoRestSpringBoot.enums.ImportacaoStatus;
+import com.example.projetoRestSpringBoot.enums.ImportacaoTipo;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportacaoJobDTO {
+    private String id;
+    private ImportacaoTipo tipo;
+    private String arquivo;
+    private ImportacaoStatus status;
+    private Instant criadoEm;
+    private Instant iniciadoEm;
+    private Instant finalizadoEm;
+    private int linhasProcessadas;
+    private int importados;
+    private int rejeitados;
+    private double linhasPorSegundo;
+    private String mensagem;
+    // Preenchido quando o job termina
+    private ImportacaoResultadoDTO resultado;
+}
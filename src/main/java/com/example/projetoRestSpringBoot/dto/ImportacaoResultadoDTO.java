@@ -0,0 +1,16 @@
+package com.example.projetoRestSpringBoot.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportacaoResultadoDTO {
+    private String arquivo;
+    private int totalLinhas;
+    private int importados;
+    private int rejeitados;
+    // Limitado para arquivos muito ruins não gerarem uma resposta gigante; rejeitados tem o total
+    private List<ImportacaoErroDTO> erros = new ArrayList<>();
+}
@@ -0,0 +1,21 @@
+package com.example.projetoRestSpringBoot.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class PerfilSqlEndpointDTO {
+    // Método HTTP e padrão da rota, ex.: "GET /api/treinamento/v1"
+    private String endpoint;
+    private long requisicoes;
+    private double statementsMedia;
+    private int statementsMax;
+    private double tempoSqlMedioMs;
+    private double tempoSqlMaxMs;
+    private long requisicoesComNMaisUm;
+    // SQL -> maior número de execuções numa mesma requisição
+    private Map<String, Integer> suspeitasNMaisUm;
+}
@@ -0,0 +1,11 @@
+package com.example.projetoRestSpringBoot.dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class RelatorioLoteRequestDTO {
+    private List<Long> funcionarioIds;
+    private String departamento;
+}
@@ -0,0 +1,8 @@
+package com.example.projetoRestSpringBoot.enums;
+
+public enum EmailStatus {
+    PENDENTE,
+    ENVIANDO,
+    ENVIADO,
+    FALHOU
+}
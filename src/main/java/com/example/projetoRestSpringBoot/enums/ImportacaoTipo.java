@@ -0,0 +1,6 @@
+package com.example.projetoRestSpringBoot.enums;
+
+public enum ImportacaoTipo {
+    FUNCIONARIO,
+    CURSO
+}
@@ -69,6 +69,27 @@ public class CustomEntityResponseHandler {
                 e.getMessage(), webRequest);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public final ResponseEntity<ExceptionResponse> handleServiceUnavailable(
+            ServiceUnavailableException e, WebRequest webRequest) {
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                e.getMessage(), webRequest);
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public final ResponseEntity<ExceptionResponse> handlePreconditionFailed(
+            PreconditionFailedException e, WebRequest webRequest) {
+        return buildErrorResponse(HttpStatus.PRECONDITION_FAILED, "Precondition Failed",
+                e.getMessage(), webRequest);
+    }
+
+    @ExceptionHandler(org.springframework.orm.ObjectOptimisticLockingFailureException.class)
+    public final ResponseEntity<ExceptionResponse> handleOptimisticLockingFailure(
+            org.springframework.orm.ObjectOptimisticLockingFailureException e, WebRequest webRequest) {
+        return buildErrorResponse(HttpStatus.CONFLICT, "Conflict",
+                "Registro alterado por outra requisição; recarregue e tente novamente", webRequest);
+    }
+
     @ExceptionHandler(MaxUploadSizeExceededException.class)
     public final ResponseEntity<ExceptionResponse> handleMaxUploadSizeExceeded(
             MaxUploadSizeExceededException e, WebRequest webRequest) {
@@ -4,4 +4,5 @@ public interface MediaTypes {
     String APPLICATION_XLSX_VALUE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
     String APPLICATION_TEXT_CSV_VALUE= "text/csv";
     String APPLICATION_PDF_VALUE= "application/pdf";
+    String APPLICATION_ZIP_VALUE= "application/zip";
 }
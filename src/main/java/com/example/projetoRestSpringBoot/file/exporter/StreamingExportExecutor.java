@@ -0,0 +1,62 @@
+package com.example.projetoRestSpringBoot.file.exporter;
+
+import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+@Component
+public class StreamingExportExecutor {
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(StreamingExportExecutor.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @FunctionalInterface
+    public interface StreamWriter<D> {
+        void write(Stream<D> rows, OutputStream outputStream) throws Exception;
+    }
+
+    public <E, D> StreamingResponseBody stream(Supplier<Stream<E>> source, Function<E, D> mapper, StreamWriter<D> writer) {
+        return outputStream -> {
+            // O cursor do banco só fica aberto enquanto a transação estiver ativa
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                long[] rows = {0};
+                try (Stream<E> entities = source.get()) {
+                    Stream<D> dtos = entities.map(entity -> {
+                        D dto = mapper.apply(entity);
+                        // Descarta as entidades já escritas para o heap não crescer com o tamanho da tabela
+                        if (++rows[0] % CLEAR_INTERVAL == 0) {
+                            entityManager.clear();
+                        }
+                        return dto;
+                    });
+                    writer.write(dtos, outputStream);
+                    logger.info("Exportação em streaming finalizada: {} registros", rows[0]);
+                } catch (Exception e) {
+                    logger.error("Erro ao exportar em streaming após {} registros: {}", rows[0], e.getMessage(), e);
+                    throw new FileStorageException("Erro ao exportar o arquivo: " + e.getMessage(), e);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.projetoRestSpringBoot.file.exporter.contract;
+
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+// Escreve cada linha direto no OutputStream, sem montar o arquivo inteiro em memória
+public interface StreamingFileExporter {
+    void exportarFuncionarios(Stream<FuncionarioDTO> funcionarios, OutputStream outputStream) throws Exception;
+    void exportarCredenciais(Stream<CredencialDTO> credenciais, OutputStream outputStream) throws Exception;
+    void exportTreinamentos(Stream<TreinamentoDTO> treinamentos, OutputStream outputStream) throws Exception;
+    void exportCursos(Stream<CursoDTO> cursos, OutputStream outputStream) throws Exception;
+}
@@ -2,12 +2,15 @@ package com.example.projetoRestSpringBoot.file.exporter.factory;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
 import com.example.projetoRestSpringBoot.file.exporter.impl.CsvExporter;
 import com.example.projetoRestSpringBoot.file.exporter.impl.PdfExporter;
 import com.example.projetoRestSpringBoot.file.exporter.impl.XlsxExporter;
-import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
-import com.example.projetoRestSpringBoot.file.importer.impl.CsvImporter;
-import com.example.projetoRestSpringBoot.file.importer.impl.XlsxImporter;
+import com.example.projetoRestSpringBoot.file.exporter.metrics.ExportacaoMetricas;
+import com.example.projetoRestSpringBoot.file.exporter.metrics.FileExporterMedido;
+import com.example.projetoRestSpringBoot.file.exporter.metrics.StreamingFileExporterMedido;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,17 +23,36 @@ public class FileExporterFactory {
     @Autowired
     private ApplicationContext context;
 
+    // Sem registry no contexto (testes de fatia), as métricas vão para o registry global, que as descarta
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
     public FileExporter getExporter(String acceptHeader) throws Exception {
         if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_XLSX_VALUE))
         {
-            return context.getBean(XlsxExporter.class);
+            return medido(context.getBean(XlsxExporter.class), "xlsx");
         } else if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_TEXT_CSV_VALUE)) {
-            return context.getBean(CsvExporter.class);
+            return medido(context.getBean(CsvExporter.class), "csv");
         } else if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_PDF_VALUE)) {
-            return context.getBean(PdfExporter.class);
+            return medido(context.getBean(PdfExporter.class), "pdf");
         }
         else{
             throw new BadRequestException("Formato de arquivo nao suportado!");
         }
     }
-}
\ No newline at end of file
+
+    public StreamingFileExporter getStreamingExporter(String acceptHeader) throws Exception {
+        if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_XLSX_VALUE)) {
+            return new StreamingFileExporterMedido(context.getBean(XlsxExporter.class), new ExportacaoMetricas(meterRegistry, "xlsx"));
+        } else if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_TEXT_CSV_VALUE)) {
+            return new StreamingFileExporterMedido(context.getBean(CsvExporter.class), new ExportacaoMetricas(meterRegistry, "csv"));
+        }
+        else{
+            throw new BadRequestException("Formato de arquivo nao suportado para exportação em streaming!");
+        }
+    }
+
+    private FileExporter medido(FileExporter exporter, String formato) {
+        return new FileExporterMedido(exporter, new ExportacaoMetricas(meterRegistry, formato));
+    }
+}
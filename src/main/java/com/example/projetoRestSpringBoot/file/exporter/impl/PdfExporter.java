@@ -4,14 +4,25 @@ import com.example.projetoRestSpringBoot.dto.CredencialDTO;
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.config.ReportConfig;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.exception.FileStorageException;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.report.ReportTemplateRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
-import net.sf.jasperreports.engine.util.JRLoader;
+import net.sf.jasperreports.engine.fill.JRSwapFileVirtualizer;
+import net.sf.jasperreports.engine.util.JRSwapFile;
+import net.sf.jasperreports.export.SimpleExporterInput;
+import net.sf.jasperreports.export.SimpleOutputStreamExporterOutput;
+import net.sf.jasperreports.pdf.JRPdfExporter;
+import net.sf.jasperreports.pdf.SimplePdfExporterConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
@@ -20,19 +31,65 @@ import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
-import java.io.InputStream;
+import java.io.OutputStream;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 @Component
 public class PdfExporter implements FileExporter {
+    private final Logger logger = LoggerFactory.getLogger(PdfExporter.class);
+
     @Autowired
     private javax.sql.DataSource dataSource;
 
+    @Autowired
+    private ReportTemplateRegistry templateRegistry;
+
+    @Autowired
+    private ReportConfig reportConfig;
+
+    private static final int PAGINAS_EM_MEMORIA = 50;
+
+    private ExecutorService loteExecutor;
+
+    private record RelatorioPendente(long funcionarioId, Future<JasperPrint> print) {
+    }
+
+    @PostConstruct
+    public void iniciarExecutor() {
+        int threads = Math.max(1, reportConfig.getBatchThreads());
+        AtomicInteger contador = new AtomicInteger();
+        // Pool próprio e limitado: cada preenchimento segura uma conexão do banco enquanto roda
+        loteExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(threads * 4),
+                runnable -> new Thread(runnable, "relatorio-lote-" + contador.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void encerrarExecutor() {
+        if (loteExecutor != null) {
+            loteExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public Resource exportTreinamentoPorId(TreinamentoDTO treinamento, long funcionarioId) throws Exception {
         // Validações iniciais
@@ -61,19 +118,11 @@ public class PdfExporter implements FileExporter {
                 throw new ResourceNotFoundException("Treinamento não encontrado para este funcionário");
             }
 
-            InputStream inputStream = this.getClass().getResourceAsStream("/templates/treinamento_report.jasper");
-
-            if (inputStream == null) {
-                throw new FileStorageException("Template do relatório não encontrado");
-            }
-
-            JasperReport jasperReport = (JasperReport) JRLoader.loadObject(inputStream);
-
             Map<String, Object> parameters = new HashMap<>();
             parameters.put("ID_FUNCIONARIO", funcionarioId);
 
-            JasperPrint jasperPrint = JasperFillManager.fillReport(
-                    jasperReport,
+            JasperPrint jasperPrint = templateRegistry.fill(
+                    ReportTemplateRegistry.TREINAMENTO_REPORT,
                     parameters,
                     connection
             );
@@ -100,6 +149,81 @@ public class PdfExporter implements FileExporter {
         }
     }
 
+    // Os ids já devem vir validados pelo serviço; aqui só preenche e grava na ordem recebida
+    public void exportarLote(List<Long> funcionarioIds, boolean mesclar, OutputStream outputStream) throws Exception {
+        if (funcionarioIds == null || funcionarioIds.isEmpty()) {
+            throw new BadRequestException("Lista de funcionários não pode ser vazia");
+        }
+
+        int maxPendentes = Math.max(1, reportConfig.getBatchThreads()) * 2;
+        Deque<RelatorioPendente> pendentes = new ArrayDeque<>();
+        Iterator<Long> ids = funcionarioIds.iterator();
+        List<JasperPrint> prints = new ArrayList<>();
+        ZipOutputStream zip = mesclar ? null : new ZipOutputStream(outputStream);
+        // O PDF mesclado só é gravado no fim; as páginas vão para um arquivo de troca em vez de ficarem todas no heap
+        JRSwapFileVirtualizer virtualizer = mesclar ? new JRSwapFileVirtualizer(PAGINAS_EM_MEMORIA,
+                new JRSwapFile(System.getProperty("java.io.tmpdir"), 4096, 64), true) : null;
+
+        try {
+            while (ids.hasNext() || !pendentes.isEmpty()) {
+                // Janela limitada de relatórios em preenchimento para não acumular tudo em memória
+                while (ids.hasNext() && pendentes.size() < maxPendentes) {
+                    long funcionarioId = ids.next();
+                    pendentes.add(new RelatorioPendente(funcionarioId,
+                            loteExecutor.submit(() -> preencher(funcionarioId, virtualizer))));
+                }
+
+                RelatorioPendente proximo = pendentes.poll();
+                JasperPrint print = proximo.print().get();
+                if (mesclar) {
+                    prints.add(print);
+                } else {
+                    zip.putNextEntry(new ZipEntry("treinamentos_funcionario_" + proximo.funcionarioId() + ".pdf"));
+                    JasperExportManager.exportReportToPdfStream(print, zip);
+                    zip.closeEntry();
+                }
+            }
+
+            if (mesclar) {
+                virtualizer.setReadOnly(true);
+                JRPdfExporter exporter = new JRPdfExporter();
+                SimplePdfExporterConfiguration configuration = new SimplePdfExporterConfiguration();
+                configuration.setCreatingBatchModeBookmarks(true);
+                exporter.setConfiguration(configuration);
+                exporter.setExporterInput(SimpleExporterInput.getInstance(prints));
+                exporter.setExporterOutput(new SimpleOutputStreamExporterOutput(outputStream));
+                exporter.exportReport();
+            } else {
+                zip.finish();
+            }
+            outputStream.flush();
+            logger.info("Lote de {} relatórios exportado", funcionarioIds.size());
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() != null ? e.getCause() : e;
+            throw new FileStorageException("Erro ao gerar relatório do lote: " + causa.getMessage(), causa);
+        } catch (JRException e) {
+            throw new FileStorageException("Erro ao gerar relatório JasperReports: " + e.getMessage(), e);
+        } finally {
+            for (RelatorioPendente pendente : pendentes) {
+                pendente.print().cancel(true);
+            }
+            if (virtualizer != null) {
+                virtualizer.cleanup();
+            }
+        }
+    }
+
+    private JasperPrint preencher(long funcionarioId, JRVirtualizer virtualizer) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("ID_FUNCIONARIO", funcionarioId);
+            if (virtualizer != null) {
+                parameters.put(JRParameter.REPORT_VIRTUALIZER, virtualizer);
+            }
+            return templateRegistry.fill(ReportTemplateRegistry.TREINAMENTO_REPORT, parameters, connection);
+        }
+    }
+
     private boolean funcionarioExists(Connection connection, long funcionarioId) throws Exception {
         String sql = "SELECT 1 FROM projeto_rest_spring_boot.funcionario WHERE id = ?";
         try (PreparedStatement stmt = connection.prepareStatement(sql)) {
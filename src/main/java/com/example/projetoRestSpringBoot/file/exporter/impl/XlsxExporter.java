@@ -5,155 +5,179 @@ import com.example.projetoRestSpringBoot.dto.CursoDTO;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
-import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Component
-public class XlsxExporter implements FileExporter {
+public class XlsxExporter implements FileExporter, StreamingFileExporter {
+
+    // Quantidade de linhas mantidas em memória; as anteriores vão para o arquivo temporário do SXSSF
+    private static final int ROW_WINDOW = 100;
+    // Linhas usadas para estimar a largura das colunas no lugar do autoSizeColumn
+    private static final int WIDTH_SAMPLE_ROWS = 200;
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    private static final String[] FUNCIONARIO_HEADERS = {"Id", "nome", "matricula", "cargo", "departamento", "dataAdmissao", "situacao", "tipoContrato", "email", "telefone"};
+    private static final String[] CREDENCIAL_HEADERS = {"id", "tipo", "funcionarioId", "funcionarioNome", "funcionarioMatricula", "dataEmissao", "dataVencimento", "status"};
+    private static final String[] TREINAMENTO_HEADERS = {"id", "funcionarioId", "funcionarioNome", "funcionarioMatricula", "cursoId", "cursoNome", "dataAgendamento", "dataConcluido", "dataVencimento", "instrutor", "status"};
+    private static final String[] CURSO_HEADERS = {"id","nome","descricao","cargaHoraria","validadeMeses","origemCurso","tipoObrigatoriedade"};
+
     @Override
     public Resource exportarFuncionarios(List<FuncionarioDTO> funcionarios) throws Exception {
-        try(Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("funcionarios");
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"Id", "nome", "matricula", "cargo", "departamento", "dataAdmissao", "situacao", "tipoContrato", "email", "telefone"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
-            }
-            int rowIdx = 1;
-            for (FuncionarioDTO funcionario : funcionarios) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(funcionario.getId());
-                row.createCell(1).setCellValue(funcionario.getNome());
-                row.createCell(2).setCellValue(funcionario.getMatricula());
-                row.createCell(3).setCellValue(funcionario.getCargo());
-                row.createCell(4).setCellValue(funcionario.getDepartamento());
-                row.createCell(5).setCellValue(funcionario.getDataAdmissao().toString());
-                row.createCell(6).setCellValue(funcionario.getSituacao().toString());
-                row.createCell(7).setCellValue(funcionario.getTipoContrato().toString());
-                row.createCell(8).setCellValue(funcionario.getEmail());
-                row.createCell(9).setCellValue(funcionario.getTelefone());
-            }
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayResource(out.toByteArray());
-        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportarFuncionarios(funcionarios.stream(), out);
+        return new ByteArrayResource(out.toByteArray());
     }
 
     @Override
     public Resource exportarCredenciais(List<CredencialDTO> credenciais) throws Exception {
-        try(Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("credenciais");
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"id", "tipo", "funcionarioId", "funcionarioNome", "funcionarioMatricula", "dataEmissao", "dataVencimento", "status"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
-            }
-            int rowIdx = 1;
-            for (CredencialDTO credencial : credenciais) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(credencial.getId());
-                row.createCell(1).setCellValue(credencial.getTipo().toString());
-                row.createCell(2).setCellValue(credencial.getFuncionarioId());
-                row.createCell(3).setCellValue(credencial.getFuncionarioNome());
-                row.createCell(4).setCellValue(credencial.getFuncionarioMatricula());
-                row.createCell(5).setCellValue(credencial.getDataEmissao().toString());
-                row.createCell(6).setCellValue(credencial.getDataVencimento().toString());
-                row.createCell(7).setCellValue(credencial.getStatus().toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportarCredenciais(credenciais.stream(), out);
+        return new ByteArrayResource(out.toByteArray());
+    }
 
-            }
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayResource(out.toByteArray());
-        }
+    @Override
+    public Resource exportTreinamentos(List<TreinamentoDTO> treinamentos) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportTreinamentos(treinamentos.stream(), out);
+        return new ByteArrayResource(out.toByteArray());
     }
 
+    @Override
+    public Resource exportCursos(List<CursoDTO> cursos) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportCursos(cursos.stream(), out);
+        return new ByteArrayResource(out.toByteArray());
+    }
 
+    @Override
+    public void exportarFuncionarios(Stream<FuncionarioDTO> funcionarios, OutputStream outputStream) throws Exception {
+        writeSheet("funcionarios", FUNCIONARIO_HEADERS, funcionarios, funcionario -> new Object[]{
+                funcionario.getId(),
+                funcionario.getNome(),
+                funcionario.getMatricula(),
+                funcionario.getCargo(),
+                funcionario.getDepartamento(),
+                funcionario.getDataAdmissao(),
+                funcionario.getSituacao(),
+                funcionario.getTipoContrato(),
+                funcionario.getEmail(),
+                funcionario.getTelefone()
+        }, outputStream);
+    }
 
     @Override
-    public Resource exportTreinamentos(List<TreinamentoDTO> treinamentos) throws Exception {
-        try(Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("treinamentos");
-            Row headerRow = sheet.createRow(0);
-            String[] headers = {"id", "funcionarioId", "funcionarioNome", "funcionarioMatricula", "cursoId", "cursoNome", "dataAgendamento", "dataConcluido", "dataVencimento", "instrutor", "status"};
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
-            }
-            int rowIdx = 1;
-            for (TreinamentoDTO treinamento : treinamentos) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(treinamento.getId());
-                row.createCell(1).setCellValue(treinamento.getFuncionarioId());
-                row.createCell(2).setCellValue(treinamento.getFuncionarioNome());
-                row.createCell(3).setCellValue(treinamento.getFuncionarioMatricula());
-                row.createCell(4).setCellValue(treinamento.getCursoId());
-                row.createCell(5).setCellValue(treinamento.getCursoNome());
-                row.createCell(6).setCellValue(treinamento.getDataAgendamento().toString());
-                row.createCell(7).setCellValue(treinamento.getDataConcluido() != null ? treinamento.getDataConcluido().toString() : "");
-                row.createCell(8).setCellValue(treinamento.getDataVencimento().toString());
-                row.createCell(9).setCellValue(treinamento.getInstrutor());
-                row.createCell(10).setCellValue(treinamento.getStatus().toString());
-            }
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayResource(out.toByteArray());
-        }
+    public void exportarCredenciais(Stream<CredencialDTO> credenciais, OutputStream outputStream) throws Exception {
+        writeSheet("credenciais", CREDENCIAL_HEADERS, credenciais, credencial -> new Object[]{
+                credencial.getId(),
+                credencial.getTipo(),
+                credencial.getFuncionarioId(),
+                credencial.getFuncionarioNome(),
+                credencial.getFuncionarioMatricula(),
+                credencial.getDataEmissao(),
+                credencial.getDataVencimento(),
+                credencial.getStatus()
+        }, outputStream);
     }
 
     @Override
-    public Resource exportCursos(List<CursoDTO> cursos) throws Exception {
-        try(Workbook workbook = new XSSFWorkbook()) {
-            Sheet sheet = workbook.createSheet("cursos");
+    public void exportTreinamentos(Stream<TreinamentoDTO> treinamentos, OutputStream outputStream) throws Exception {
+        writeSheet("treinamentos", TREINAMENTO_HEADERS, treinamentos, treinamento -> new Object[]{
+                treinamento.getId(),
+                treinamento.getFuncionarioId(),
+                treinamento.getFuncionarioNome(),
+                treinamento.getFuncionarioMatricula(),
+                treinamento.getCursoId(),
+                treinamento.getCursoNome(),
+                treinamento.getDataAgendamento(),
+                treinamento.getDataConcluido(),
+                treinamento.getDataVencimento(),
+                treinamento.getInstrutor(),
+                treinamento.getStatus()
+        }, outputStream);
+    }
+
+    @Override
+    public void exportCursos(Stream<CursoDTO> cursos, OutputStream outputStream) throws Exception {
+        writeSheet("cursos", CURSO_HEADERS, cursos, curso -> new Object[]{
+                curso.getId(),
+                curso.getNome(),
+                curso.getDescricao(),
+                curso.getCargaHoraria(),
+                curso.getValidadeMeses(),
+                curso.getOrigemCurso(),
+                curso.getTipoObrigatoriedade()
+        }, outputStream);
+    }
+
+    @Override
+    public Resource exportTreinamentoPorId(TreinamentoDTO treinamento, long funcionarioId) throws Exception {
+        return null;
+    }
+
+    private <T> void writeSheet(String sheetName, String[] headers, Stream<T> rows,
+                                Function<T, Object[]> rowValues, OutputStream outputStream) throws Exception {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet(sheetName);
+            CellStyle headerStyle = createHeaderCellStyle(workbook);
+            int[] columnChars = new int[headers.length];
+
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"id","nome","descricao","cargaHoraria","validadeMeses","origemCurso","tipoObrigatoriedade"};
             for (int i = 0; i < headers.length; i++) {
                 Cell cell = headerRow.createCell(i);
                 cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
+                cell.setCellStyle(headerStyle);
+                columnChars[i] = headers[i].length();
             }
+
             int rowIdx = 1;
-            for (CursoDTO curso : cursos) {
-                Row row = sheet.createRow(rowIdx++);
-                row.createCell(0).setCellValue(curso.getId());
-                row.createCell(1).setCellValue(curso.getNome());
-                row.createCell(2).setCellValue(curso.getDescricao());
-                row.createCell(3).setCellValue(curso.getCargaHoraria());
-                row.createCell(4).setCellValue(curso.getValidadeMeses());
-                row.createCell(5).setCellValue(curso.getOrigemCurso().toString());
-                row.createCell(6).setCellValue(curso.getTipoObrigatoriedade().toString());
+            for (Iterator<T> it = rows.iterator(); it.hasNext(); ) {
+                Object[] values = rowValues.apply(it.next());
+                Row row = sheet.createRow(rowIdx);
+                for (int i = 0; i < values.length; i++) {
+                    String text = setCellValue(row.createCell(i), values[i]);
+                    if (rowIdx <= WIDTH_SAMPLE_ROWS) {
+                        columnChars[i] = Math.max(columnChars[i], text.length());
+                    }
+                }
+                rowIdx++;
             }
+
             for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+                sheet.setColumnWidth(i, (Math.min(columnChars[i], MAX_COLUMN_CHARS) + 2) * 256);
             }
-            ByteArrayOutputStream out = new ByteArrayOutputStream();
-            workbook.write(out);
-            return new ByteArrayResource(out.toByteArray());
+            workbook.write(outputStream);
+            outputStream.flush();
+        } finally {
+            workbook.close();
+            workbook.dispose();
         }
     }
 
-    @Override
-    public Resource exportTreinamentoPorId(TreinamentoDTO treinamento, long funcionarioId) throws Exception {
-        return null;
+    private String setCellValue(Cell cell, Object value) {
+        if (value == null) {
+            cell.setCellValue("");
+            return "";
+        }
+        if (value instanceof Number number) {
+            cell.setCellValue(number.doubleValue());
+        } else {
+            cell.setCellValue(value.toString());
+        }
+        return value.toString();
     }
 
     private CellStyle createHeaderCellStyle(Workbook workbook) {
@@ -164,4 +188,4 @@ public class XlsxExporter implements FileExporter {
         style.setAlignment(HorizontalAlignment.CENTER);
         return style;
     }
-}
\ No newline at end of file
+}
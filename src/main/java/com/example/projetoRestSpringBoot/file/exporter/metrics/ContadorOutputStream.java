@@ -0,0 +1,31 @@
+package com.example.projetoRestSpringBoot.file.exporter.metrics;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Repassa tudo ao stream original contando os bytes escritos
+class ContadorOutputStream extends FilterOutputStream {
+
+    private long bytes;
+
+    ContadorOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        bytes++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        bytes += len;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+}
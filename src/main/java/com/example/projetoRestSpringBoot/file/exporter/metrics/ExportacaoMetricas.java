@@ -0,0 +1,36 @@
+package com.example.projetoRestSpringBoot.file.exporter.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+// exportacao.linhas, exportacao.bytes e exportacao.duracao por formato, tipo e modo (arquivo ou streaming)
+public class ExportacaoMetricas {
+
+    private final MeterRegistry registry;
+    private final String formato;
+
+    public ExportacaoMetricas(MeterRegistry registry, String formato) {
+        this.registry = registry;
+        this.formato = formato;
+    }
+
+    void registrar(String tipo, String modo, long linhas, long bytes, long inicioNanos, boolean sucesso) {
+        String resultado = sucesso ? "sucesso" : "erro";
+        registry.counter("exportacao.linhas", "formato", formato, "tipo", tipo, "modo", modo, "resultado", resultado)
+                .increment(linhas);
+        if (bytes >= 0) {
+            DistributionSummary.builder("exportacao.bytes")
+                    .baseUnit("bytes")
+                    .tags("formato", formato, "tipo", tipo, "modo", modo, "resultado", resultado)
+                    .register(registry)
+                    .record(bytes);
+        }
+        Timer.builder("exportacao.duracao")
+                .tags("formato", formato, "tipo", tipo, "modo", modo, "resultado", resultado)
+                .register(registry)
+                .record(System.nanoTime() - inicioNanos, TimeUnit.NANOSECONDS);
+    }
+}
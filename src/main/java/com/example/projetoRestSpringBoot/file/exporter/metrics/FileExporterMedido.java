@@ -0,0 +1,73 @@
+package com.example.projetoRestSpringBoot.file.exporter.metrics;
+
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+// Exportação em arquivo: as linhas são o tamanho da lista e os bytes, o tamanho do Resource gerado
+public class FileExporterMedido implements FileExporter {
+
+    private final FileExporter delegate;
+    private final ExportacaoMetricas metricas;
+
+    public FileExporterMedido(FileExporter delegate, ExportacaoMetricas metricas) {
+        this.delegate = delegate;
+        this.metricas = metricas;
+    }
+
+    @Override
+    public Resource exportarFuncionarios(List<FuncionarioDTO> funcionarios) throws Exception {
+        return medir("funcionarios", funcionarios.size(), () -> delegate.exportarFuncionarios(funcionarios));
+    }
+
+    @Override
+    public Resource exportarCredenciais(List<CredencialDTO> credenciais) throws Exception {
+        return medir("credenciais", credenciais.size(), () -> delegate.exportarCredenciais(credenciais));
+    }
+
+    @Override
+    public Resource exportTreinamentos(List<TreinamentoDTO> treinamentos) throws Exception {
+        return medir("treinamentos", treinamentos.size(), () -> delegate.exportTreinamentos(treinamentos));
+    }
+
+    @Override
+    public Resource exportCursos(List<CursoDTO> cursos) throws Exception {
+        return medir("cursos", cursos.size(), () -> delegate.exportCursos(cursos));
+    }
+
+    @Override
+    public Resource exportTreinamentoPorId(TreinamentoDTO treinamento, long funcionarioId) throws Exception {
+        return medir("relatorio", 1, () -> delegate.exportTreinamentoPorId(treinamento, funcionarioId));
+    }
+
+    private Resource medir(String tipo, int linhas, Callable<Resource> exportacao) throws Exception {
+        long inicio = System.nanoTime();
+        boolean sucesso = false;
+        Resource resource = null;
+        try {
+            resource = exportacao.call();
+            sucesso = true;
+            return resource;
+        } finally {
+            metricas.registrar(tipo, "arquivo", sucesso ? linhas : 0, tamanho(resource), inicio, sucesso);
+        }
+    }
+
+    private static long tamanho(Resource resource) {
+        if (resource == null) {
+            return -1;
+        }
+        try {
+            return resource.contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
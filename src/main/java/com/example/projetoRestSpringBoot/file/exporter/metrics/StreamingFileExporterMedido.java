@@ -0,0 +1,60 @@
+package com.example.projetoRestSpringBoot.file.exporter.metrics;
+
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
+
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+// Exportação em streaming: conta as linhas conforme saem do Stream e os bytes conforme vão para a resposta
+public class StreamingFileExporterMedido implements StreamingFileExporter {
+
+    @FunctionalInterface
+    private interface Escrita<D> {
+        void escrever(Stream<D> linhas, OutputStream outputStream) throws Exception;
+    }
+
+    private final StreamingFileExporter delegate;
+    private final ExportacaoMetricas metricas;
+
+    public StreamingFileExporterMedido(StreamingFileExporter delegate, ExportacaoMetricas metricas) {
+        this.delegate = delegate;
+        this.metricas = metricas;
+    }
+
+    @Override
+    public void exportarFuncionarios(Stream<FuncionarioDTO> funcionarios, OutputStream outputStream) throws Exception {
+        medir("funcionarios", funcionarios, outputStream, delegate::exportarFuncionarios);
+    }
+
+    @Override
+    public void exportarCredenciais(Stream<CredencialDTO> credenciais, OutputStream outputStream) throws Exception {
+        medir("credenciais", credenciais, outputStream, delegate::exportarCredenciais);
+    }
+
+    @Override
+    public void exportTreinamentos(Stream<TreinamentoDTO> treinamentos, OutputStream outputStream) throws Exception {
+        medir("treinamentos", treinamentos, outputStream, delegate::exportTreinamentos);
+    }
+
+    @Override
+    public void exportCursos(Stream<CursoDTO> cursos, OutputStream outputStream) throws Exception {
+        medir("cursos", cursos, outputStream, delegate::exportCursos);
+    }
+
+    private <D> void medir(String tipo, Stream<D> linhas, OutputStream outputStream, Escrita<D> escrita) throws Exception {
+        long inicio = System.nanoTime();
+        long[] contador = {0};
+        ContadorOutputStream saida = new ContadorOutputStream(outputStream);
+        boolean sucesso = false;
+        try {
+            escrita.escrever(linhas.peek(linha -> contador[0]++), saida);
+            sucesso = true;
+        } finally {
+            metricas.registrar(tipo, "streaming", contador[0], saida.getBytes(), inicio, sucesso);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.projetoRestSpringBoot.file.exporter.report;
+
+import com.example.projetoRestSpringBoot.config.ReportConfig;
+import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperFillManager;
+import net.sf.jasperreports.engine.JasperPrint;
+import net.sf.jasperreports.engine.JasperReport;
+import net.sf.jasperreports.engine.util.JRLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class ReportTemplateRegistry {
+
+    public static final String TREINAMENTO_REPORT = "treinamento_report";
+
+    private static final List<String> TEMPLATES = List.of(TREINAMENTO_REPORT);
+
+    private final Logger logger = LoggerFactory.getLogger(ReportTemplateRegistry.class);
+
+    private final Map<String, CachedReport> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    @Autowired
+    private ReportConfig config;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private record CachedReport(JasperReport report, long sourceLastModified) {
+    }
+
+    @PostConstruct
+    public void carregarTemplates() {
+        registrarMetricas();
+        for (String name : TEMPLATES) {
+            try {
+                load(name);
+                logger.info("Template de relatório carregado: {}", name);
+            } catch (Exception e) {
+                // Sem o template a aplicação sobe mesmo assim; a próxima requisição tenta de novo
+                logger.error("Erro ao carregar template de relatório {}: {}", name, e.getMessage(), e);
+            }
+        }
+    }
+
+    public JasperReport getReport(String name) throws JRException {
+        CachedReport cached = cache.get(name);
+        if (cached != null && !isStale(name, cached)) {
+            hits.increment();
+            return cached.report();
+        }
+        misses.increment();
+        return load(name).report();
+    }
+
+    public JasperPrint fill(String name, Map<String, Object> parameters, Connection connection) throws JRException {
+        JasperReport report = getReport(name);
+        long start = System.nanoTime();
+        String resultado = "erro";
+        try {
+            JasperPrint print = JasperFillManager.fillReport(report, parameters, connection);
+            resultado = "sucesso";
+            return print;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("relatorio.preenchimento")
+                    .tags("template", name, "resultado", resultado)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            logger.debug("Relatório {} preenchido em {} ms", name, elapsed / 1_000_000);
+        }
+    }
+
+    // relatorio.template.acessos (hit/miss do cache de templates compilados) e relatorio.template.recargas
+    private void registrarMetricas() {
+        FunctionCounter.builder("relatorio.template.acessos", hits, LongAdder::sum)
+                .tag("resultado", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("relatorio.template.acessos", misses, LongAdder::sum)
+                .tag("resultado", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("relatorio.template.recargas", reloads, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    private synchronized CachedReport load(String name) throws JRException {
+        CachedReport current = cache.get(name);
+        if (current != null && !isStale(name, current)) {
+            return current;
+        }
+
+        Path source = sourcePath(name);
+        CachedReport loaded;
+        if (source != null && Files.exists(source)) {
+            logger.info("Compilando template de relatório a partir de {}", source);
+            loaded = new CachedReport(
+                    JasperCompileManager.compileReport(source.toString()),
+                    source.toFile().lastModified()
+            );
+        } else {
+            loaded = new CachedReport(loadCompiled(name), 0L);
+        }
+
+        if (current != null) {
+            reloads.increment();
+        }
+        cache.put(name, loaded);
+        return loaded;
+    }
+
+    private JasperReport loadCompiled(String name) throws JRException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/templates/" + name + ".jasper")) {
+            if (inputStream == null) {
+                throw new FileStorageException("Template do relatório não encontrado");
+            }
+            return (JasperReport) JRLoader.loadObject(inputStream);
+        } catch (IOException e) {
+            throw new FileStorageException("Erro ao ler template do relatório: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isStale(String name, CachedReport cached) {
+        Path source = sourcePath(name);
+        return source != null && Files.exists(source) && source.toFile().lastModified() != cached.sourceLastModified();
+    }
+
+    // Só existe caminho de origem com hot reload ligado (perfil de desenvolvimento)
+    private Path sourcePath(String name) {
+        if (config == null || !config.isHotReload() || config.getSourceDir() == null) {
+            return null;
+        }
+        return Paths.get(config.getSourceDir(), name + ".jrxml");
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.projetoRestSpringBoot.file.importer.batch;
+
+import com.example.projetoRestSpringBoot.dto.ImportacaoErroDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoResultadoDTO;
+import com.example.projetoRestSpringBoot.file.importer.contract.LinhaImportada;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Component
+public class BatchImportExecutor {
+
+    static final int TAMANHO_LOTE = 500;
+    static final int MAX_ERROS_REPORTADOS = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(BatchImportExecutor.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @FunctionalInterface
+    public interface LinhaReader<T> {
+        void read(Consumer<LinhaImportada<T>> consumer) throws Exception;
+    }
+
+    // Chamado a cada lote lido e no fim, para quem acompanha a importação de outra thread
+    @FunctionalInterface
+    public interface Progresso {
+        void atualizar(int linhasLidas, int importados, int rejeitados);
+    }
+
+    public <T> ImportacaoResultadoDTO importar(String arquivo, LinhaReader<T> reader, BatchImportHandler<T> handler) throws Exception {
+        return importar(arquivo, reader, handler, (linhasLidas, importados, rejeitados) -> { });
+    }
+
+    public <T> ImportacaoResultadoDTO importar(String arquivo, LinhaReader<T> reader, BatchImportHandler<T> handler,
+                                              Progresso progresso) throws Exception {
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        resultado.setArquivo(arquivo);
+        // Cada lote grava na sua própria transação: um erro no fim do arquivo não desfaz o que já entrou
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Set<String> chavesDoArquivo = new HashSet<>();
+        List<LinhaImportada<T>> lote = new ArrayList<>(TAMANHO_LOTE);
+
+        reader.read(linha -> {
+            resultado.setTotalLinhas(resultado.getTotalLinhas() + 1);
+            if (resultado.getTotalLinhas() % TAMANHO_LOTE == 0) {
+                progresso.atualizar(resultado.getTotalLinhas(), resultado.getImportados(), resultado.getRejeitados());
+            }
+            if (!linha.isValida()) {
+                rejeitar(resultado, linha.linha(), linha.erro());
+                return;
+            }
+            String erro = handler.validar(linha.valor());
+            if (erro != null) {
+                rejeitar(resultado, linha.linha(), erro);
+                return;
+            }
+            List<String> chaves = handler.chaves(linha.valor());
+            for (String chave : chaves) {
+                if (chavesDoArquivo.contains(chave)) {
+                    rejeitar(resultado, linha.linha(), "Duplicado no arquivo: " + chave);
+                    return;
+                }
+            }
+            chavesDoArquivo.addAll(chaves);
+
+            lote.add(linha);
+            if (lote.size() == TAMANHO_LOTE) {
+                gravarLote(lote, handler, transaction, resultado);
+                lote.clear();
+            }
+        });
+        if (!lote.isEmpty()) {
+            gravarLote(lote, handler, transaction, resultado);
+        }
+        // Conflitos com o banco só aparecem quando o lote é gravado, depois dos erros de leitura das linhas seguintes
+        resultado.getErros().sort(Comparator.comparingInt(ImportacaoErroDTO::getLinha));
+        progresso.atualizar(resultado.getTotalLinhas(), resultado.getImportados(), resultado.getRejeitados());
+
+        logger.info("Importação de {} finalizada: {} linhas, {} importadas, {} rejeitadas",
+                arquivo, resultado.getTotalLinhas(), resultado.getImportados(), resultado.getRejeitados());
+        return resultado;
+    }
+
+    private <T> void gravarLote(List<LinhaImportada<T>> lote, BatchImportHandler<T> handler,
+                                TransactionTemplate transaction, ImportacaoResultadoDTO resultado) {
+        Set<String> existentes = handler.chavesExistentes(lote.stream().map(LinhaImportada::valor).toList());
+
+        List<LinhaImportada<T>> novos = new ArrayList<>(lote.size());
+        for (LinhaImportada<T> linha : lote) {
+            String conflito = handler.chaves(linha.valor()).stream()
+                    .filter(existentes::contains)
+                    .findFirst()
+                    .orElse(null);
+            if (conflito != null) {
+                rejeitar(resultado, linha.linha(), "Já cadastrado: " + conflito);
+            } else {
+                novos.add(linha);
+            }
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> handler.inserir(novos.stream().map(LinhaImportada::valor).toList()));
+            resultado.setImportados(resultado.getImportados() + novos.size());
+        } catch (DataAccessException e) {
+            // Algo escapou da checagem prévia (ex.: cadastro concorrente); regrava linha a linha para isolar o culpado
+            logger.warn("Falha ao gravar lote de {} linhas, repetindo individualmente: {}", novos.size(), e.getMessage());
+            for (LinhaImportada<T> linha : novos) {
+                try {
+                    transaction.executeWithoutResult(status -> handler.inserir(List.of(linha.valor())));
+                    resultado.setImportados(resultado.getImportados() + 1);
+                } catch (DataAccessException ex) {
+                    rejeitar(resultado, linha.linha(), "Erro ao gravar: " + ex.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private void rejeitar(ImportacaoResultadoDTO resultado, int linha, String mensagem) {
+        resultado.setRejeitados(resultado.getRejeitados() + 1);
+        if (resultado.getErros().size() < MAX_ERROS_REPORTADOS) {
+            resultado.getErros().add(new ImportacaoErroDTO(linha, mensagem));
+        }
+    }
+}
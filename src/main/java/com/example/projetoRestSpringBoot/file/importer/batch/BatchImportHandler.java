@@ -0,0 +1,22 @@
+package com.example.projetoRestSpringBoot.file.importer.batch;
+
+import java.util.List;
+import java.util.Set;
+
+// Regras de uma entidade para o BatchImportExecutor: validação, chaves únicas e a gravação do lote
+public interface BatchImportHandler<T> {
+
+    // Retorna a mensagem de erro ou null quando a linha é válida
+    String validar(T item);
+
+    // Valores que não podem se repetir (ex.: "CPF 123"); usados tanto no arquivo quanto contra o banco
+    default List<String> chaves(T item) {
+        return List.of();
+    }
+
+    default Set<String> chavesExistentes(List<T> lote) {
+        return Set.of();
+    }
+
+    void inserir(List<T> lote);
+}
@@ -0,0 +1,41 @@
+package com.example.projetoRestSpringBoot.file.importer.batch;
+
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Curso não tem coluna única, então não há checagem de duplicidade
+@Component
+public class CursoImportHandler implements BatchImportHandler<CursoDTO> {
+
+    private static final String INSERT_SQL = "INSERT INTO curso " +
+            "(nome, descricao, carga_horaria, validade_meses, origem_curso, tipo_obrigatoriedade) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String validar(CursoDTO curso) {
+        if (curso.getNome() == null || curso.getNome().isBlank()) return "Campo nome obrigatório";
+        if (curso.getNome().length() > 80) return "Campo nome excede 80 caracteres";
+        if (curso.getOrigemCurso() == null) return "Campo origemCurso obrigatório";
+        if (curso.getTipoObrigatoriedade() == null) return "Campo tipoObrigatoriedade obrigatório";
+        return null;
+    }
+
+    @Override
+    public void inserir(List<CursoDTO> lote) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, lote, lote.size(), (ps, curso) -> {
+            ps.setString(1, curso.getNome());
+            ps.setString(2, curso.getDescricao());
+            ps.setInt(3, curso.getCargaHoraria());
+            ps.setInt(4, curso.getValidadeMeses());
+            ps.setString(5, curso.getOrigemCurso().name());
+            ps.setString(6, curso.getTipoObrigatoriedade().name());
+        });
+    }
+}
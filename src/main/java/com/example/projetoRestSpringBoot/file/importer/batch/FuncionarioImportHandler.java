@@ -0,0 +1,98 @@
+package com.example.projetoRestSpringBoot.file.importer.batch;
+
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+public class FuncionarioImportHandler implements BatchImportHandler<Funcionario> {
+
+    private static final String INSERT_SQL = "INSERT INTO funcionario " +
+            "(nome, cpf, rg, data_nascimento, matricula, cargo, departamento, data_admissao, situacao, tipo_contrato, email, telefone) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private FuncionarioRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public String validar(Funcionario funcionario) {
+        // Mesmos limites das colunas da tabela funcionario
+        String erro = texto("nome", funcionario.getNome(), 80);
+        if (erro == null) erro = texto("cpf", funcionario.getCpf(), 14);
+        if (erro == null) erro = texto("rg", funcionario.getRg(), 20);
+        if (erro == null) erro = texto("matricula", funcionario.getMatricula(), 20);
+        if (erro == null) erro = texto("cargo", funcionario.getCargo(), 100);
+        if (erro == null) erro = texto("departamento", funcionario.getDepartamento(), 100);
+        if (erro == null) erro = texto("email", funcionario.getEmail(), 80);
+        if (erro == null) erro = texto("telefone", funcionario.getTelefone(), 15);
+        if (erro != null) return erro;
+
+        if (funcionario.getDataNascimento() == null) return "Campo dataNascimento obrigatório";
+        if (funcionario.getDataAdmissao() == null) return "Campo dataAdmissao obrigatório";
+        if (funcionario.getSituacao() == null) return "Campo situacao obrigatório";
+        if (funcionario.getTipoContrato() == null) return "Campo tipoContrato obrigatório";
+        return null;
+    }
+
+    @Override
+    public List<String> chaves(Funcionario funcionario) {
+        return List.of(
+                "matrícula " + funcionario.getMatricula(),
+                "CPF " + funcionario.getCpf(),
+                "RG " + funcionario.getRg());
+    }
+
+    @Override
+    public Set<String> chavesExistentes(List<Funcionario> lote) {
+        List<String> matriculas = lote.stream().map(Funcionario::getMatricula).toList();
+        List<String> cpfs = lote.stream().map(Funcionario::getCpf).toList();
+        List<String> rgs = lote.stream().map(Funcionario::getRg).toList();
+
+        Set<String> existentes = new HashSet<>();
+        for (Object[] chaves : repository.findChavesExistentes(matriculas, cpfs, rgs)) {
+            existentes.add("matrícula " + chaves[0]);
+            existentes.add("CPF " + chaves[1]);
+            existentes.add("RG " + chaves[2]);
+        }
+        return existentes;
+    }
+
+    @Override
+    public void inserir(List<Funcionario> lote) {
+        // JDBC direto: com IDENTITY o Hibernate não agrupa INSERTs, aqui o driver recebe o lote inteiro
+        jdbcTemplate.batchUpdate(INSERT_SQL, lote, lote.size(), (ps, funcionario) -> {
+            ps.setString(1, funcionario.getNome());
+            ps.setString(2, funcionario.getCpf());
+            ps.setString(3, funcionario.getRg());
+            ps.setDate(4, Date.valueOf(funcionario.getDataNascimento()));
+            ps.setString(5, funcionario.getMatricula());
+            ps.setString(6, funcionario.getCargo());
+            ps.setString(7, funcionario.getDepartamento());
+            ps.setDate(8, Date.valueOf(funcionario.getDataAdmissao()));
+            ps.setString(9, funcionario.getSituacao().name());
+            ps.setString(10, funcionario.getTipoContrato().name());
+            ps.setString(11, funcionario.getEmail());
+            ps.setString(12, funcionario.getTelefone());
+        });
+    }
+
+    private static String texto(String campo, String valor, int tamanhoMaximo) {
+        if (valor == null || valor.isBlank()) {
+            return "Campo " + campo + " obrigatório";
+        }
+        if (valor.length() > tamanhoMaximo) {
+            return "Campo " + campo + " excede " + tamanhoMaximo + " caracteres";
+        }
+        return null;
+    }
+}
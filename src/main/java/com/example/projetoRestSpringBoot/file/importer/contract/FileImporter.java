@@ -5,9 +5,10 @@ import com.example.projetoRestSpringBoot.model.Funcionario;
 
 
 import java.io.InputStream;
-import java.util.List;
+import java.util.function.Consumer;
 
+// Entrega uma linha por vez ao consumer, sem carregar o arquivo inteiro; linhas mal formadas chegam com erro
 public interface FileImporter {
-   List<Funcionario> importarFuncionarios (InputStream inputStream) throws Exception;
-   List<CursoDTO> importarCursos (InputStream inputStream) throws Exception;
+   void importarFuncionarios (InputStream inputStream, Consumer<LinhaImportada<Funcionario>> consumer) throws Exception;
+   void importarCursos (InputStream inputStream, Consumer<LinhaImportada<CursoDTO>> consumer) throws Exception;
 }
@@ -0,0 +1,17 @@
+package com.example.projetoRestSpringBoot.file.importer.contract;
+
+// Resultado da leitura de uma linha do arquivo: o valor convertido ou o motivo da falha
+public record LinhaImportada<T>(int linha, T valor, String erro) {
+
+    public static <T> LinhaImportada<T> ok(int linha, T valor) {
+        return new LinhaImportada<>(linha, valor, null);
+    }
+
+    public static <T> LinhaImportada<T> erro(int linha, String erro) {
+        return new LinhaImportada<>(linha, null, erro);
+    }
+
+    public boolean isValida() {
+        return erro == null;
+    }
+}
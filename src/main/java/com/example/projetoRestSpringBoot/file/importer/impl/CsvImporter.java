@@ -1,85 +1,88 @@
 package com.example.projetoRestSpringBoot.file.importer.impl;
 
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
-import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.enums.CursoOrigem;
 import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
 import com.example.projetoRestSpringBoot.enums.FuncionarioSituacao;
 import com.example.projetoRestSpringBoot.enums.FuncionarioTipoContrato;
 import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
+import com.example.projetoRestSpringBoot.file.importer.contract.LinhaImportada;
 import com.example.projetoRestSpringBoot.model.Funcionario;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Component
 public class CsvImporter implements FileImporter {
-    @Override
-    public List<Funcionario> importarFuncionarios(InputStream inputStream) throws Exception {
-        CSVFormat csvFormat = CSVFormat.Builder.create()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setIgnoreEmptyLines(true)
-                .setTrim(true)
-                .build();
 
-        Iterable<CSVRecord> records = csvFormat.parse(new InputStreamReader(inputStream));
+    private static final CSVFormat IMPORT_FORMAT = CSVFormat.Builder.create()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setIgnoreEmptyLines(true)
+            .setTrim(true)
+            .build();
 
-        return parseRecordsToFuncionario(records);
+    @Override
+    public void importarFuncionarios(InputStream inputStream, Consumer<LinhaImportada<Funcionario>> consumer) throws Exception {
+        parseRecords(inputStream, this::parseRecordToFuncionario, consumer);
     }
 
     @Override
-    public List<CursoDTO> importarCursos(InputStream inputStream) throws Exception {
-        CSVFormat csvFormat = CSVFormat.Builder.create()
-                .setHeader()
-                .setSkipHeaderRecord(true)
-                .setIgnoreEmptyLines(true)
-                .setTrim(true)
-                .build();
-
-        Iterable<CSVRecord> records = csvFormat.parse(new InputStreamReader(inputStream));
-
-        return parseRecordsToCursoDTOs(records);
+    public void importarCursos(InputStream inputStream, Consumer<LinhaImportada<CursoDTO>> consumer) throws Exception {
+        parseRecords(inputStream, this::parseRecordToCursoDTO, consumer);
     }
 
-    private List<Funcionario> parseRecordsToFuncionario(Iterable<CSVRecord> records) {
-        List<Funcionario> listaFuncionarios = new ArrayList<>();
-        for (CSVRecord record : records) {
-            Funcionario funcionario = new Funcionario();
-            funcionario.setNome(record.get("nome"));
-            funcionario.setCpf(record.get("cpf"));
-            funcionario.setRg(record.get("rg"));
-            funcionario.setMatricula(record.get("matricula"));
-            funcionario.setCargo(record.get("cargo"));
-            funcionario.setDataNascimento(LocalDate.parse(record.get("dataNascimento")));
-            funcionario.setDepartamento(record.get("departamento"));
-            funcionario.setDataAdmissao(LocalDate.parse(record.get("dataAdmissao")));
-            funcionario.setSituacao(FuncionarioSituacao.valueOf(record.get("situacao")));
-            funcionario.setTipoContrato(FuncionarioTipoContrato.valueOf(record.get("tipoContrato")));
-            funcionario.setEmail(record.get("email"));
-            funcionario.setTelefone(record.get("telefone"));
-            listaFuncionarios.add(funcionario);
+    private <T> void parseRecords(InputStream inputStream, Function<CSVRecord, T> parser,
+                                  Consumer<LinhaImportada<T>> consumer) throws Exception {
+        // O parser lê o arquivo sob demanda, um registro por vez
+        try (CSVParser records = IMPORT_FORMAT.parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            for (CSVRecord record : records) {
+                // +1 por causa da linha de cabeçalho
+                int linha = (int) record.getRecordNumber() + 1;
+                // Só o parser fica no try: erro de quem consome a linha (gravação do lote) não é erro da linha
+                LinhaImportada<T> importada;
+                try {
+                    importada = LinhaImportada.ok(linha, parser.apply(record));
+                } catch (RuntimeException e) {
+                    importada = LinhaImportada.erro(linha, "Linha inválida: " + e.getMessage());
+                }
+                consumer.accept(importada);
+            }
         }
-        return listaFuncionarios;
     }
 
-    private List<CursoDTO> parseRecordsToCursoDTOs(Iterable<CSVRecord> records) {
-        List<CursoDTO> listaCursos = new ArrayList<>();
-        for (CSVRecord record : records) {
-            CursoDTO curso = new CursoDTO();
-            curso.setNome(record.get("nome"));
-            curso.setDescricao(record.get("descricao"));
-            curso.setCargaHoraria(Integer.parseInt(record.get("cargaHoraria")));
-            curso.setValidadeMeses(Integer.parseInt(record.get("validadeMeses")));
-            curso.setOrigemCurso(CursoOrigem.valueOf(record.get("origemCurso")));
-            curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.valueOf(record.get("tipoObrigatoriedade")));
-            listaCursos.add(curso);
-        }
-        return listaCursos;
+    private Funcionario parseRecordToFuncionario(CSVRecord record) {
+        Funcionario funcionario = new Funcionario();
+        funcionario.setNome(record.get("nome"));
+        funcionario.setCpf(record.get("cpf"));
+        funcionario.setRg(record.get("rg"));
+        funcionario.setMatricula(record.get("matricula"));
+        funcionario.setCargo(record.get("cargo"));
+        funcionario.setDataNascimento(LocalDate.parse(record.get("dataNascimento")));
+        funcionario.setDepartamento(record.get("departamento"));
+        funcionario.setDataAdmissao(LocalDate.parse(record.get("dataAdmissao")));
+        funcionario.setSituacao(FuncionarioSituacao.valueOf(record.get("situacao")));
+        funcionario.setTipoContrato(FuncionarioTipoContrato.valueOf(record.get("tipoContrato")));
+        funcionario.setEmail(record.get("email"));
+        funcionario.setTelefone(record.get("telefone"));
+        return funcionario;
+    }
+
+    private CursoDTO parseRecordToCursoDTO(CSVRecord record) {
+        CursoDTO curso = new CursoDTO();
+        curso.setNome(record.get("nome"));
+        curso.setDescricao(record.get("descricao"));
+        curso.setCargaHoraria(Integer.parseInt(record.get("cargaHoraria")));
+        curso.setValidadeMeses(Integer.parseInt(record.get("validadeMeses")));
+        curso.setOrigemCurso(CursoOrigem.valueOf(record.get("origemCurso")));
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.valueOf(record.get("tipoObrigatoriedade")));
+        return curso;
     }
-}
\ No newline at end of file
+}
@@ -1,136 +1,156 @@
 package com.example.projetoRestSpringBoot.file.importer.impl;
 
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
-import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
+import com.example.projetoRestSpringBoot.file.importer.contract.LinhaImportada;
 import com.example.projetoRestSpringBoot.model.Funcionario;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 import java.io.InputStream;
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Component
 public class XlsxImporter implements FileImporter {
+
+    private static final int COLUNAS_FUNCIONARIO = 12;
+    private static final int COLUNAS_CURSO = 6;
+
     @Override
-    public List<Funcionario> importarFuncionarios (InputStream inputStream) throws Exception {
-        try(XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-            XSSFSheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if(rowIterator.hasNext()){
-                rowIterator.next();
-            }
-            
-            return parseRowsToFuncionario(rowIterator);
-        }
+    public void importarFuncionarios (InputStream inputStream, Consumer<LinhaImportada<Funcionario>> consumer) throws Exception {
+        parseSheet(inputStream, COLUNAS_FUNCIONARIO, this::parseRowToFuncionario, consumer);
     }
 
-    private List<Funcionario> parseRowsToFuncionario(Iterator<Row> rowIterator) {
-        List<Funcionario> ListaFuncionarios = new ArrayList<>();
-        while(rowIterator.hasNext()){
-            Row row = rowIterator.next();
-            if(isRowValid(row)){
-                ListaFuncionarios.add(parseRowsToFuncionario(row));
+    @Override
+    public void importarCursos(InputStream inputStream, Consumer<LinhaImportada<CursoDTO>> consumer) throws Exception {
+        parseSheet(inputStream, COLUNAS_CURSO, this::parseRowToCursoDTO, consumer);
+    }
+
+    // Lê a primeira planilha com o parser SAX do POI: só a linha corrente fica em memória, não a planilha inteira
+    private <T> void parseSheet(InputStream inputStream, int colunas, Function<String[], T> parser,
+                                Consumer<LinhaImportada<T>> consumer) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(inputStream)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(new XSSFSheetXMLHandler(styles, strings,
+                        new RowHandler<>(colunas, parser, consumer), new IsoDateFormatter(), false));
+                xmlReader.parse(new InputSource(sheet));
             }
         }
-        return ListaFuncionarios;
     }
 
-    private Funcionario parseRowsToFuncionario(Row row) {
+    private Funcionario parseRowToFuncionario(String[] row) {
         Funcionario funcionario = new Funcionario();
-        funcionario.setNome(getCellStringValue(row, 0));
-        funcionario.setCpf(getCellStringValue(row, 1));
-        funcionario.setRg(getCellStringValue(row, 2));
-        funcionario.setDataNascimento(getCellDateValue(row, 3));
-        funcionario.setMatricula(getCellStringValue(row, 4));
-        funcionario.setCargo(getCellStringValue(row, 5));
-        funcionario.setDepartamento(getCellStringValue(row, 6));
-        funcionario.setDataAdmissao(getCellDateValue(row, 7));
-        funcionario.setSituacao(Enum.valueOf(com.example.projetoRestSpringBoot.enums.FuncionarioSituacao.class, getCellStringValue(row, 8)));
-        funcionario.setTipoContrato(Enum.valueOf(com.example.projetoRestSpringBoot.enums.FuncionarioTipoContrato.class, getCellStringValue(row, 9)));
-        funcionario.setEmail(getCellStringValue(row, 10));
-        funcionario.setTelefone(getCellStringValue(row, 11));
+        funcionario.setNome(row[0]);
+        funcionario.setCpf(row[1]);
+        funcionario.setRg(row[2]);
+        funcionario.setDataNascimento(parseDate(row[3]));
+        funcionario.setMatricula(row[4]);
+        funcionario.setCargo(row[5]);
+        funcionario.setDepartamento(row[6]);
+        funcionario.setDataAdmissao(parseDate(row[7]));
+        funcionario.setSituacao(Enum.valueOf(com.example.projetoRestSpringBoot.enums.FuncionarioSituacao.class, row[8]));
+        funcionario.setTipoContrato(Enum.valueOf(com.example.projetoRestSpringBoot.enums.FuncionarioTipoContrato.class, row[9]));
+        funcionario.setEmail(row[10]);
+        funcionario.setTelefone(row[11]);
 
         return funcionario;
     }
 
-    private String getCellStringValue(Row row, int columnIndex) {
-        var cell = row.getCell(columnIndex);
-        if (cell == null) return "";
+    private CursoDTO parseRowToCursoDTO(String[] row) {
+        CursoDTO curso = new CursoDTO();
+        curso.setNome(row[0]);
+        curso.setDescricao(row[1]);
+        curso.setCargaHoraria(Integer.parseInt(row[2]));
+        curso.setValidadeMeses(Integer.parseInt(row[3]));
+        curso.setOrigemCurso(Enum.valueOf(com.example.projetoRestSpringBoot.enums.CursoOrigem.class, row[4]));
+        curso.setTipoObrigatoriedade(Enum.valueOf(com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade.class, row[5]));
 
-        try {
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return String.valueOf((long) cell.getNumericCellValue());
-            }
-            return cell.getStringCellValue().trim();
-        } catch (Exception e) {
-            return "";
-        }
+        return curso;
     }
 
+    private static LocalDate parseDate(String value) {
+        return value.isEmpty() ? null : LocalDate.parse(value);
+    }
 
-    private LocalDate getCellDateValue(Row row, int columnIndex) {
-        var cell = row.getCell(columnIndex);
-        if (cell == null) return null;
+    private static class RowHandler<T> implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final Function<String[], T> parser;
+        private final Consumer<LinhaImportada<T>> consumer;
+        private final String[] row;
+        private int proximaColuna;
 
-        try {
-            if (cell.getCellType() == CellType.STRING) {
-                String dateString = cell.getStringCellValue().trim();
-                if (dateString.isEmpty()) return null;
-                return LocalDate.parse(dateString);
-            }
-            if (cell.getCellType() == CellType.NUMERIC) {
-                return cell.getLocalDateTimeCellValue().toLocalDate();
-            }
-        } catch (Exception e) {
-            return null;
+        RowHandler(int colunas, Function<String[], T> parser, Consumer<LinhaImportada<T>> consumer) {
+            this.parser = parser;
+            this.consumer = consumer;
+            this.row = new String[colunas];
         }
-        return null;
-    }
 
-    private static boolean isRowValid(Row row) {
-        return row.getCell(0) != null && row.getCell(0).getCellType() != CellType.BLANK;
-    }
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(row, "");
+            proximaColuna = 0;
+        }
 
-    @Override
-    public List<CursoDTO> importarCursos(InputStream inputStream) throws Exception {
-        try(XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-            XSSFSheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if(rowIterator.hasNext()){
-                rowIterator.next();
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int coluna = cellReference != null ? new CellReference(cellReference).getCol() : proximaColuna;
+            proximaColuna = coluna + 1;
+            if (coluna < row.length && formattedValue != null) {
+                row[coluna] = formattedValue.trim();
             }
-
-            return parseRowsToCursoDTOList(rowIterator);
         }
-}
 
-    private List<CursoDTO> parseRowsToCursoDTOList(Iterator<Row> rowIterator) {
-        List<CursoDTO> listaCursos = new ArrayList<>();
-        while(rowIterator.hasNext()){
-            Row row = rowIterator.next();
-            if(isRowValid(row)){
-                listaCursos.add(parseRowsToCursoDTOs(row));
+        @Override
+        public void endRow(int rowNum) {
+            // Cabeçalho e linhas com a primeira coluna vazia são ignorados
+            if (rowNum == 0 || row[0].isEmpty()) {
+                return;
+            }
+            int linha = rowNum + 1;
+            // Só o parser fica no try: erro de quem consome a linha (gravação do lote) não é erro da linha
+            LinhaImportada<T> importada;
+            try {
+                importada = LinhaImportada.ok(linha, parser.apply(row));
+            } catch (RuntimeException e) {
+                importada = LinhaImportada.erro(linha, "Linha inválida: " + e.getMessage());
             }
+            consumer.accept(importada);
         }
-        return listaCursos;
     }
 
-    private CursoDTO parseRowsToCursoDTOs(Row row) {
-        CursoDTO curso = new CursoDTO();
-        curso.setNome(row.getCell(0).getStringCellValue());
-        curso.setDescricao(row.getCell(1).getStringCellValue());
-        curso.setCargaHoraria((int) row.getCell(2).getNumericCellValue());
-        curso.setValidadeMeses((int) row.getCell(3).getNumericCellValue());
-        curso.setOrigemCurso(Enum.valueOf(com.example.projetoRestSpringBoot.enums.CursoOrigem.class, row.getCell(4).getStringCellValue()));
-        curso.setTipoObrigatoriedade(Enum.valueOf(com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade.class, row.getCell(5).getStringCellValue()));
-
-        return curso;
+    // Datas saem em ISO (yyyy-MM-dd) e números inteiros sem casas decimais nem notação científica (CPF, RG, telefone)
+    private static class IsoDateFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                return String.valueOf((long) value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
     }
-
 }
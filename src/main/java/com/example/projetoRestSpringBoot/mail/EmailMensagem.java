@@ -0,0 +1,43 @@
+package com.example.projetoRestSpringBoot.mail;
+
+import com.example.projetoRestSpringBoot.exception.BadRequestException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.springframework.core.io.InputStreamSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+// Mensagem pronta para envio. Imutável: cada envio monta a sua, sem estado compartilhado entre threads.
+public record EmailMensagem(Long id, List<InternetAddress> destinatarios, String assunto, String corpo, Anexo anexo) {
+
+    public EmailMensagem {
+        destinatarios = List.copyOf(destinatarios);
+    }
+
+    // Lido só na hora de montar o corpo MIME, direto do spool ou da memória, sem cópia em arquivo temporário
+    public record Anexo(String nome, InputStreamSource conteudo) {
+    }
+
+    // Aceita vários endereços separados por ";"
+    public static List<InternetAddress> enderecos(String to) {
+        if (to == null || to.isBlank()) {
+            throw new BadRequestException("Destinatário do e-mail é obrigatório");
+        }
+        StringTokenizer tok = new StringTokenizer(to.replaceAll("\\s+", ""), ";");
+        List<InternetAddress> enderecos = new ArrayList<>();
+        while (tok.hasMoreTokens()) {
+            String endereco = tok.nextToken();
+            try {
+                enderecos.add(new InternetAddress(endereco, true));
+            } catch (AddressException e) {
+                throw new BadRequestException("Endereço de e-mail inválido: " + endereco);
+            }
+        }
+        if (enderecos.isEmpty()) {
+            throw new BadRequestException("Destinatário do e-mail é obrigatório");
+        }
+        return enderecos;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.projetoRestSpringBoot.mail;
+
+import com.example.projetoRestSpringBoot.config.EmailOutboxConfig;
+import com.example.projetoRestSpringBoot.enums.EmailStatus;
+import com.example.projetoRestSpringBoot.model.EmailOutbox;
+import com.example.projetoRestSpringBoot.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Consome a tabela email_outbox: reserva um lote de pendentes, divide em grupos e cada thread do pool
+// envia um grupo por conexão SMTP. Falhas voltam para a fila com backoff exponencial.
+@Component
+public class EmailOutboxWorker {
+
+    // Reserva mais velha que isso é de um worker que parou no meio do envio
+    private static final Duration RESERVA_EXPIRADA = Duration.ofMinutes(10);
+
+    private final Logger logger = LoggerFactory.getLogger(EmailOutboxWorker.class.getName());
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private EmailOutboxConfig config;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ThreadPoolExecutor envioExecutor;
+
+    @PostConstruct
+    public void iniciarExecutor() {
+        int threads = Math.max(1, config.getThreads());
+        int grupos = Math.max(1, config.getLote() / Math.max(1, config.getMensagensPorConexao()) + 1);
+        AtomicInteger contador = new AtomicInteger();
+        // A fila comporta um lote inteiro; o SMTP nunca roda na thread do agendador
+        envioExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(grupos),
+                runnable -> new Thread(runnable, "email-" + contador.incrementAndGet()));
+    }
+
+    @PreDestroy
+    public void encerrarExecutor() throws InterruptedException {
+        envioExecutor.shutdown();
+        envioExecutor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.intervalo:5000}")
+    public void processarPendentes() {
+        Instant agora = Instant.now();
+        int liberadas = repository.liberarReservasAntigas(agora.minus(RESERVA_EXPIRADA), agora,
+                EmailStatus.PENDENTE, EmailStatus.ENVIANDO);
+        if (liberadas > 0) {
+            logger.warn("{} e-mails reservados há mais de {} voltaram para a fila", liberadas, RESERVA_EXPIRADA);
+        }
+        // Lote cheio indica que ainda há pendentes: segue sem esperar o próximo ciclo
+        while (processarLote() == config.getLote()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private int processarLote() {
+        Instant agora = Instant.now();
+        List<Long> ids = repository.findIdsProntos(EmailStatus.PENDENTE, agora, Limit.of(config.getLote()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String lote = UUID.randomUUID().toString();
+        repository.reservar(ids, lote, agora, EmailStatus.PENDENTE, EmailStatus.ENVIANDO);
+        List<EmailOutbox> reservados = repository.findByLote(lote);
+
+        int porConexao = Math.max(1, config.getMensagensPorConexao());
+        List<Future<?>> envios = new ArrayList<>();
+        boolean recusado = false;
+        for (int i = 0; i < reservados.size(); i += porConexao) {
+            List<EmailOutbox> grupo = reservados.subList(i, Math.min(i + porConexao, reservados.size()));
+            try {
+                envios.add(envioExecutor.submit(() -> enviarGrupo(grupo)));
+            } catch (RejectedExecutionException e) {
+                // Pool cheio ou encerrando: o restante do lote espera o próximo ciclo
+                List<Long> restantes = reservados.subList(i, reservados.size()).stream().map(EmailOutbox::getId).toList();
+                repository.liberar(restantes, Instant.now(), EmailStatus.PENDENTE, EmailStatus.ENVIANDO);
+                logger.warn("Pool de envio recusou {} e-mails; ficam para o próximo ciclo", restantes.size());
+                recusado = true;
+                break;
+            }
+        }
+        for (Future<?> envio : envios) {
+            try {
+                envio.get();
+            } catch (ExecutionException e) {
+                // O grupo fica ENVIANDO e volta para a fila quando a reserva expirar
+                logger.error("Erro inesperado ao enviar grupo de e-mails: {}", e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return recusado ? 0 : ids.size();
+    }
+
+    private void enviarGrupo(List<EmailOutbox> grupo) {
+        Map<Long, Exception> falhas = new HashMap<>();
+        List<EmailMensagem> mensagens = new ArrayList<>();
+        for (EmailOutbox email : grupo) {
+            try {
+                mensagens.add(mensagem(email));
+            } catch (RuntimeException e) {
+                falhas.put(email.getId(), e);
+            }
+        }
+        falhas.putAll(emailSender.enviar(mensagens));
+
+        Instant agora = Instant.now();
+        List<Long> enviados = new ArrayList<>();
+        List<EmailOutbox> comFalha = new ArrayList<>();
+        for (EmailOutbox email : grupo) {
+            Exception falha = falhas.get(email.getId());
+            if (falha == null) {
+                enviados.add(email.getId());
+                apagarAnexo(email);
+            } else {
+                registrarFalha(email, falha, agora);
+                comFalha.add(email);
+            }
+        }
+        meterRegistry.counter("email.mensagens", "resultado", "enviada").increment(enviados.size());
+        if (!enviados.isEmpty()) {
+            repository.marcarEnviados(enviados, agora, EmailStatus.ENVIADO);
+        }
+        if (!comFalha.isEmpty()) {
+            repository.saveAll(comFalha);
+        }
+    }
+
+    private void registrarFalha(EmailOutbox email, Exception falha, Instant agora) {
+        int tentativas = email.getTentativas() + 1;
+        String erro = String.valueOf(falha.getMessage());
+        email.setTentativas(tentativas);
+        email.setUltimoErro(erro.length() > 1000 ? erro.substring(0, 1000) : erro);
+        email.setLote(null);
+        email.setAtualizadoEm(agora);
+        if (tentativas >= config.getMaxTentativas()) {
+            email.setStatus(EmailStatus.FALHOU);
+            meterRegistry.counter("email.mensagens", "resultado", "descartada").increment();
+            apagarAnexo(email);
+            logger.error("E-mail {} descartado após {} tentativas: {}", email.getId(), tentativas, erro);
+        } else {
+            Duration atraso = atraso(tentativas);
+            email.setStatus(EmailStatus.PENDENTE);
+            meterRegistry.counter("email.mensagens", "resultado", "reagendada").increment();
+            email.setProximaTentativa(agora.plus(atraso));
+            logger.warn("Falha ao enviar e-mail {} (tentativa {}), nova tentativa em {}: {}",
+                    email.getId(), tentativas, atraso, erro);
+        }
+    }
+
+    // Dobra a cada tentativa, a partir do backoff inicial, até o máximo configurado
+    public Duration atraso(int tentativas) {
+        Duration atraso = config.getBackoffInicial().multipliedBy(1L << Math.min(tentativas - 1, 20));
+        return atraso.compareTo(config.getBackoffMaximo()) > 0 ? config.getBackoffMaximo() : atraso;
+    }
+
+    private static EmailMensagem mensagem(EmailOutbox email) {
+        EmailMensagem.Anexo anexo = email.getAnexoCaminho() == null ? null
+                : new EmailMensagem.Anexo(email.getAnexoNome(), new FileSystemResource(email.getAnexoCaminho()));
+        return new EmailMensagem(email.getId(), EmailMensagem.enderecos(email.getDestinatarios()),
+                email.getAssunto(), email.getCorpo(), anexo);
+    }
+
+    private void apagarAnexo(EmailOutbox email) {
+        if (email.getAnexoCaminho() == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Path.of(email.getAnexoCaminho()));
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar o anexo do e-mail {}: {}", email.getId(), e.getMessage());
+        }
+    }
+}
@@ -1,97 +1,83 @@
 package com.example.projetoRestSpringBoot.mail;
 
 import com.example.projetoRestSpringBoot.config.EmailConfig;
-import com.example.projetoRestSpringBoot.exception.EmailSendingException;
+import io.micrometer.core.annotation.Timed;
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
-import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
+// Sem estado entre chamadas. Cada chamada envia o grupo inteiro por uma única conexão SMTP,
+// que o JavaMailSender abre uma vez e reaproveita para todas as mensagens do array.
 @Component
-public class EmailSender implements Serializable {
-    Logger logger = LoggerFactory.getLogger(EmailSender.class);
+public class EmailSender {
+    private final Logger logger = LoggerFactory.getLogger(EmailSender.class);
 
     private final JavaMailSender mailSender;
-    private String to;
-    private String subject;
-    private String body;
-    private ArrayList<InternetAddress> recipients = new ArrayList<>();
-    private File attachment;
+    private final EmailConfig config;
 
-    public EmailSender(JavaMailSender mailSender) {
+    public EmailSender(JavaMailSender mailSender, EmailConfig config) {
         this.mailSender = mailSender;
+        this.config = config;
     }
 
-    public EmailSender to(String to) {
-        this.to = to;
-        this.recipients = getRecipients(to);
-        return this;
-    }
-
-    public EmailSender withSubject(String subject) {
-        this.subject = subject;
-        return this;
-    }
-
-    public EmailSender withMessage(String body) {
-        this.body = body;
-        return this;
-    }
-
-    public EmailSender attach(String fileDir) {
-        this.attachment = new File(fileDir);
-        return this;
-    }
+    // Devolve as falhas pelo id da mensagem; as que não aparecem no mapa foram aceitas pelo servidor.
+    // O tempo medido é o do grupo inteiro, conexão incluída
+    @Timed(value = "email.smtp.envio", histogram = true)
+    public Map<Long, Exception> enviar(List<EmailMensagem> mensagens) {
+        Map<Long, Exception> falhas = new HashMap<>();
+        Map<MimeMessage, EmailMensagem> origem = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>();
+        for (EmailMensagem mensagem : mensagens) {
+            try {
+                MimeMessage mimeMessage = criar(mensagem);
+                origem.put(mimeMessage, mensagem);
+                mimeMessages.add(mimeMessage);
+            } catch (MessagingException | RuntimeException e) {
+                falhas.put(mensagem.id(), e);
+            }
+        }
+        if (mimeMessages.isEmpty()) {
+            return falhas;
+        }
 
-    public void send(EmailConfig config) {
-        MimeMessage message = mailSender.createMimeMessage();
         try {
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
-            helper.setFrom(config.getUsername());
-            helper.setTo(recipients.toArray(new InternetAddress[0]));
-            helper.setSubject(subject);
-            helper.setText(body, true);
-            if(attachment != null) {
-                helper.addAttachment(attachment.getName(), attachment);
+            mailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                mimeMessages.forEach(m -> falhas.put(origem.get(m).id(), e));
+            } else {
+                e.getFailedMessages().forEach((m, erro) -> falhas.put(origem.get((MimeMessage) m).id(), erro));
             }
-            mailSender.send(message);
-            logger.info("Sent email to " + to);
-            reset();
-
-        } catch (MessagingException e) {
-            throw new EmailSendingException("Erro ao tentar enviar o e-mail: " + e.getMessage(), e);
+        } catch (MailException e) {
+            mimeMessages.forEach(m -> falhas.put(origem.get(m).id(), e));
         }
+        logger.info("Enviados {} de {} e-mails na mesma conexão", mensagens.size() - falhas.size(), mensagens.size());
+        return falhas;
     }
 
-    private void reset() {
-        this.to = null;
-        this.subject = null;
-        this.body = null;
-        this.recipients = new ArrayList<>();
-        this.attachment = null;
-    }
-
-    private ArrayList<InternetAddress> getRecipients(String to) {
-        String toWithoutSpaces = to.replaceAll("\\s+", "");
-        StringTokenizer tok = new StringTokenizer(toWithoutSpaces, ";");
-        ArrayList<InternetAddress> recipientsList = new ArrayList<>();
-        while(tok.hasMoreElements()) {
-            try{
-                recipientsList.add(new InternetAddress(tok.nextElement().toString()));
-            }catch (AddressException e){
-                throw new EmailSendingException("Endereço de e-mail inválido: " + e.getMessage(), e);
-            }
+    private MimeMessage criar(EmailMensagem mensagem) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setFrom(config.getUsername());
+        helper.setTo(mensagem.destinatarios().toArray(new InternetAddress[0]));
+        helper.setSubject(mensagem.assunto());
+        helper.setText(mensagem.corpo(), true);
+        if (mensagem.anexo() != null) {
+            helper.addAttachment(mensagem.anexo().nome(), mensagem.anexo().conteudo());
         }
-        return recipientsList;
+        return message;
     }
 }
@@ -0,0 +1,114 @@
+package com.example.projetoRestSpringBoot.mapper;
+
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.model.Credencial;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+
+// Cópia campo a campo, com o mesmo resultado do mapeamento padrão do Dozer (só campos de mesmo nome).
+// Os campos achatados (funcionarioNome, cursoNome...) continuam sendo preenchidos pelos serviços.
+public final class EntityMappers {
+
+    private EntityMappers() {
+    }
+
+    public static FuncionarioDTO toDTO(Funcionario entity) {
+        FuncionarioDTO dto = new FuncionarioDTO();
+        dto.setId(entity.getId());
+        dto.setNome(entity.getNome());
+        dto.setMatricula(entity.getMatricula());
+        dto.setCargo(entity.getCargo());
+        dto.setDepartamento(entity.getDepartamento());
+        dto.setDataAdmissao(entity.getDataAdmissao());
+        dto.setSituacao(entity.getSituacao());
+        dto.setTipoContrato(entity.getTipoContrato());
+        dto.setEmail(entity.getEmail());
+        dto.setTelefone(entity.getTelefone());
+        return dto;
+    }
+
+    public static Funcionario toEntity(FuncionarioDTO dto) {
+        Funcionario entity = new Funcionario();
+        entity.setId(dto.getId());
+        entity.setNome(dto.getNome());
+        entity.setMatricula(dto.getMatricula());
+        entity.setCargo(dto.getCargo());
+        entity.setDepartamento(dto.getDepartamento());
+        entity.setDataAdmissao(dto.getDataAdmissao());
+        entity.setSituacao(dto.getSituacao());
+        entity.setTipoContrato(dto.getTipoContrato());
+        entity.setEmail(dto.getEmail());
+        entity.setTelefone(dto.getTelefone());
+        return entity;
+    }
+
+    public static CursoDTO toDTO(Curso entity) {
+        CursoDTO dto = new CursoDTO();
+        dto.setId(entity.getId());
+        dto.setNome(entity.getNome());
+        dto.setDescricao(entity.getDescricao());
+        dto.setCargaHoraria(entity.getCargaHoraria());
+        dto.setValidadeMeses(entity.getValidadeMeses());
+        dto.setOrigemCurso(entity.getOrigemCurso());
+        dto.setTipoObrigatoriedade(entity.getTipoObrigatoriedade());
+        return dto;
+    }
+
+    public static Curso toEntity(CursoDTO dto) {
+        Curso entity = new Curso();
+        entity.setId(dto.getId());
+        entity.setNome(dto.getNome());
+        entity.setDescricao(dto.getDescricao());
+        entity.setCargaHoraria(dto.getCargaHoraria());
+        entity.setValidadeMeses(dto.getValidadeMeses());
+        entity.setOrigemCurso(dto.getOrigemCurso());
+        entity.setTipoObrigatoriedade(dto.getTipoObrigatoriedade());
+        return entity;
+    }
+
+    public static TreinamentoDTO toDTO(Treinamento entity) {
+        TreinamentoDTO dto = new TreinamentoDTO();
+        dto.setId(entity.getId());
+        dto.setDataAgendamento(entity.getDataAgendamento());
+        dto.setDataConcluido(entity.getDataConcluido());
+        dto.setDataVencimento(entity.getDataVencimento());
+        dto.setInstrutor(entity.getInstrutor());
+        dto.setStatus(entity.getStatus());
+        return dto;
+    }
+
+    public static Treinamento toEntity(TreinamentoDTO dto) {
+        Treinamento entity = new Treinamento();
+        entity.setId(dto.getId());
+        entity.setDataAgendamento(dto.getDataAgendamento());
+        entity.setDataConcluido(dto.getDataConcluido());
+        entity.setDataVencimento(dto.getDataVencimento());
+        entity.setInstrutor(dto.getInstrutor());
+        entity.setStatus(dto.getStatus());
+        return entity;
+    }
+
+    public static CredencialDTO toDTO(Credencial entity) {
+        CredencialDTO dto = new CredencialDTO();
+        dto.setId(entity.getId());
+        dto.setTipo(entity.getTipo());
+        dto.setDataEmissao(entity.getDataEmissao());
+        dto.setDataVencimento(entity.getDataVencimento());
+        dto.setStatus(entity.getStatus());
+        return dto;
+    }
+
+    public static Credencial toEntity(CredencialDTO dto) {
+        Credencial entity = new Credencial();
+        entity.setId(dto.getId());
+        entity.setTipo(dto.getTipo());
+        entity.setDataEmissao(dto.getDataEmissao());
+        entity.setDataVencimento(dto.getDataVencimento());
+        entity.setStatus(dto.getStatus());
+        return entity;
+    }
+}
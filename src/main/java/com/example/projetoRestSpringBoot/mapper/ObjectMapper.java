@@ -1,27 +1,83 @@
 package com.example.projetoRestSpringBoot.mapper;
 
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.model.Credencial;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
 import com.github.dozermapper.core.DozerBeanMapperBuilder;
 import com.github.dozermapper.core.Mapper;
+import org.hibernate.Hibernate;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class ObjectMapper {
     private static Mapper mapper = DozerBeanMapperBuilder.buildDefault();
 
+    // Mapeadores escritos à mão por par origem -> destino; o que não estiver aqui continua no Dozer
+    private static final Map<Class<?>, Map<Class<?>, Function<Object, Object>>> mappers = new HashMap<>();
+
+    static {
+        register(Funcionario.class, FuncionarioDTO.class, EntityMappers::toDTO);
+        register(FuncionarioDTO.class, Funcionario.class, EntityMappers::toEntity);
+        register(Curso.class, CursoDTO.class, EntityMappers::toDTO);
+        register(CursoDTO.class, Curso.class, EntityMappers::toEntity);
+        register(Treinamento.class, TreinamentoDTO.class, EntityMappers::toDTO);
+        register(TreinamentoDTO.class, Treinamento.class, EntityMappers::toEntity);
+        register(Credencial.class, CredencialDTO.class, EntityMappers::toDTO);
+        register(CredencialDTO.class, Credencial.class, EntityMappers::toEntity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <O, D> void register(Class<O> origin, Class<D> destination, Function<O, D> function) {
+        mappers.computeIfAbsent(origin, key -> new HashMap<>())
+                .put(destination, (Function<Object, Object>) function);
+    }
+
     public static <O, D> D parseObject(O origin, Class<D> destination) {
+        return TempoEtapas.medir(Etapa.MAPEAMENTO, origin, destination, ObjectMapper::map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <O, D> D map(O origin, Class<D> destination) {
+        if (origin != null) {
+            // Associações LAZY chegam como proxy do Hibernate, cuja classe é uma subclasse gerada da entidade
+            Object source = Hibernate.unproxy(origin);
+            Map<Class<?>, Function<Object, Object>> byDestination = mappers.get(source.getClass());
+            if (byDestination != null) {
+                Function<Object, Object> function = byDestination.get(destination);
+                if (function != null) {
+                    return (D) function.apply(source);
+                }
+            }
+        }
         return mapper.map(origin, destination);
     }
+
     public static <O, D> List<D> parseListObjects(List<O> origin, Class<D> destination) {
+        return TempoEtapas.medir(Etapa.MAPEAMENTO, origin, destination, ObjectMapper::mapList);
+    }
+
+    private static <O, D> List<D> mapList(List<O> origin, Class<D> destination) {
         List <D> destinationObjects = new ArrayList<>();
-        for(Object o : origin) {
-            destinationObjects.add(mapper.map(o, destination));
+        for(O o : origin) {
+            destinationObjects.add(parseObject(o, destination));
         }
 
         return destinationObjects;
     }
 
-
-
-
+    // Caminho antigo, mantido para comparação nos benchmarks
+    public static <O, D> D parseObjectWithDozer(O origin, Class<D> destination) {
+        return mapper.map(origin, destination);
+    }
 }
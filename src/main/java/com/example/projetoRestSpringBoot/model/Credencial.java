@@ -3,15 +3,22 @@ package com.example.projetoRestSpringBoot.model;
 import com.example.projetoRestSpringBoot.enums.CredencialStatus;
 import com.example.projetoRestSpringBoot.enums.CredencialTipo;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.example.projetoRestSpringBoot.service.etag.AlteracaoListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "credencial")
+@EntityListeners(AlteracaoListener.class)
+@Table(name = "credencial", indexes = {
+        @Index(name = "idx_credencial_vencimento", columnList = "data_vencimento, id"),
+        @Index(name = "idx_credencial_emissao", columnList = "data_emissao, id"),
+        @Index(name = "idx_credencial_status_vencimento", columnList = "status, data_vencimento, id")
+})
 @Getter
 @Setter
 public class Credencial implements Serializable {
@@ -21,6 +28,11 @@ public class Credencial implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @Enumerated(EnumType.STRING)
     @Column(name="tipo", nullable = false, length = 15)
     private CredencialTipo tipo;
@@ -2,14 +2,24 @@ package com.example.projetoRestSpringBoot.model;
 
 import com.example.projetoRestSpringBoot.enums.CursoOrigem;
 import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
+import com.example.projetoRestSpringBoot.service.etag.AlteracaoListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serializable;
 import java.util.Objects;
 
 @Entity
-@Table(name = "curso")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheReferencia.CURSO)
+@EntityListeners(AlteracaoListener.class)
+@Table(name = "curso", indexes = {
+        @Index(name = "idx_curso_nome", columnList = "nome, id")
+})
 @Getter
 @Setter
 public class Curso implements Serializable {
@@ -19,6 +29,11 @@ public class Curso implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @Column(nullable = false, length = 80)
     private String nome;
 
@@ -0,0 +1,66 @@
+package com.example.projetoRestSpringBoot.model;
+
+import com.example.projetoRestSpringBoot.enums.EmailStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import java.io.Serializable;
+import java.time.Instant;
+
+@Entity
+// Mesmos índices da V17
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status", columnList = "status, proxima_tentativa"),
+        @Index(name = "idx_email_outbox_lote", columnList = "lote")
+})
+@Getter
+@Setter
+public class EmailOutbox implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Endereços já validados, separados por ";"
+    @Column(nullable = false, length = 1000)
+    private String destinatarios;
+
+    @Column
+    private String assunto;
+
+    @Column(columnDefinition = "TEXT")
+    private String corpo;
+
+    @Column(name = "anexo_nome")
+    private String anexoNome;
+
+    @Column(name = "anexo_caminho", length = 500)
+    private String anexoCaminho;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EmailStatus status;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private Instant proximaTentativa;
+
+    // Identifica a rodada do worker que reservou a mensagem
+    @Column(length = 36)
+    private String lote;
+
+    @Column(name = "ultimo_erro", length = 1000)
+    private String ultimoErro;
+
+    @Column(name = "criado_em", nullable = false)
+    private Instant criadoEm;
+
+    @Column(name = "atualizado_em", nullable = false)
+    private Instant atualizadoEm;
+
+    @Column(name = "enviado_em")
+    private Instant enviadoEm;
+}
@@ -3,17 +3,25 @@ package com.example.projetoRestSpringBoot.model;
 import com.example.projetoRestSpringBoot.enums.FuncionarioSituacao;
 import com.example.projetoRestSpringBoot.enums.FuncionarioTipoContrato;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.example.projetoRestSpringBoot.service.etag.AlteracaoListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "funcionario")
+@EntityListeners(AlteracaoListener.class)
+@Table(name = "funcionario", indexes = {
+        @Index(name = "idx_funcionario_nome", columnList = "nome, id"),
+        @Index(name = "idx_funcionario_situacao_nome", columnList = "situacao, nome"),
+        @Index(name = "idx_funcionario_admissao", columnList = "data_admissao"),
+        @Index(name = "idx_funcionario_departamento", columnList = "departamento")
+})
 @Getter
 @Setter
 public class Funcionario implements Serializable {
@@ -23,6 +31,11 @@ public class Funcionario implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @Column(nullable = false, length = 80)
     private String nome;
 
@@ -1,13 +1,18 @@
 package com.example.projetoRestSpringBoot.model;
 
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import java.io.Serializable;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheReferencia.PERMISSION)
 @Table(name = "permission")
 @Data
 public class Permission implements GrantedAuthority, Serializable {
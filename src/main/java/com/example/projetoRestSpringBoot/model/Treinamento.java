@@ -1,16 +1,25 @@
 package com.example.projetoRestSpringBoot.model;
 
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.service.etag.AlteracaoListener;
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import java.io.Serializable;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "treinamento")
+@EntityListeners(AlteracaoListener.class)
+// Mesmos índices da V15, para o schema gerado nos testes refletir o do Flyway
+@Table(name = "treinamento", indexes = {
+        @Index(name = "idx_treinamento_vencimento", columnList = "data_vencimento, id"),
+        @Index(name = "idx_treinamento_concluido", columnList = "data_concluido, id"),
+        @Index(name = "idx_treinamento_status_vencimento", columnList = "status, data_vencimento, id"),
+        @Index(name = "idx_treinamento_instrutor_concluido", columnList = "instrutor, data_concluido")
+})
 @Getter
 @Setter
 public class Treinamento implements Serializable {
@@ -20,6 +29,11 @@ public class Treinamento implements Serializable {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long versao;
+
     @ManyToOne
     @JoinColumn(name = "funcionario_id", nullable = false)
     private Funcionario funcionario;
@@ -1,7 +1,10 @@
 package com.example.projetoRestSpringBoot.model;
 
 import jakarta.persistence.*;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import java.io.Serializable;
@@ -42,6 +45,8 @@ public class User implements UserDetails, Serializable {
 
     public User() {}
 
+    // Só os ids das permissões; as entidades vêm da região de Permission
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheReferencia.USER_PERMISSIONS)
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
         name = "user_permission",
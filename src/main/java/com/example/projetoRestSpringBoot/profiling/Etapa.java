@@ -0,0 +1,25 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+// Fases de uma requisição medidas pelo TempoEtapas; o tempo de banco vem do PerfilSql
+public enum Etapa {
+    MAPEAMENTO("mapeamento", "ObjectMapper"),
+    LINKS("links", "HateoasLinkManager"),
+    ASSEMBLER("assembler", "PagedResourcesAssembler"),
+    SERIALIZACAO("serializacao", "HttpMessageConverter");
+
+    private final String nome;
+    private final String descricao;
+
+    Etapa(String nome, String descricao) {
+        this.nome = nome;
+        this.descricao = descricao;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
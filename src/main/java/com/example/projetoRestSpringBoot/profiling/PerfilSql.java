@@ -0,0 +1,69 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Statements de uma requisição, agrupados pelo SQL. Usado só pela thread da requisição.
+public class PerfilSql {
+
+    private static class Consulta {
+        int execucoes;
+        long nanos;
+    }
+
+    private final Map<String, Consulta> porSql = new HashMap<>();
+    private int statements;
+    private long nanos;
+    private Consulta atual;
+    private long inicioExecucao;
+
+    void statement(String sql) {
+        statements++;
+        atual = porSql.computeIfAbsent(sql, k -> new Consulta());
+        atual.execucoes++;
+    }
+
+    void inicioExecucao() {
+        inicioExecucao = System.nanoTime();
+    }
+
+    // O tempo vai para o último statement preparado, que é o que o Hibernate está executando
+    void fimExecucao() {
+        long decorrido = System.nanoTime() - inicioExecucao;
+        nanos += decorrido;
+        if (atual != null) {
+            atual.nanos += decorrido;
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    // Execuções de cada SQL, do mais executado para o menos
+    public Map<String, Integer> getExecucoesPorSql() {
+        Map<String, Integer> execucoes = new LinkedHashMap<>();
+        porSql.entrySet().stream()
+                .sorted((a, b) -> Integer.compare(b.getValue().execucoes, a.getValue().execucoes))
+                .forEach(e -> execucoes.put(e.getKey(), e.getValue().execucoes));
+        return execucoes;
+    }
+
+    // O mesmo SELECT repetido na requisição: com parâmetros ligados o texto é idêntico, só o id muda.
+    // Como o contexto de persistência não repete a busca do mesmo id, a repetição indica um SELECT por linha.
+    public Map<String, Integer> suspeitasNMaisUm(int limite) {
+        Map<String, Integer> suspeitas = new LinkedHashMap<>();
+        porSql.forEach((sql, consulta) -> {
+            if (consulta.execucoes >= limite && sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                suspeitas.put(sql, consulta.execucoes);
+            }
+        });
+        return suspeitas;
+    }
+}
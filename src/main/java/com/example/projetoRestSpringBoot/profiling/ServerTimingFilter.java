@@ -0,0 +1,128 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import com.example.projetoRestSpringBoot.config.ServerTimingConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+// Logo depois do SqlProfilerFilter, para já encontrar o PerfilSql da requisição
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 11)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(ServerTimingFilter.class.getName());
+
+    @Autowired
+    private ServerTimingConfig config;
+
+    // Só a API: actuator, swagger e arquivos estáticos não passam pelas etapas medidas
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().substring(request.getContextPath().length()).startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!config.isHabilitado() && !config.isLogLentas()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TempoEtapas etapas = TempoEtapas.iniciar();
+        PerfilSql perfilSql = SqlProfiler.atual();
+        ServerTimingResponse serverTiming = config.isHabilitado()
+                ? new ServerTimingResponse(response, etapas, perfilSql) : null;
+        try {
+            chain.doFilter(request, serverTiming != null ? serverTiming : response);
+        } finally {
+            etapas.fecharAbertas();
+            TempoEtapas.encerrar();
+            if (serverTiming != null) {
+                serverTiming.escreverCabecalho();
+            }
+            if (config.isLogLentas() && etapas.getNanosTotal() >= config.getLimiteLenta().toNanos()) {
+                logarLenta(request, response, etapas, perfilSql);
+            }
+        }
+    }
+
+    // Chave=valor numa linha só, para o agregador de logs separar os campos
+    private void logarLenta(HttpServletRequest request, HttpServletResponse response, TempoEtapas etapas, PerfilSql perfilSql) {
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        StringBuilder linha = new StringBuilder()
+                .append("metodo=").append(request.getMethod())
+                .append(" rota=").append(rota != null ? rota : request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=").append(ms(etapas.getNanosTotal()));
+        if (perfilSql != null) {
+            linha.append(" sql_ms=").append(ms(perfilSql.getNanos()))
+                    .append(" statements=").append(perfilSql.getStatements());
+        }
+        for (Etapa etapa : Etapa.values()) {
+            linha.append(' ').append(etapa.getNome()).append("_ms=").append(ms(etapas.getNanos(etapa)));
+        }
+        logger.warn("Requisição lenta: {}", linha);
+    }
+
+    static String cabecalho(TempoEtapas etapas, PerfilSql perfilSql) {
+        StringBuilder cabecalho = new StringBuilder();
+        if (perfilSql != null) {
+            cabecalho.append("sql;dur=").append(ms(perfilSql.getNanos()))
+                    .append(";desc=\"").append(perfilSql.getStatements()).append(" statements\", ");
+        }
+        for (Etapa etapa : Etapa.values()) {
+            if (etapas.getExecucoes(etapa) > 0) {
+                cabecalho.append(etapa.getNome()).append(";dur=").append(ms(etapas.getNanos(etapa)))
+                        .append(";desc=\"").append(etapa.getDescricao()).append("\", ");
+            }
+        }
+        return cabecalho.append("total;dur=").append(ms(etapas.getNanosTotal())).toString();
+    }
+
+    private static String ms(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    // O cabeçalho vai quando a resposta é enviada. Corpos maiores que o buffer da resposta fazem o envio
+    // começar no meio da serialização; nesse caso o Server-Timing traz só o que foi serializado até ali
+    // e o log de requisição lenta, escrito no fim, traz o tempo completo.
+    private static class ServerTimingResponse extends OnCommittedResponseWrapper {
+
+        private final TempoEtapas etapas;
+        private final PerfilSql perfilSql;
+        private boolean escrito;
+
+        ServerTimingResponse(HttpServletResponse response, TempoEtapas etapas, PerfilSql perfilSql) {
+            super(response);
+            this.etapas = etapas;
+            this.perfilSql = perfilSql;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            escreverCabecalho();
+        }
+
+        void escreverCabecalho() {
+            if (escrito || isCommitted()) {
+                return;
+            }
+            escrito = true;
+            addHeader("Server-Timing", cabecalho(etapas, perfilSql));
+        }
+    }
+}
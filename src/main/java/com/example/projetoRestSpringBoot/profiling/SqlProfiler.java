@@ -0,0 +1,25 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+// Perfil da requisição em andamento na thread. Fora de uma requisição (jobs, threads de exportação em
+// streaming) não há perfil e o inspector e o listener não fazem nada.
+public final class SqlProfiler {
+
+    private static final ThreadLocal<PerfilSql> ATUAL = new ThreadLocal<>();
+
+    private SqlProfiler() {
+    }
+
+    public static PerfilSql iniciar() {
+        PerfilSql perfil = new PerfilSql();
+        ATUAL.set(perfil);
+        return perfil;
+    }
+
+    public static PerfilSql atual() {
+        return ATUAL.get();
+    }
+
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import com.example.projetoRestSpringBoot.dto.PerfilSqlEndpointDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// GET /actuator/sqlprofiler lista os endpoints que mais vão ao banco; DELETE zera as estatísticas.
+// Como todo /actuator/** fora o health, exige a permissão ADMIN (SecurityConfig)
+@Component
+@Endpoint(id = "sqlprofiler")
+public class SqlProfilerEndpoint {
+
+    private static final int LIMITE = 20;
+
+    @Autowired
+    private SqlProfilerRegistro registro;
+
+    @ReadOperation
+    public List<PerfilSqlEndpointDTO> piores() {
+        return registro.piores(LIMITE);
+    }
+
+    @DeleteOperation
+    public void limpar() {
+        registro.limpar();
+    }
+}
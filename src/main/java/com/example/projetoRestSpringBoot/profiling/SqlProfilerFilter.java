@@ -0,0 +1,60 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import com.example.projetoRestSpringBoot.config.SqlProfilerConfig;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Antes da cadeia do Spring Security, para contar também o carregamento do usuário pelo token
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class SqlProfilerFilter extends OncePerRequestFilter {
+
+    private final Logger logger = LoggerFactory.getLogger(SqlProfilerFilter.class.getName());
+
+    @Autowired
+    private SqlProfilerConfig config;
+
+    @Autowired
+    private SqlProfilerRegistro registro;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!config.isHabilitado()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        PerfilSql perfil = SqlProfiler.iniciar();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlProfiler.encerrar();
+            registrar(request, perfil);
+        }
+    }
+
+    private void registrar(HttpServletRequest request, PerfilSql perfil) {
+        // O padrão da rota, não a URI: ids e parâmetros não viram endpoints diferentes
+        Object rota = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String endpoint = request.getMethod() + " " + (rota != null ? rota : "sem rota");
+        Map<String, Integer> suspeitas = perfil.suspeitasNMaisUm(config.getLimiteNMaisUm());
+        if (registro.registrar(endpoint, perfil, suspeitas)) {
+            suspeitas.forEach((sql, execucoes) ->
+                    logger.warn("Possível N+1 em {}: {} execuções de {}", endpoint, execucoes, sql));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import com.example.projetoRestSpringBoot.dto.PerfilSqlEndpointDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Acumula os perfis por endpoint desde a subida da aplicação (ou desde o último DELETE no actuator)
+@Component
+public class SqlProfilerRegistro {
+
+    private static final int MAX_SUSPEITAS_POR_ENDPOINT = 10;
+
+    private static class EstatisticaEndpoint {
+        long requisicoes;
+        long statements;
+        int statementsMax;
+        long nanos;
+        long nanosMax;
+        long requisicoesComNMaisUm;
+        final Map<String, Integer> suspeitas = new LinkedHashMap<>();
+
+        // Retorna true se apareceu um SQL suspeito que o endpoint ainda não tinha
+        synchronized boolean registrar(PerfilSql perfil, Map<String, Integer> suspeitasRequisicao) {
+            requisicoes++;
+            statements += perfil.getStatements();
+            statementsMax = Math.max(statementsMax, perfil.getStatements());
+            nanos += perfil.getNanos();
+            nanosMax = Math.max(nanosMax, perfil.getNanos());
+            if (suspeitasRequisicao.isEmpty()) {
+                return false;
+            }
+            requisicoesComNMaisUm++;
+            boolean nova = false;
+            for (Map.Entry<String, Integer> suspeita : suspeitasRequisicao.entrySet()) {
+                if (suspeitas.containsKey(suspeita.getKey())) {
+                    suspeitas.merge(suspeita.getKey(), suspeita.getValue(), Math::max);
+                } else if (suspeitas.size() < MAX_SUSPEITAS_POR_ENDPOINT) {
+                    suspeitas.put(suspeita.getKey(), suspeita.getValue());
+                    nova = true;
+                }
+            }
+            return nova;
+        }
+
+        synchronized PerfilSqlEndpointDTO toDTO(String endpoint) {
+            PerfilSqlEndpointDTO dto = new PerfilSqlEndpointDTO();
+            dto.setEndpoint(endpoint);
+            dto.setRequisicoes(requisicoes);
+            dto.setStatementsMedia(arredondar((double) statements / requisicoes));
+            dto.setStatementsMax(statementsMax);
+            dto.setTempoSqlMedioMs(arredondar(nanos / 1_000_000.0 / requisicoes));
+            dto.setTempoSqlMaxMs(arredondar(nanosMax / 1_000_000.0));
+            dto.setRequisicoesComNMaisUm(requisicoesComNMaisUm);
+            dto.setSuspeitasNMaisUm(new LinkedHashMap<>(suspeitas));
+            return dto;
+        }
+    }
+
+    private final Map<String, EstatisticaEndpoint> porEndpoint = new ConcurrentHashMap<>();
+
+    public boolean registrar(String endpoint, PerfilSql perfil, Map<String, Integer> suspeitas) {
+        return porEndpoint.computeIfAbsent(endpoint, k -> new EstatisticaEndpoint()).registrar(perfil, suspeitas);
+    }
+
+    // Mais statements por requisição primeiro; no empate, mais tempo de banco
+    public List<PerfilSqlEndpointDTO> piores(int limite) {
+        return porEndpoint.entrySet().stream()
+                .map(e -> e.getValue().toDTO(e.getKey()))
+                .sorted(Comparator.comparingDouble(PerfilSqlEndpointDTO::getStatementsMedia)
+                        .thenComparingDouble(PerfilSqlEndpointDTO::getTempoSqlMedioMs)
+                        .reversed())
+                .limit(limite)
+                .toList();
+    }
+
+    public void limpar() {
+        porEndpoint.clear();
+    }
+
+    private static double arredondar(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registrado em hibernate.session_factory.statement_inspector; vê cada statement que o Hibernate prepara
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        PerfilSql perfil = SqlProfiler.atual();
+        if (perfil != null) {
+            perfil.statement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import org.hibernate.SessionEventListener;
+
+// Registrado em hibernate.session.events.auto; mede a execução dos statements contados pelo SqlStatementInspector
+public class SqlTempoListener implements SessionEventListener {
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        PerfilSql perfil = SqlProfiler.atual();
+        if (perfil != null) {
+            perfil.inicioExecucao();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        PerfilSql perfil = SqlProfiler.atual();
+        if (perfil != null) {
+            perfil.fimExecucao();
+        }
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        jdbcExecuteStatementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        jdbcExecuteStatementEnd();
+    }
+}
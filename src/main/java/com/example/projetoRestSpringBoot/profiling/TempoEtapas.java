@@ -0,0 +1,121 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+// Tempo gasto em cada Etapa durante uma requisição. Como o SqlProfiler, fica na thread da requisição
+// e fora dela (jobs, exportação em streaming) medir só executa o trecho.
+public class TempoEtapas {
+
+    private static final ThreadLocal<TempoEtapas> ATUAL = new ThreadLocal<>();
+
+    private final long inicio = System.nanoTime();
+    private final long[] nanos = new long[Etapa.values().length];
+    private final int[] execucoes = new int[Etapa.values().length];
+    // Chamadas aninhadas da mesma etapa (parseListObjects -> parseObject) contam uma vez só
+    private final int[] profundidade = new int[Etapa.values().length];
+    private final long[] inicioAberta = new long[Etapa.values().length];
+
+    public static TempoEtapas iniciar() {
+        TempoEtapas etapas = new TempoEtapas();
+        ATUAL.set(etapas);
+        return etapas;
+    }
+
+    public static TempoEtapas atual() {
+        return ATUAL.get();
+    }
+
+    public static void encerrar() {
+        ATUAL.remove();
+    }
+
+    public static <T> T medir(Etapa etapa, Supplier<T> trecho) {
+        TempoEtapas etapas = ATUAL.get();
+        if (etapas == null) {
+            return trecho.get();
+        }
+        etapas.abrir(etapa);
+        try {
+            return trecho.get();
+        } finally {
+            etapas.fechar(etapa);
+        }
+    }
+
+    public static void medir(Etapa etapa, Runnable trecho) {
+        medir(etapa, () -> {
+            trecho.run();
+            return null;
+        });
+    }
+
+    // Para os trechos executados por item (mapeamento, links de detalhe): os argumentos vão separados e o
+    // trecho é uma referência a método estático, que não captura nada e não aloca um lambda a cada chamada
+    public static <A> void medir(Etapa etapa, A argumento, Consumer<A> trecho) {
+        TempoEtapas etapas = ATUAL.get();
+        if (etapas == null) {
+            trecho.accept(argumento);
+            return;
+        }
+        etapas.abrir(etapa);
+        try {
+            trecho.accept(argumento);
+        } finally {
+            etapas.fechar(etapa);
+        }
+    }
+
+    public static <A, B, T> T medir(Etapa etapa, A primeiro, B segundo, BiFunction<A, B, T> trecho) {
+        TempoEtapas etapas = ATUAL.get();
+        if (etapas == null) {
+            return trecho.apply(primeiro, segundo);
+        }
+        etapas.abrir(etapa);
+        try {
+            return trecho.apply(primeiro, segundo);
+        } finally {
+            etapas.fechar(etapa);
+        }
+    }
+
+    public void abrir(Etapa etapa) {
+        int i = etapa.ordinal();
+        if (profundidade[i]++ == 0) {
+            inicioAberta[i] = System.nanoTime();
+            execucoes[i]++;
+        }
+    }
+
+    public void fechar(Etapa etapa) {
+        int i = etapa.ordinal();
+        if (profundidade[i] > 0 && --profundidade[i] == 0) {
+            nanos[i] += System.nanoTime() - inicioAberta[i];
+        }
+    }
+
+    // A serialização é aberta pelo advice e só termina junto com a requisição
+    public void fecharAbertas() {
+        for (Etapa etapa : Etapa.values()) {
+            if (profundidade[etapa.ordinal()] > 0) {
+                profundidade[etapa.ordinal()] = 1;
+                fechar(etapa);
+            }
+        }
+    }
+
+    // Inclui o trecho em andamento de uma etapa ainda aberta
+    public long getNanos(Etapa etapa) {
+        int i = etapa.ordinal();
+        return profundidade[i] > 0 ? nanos[i] + System.nanoTime() - inicioAberta[i] : nanos[i];
+    }
+
+    public int getExecucoes(Etapa etapa) {
+        return execucoes[etapa.ordinal()];
+    }
+
+    public long getNanosTotal() {
+        return System.nanoTime() - inicio;
+    }
+}
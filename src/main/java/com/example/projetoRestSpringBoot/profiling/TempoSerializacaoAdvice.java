@@ -0,0 +1,31 @@
+package com.example.projetoRestSpringBoot.profiling;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Chamado logo antes do HttpMessageConverter escrever o corpo (JSON, XML, YAML ou arquivo);
+// a etapa é fechada pelo ServerTimingFilter quando a requisição termina
+@ControllerAdvice
+public class TempoSerializacaoAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        TempoEtapas etapas = TempoEtapas.atual();
+        if (etapas != null) {
+            etapas.abrir(Etapa.SERIALIZACAO);
+        }
+        return body;
+    }
+}
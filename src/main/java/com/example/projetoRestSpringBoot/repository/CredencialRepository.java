@@ -2,29 +2,118 @@ package com.example.projetoRestSpringBoot.repository;
 
 import com.example.projetoRestSpringBoot.enums.CredencialStatus;
 import com.example.projetoRestSpringBoot.model.Credencial;
+import jakarta.persistence.QueryHint;
+import com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface CredencialRepository extends JpaRepository<Credencial, Long> {
+    // Base do ETag: versão da credencial e do funcionário exibido no DTO
+    @Query("SELECT CONCAT(str(c.versao), '-', str(c.funcionario.versao)) " +
+            "FROM Credencial c WHERE c.id = :id")
+    Optional<String> findVersaoById(@Param("id") Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"funcionario"})
+    Page<Credencial> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"funcionario"})
+    List<Credencial> findAll();
 
+    @EntityGraph(attributePaths = {"funcionario"})
+    Window<Credencial> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"funcionario"})
     @Query("SELECT c FROM Credencial c WHERE c.dataVencimento BETWEEN :startDate AND :endDate")
     Page<Credencial> findCredencialExpiring(@Param("startDate") LocalDate startDate,
                                             @Param("endDate") LocalDate endDate,
                                             Pageable pageable);
 
+    @EntityGraph(attributePaths = {"funcionario"})
     @Query("SELECT c FROM Credencial c WHERE c.dataEmissao BETWEEN :startDate AND :endDate")
     Page<Credencial> findCredencialEmited(@Param("startDate") LocalDate startDate,
                                           @Param("endDate") LocalDate endDate,
                                           Pageable pageable);
 
+    @EntityGraph(attributePaths = {"funcionario"})
     Page<Credencial> findByStatus(CredencialStatus status, Pageable pageable);
 
-}
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM Credencial c")
+    long findMaxId();
+
+    // Linhas que o UPDATE correspondente vai alterar, lidas antes dele para o resumo de vencimentos
+    @Query("SELECT new com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento(CAST(c.tipo AS String), c.dataVencimento, f.nome, f.email, f.departamento) " +
+            "FROM Credencial c JOIN c.funcionario f WHERE c.id BETWEEN :idInicio AND :idFim " +
+            "AND c.dataVencimento < :data AND c.status <> :status")
+    List<TransicaoVencimento> findTransicoesVencimentoAntesDe(@Param("status") CredencialStatus status,
+                                                              @Param("data") LocalDate data,
+                                                              @Param("idInicio") long idInicio,
+                                                              @Param("idFim") long idFim);
 
+    @Query("SELECT new com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento(CAST(c.tipo AS String), c.dataVencimento, f.nome, f.email, f.departamento) " +
+            "FROM Credencial c JOIN c.funcionario f WHERE c.id BETWEEN :idInicio AND :idFim " +
+            "AND c.dataVencimento >= :inicio AND c.dataVencimento < :fim AND c.status <> :status")
+    List<TransicaoVencimento> findTransicoesVencimentoEntre(@Param("status") CredencialStatus status,
+                                                            @Param("inicio") LocalDate inicio,
+                                                            @Param("fim") LocalDate fim,
+                                                            @Param("idInicio") long idInicio,
+                                                            @Param("idFim") long idFim);
+
+    // Atualizações em massa do job noturno, sempre por faixa de id para manter cada transação curta
+    @Transactional
+    @Modifying
+    @Query("UPDATE Credencial c SET c.status = :status, c.versao = c.versao + 1 WHERE c.id BETWEEN :idInicio AND :idFim " +
+            "AND c.dataVencimento < :data AND c.status <> :status")
+    int atualizarStatusVencimentoAntesDe(@Param("status") CredencialStatus status,
+                                         @Param("data") LocalDate data,
+                                         @Param("idInicio") long idInicio,
+                                         @Param("idFim") long idFim);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Credencial c SET c.status = :status, c.versao = c.versao + 1 WHERE c.id BETWEEN :idInicio AND :idFim " +
+            "AND c.dataVencimento >= :inicio AND c.dataVencimento < :fim AND c.status <> :status")
+    int atualizarStatusVencimentoEntre(@Param("status") CredencialStatus status,
+                                       @Param("inicio") LocalDate inicio,
+                                       @Param("fim") LocalDate fim,
+                                       @Param("idInicio") long idInicio,
+                                       @Param("idFim") long idFim);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Credencial c SET c.status = :status, c.versao = c.versao + 1 WHERE c.id BETWEEN :idInicio AND :idFim " +
+            "AND c.dataVencimento >= :data AND c.status <> :status")
+    int atualizarStatusVencimentoAPartirDe(@Param("status") CredencialStatus status,
+                                           @Param("data") LocalDate data,
+                                           @Param("idInicio") long idInicio,
+                                           @Param("idFim") long idFim);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Credencial c JOIN FETCH c.funcionario ORDER BY c.id")
+    Stream<Credencial> streamAll();
+}
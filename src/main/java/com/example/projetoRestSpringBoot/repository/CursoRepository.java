@@ -1,16 +1,52 @@
 package com.example.projetoRestSpringBoot.repository;
 
 import com.example.projetoRestSpringBoot.model.Curso;
-import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 @Repository
 public interface CursoRepository extends JpaRepository<Curso, Long> {
-    @Query("SELECT c FROM Curso c WHERE LOWER(c.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
-    Page<Curso> findCursoByName(@Param("nome") String nome, Pageable pageable);
+    // Listagem paginada (e o count) no cache de consultas; invalidada quando a tabela curso muda
+    @Override
+    @QueryHints({
+            @QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = CacheReferencia.CURSO_CONSULTAS)
+    })
+    Page<Curso> findAll(Pageable pageable);
+
+    Window<Curso> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query("SELECT c.versao FROM Curso c WHERE c.id = :id")
+    Optional<Long> findVersaoById(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Curso c ORDER BY c.id")
+    Stream<Curso> streamAll();
+
+    // Carga do índice de busca por nome: só as colunas indexadas, sem montar entidades
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.nome FROM Curso c")
+    Stream<Object[]> streamNomes();
 }
@@ -0,0 +1,54 @@
+package com.example.projetoRestSpringBoot.repository;
+
+import com.example.projetoRestSpringBoot.enums.EmailStatus;
+import com.example.projetoRestSpringBoot.model.EmailOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.proximaTentativa <= :agora " +
+            "ORDER BY e.proximaTentativa, e.id")
+    List<Long> findIdsProntos(@Param("status") EmailStatus status, @Param("agora") Instant agora, Limit limit);
+
+    // Só marca as linhas que ainda estão pendentes: outra instância pode ter reservado parte delas
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :reservado, e.lote = :lote, e.atualizadoEm = :agora " +
+            "WHERE e.id IN :ids AND e.status = :pendente")
+    int reservar(@Param("ids") List<Long> ids, @Param("lote") String lote, @Param("agora") Instant agora,
+                 @Param("pendente") EmailStatus pendente, @Param("reservado") EmailStatus reservado);
+
+    List<EmailOutbox> findByLote(String lote);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :enviado, e.lote = null, e.ultimoErro = null, " +
+            "e.enviadoEm = :agora, e.atualizadoEm = :agora WHERE e.id IN :ids")
+    int marcarEnviados(@Param("ids") List<Long> ids, @Param("agora") Instant agora, @Param("enviado") EmailStatus enviado);
+
+    // Grupos que o pool de envio não aceitou voltam para a fila sem contar tentativa
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :pendente, e.lote = null, e.atualizadoEm = :agora " +
+            "WHERE e.id IN :ids AND e.status = :reservado")
+    int liberar(@Param("ids") List<Long> ids, @Param("agora") Instant agora,
+                @Param("pendente") EmailStatus pendente, @Param("reservado") EmailStatus reservado);
+
+    // Reservas de um worker que caiu no meio do envio voltam para a fila
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = :pendente, e.lote = null, e.atualizadoEm = :agora " +
+            "WHERE e.status = :reservado AND e.atualizadoEm < :limite")
+    int liberarReservasAntigas(@Param("limite") Instant limite, @Param("agora") Instant agora,
+                               @Param("pendente") EmailStatus pendente, @Param("reservado") EmailStatus reservado);
+}
@@ -6,21 +6,35 @@ import com.example.projetoRestSpringBoot.enums.FuncionarioSituacao;
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
 import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.model.Treinamento;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface FuncionarioRepository extends JpaRepository<Funcionario, Long> {
 
-    @Query("SELECT f FROM Funcionario f WHERE LOWER(f.nome) LIKE LOWER(CONCAT('%', :nome, '%'))")
-    Page<Funcionario> findFuncionarioByName(@Param("nome") String nome, Pageable pageable);
+    @Query("SELECT f.versao FROM Funcionario f WHERE f.id = :id")
+    Optional<Long> findVersaoById(@Param("id") Long id);
+
+    Window<Funcionario> findAllBy(ScrollPosition position, Sort sort, Limit limit);
 
     @Query("SELECT f FROM Funcionario f WHERE f.dataAdmissao BETWEEN :startDate AND :endDate")
     Page<Funcionario> findFuncionarioByAddmitedDate(@Param("startDate") LocalDate startDate,
@@ -30,5 +44,25 @@ public interface FuncionarioRepository extends JpaRepository<Funcionario, Long>
     Optional<Funcionario> findByMatricula(String matricula);
 
     Page<Funcionario> findBySituacao(FuncionarioSituacao situacao, Pageable pageable);
-}
 
+    // Usado na importação para checar um lote inteiro em uma consulta: cada linha traz matricula, cpf e rg.
+    // UNION em vez de OR para cada parte usar a própria chave única; com OR o banco varre a tabela
+    @Query("SELECT f.matricula, f.cpf, f.rg FROM Funcionario f WHERE f.matricula IN :matriculas " +
+            "UNION SELECT f.matricula, f.cpf, f.rg FROM Funcionario f WHERE f.cpf IN :cpfs " +
+            "UNION SELECT f.matricula, f.cpf, f.rg FROM Funcionario f WHERE f.rg IN :rgs")
+    List<Object[]> findChavesExistentes(@Param("matriculas") Collection<String> matriculas,
+                                        @Param("cpfs") Collection<String> cpfs,
+                                        @Param("rgs") Collection<String> rgs);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT f FROM Funcionario f ORDER BY f.id")
+    Stream<Funcionario> streamAll();
+
+    // Carga do índice de busca por nome: só as colunas indexadas, sem montar entidades
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id, f.nome, f.matricula FROM Funcionario f")
+    Stream<Object[]> streamNomes();
+}
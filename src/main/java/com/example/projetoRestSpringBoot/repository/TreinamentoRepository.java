@@ -5,33 +5,135 @@ import com.example.projetoRestSpringBoot.enums.CredencialStatus;
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
 import com.example.projetoRestSpringBoot.model.Credencial;
 import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface TreinamentoRepository extends JpaRepository<Treinamento, Long> {
+    // Base do ETag: o DTO também mostra nome do funcionário e do curso, então as versões deles entram junto
+    @Query("SELECT CONCAT(str(t.versao), '-', str(t.funcionario.versao), '-', str(t.curso.versao)) " +
+            "FROM Treinamento t WHERE t.id = :id")
+    Optional<String> findVersaoById(@Param("id") Long id);
+
+    // Funcionário e curso vêm no mesmo select da página, em vez de um select por linha
+    @Override
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
+    Page<Treinamento> findAll(Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
+    List<Treinamento> findAll();
+
+    // Paginação por cursor: filtra pela última chave entregue em vez de OFFSET e não roda count
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
+    Window<Treinamento> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
     @Query("SELECT t FROM Treinamento t WHERE " + "t.dataVencimento BETWEEN " + ":startDate AND :endDate")
     Page<Treinamento> findTreinamentoExpiring(@Param("startDate") LocalDate startDate,
                                                  @Param("endDate") LocalDate endDate,
                                                  Pageable pageable);
 
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
     @Query("SELECT t FROM Treinamento t WHERE " + "t.dataConcluido BETWEEN " + ":startDate AND :endDate")
     Page<Treinamento> findTreinamentoConluded(@Param("startDate") LocalDate startDate,
                                                  @Param("endDate") LocalDate endDate,
                                                  Pageable pageable);
 
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
     @Query("SELECT t FROM Treinamento t WHERE t.funcionario.id = :id")
     Page<Treinamento> findTreinamentosByFuncionario(@Param("id") Long id,
                                                     Pageable pageable);
 
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
     Page<Treinamento> findByStatus(TreinamentoStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"funcionario", "curso"})
     Page<Treinamento> findByInstrutor(String instrutor, Pageable pageable);
 
+    @Query("SELECT DISTINCT t.funcionario.id FROM Treinamento t WHERE t.funcionario.id IN :ids ORDER BY t.funcionario.id")
+    List<Long> findFuncionarioIdsComTreinamento(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT t.funcionario.id FROM Treinamento t WHERE t.funcionario.departamento = :departamento ORDER BY t.funcionario.id")
+    List<Long> findFuncionarioIdsComTreinamentoPorDepartamento(@Param("departamento") String departamento);
+
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Treinamento t")
+    long findMaxId();
+
+    // Linhas que o UPDATE correspondente vai alterar, lidas antes dele para o resumo de vencimentos
+    @Query("SELECT new com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento(cu.nome, t.dataVencimento, f.nome, f.email, f.departamento) " +
+            "FROM Treinamento t JOIN t.funcionario f LEFT JOIN t.curso cu WHERE t.id BETWEEN :idInicio AND :idFim " +
+            "AND t.dataVencimento < :data AND t.status <> :status")
+    List<TransicaoVencimento> findTransicoesVencimentoAntesDe(@Param("status") TreinamentoStatus status,
+                                                              @Param("data") LocalDate data,
+                                                              @Param("idInicio") long idInicio,
+                                                              @Param("idFim") long idFim);
+
+    @Query("SELECT new com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento(cu.nome, t.dataVencimento, f.nome, f.email, f.departamento) " +
+            "FROM Treinamento t JOIN t.funcionario f LEFT JOIN t.curso cu WHERE t.id BETWEEN :idInicio AND :idFim " +
+            "AND t.dataVencimento >= :inicio AND t.dataVencimento < :fim AND t.status <> :status")
+    List<TransicaoVencimento> findTransicoesVencimentoEntre(@Param("status") TreinamentoStatus status,
+                                                            @Param("inicio") LocalDate inicio,
+                                                            @Param("fim") LocalDate fim,
+                                                            @Param("idInicio") long idInicio,
+                                                            @Param("idFim") long idFim);
+
+    // Atualizações em massa do job noturno, sempre por faixa de id para manter cada transação curta
+    @Transactional
+    @Modifying
+    @Query("UPDATE Treinamento t SET t.status = :status, t.versao = t.versao + 1 WHERE t.id BETWEEN :idInicio AND :idFim " +
+            "AND t.dataVencimento < :data AND t.status <> :status")
+    int atualizarStatusVencimentoAntesDe(@Param("status") TreinamentoStatus status,
+                                         @Param("data") LocalDate data,
+                                         @Param("idInicio") long idInicio,
+                                         @Param("idFim") long idFim);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Treinamento t SET t.status = :status, t.versao = t.versao + 1 WHERE t.id BETWEEN :idInicio AND :idFim " +
+            "AND t.dataVencimento >= :inicio AND t.dataVencimento < :fim AND t.status <> :status")
+    int atualizarStatusVencimentoEntre(@Param("status") TreinamentoStatus status,
+                                       @Param("inicio") LocalDate inicio,
+                                       @Param("fim") LocalDate fim,
+                                       @Param("idInicio") long idInicio,
+                                       @Param("idFim") long idFim);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Treinamento t SET t.status = :status, t.versao = t.versao + 1 WHERE t.id BETWEEN :idInicio AND :idFim " +
+            "AND t.dataVencimento >= :data AND t.status <> :status")
+    int atualizarStatusVencimentoAPartirDe(@Param("status") TreinamentoStatus status,
+                                           @Param("data") LocalDate data,
+                                           @Param("idInicio") long idInicio,
+                                           @Param("idFim") long idFim);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Treinamento t JOIN FETCH t.funcionario JOIN FETCH t.curso ORDER BY t.id")
+    Stream<Treinamento> streamAll();
 }
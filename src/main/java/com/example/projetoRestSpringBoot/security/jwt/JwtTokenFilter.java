@@ -29,7 +29,8 @@ public class JwtTokenFilter extends GenericFilterBean {
         try {
             var token = tokenProvider.resolveToken((HttpServletRequest) request);
 
-            if (StringUtils.isNotBlank(token) && tokenProvider.validateToken(token)) {
+            // getAuthentication já valida o token (uma vez só, depois vem do cache)
+            if (StringUtils.isNotBlank(token)) {
                 Authentication authentication = tokenProvider.getAuthentication(token);
                 if (authentication != null) {
                     SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -3,10 +3,15 @@ package com.example.projetoRestSpringBoot.security.jwt;
 
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
 import com.auth0.jwt.interfaces.JWTVerifier;
 import com.example.projetoRestSpringBoot.dto.security.TokenDTO;
 import com.example.projetoRestSpringBoot.exception.InvalidJwtAuthenticationException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.annotation.Timed;
 import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
@@ -19,9 +24,14 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtTokenProvider {
@@ -32,15 +42,50 @@ public class JwtTokenProvider {
     @Value("${security.jwt.token.expire-length:36000000}")
     private long validityInMilliseconds = 36000000;
 
+    @Value("${security.jwt.cache.max-size:10000}")
+    private long cacheMaxSize = 10000;
+
+    @Value("${security.jwt.cache.ttl:300000}")
+    private long cacheTtlInMilliseconds = 300000;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
     Algorithm algorithm = null;
 
+    private JWTVerifier verifier;
+
+    // Chave é o SHA-256 do token; o TTL limita quanto tempo uma mudança de permissão leva para valer
+    private Cache<String, CachedAuthentication> authenticationCache;
+
+    private record CachedAuthentication(Authentication authentication, long expiresAtMillis) {
+    }
+
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
+        authenticationCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, CachedAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                        long ateExpirar = value.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(cacheTtlInMilliseconds, ateExpirar)));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedAuthentication value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public TokenDTO createAcessToken(String username, List<String> roles) {
@@ -63,7 +108,6 @@ public class JwtTokenProvider {
         }
 
         try {
-            JWTVerifier verifier = JWT.require(algorithm).build();
             DecodedJWT decodedJWT = verifier.verify(token);
             String username = decodedJWT.getSubject();
             List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
@@ -98,19 +142,39 @@ public class JwtTokenProvider {
                 .sign(algorithm);
     }
 
+    // Verifica a assinatura e carrega o usuário só na primeira vez que o token aparece; depois responde do cache
+    @Timed(value = "jwt.validacao", histogram = true)
     public Authentication getAuthentication(String token) {
+        String chave = hash(token);
+        CachedAuthentication cached = authenticationCache.getIfPresent(chave);
+        if (cached != null) {
+            return cached.authentication();
+        }
+
         DecodedJWT decodedJWT = decodedToken(token);
         UserDetails userDetails = this.userDetailsService
                 .loadUserByUsername(decodedJWT.getSubject());
 
-        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+        authenticationCache.put(chave, new CachedAuthentication(authentication, decodedJWT.getExpiresAt().getTime()));
+        return authentication;
     }
 
     private DecodedJWT decodedToken(String token) {
-        Algorithm decoderAlgorithm = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier verifier = JWT.require(decoderAlgorithm).build();
-        DecodedJWT decodedJWT = verifier.verify(token);
-        return decodedJWT;
+        try {
+            return verifier.verify(token);
+        } catch (JWTVerificationException e) {
+            throw new InvalidJwtAuthenticationException("Token JWT inválido ou expirado!");
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
 
     public String resolveToken(HttpServletRequest request) {
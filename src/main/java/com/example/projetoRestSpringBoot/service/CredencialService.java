@@ -5,39 +5,66 @@ import com.example.projetoRestSpringBoot.dto.CredencialDTO;
 import com.example.projetoRestSpringBoot.enums.CredencialStatus;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
 import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
 import com.example.projetoRestSpringBoot.model.Credencial;
 import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
 import com.example.projetoRestSpringBoot.repository.CredencialRepository;
 import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
+import com.example.projetoRestSpringBoot.service.digest.DigestVencimento;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.etag.EntityTag;
+import com.example.projetoRestSpringBoot.service.etag.Versionado;
 import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.service.pagination.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObject;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Service
+@Timed("servico")
 public class CredencialService {
 
+    private static final int LOTE_ATUALIZACAO_STATUS = 50_000;
+
     private final Logger logger = LoggerFactory.getLogger(CredencialService.class.getName());
 
     @Autowired
@@ -46,12 +73,25 @@ public class CredencialService {
     @Autowired
     private FileExporterFactory exporter;
 
+    @Autowired
+    private StreamingExportExecutor streamingExporter;
+
     @Autowired
     private FuncionarioRepository funcionarioRepository;
 
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
+    @Autowired
+    private DigestVencimentoService digestService;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
     @Autowired(required = false)
     private PagedResourcesAssembler<CredencialDTO> assembler;
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<CredencialDTO>> findAll(Pageable pageable) {
         if (pageable == null) {
             throw new BadRequestException("Parâmetros de paginação não podem ser nulos");
@@ -86,7 +126,7 @@ public class CredencialService {
                             String.valueOf(pageable.getSort())
                     )
             ).withSelfRel();
-            var result = assembler.toModel(credenciaisWithLinks, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(credenciaisWithLinks, findAllLink));
             HateoasLinkManager.addCredencialListPageLinks(result);
             logger.info("Total de credenciais encontradas: {}", credenciais.getTotalElements());
             return result;
@@ -99,7 +139,55 @@ public class CredencialService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public CollectionModel<EntityModel<CredencialDTO>> findAllCursor(String cursor, int size, String direction) {
+        if (size <= 0 || size > KeysetCursor.TAMANHO_MAXIMO) {
+            throw new BadRequestException("Parâmetro size deve estar entre 1 e " + KeysetCursor.TAMANHO_MAXIMO);
+        }
+
+        try {
+            logger.info("Procurando todas as credenciais por cursor");
+            KeysetCursor.Posicao posicao = KeysetCursor.decode(cursor, "id", Long::valueOf, direction);
+            Window<Credencial> credenciais = repository.findAllBy(
+                    posicao.scrollPosition(), KeysetCursor.sort("id", posicao.direction()), Limit.of(size));
+            List<EntityModel<CredencialDTO>> itens = credenciais.stream().map(entity -> {
+                CredencialDTO credencial = parseObject(entity, CredencialDTO.class);
+                if (entity.getFuncionario() != null) {
+                    credencial.setFuncionarioId(entity.getFuncionario().getId());
+                    credencial.setFuncionarioNome(entity.getFuncionario().getNome());
+                    credencial.setFuncionarioMatricula(entity.getFuncionario().getMatricula());
+                }
+                HateoasLinkManager.addCredencialDetailLinks(credencial);
+                return EntityModel.of(credencial);
+            }).toList();
+
+            Link selfLink = WebMvcLinkBuilder.linkTo(
+                    methodOn(CredencialController.class).findAllCursor(cursor, size, direction)
+            ).withSelfRel();
+            var result = CollectionModel.of(itens, selfLink);
+            if (credenciais.hasNext()) {
+                String proximo = KeysetCursor.encode(credenciais, "id", posicao.direction());
+                result.add(WebMvcLinkBuilder.linkTo(
+                        methodOn(CredencialController.class).findAllCursor(proximo, size, direction)
+                ).withRel(IanaLinkRelations.NEXT));
+            }
+            return result;
+        } catch (BadRequestException e) {
+            logger.warn("Erro de validação ao buscar credenciais por cursor: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao buscar credenciais por cursor: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar credenciais: " + e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public CredencialDTO findById(long id) {
+        return findById(id, etag -> false).corpo();
+    }
+
+    @Transactional(readOnly = true)
+    public Versionado<CredencialDTO> findById(long id, Predicate<String> naoModificado) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
         }
@@ -108,6 +196,10 @@ public class CredencialService {
             logger.info("Procurando uma credencial pelo ID: {}", id);
             var entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Credencial não encontrada para o ID: " + id));
+            String etag = etag(entity);
+            if (naoModificado.test(etag)) {
+                return new Versionado<>(etag, null);
+            }
 
             var dto = parseObject(entity, CredencialDTO.class);
 
@@ -119,7 +211,7 @@ public class CredencialService {
 
             HateoasLinkManager.addCredencialDetailLinks(dto);
             logger.info("Credencial encontrada: ID {}", id);
-            return dto;
+            return new Versionado<>(etag, dto);
         } catch (ResourceNotFoundException e) {
             logger.warn("Credencial não encontrada: {}", e.getMessage());
             throw e;
@@ -132,6 +224,7 @@ public class CredencialService {
         }
     }
 
+    @Transactional
     public Credencial create(CredencialDTO credencialDTO) {
         if (credencialDTO == null) {
             throw new RequiredObjectIsNullException();
@@ -180,7 +273,22 @@ public class CredencialService {
     }
 
 
+    public String etag(long id) {
+        if (id <= 0) {
+            throw new BadRequestException("ID deve ser maior que zero");
+        }
+        return repository.findVersaoById(id)
+                .map(EntityTag::forte)
+                .orElseThrow(() -> new ResourceNotFoundException("Credencial não encontrada para o ID: " + id));
+    }
+
+    @Transactional
     public CredencialDTO update(CredencialDTO credencial) {
+        return update(credencial, null);
+    }
+
+    @Transactional
+    public CredencialDTO update(CredencialDTO credencial, String ifMatch) {
         if (credencial == null) {
             throw new RequiredObjectIsNullException();
         }
@@ -204,6 +312,9 @@ public class CredencialService {
             logger.info("Atualizando uma credencial no banco: ID {}", credencial.getId());
             Credencial entity = repository.findById(credencial.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Credencial não encontrada para o ID: " + credencial.getId()));
+            if (ifMatch != null && !EntityTag.corresponde(ifMatch, etag(entity))) {
+                throw new PreconditionFailedException("Credencial foi alterada por outra requisição: ID " + credencial.getId());
+            }
 
             entity.setTipo(credencial.getTipo());
             entity.setDataEmissao(credencial.getDataEmissao());
@@ -217,6 +328,7 @@ public class CredencialService {
             }
 
             var savedEntity = repository.save(entity);
+            repository.flush();
             var dto = parseObject(savedEntity, CredencialDTO.class);
 
             if (savedEntity.getFuncionario() != null) {
@@ -227,18 +339,30 @@ public class CredencialService {
             HateoasLinkManager.addCredencialDetailLinks(dto);
             logger.info("Credencial atualizada com sucesso: ID {}", credencial.getId());
             return dto;
-        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException e) {
+        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException | PreconditionFailedException e) {
             logger.warn("Erro de validação ao atualizar credencial: {}", e.getMessage());
             throw e;
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             logger.error("Erro de integridade ao atualizar credencial: {}", e.getMessage(), e);
             throw new BadRequestException("Erro ao atualizar: dados duplicados ou inválidos");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Conflito de versão ao atualizar credencial: ID {}", credencial.getId());
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Credencial foi alterada por outra requisição: ID " + credencial.getId());
+            }
+            throw e;
         } catch (Exception e) {
             logger.error("Erro inesperado ao atualizar credencial: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao atualizar credencial: " + e.getMessage());
         }
     }
 
+    // Mesmo formato da consulta findVersaoById do repositório
+    private static String etag(Credencial entity) {
+        return EntityTag.forte(entity.getVersao(), entity.getFuncionario().getVersao());
+    }
+
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<CredencialDTO>> findByStatus(CredencialStatus status, Pageable pageable) {
         if (status == null) {
             throw new BadRequestException("Status não pode ser nulo");
@@ -277,7 +401,7 @@ public class CredencialService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(credencialDTOPage, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(credencialDTOPage, findAllLink));
             HateoasLinkManager.addCredencialListPageLinks(result);
             logger.info("Total de credenciais encontradas para status '{}': {}", status, credencialPage.getTotalElements());
             return result;
@@ -290,6 +414,7 @@ public class CredencialService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<CredencialDTO>> findCredencialEmited(LocalDate startDate, LocalDate endDate, Pageable pageable) {
         if (startDate == null || endDate == null) {
             throw new BadRequestException("Datas de início e fim são obrigatórias");
@@ -331,7 +456,7 @@ public class CredencialService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(credencialDTOPage, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(credencialDTOPage, findAllLink));
             HateoasLinkManager.addCredencialListPageLinks(result);
             logger.info("Total de credenciais emitidas entre {} e {}: {}", startDate, endDate, credencialPage.getTotalElements());
             return result;
@@ -344,6 +469,7 @@ public class CredencialService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<CredencialDTO>> findCredencialExpiring(LocalDate startDate, LocalDate endDate, Pageable pageable) {
         if (startDate == null || endDate == null) {
             throw new BadRequestException("Datas de início e fim são obrigatórias");
@@ -385,7 +511,7 @@ public class CredencialService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(credencialDTOPage, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(credencialDTOPage, findAllLink));
             HateoasLinkManager.addCredencialListPageLinks(result);
             logger.info("Total de credenciais vencendo entre {} e {}: {}", startDate, endDate, credencialPage.getTotalElements());
             return result;
@@ -398,6 +524,7 @@ public class CredencialService {
         }
     }
 
+    @Transactional
     public void delete(long id) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
@@ -408,6 +535,7 @@ public class CredencialService {
             Credencial entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Credencial não encontrada para o ID: " + id));
             repository.delete(entity);
+            repository.flush();
             logger.info("Credencial deletada com sucesso: ID {}", id);
         } catch (ResourceNotFoundException e) {
             logger.warn("Credencial não encontrada para deletar: {}", e.getMessage());
@@ -421,6 +549,7 @@ public class CredencialService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Resource exportPage(String acceptHeader) {
         if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
             throw new BadRequestException("Header Accept é obrigatório");
@@ -430,17 +559,7 @@ public class CredencialService {
             logger.info("Exportando credenciais no formato: {}", acceptHeader);
 
             var credenciais = repository.findAll().stream()
-                    .map(credencial -> {
-                        CredencialDTO dto = parseObject(credencial, CredencialDTO.class);
-
-                        if (credencial.getFuncionario() != null) {
-                            dto.setFuncionarioId(credencial.getFuncionario().getId());
-                            dto.setFuncionarioNome(credencial.getFuncionario().getNome());
-                            dto.setFuncionarioMatricula(credencial.getFuncionario().getMatricula());
-                        }
-
-                        return dto;
-                    })
+                    .map(this::toExportDTO)
                     .collect(Collectors.toList());
 
             if (credenciais.isEmpty()) {
@@ -463,22 +582,92 @@ public class CredencialService {
         }
     }
 
+    public StreamingResponseBody exportPageStreaming(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
+            throw new BadRequestException("Header Accept é obrigatório");
+        }
+
+        try {
+            logger.info("Exportando credenciais em streaming no formato: {}", acceptHeader);
+            StreamingFileExporter exporter = this.exporter.getStreamingExporter(acceptHeader);
+            return streamingExporter.stream(repository::streamAll, this::toExportDTO, exporter::exportarCredenciais);
+        } catch (BadRequestException e) {
+            logger.warn("Erro ao exportar credenciais em streaming: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao exportar arquivo em streaming: {}", e.getMessage(), e);
+            throw new FileStorageException("Erro ao exportar o arquivo: " + e.getMessage(), e);
+        }
+    }
+
+    private CredencialDTO toExportDTO(Credencial credencial) {
+        CredencialDTO dto = parseObject(credencial, CredencialDTO.class);
+
+        if (credencial.getFuncionario() != null) {
+            dto.setFuncionarioId(credencial.getFuncionario().getId());
+            dto.setFuncionarioNome(credencial.getFuncionario().getNome());
+            dto.setFuncionarioMatricula(credencial.getFuncionario().getMatricula());
+        }
+
+        return dto;
+    }
+
 
     @Scheduled(cron = "0 0 0 * * ?")
     public void atualizarStatusCredenciais() {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "erro";
         try {
             logger.info("Iniciando atualização automática de status das credenciais");
-            List<Credencial> credenciais = repository.findAll();
-            for (Credencial c : credenciais) {
-                c.setStatus(calcularStatus(c.getDataVencimento()));
-            }
-            repository.saveAll(credenciais);
-            logger.info("Status de {} credenciais atualizados com sucesso", credenciais.size());
+            DigestVencimento digest = new DigestVencimento("Credenciais");
+            Map<CredencialStatus, Integer> alterados = recalcularStatusCredenciais(LocalDate.now(), digest);
+            alterados.forEach((status, linhas) -> meterRegistry
+                    .counter("job.status.linhas", "entidade", "credencial", "status", status.name()).increment(linhas));
+            digestService.enviar(digest, "Credencial");
+            resultado = "sucesso";
+            logger.info("Status das credenciais atualizados: {}", alterados);
         } catch (Exception e) {
             logger.error("Erro ao atualizar status das credenciais: {}", e.getMessage(), e);
+        } finally {
+            amostra.stop(meterRegistry.timer("job.status", "entidade", "credencial", "resultado", resultado));
         }
     }
 
+    // Mesmas regras de calcularStatus, aplicadas com UPDATEs em massa; retorna quantas linhas mudaram para cada status
+    public Map<CredencialStatus, Integer> recalcularStatusCredenciais(LocalDate hoje) {
+        return recalcularStatusCredenciais(hoje, null);
+    }
+
+    // Com digest, as linhas que vão mudar para vencido ou vencimento próximo são lidas antes de cada UPDATE
+    public Map<CredencialStatus, Integer> recalcularStatusCredenciais(LocalDate hoje, DigestVencimento digest) {
+        LocalDate limiteVencimentoProximo = hoje.plusDays(90);
+        Map<CredencialStatus, Integer> alterados = new EnumMap<>(CredencialStatus.class);
+        for (CredencialStatus status : CredencialStatus.values()) {
+            alterados.put(status, 0);
+        }
+
+        long maxId = repository.findMaxId();
+        for (long idInicio = 0; idInicio <= maxId; idInicio += LOTE_ATUALIZACAO_STATUS) {
+            long idFim = idInicio + LOTE_ATUALIZACAO_STATUS - 1;
+            if (digest != null) {
+                digest.registrar("Vencida", repository.findTransicoesVencimentoAntesDe(CredencialStatus.VENCIDA, hoje, idInicio, idFim));
+                digest.registrar("Vencimento próximo", repository.findTransicoesVencimentoEntre(
+                        CredencialStatus.VENCIMENTO_PROXIMO, hoje, limiteVencimentoProximo, idInicio, idFim));
+            }
+            alterados.merge(CredencialStatus.VENCIDA,
+                    repository.atualizarStatusVencimentoAntesDe(CredencialStatus.VENCIDA, hoje, idInicio, idFim), Integer::sum);
+            alterados.merge(CredencialStatus.VENCIMENTO_PROXIMO,
+                    repository.atualizarStatusVencimentoEntre(CredencialStatus.VENCIMENTO_PROXIMO, hoje, limiteVencimentoProximo, idInicio, idFim), Integer::sum);
+            alterados.merge(CredencialStatus.VALIDA,
+                    repository.atualizarStatusVencimentoAPartirDe(CredencialStatus.VALIDA, limiteVencimentoProximo, idInicio, idFim), Integer::sum);
+        }
+        // UPDATE em massa não passa pelos listeners do Hibernate
+        if (alterados.values().stream().anyMatch(n -> n > 0)) {
+            alteracoes.registrar(Credencial.class);
+        }
+        return alterados;
+    }
+
     private CredencialStatus calcularStatus(LocalDate dataVencimento) {
         LocalDate hoje = LocalDate.now();
         if (hoje.isAfter(dataVencimento)) {
@@ -2,41 +2,70 @@ package com.example.projetoRestSpringBoot.service;
 
 import com.example.projetoRestSpringBoot.controller.CursoController;
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
+import com.example.projetoRestSpringBoot.enums.ImportacaoTipo;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.exception.ServiceUnavailableException;
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
 import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportExecutor;
+import com.example.projetoRestSpringBoot.file.importer.batch.CursoImportHandler;
 import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
 import com.example.projetoRestSpringBoot.file.importer.factory.FileImporterFactory;
 import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
 import com.example.projetoRestSpringBoot.repository.CursoRepository;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.etag.EntityTag;
+import com.example.projetoRestSpringBoot.service.etag.Versionado;
 import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.service.pagination.KeysetCursor;
+import com.example.projetoRestSpringBoot.service.search.CursoNomeIndex;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObject;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Service
+@Timed("servico")
 public class CursoService {
 
     private final AtomicLong counter = new AtomicLong();
@@ -48,12 +77,34 @@ public class CursoService {
     @Autowired
     private FileImporterFactory importer;
 
+    @Autowired
+    private BatchImportExecutor batchImporter;
+
+    @Autowired
+    private ImportacaoJobService importacaoJobs;
+
+    @Autowired
+    private CursoImportHandler cursoImportHandler;
+
+    @Autowired
+    private CursoNomeIndex nomeIndex;
+
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
+    @Autowired
+    private CacheReferencia cacheReferencia;
+
     @Autowired
     private FileExporterFactory exporter;
 
+    @Autowired
+    private StreamingExportExecutor streamingExporter;
+
     @Autowired(required = false)
     private PagedResourcesAssembler<CursoDTO> assembler;
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<CursoDTO>> findAll(Pageable pageable) {
         if (pageable == null) {
             throw new BadRequestException("Parâmetros de paginação não podem ser nulos");
@@ -80,7 +131,7 @@ public class CursoService {
                             String.valueOf(pageable.getSort())
                     )
             ).withSelfRel();
-            var pagedModel = assembler.toModel(peopleWithLinks, findAllLink);
+            var pagedModel = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(peopleWithLinks, findAllLink));
             logger.info("Total de cursos encontrados: {}", people.getTotalElements());
             return pagedModel;
         } catch (BadRequestException e) {
@@ -92,7 +143,52 @@ public class CursoService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public CollectionModel<EntityModel<CursoDTO>> findAllCursor(String cursor, int size, String direction) {
+        if (size <= 0 || size > KeysetCursor.TAMANHO_MAXIMO) {
+            throw new BadRequestException("Parâmetro size deve estar entre 1 e " + KeysetCursor.TAMANHO_MAXIMO);
+        }
+
+        try {
+            logger.info("Procurando todos os cursos por cursor");
+            KeysetCursor.Posicao posicao = KeysetCursor.decode(cursor, "nome", valor -> valor, direction);
+            Window<Curso> cursos = repository.findAllBy(
+                    posicao.scrollPosition(), KeysetCursor.sort("nome", posicao.direction()), Limit.of(size));
+            List<EntityModel<CursoDTO>> itens = cursos.stream().map(entity -> {
+                CursoDTO curso = parseObject(entity, CursoDTO.class);
+                HateoasLinkManager.addCursoDetailLinks(curso);
+                return EntityModel.of(curso);
+            }).toList();
+
+            Link selfLink = WebMvcLinkBuilder.linkTo(
+                    methodOn(CursoController.class).findAllCursor(cursor, size, direction)
+            ).withSelfRel();
+            var result = CollectionModel.of(itens, selfLink);
+            if (cursos.hasNext()) {
+                String proximo = KeysetCursor.encode(cursos, "nome", posicao.direction());
+                result.add(WebMvcLinkBuilder.linkTo(
+                        methodOn(CursoController.class).findAllCursor(proximo, size, direction)
+                ).withRel(IanaLinkRelations.NEXT));
+            }
+            return result;
+        } catch (BadRequestException e) {
+            logger.warn("Erro de validação ao buscar cursos por cursor: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao buscar cursos por cursor: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar cursos: " + e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public CursoDTO findById(long id) {
+        return findById(id, etag -> false).corpo();
+    }
+
+    // ETag e corpo saem da mesma leitura (mesmo banco e mesma transação). Se o cliente já tem a versão lida,
+    // o DTO nem é montado.
+    @Transactional(readOnly = true)
+    public Versionado<CursoDTO> findById(long id, Predicate<String> naoModificado) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
         }
@@ -101,10 +197,14 @@ public class CursoService {
             logger.info("Procurando um curso pelo Id: {}", id);
             var entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Curso não encontrado para o ID: " + id));
+            String etag = EntityTag.forte(entity.getVersao());
+            if (naoModificado.test(etag)) {
+                return new Versionado<>(etag, null);
+            }
             var dto = parseObject(entity, CursoDTO.class);
             HateoasLinkManager.addCursoDetailLinks(dto);
             logger.info("Curso encontrado: ID {}", id);
-            return dto;
+            return new Versionado<>(etag, dto);
         } catch (ResourceNotFoundException e) {
             logger.warn("Curso não encontrado: {}", e.getMessage());
             throw e;
@@ -129,6 +229,7 @@ public class CursoService {
             logger.info("Criando um novo curso no banco");
             var entity = parseObject(curso, Curso.class);
             var savedEntity = repository.save(entity);
+            nomeIndex.indexar(savedEntity);
             var dto = parseObject(savedEntity, CursoDTO.class);
             HateoasLinkManager.addCursoDetailLinks(dto);
             logger.info("Curso criado com sucesso: ID {}", savedEntity.getId());
@@ -145,6 +246,7 @@ public class CursoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<CursoDTO>> findByName(String nome, Pageable pageable) {
         if (nome == null || nome.trim().isEmpty()) {
             throw new BadRequestException("Nome não pode estar vazio");
@@ -161,7 +263,7 @@ public class CursoService {
 
         try {
             logger.info("Procurando curso(s) pelo nome: {}", nome);
-            var cursos = repository.findCursoByName(nome, pageable);
+            var cursos = buscarPagina(nomeIndex.buscar(nome), pageable);
             var cursosLink = cursos.map(dto -> {
                 var curso = parseObject(dto, CursoDTO.class);
                 HateoasLinkManager.addCursoDetailLinks(curso);
@@ -174,7 +276,7 @@ public class CursoService {
                             String.valueOf(pageable.getSort())
                     )
             ).withSelfRel();
-            var pagedModel = assembler.toModel(cursosLink, findAllLink);
+            var pagedModel = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(cursosLink, findAllLink));
             logger.info("Total de cursos encontrados para nome '{}': {}", nome, cursos.getTotalElements());
             return pagedModel;
         } catch (BadRequestException e) {
@@ -186,7 +288,32 @@ public class CursoService {
         }
     }
 
+    private Page<Curso> buscarPagina(List<Long> ids, Pageable pageable) {
+        int inicio = (int) Math.min(pageable.getOffset(), ids.size());
+        List<Long> idsPagina = ids.subList(inicio, Math.min(inicio + pageable.getPageSize(), ids.size()));
+        Map<Long, Curso> porId = repository.findAllById(idsPagina).stream()
+                .collect(Collectors.toMap(Curso::getId, Function.identity()));
+        List<Curso> pagina = idsPagina.stream().map(porId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(pagina, pageable, ids.size());
+    }
+
+    // Consulta só a versão, sem carregar a entidade nem montar o DTO
+    public String etag(long id) {
+        if (id <= 0) {
+            throw new BadRequestException("ID deve ser maior que zero");
+        }
+        return repository.findVersaoById(id)
+                .map(EntityTag::forte)
+                .orElseThrow(() -> new ResourceNotFoundException("Curso não encontrado para o ID: " + id));
+    }
+
+    @Transactional
     public CursoDTO update(CursoDTO curso) {
+        return update(curso, null);
+    }
+
+    @Transactional
+    public CursoDTO update(CursoDTO curso, String ifMatch) {
         if (curso == null) {
             throw new RequiredObjectIsNullException();
         }
@@ -201,6 +328,9 @@ public class CursoService {
             logger.info("Atualizando um curso no banco: ID {}", curso.getId());
             Curso entity = repository.findById(curso.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Curso não encontrado para o ID: " + curso.getId()));
+            if (ifMatch != null && !EntityTag.corresponde(ifMatch, EntityTag.forte(entity.getVersao()))) {
+                throw new PreconditionFailedException("Curso foi alterado por outra requisição: ID " + curso.getId());
+            }
 
             entity.setNome(curso.getNome());
             entity.setDescricao(curso.getDescricao());
@@ -210,22 +340,32 @@ public class CursoService {
             entity.setTipoObrigatoriedade(curso.getTipoObrigatoriedade());
 
             var savedEntity = repository.save(entity);
+            // Conflito de versão e violação de integridade aparecem aqui, e não no commit, para virar 412/400
+            repository.flush();
+            nomeIndex.indexar(savedEntity);
             var dto = parseObject(savedEntity, CursoDTO.class);
             HateoasLinkManager.addCursoDetailLinks(dto);
             logger.info("Curso atualizado com sucesso: ID {}", curso.getId());
             return dto;
-        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException e) {
+        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException | PreconditionFailedException e) {
             logger.warn("Erro de validação ao atualizar curso: {}", e.getMessage());
             throw e;
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             logger.error("Erro de integridade ao atualizar curso: {}", e.getMessage(), e);
             throw new BadRequestException("Erro ao atualizar: nome duplicado ou dados inválidos");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Conflito de versão ao atualizar curso: ID {}", curso.getId());
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Curso foi alterado por outra requisição: ID " + curso.getId());
+            }
+            throw e;
         } catch (Exception e) {
             logger.error("Erro inesperado ao atualizar curso: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao atualizar curso: " + e.getMessage());
         }
     }
 
+    @Transactional
     public void delete(long id) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
@@ -236,6 +376,8 @@ public class CursoService {
             Curso entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Curso não encontrado para o ID: " + id));
             repository.delete(entity);
+            repository.flush();
+            nomeIndex.remover(id);
             logger.info("Curso deletado com sucesso: ID {}", id);
         } catch (ResourceNotFoundException e) {
             logger.warn("Curso não encontrado para deletar: {}", e.getMessage());
@@ -249,6 +391,7 @@ public class CursoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Resource exportPage(String acceptHeader) {
         if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
             throw new BadRequestException("Header Accept é obrigatório");
@@ -281,7 +424,25 @@ public class CursoService {
         }
     }
 
-    public List<CursoDTO> importarArquivo(MultipartFile file) {
+    public StreamingResponseBody exportPageStreaming(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
+            throw new BadRequestException("Header Accept é obrigatório");
+        }
+
+        try {
+            logger.info("Exportando cursos em streaming no formato: {}", acceptHeader);
+            StreamingFileExporter exporter = this.exporter.getStreamingExporter(acceptHeader);
+            return streamingExporter.stream(repository::streamAll, curso -> parseObject(curso, CursoDTO.class), exporter::exportCursos);
+        } catch (BadRequestException e) {
+            logger.warn("Erro ao exportar cursos em streaming: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao exportar arquivo em streaming: {}", e.getMessage(), e);
+            throw new FileStorageException("Erro ao exportar o arquivo: " + e.getMessage(), e);
+        }
+    }
+
+    public ImportacaoJobDTO importarArquivo(MultipartFile file) {
         if (file == null) {
             throw new BadRequestException("Arquivo não pode ser nulo");
         }
@@ -297,48 +458,34 @@ public class CursoService {
         }
 
         try {
-            logger.info("Importando cursos em massa a partir do arquivo: {}", fileName);
-
-            try (InputStream inputStream = file.getInputStream()) {
-                FileImporter importer = this.importer.getImporter(fileName);
-
-                List<Curso> entities = importer.importarCursos(inputStream).stream()
-                        .map(dto -> {
-                            try {
-                                return repository.save(parseObject(dto, Curso.class));
-                            } catch (org.springframework.dao.DataIntegrityViolationException e) {
-                                logger.error("Erro de integridade ao salvar curso do arquivo: {}", e.getMessage());
-                                throw new BadRequestException("Dados duplicados ou inválidos no arquivo");
-                            }
-                        })
-                        .toList();
-
-                var result = entities.stream()
-                        .map(entity -> {
-                            var dto = parseObject(entity, CursoDTO.class);
-                            HateoasLinkManager.addCursoDetailLinks(dto);
-                            return dto;
-                        })
-                        .toList();
-
-                logger.info("Arquivo importado com sucesso: {} cursos", result.size());
-                return result;
-            }
-        } catch (BadRequestException e) {
-            logger.warn("Erro de validação ao importar arquivo: {}", e.getMessage());
+            FileImporter importer = this.importer.getImporter(fileName);
+
+            // O arquivo é gravado em disco e processado em segundo plano; o cliente acompanha pelo id do job
+            logger.info("Agendando importação de cursos a partir do arquivo: {}", fileName);
+            return importacaoJobs.iniciar(ImportacaoTipo.CURSO, file, (nome, inputStream, progresso) -> {
+                var resultado = batchImporter.importar(nome, consumer -> importer.importarCursos(inputStream, consumer),
+                        cursoImportHandler, progresso);
+                if (resultado.getImportados() > 0) {
+                    nomeIndex.reconstruir();
+                    // As linhas entram por JDBC, sem passar pelo cache do Hibernate
+                    cacheReferencia.invalidarCursos();
+                    alteracoes.registrar(Curso.class);
+                }
+                return resultado;
+            });
+        } catch (BadRequestException | ServiceUnavailableException | FileStorageException e) {
+            logger.warn("Importação não agendada: {}", e.getMessage());
             throw e;
-        } catch (java.io.IOException e) {
-            logger.error("Erro ao ler arquivo: {}", e.getMessage(), e);
-            throw new FileStorageException("Erro ao ler o arquivo: " + e.getMessage(), e);
-        } catch (org.springframework.dao.DataIntegrityViolationException e) {
-            logger.error("Erro de integridade ao importar cursos: {}", e.getMessage(), e);
-            throw new BadRequestException("Erro ao importar: dados duplicados ou inválidos no arquivo");
-        } catch (IllegalArgumentException e) {
-            logger.error("Tipo de arquivo não suportado: {}", e.getMessage(), e);
-            throw new BadRequestException("Tipo de arquivo não suportado: " + fileName);
         } catch (Exception e) {
-            logger.error("Erro inesperado ao importar arquivo: {}", e.getMessage(), e);
+            logger.error("Erro inesperado ao agendar importação: {}", e.getMessage(), e);
             throw new FileStorageException("Erro ao processar o arquivo: " + e.getMessage(), e);
         }
     }
+
+    public ImportacaoJobDTO consultarImportacao(String jobId) {
+        if (jobId == null || jobId.isBlank()) {
+            throw new BadRequestException("Id da importação não pode ser vazio");
+        }
+        return importacaoJobs.consultar(ImportacaoTipo.CURSO, jobId);
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.projetoRestSpringBoot.service;
+
+import com.example.projetoRestSpringBoot.config.DigestConfig;
+import com.example.projetoRestSpringBoot.dto.request.EmailRequestDTO;
+import com.example.projetoRestSpringBoot.service.digest.DigestTemplate;
+import com.example.projetoRestSpringBoot.service.digest.DigestVencimento;
+import com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Transforma as mudanças de status do job noturno em um e-mail por funcionário e um por departamento.
+// Tudo vai para a fila em um único lote; o EmailOutboxWorker envia vários por conexão SMTP.
+@Service
+public class DigestVencimentoService {
+    private final Logger logger = LoggerFactory.getLogger(DigestVencimentoService.class.getName());
+
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DigestTemplate TEMPLATE = DigestTemplate.carregar("templates/digest_vencimento.html");
+    private static final DigestTemplate TEMPLATE_LINHA = DigestTemplate.carregar("templates/digest_vencimento_linha.html");
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private DigestConfig config;
+
+    public int enviar(DigestVencimento digest, String coluna) {
+        if (!config.isHabilitado() || digest.isEmpty()) {
+            return 0;
+        }
+        try {
+            List<EmailRequestDTO> emails = new ArrayList<>();
+            digest.porFuncionario().forEach((email, linhas) -> emails.add(
+                    montar(email, linhas.get(0).transicao().funcionarioNome(), digest, coluna, linhas)));
+            digest.porDepartamento().forEach((departamento, linhas) -> {
+                String destinatarios = config.getDepartamentos().get(departamento);
+                if (destinatarios == null) {
+                    logger.debug("Departamento {} sem e-mail configurado para o resumo de vencimentos", departamento);
+                    return;
+                }
+                emails.add(montar(destinatarios, "responsável por " + departamento, digest, coluna, linhas));
+            });
+
+            emailService.enfileirarLote(emails);
+            logger.info("Resumo de vencimentos de {}: {} mudanças, {} e-mails na fila",
+                    digest.getTitulo(), digest.getTotal(), emails.size());
+            return emails.size();
+        } catch (Exception e) {
+            // O resumo não pode desfazer a atualização de status já gravada
+            logger.error("Erro ao enfileirar resumo de vencimentos de {}: {}", digest.getTitulo(), e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    private EmailRequestDTO montar(String to, String destinatario, DigestVencimento digest, String coluna,
+                                   List<DigestVencimento.Linha> linhas) {
+        StringBuilder linhasHtml = new StringBuilder(linhas.size() * 200);
+        for (DigestVencimento.Linha linha : linhas) {
+            TransicaoVencimento transicao = linha.transicao();
+            TEMPLATE_LINHA.renderEm(linhasHtml, Map.of(
+                    "funcionario", valor(transicao.funcionarioNome()),
+                    "departamento", valor(transicao.departamento()),
+                    "item", valor(transicao.item()),
+                    "vencimento", transicao.dataVencimento() == null ? "" : DATA.format(transicao.dataVencimento()),
+                    "situacao", linha.situacao()));
+        }
+
+        EmailRequestDTO email = new EmailRequestDTO();
+        email.setTo(to);
+        email.setSubject("Aviso de vencimento - " + digest.getTitulo());
+        email.setBody(TEMPLATE.render(Map.of(
+                "destinatario", valor(destinatario),
+                "resumo", linhas.size() + (linhas.size() == 1 ? " item mudou" : " itens mudaram")
+                        + " de situação em " + digest.getTitulo().toLowerCase() + ":",
+                "coluna", coluna,
+                "linhasHtml", linhasHtml.toString())));
+        return email;
+    }
+
+    private static String valor(String texto) {
+        return texto == null ? "" : texto;
+    }
+}
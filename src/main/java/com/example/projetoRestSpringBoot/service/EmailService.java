@@ -1,66 +1,195 @@
 package com.example.projetoRestSpringBoot.service;
 
-import com.example.projetoRestSpringBoot.config.EmailConfig;
+import com.example.projetoRestSpringBoot.config.FileStorageConfig;
+import com.example.projetoRestSpringBoot.dto.EmailStatusDTO;
 import com.example.projetoRestSpringBoot.dto.request.EmailRequestDTO;
+import com.example.projetoRestSpringBoot.enums.EmailStatus;
+import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.exception.EmailSendingException;
-import com.example.projetoRestSpringBoot.mail.EmailSender;
+import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.mail.EmailMensagem;
+import com.example.projetoRestSpringBoot.model.EmailOutbox;
+import com.example.projetoRestSpringBoot.repository.EmailOutboxRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.mail.internet.InternetAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
+// Os e-mails entram na tabela email_outbox e são enviados em segundo plano pelo EmailOutboxWorker;
+// o cliente acompanha o envio pelo id devolvido
 @Service
 public class EmailService {
+    private final Logger logger = LoggerFactory.getLogger(EmailService.class.getName());
+
     @Autowired
-    private EmailSender emailSender;
+    private EmailOutboxRepository repository;
+
     @Autowired
-    private EmailConfig emailConfig;
+    private FileStorageConfig fileStorageConfig;
 
-    public void sentSimpleEmail(EmailRequestDTO emailRequest){
+    public EmailStatusDTO sentSimpleEmail(EmailRequestDTO emailRequest){
+        String destinatarios = validar(emailRequest);
         try {
-            emailSender
-                    .to(emailRequest.getTo())
-                    .withSubject(emailRequest.getSubject())
-                    .withMessage(emailRequest.getBody())
-                    .send(emailConfig);
-        } catch (EmailSendingException e) {
-            throw e;
+            EmailOutbox email = repository.save(novo(emailRequest, destinatarios, null, null));
+            logger.info("E-mail {} enfileirado para {}", email.getId(), destinatarios);
+            return toDTO(email);
         } catch (Exception e) {
-            throw new EmailSendingException("Erro ao enviar e-mail simples: " + e.getMessage(), e);
+            throw new EmailSendingException("Erro ao enfileirar e-mail simples: " + e.getMessage(), e);
         }
     }
 
-    public void senEmailWithAttachment(String emailRequestJson, MultipartFile attachment){
-        File tempFile = null;
+    // Vários e-mails gerados pelo sistema, gravados em um único saveAll
+    public List<EmailStatusDTO> enfileirarLote(List<EmailRequestDTO> emailRequests) {
+        if (emailRequests == null || emailRequests.isEmpty()) {
+            return List.of();
+        }
+        List<EmailOutbox> emails = new ArrayList<>(emailRequests.size());
+        for (EmailRequestDTO emailRequest : emailRequests) {
+            emails.add(novo(emailRequest, validar(emailRequest), null, null));
+        }
         try {
-            EmailRequestDTO emailRequest = new ObjectMapper().readValue(emailRequestJson, EmailRequestDTO.class);
-            tempFile = File.createTempFile("attachment", attachment.getOriginalFilename());
-            attachment.transferTo(tempFile);
-
-            emailSender
-                    .to(emailRequest.getTo())
-                    .withSubject(emailRequest.getSubject())
-                    .withMessage(emailRequest.getBody())
-                    .attach(tempFile.getAbsolutePath())
-                    .send(emailConfig);
+            List<EmailStatusDTO> enfileirados = repository.saveAll(emails).stream().map(this::toDTO).toList();
+            logger.info("{} e-mails enfileirados em lote", enfileirados.size());
+            return enfileirados;
+        } catch (Exception e) {
+            throw new EmailSendingException("Erro ao enfileirar lote de e-mails: " + e.getMessage(), e);
+        }
+    }
 
+    public EmailStatusDTO senEmailWithAttachment(String emailRequestJson, MultipartFile attachment){
+        EmailRequestDTO emailRequest;
+        try {
+            emailRequest = new ObjectMapper().readValue(emailRequestJson, EmailRequestDTO.class);
         } catch (JsonProcessingException e) {
             throw new EmailSendingException("Erro ao converter o e-mail para JSON: " + e.getMessage(), e);
+        }
+        if (attachment == null || attachment.isEmpty()) {
+            throw new BadRequestException("Anexo vazio");
+        }
+        return enviarComAnexo(emailRequest, Optional.ofNullable(attachment.getOriginalFilename()).orElse("anexo"), attachment);
+    }
+
+    // Aceita o upload ou qualquer Resource, como a saída de um FileExporter
+    public EmailStatusDTO enviarComAnexo(EmailRequestDTO emailRequest, String nomeAnexo, InputStreamSource conteudo) {
+        String destinatarios = validar(emailRequest);
+        if (conteudo == null || nomeAnexo == null || nomeAnexo.isBlank()) {
+            throw new BadRequestException("Anexo e nome do anexo são obrigatórios");
+        }
+
+        Path spool = null;
+        try {
+            spool = gravarAnexo(nomeAnexo, conteudo);
+            EmailOutbox email = repository.save(novo(emailRequest, destinatarios, nomeAnexo, spool));
+            logger.info("E-mail {} com anexo {} enfileirado para {}", email.getId(), nomeAnexo, destinatarios);
+            return toDTO(email);
         } catch (IOException e) {
+            apagarAnexo(spool);
             throw new EmailSendingException("Erro ao processar o anexo: " + e.getMessage(), e);
-        } catch (EmailSendingException e) {
-            throw e;
         } catch (Exception e) {
-            throw new EmailSendingException("Erro ao enviar e-mail com anexo: " + e.getMessage(), e);
+            apagarAnexo(spool);
+            throw new EmailSendingException("Erro ao enfileirar e-mail com anexo: " + e.getMessage(), e);
+        }
+    }
+
+    public EmailStatusDTO consultar(long id) {
+        if (id <= 0) {
+            throw new BadRequestException("ID deve ser maior que zero");
+        }
+        return repository.findById(id)
+                .map(this::toDTO)
+                .orElseThrow(() -> new ResourceNotFoundException("E-mail não encontrado para o ID: " + id));
+    }
+
+    // Valida os endereços já na requisição; devolve a lista normalizada que vai para a tabela
+    private String validar(EmailRequestDTO emailRequest) {
+        if (emailRequest == null) {
+            throw new BadRequestException("Dados do e-mail são obrigatórios");
+        }
+        String destinatarios = EmailMensagem.enderecos(emailRequest.getTo()).stream()
+                .map(InternetAddress::toString)
+                .collect(Collectors.joining(";"));
+        if (destinatarios.length() > 1000) {
+            throw new BadRequestException("Lista de destinatários excede 1000 caracteres");
         }
-        finally {
-            if (tempFile != null && tempFile.exists()) {
-                tempFile.delete();
+        return destinatarios;
+    }
+
+    private EmailOutbox novo(EmailRequestDTO emailRequest, String destinatarios, String nomeAnexo, Path anexo) {
+        Instant agora = Instant.now();
+        EmailOutbox email = new EmailOutbox();
+        email.setDestinatarios(destinatarios);
+        email.setAssunto(emailRequest.getSubject());
+        email.setCorpo(emailRequest.getBody() == null ? "" : emailRequest.getBody());
+        email.setAnexoNome(nomeAnexo);
+        email.setAnexoCaminho(anexo == null ? null : anexo.toString());
+        email.setStatus(EmailStatus.PENDENTE);
+        email.setTentativas(0);
+        email.setProximaTentativa(agora);
+        email.setCriadoEm(agora);
+        email.setAtualizadoEm(agora);
+        return email;
+    }
+
+    // O anexo precisa sobreviver à requisição até o worker enviar, então é gravado uma única vez no spool.
+    // Upload que o container já mantém em disco é só movido; o resto é copiado em streaming, sem arquivo temporário.
+    // O nome do cliente não entra no caminho.
+    private Path gravarAnexo(String nomeAnexo, InputStreamSource conteudo) throws IOException {
+        Path diretorio = Paths.get(fileStorageConfig.getUploadDir(), "email").toAbsolutePath().normalize();
+        Files.createDirectories(diretorio);
+        String extensao = nomeAnexo.contains(".") ? nomeAnexo.substring(nomeAnexo.lastIndexOf('.')) : "";
+        Path destino = diretorio.resolve(UUID.randomUUID() + extensao.replaceAll("[^A-Za-z0-9.]", ""));
+        if (conteudo instanceof MultipartFile multipartFile) {
+            multipartFile.transferTo(destino);
+        } else {
+            try (InputStream inputStream = conteudo.getInputStream()) {
+                Files.copy(inputStream, destino);
             }
         }
+        return destino;
+    }
+
+    private void apagarAnexo(Path anexo) {
+        if (anexo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(anexo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar o anexo {}: {}", anexo, e.getMessage());
+        }
+    }
+
+    private EmailStatusDTO toDTO(EmailOutbox email) {
+        EmailStatusDTO dto = new EmailStatusDTO();
+        dto.setId(email.getId());
+        dto.setStatus(email.getStatus());
+        dto.setDestinatarios(email.getDestinatarios());
+        dto.setAssunto(email.getAssunto());
+        dto.setAnexo(email.getAnexoNome());
+        dto.setTentativas(email.getTentativas());
+        dto.setCriadoEm(email.getCriadoEm());
+        if (email.getStatus() == EmailStatus.PENDENTE) {
+            dto.setProximaTentativa(email.getProximaTentativa());
+        }
+        dto.setEnviadoEm(email.getEnviadoEm());
+        dto.setUltimoErro(email.getUltimoErro());
+        return dto;
     }
 }
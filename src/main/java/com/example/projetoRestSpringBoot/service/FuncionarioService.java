@@ -2,37 +2,64 @@ package com.example.projetoRestSpringBoot.service;
 
 import com.example.projetoRestSpringBoot.controller.FuncionarioController;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
 import com.example.projetoRestSpringBoot.enums.FuncionarioSituacao;
+import com.example.projetoRestSpringBoot.enums.ImportacaoTipo;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.exception.ServiceUnavailableException;
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
 import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportExecutor;
+import com.example.projetoRestSpringBoot.file.importer.batch.FuncionarioImportHandler;
 import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
 import com.example.projetoRestSpringBoot.file.importer.factory.FileImporterFactory;
 import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
 import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
 import org.springframework.core.io.Resource;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.etag.EntityTag;
+import com.example.projetoRestSpringBoot.service.etag.Versionado;
+import com.example.projetoRestSpringBoot.service.pagination.KeysetCursor;
+import com.example.projetoRestSpringBoot.service.search.FuncionarioNomeIndex;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.multipart.MultipartFile;
 
 
-import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObject;
@@ -40,6 +67,7 @@ import static com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkM
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Service
+@Timed("servico")
 public class FuncionarioService {
 
     private final AtomicLong counter = new AtomicLong();
@@ -51,12 +79,31 @@ public class FuncionarioService {
     @Autowired
     private FileImporterFactory importer;
 
+    @Autowired
+    private BatchImportExecutor batchImporter;
+
+    @Autowired
+    private ImportacaoJobService importacaoJobs;
+
+    @Autowired
+    private FuncionarioImportHandler funcionarioImportHandler;
+
+    @Autowired
+    private FuncionarioNomeIndex nomeIndex;
+
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
     @Autowired
     private FileExporterFactory exporter;
 
+    @Autowired
+    private StreamingExportExecutor streamingExporter;
+
     @Autowired(required = false)
     private PagedResourcesAssembler<FuncionarioDTO> assembler;
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<FuncionarioDTO>> findAll(Pageable pageable) {
         if (pageable == null) {
             throw new BadRequestException("Parâmetros de paginação não podem ser nulos");
@@ -86,7 +133,7 @@ public class FuncionarioService {
                     )
             ).withSelfRel();
 
-            var pagedModel = assembler.toModel(peopleWithLinks, findAllLink);
+            var pagedModel = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(peopleWithLinks, findAllLink));
             logger.info("Total de funcionarios encontrados: {}", people.getTotalElements());
             return pagedModel;
         } catch (BadRequestException e) {
@@ -98,6 +145,44 @@ public class FuncionarioService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public CollectionModel<EntityModel<FuncionarioDTO>> findAllCursor(String cursor, int size, String direction) {
+        if (size <= 0 || size > KeysetCursor.TAMANHO_MAXIMO) {
+            throw new BadRequestException("Parâmetro size deve estar entre 1 e " + KeysetCursor.TAMANHO_MAXIMO);
+        }
+
+        try {
+            logger.info("Procurando todos os funcionarios por cursor");
+            KeysetCursor.Posicao posicao = KeysetCursor.decode(cursor, "nome", valor -> valor, direction);
+            Window<Funcionario> funcionarios = repository.findAllBy(
+                    posicao.scrollPosition(), KeysetCursor.sort("nome", posicao.direction()), Limit.of(size));
+            List<EntityModel<FuncionarioDTO>> itens = funcionarios.stream().map(entity -> {
+                FuncionarioDTO person = parseObject(entity, FuncionarioDTO.class);
+                addFuncionarioDetailLinks(person);
+                return EntityModel.of(person);
+            }).toList();
+
+            Link selfLink = WebMvcLinkBuilder.linkTo(
+                    methodOn(FuncionarioController.class).findAllCursor(cursor, size, direction)
+            ).withSelfRel();
+            var result = CollectionModel.of(itens, selfLink);
+            if (funcionarios.hasNext()) {
+                String proximo = KeysetCursor.encode(funcionarios, "nome", posicao.direction());
+                result.add(WebMvcLinkBuilder.linkTo(
+                        methodOn(FuncionarioController.class).findAllCursor(proximo, size, direction)
+                ).withRel(IanaLinkRelations.NEXT));
+            }
+            return result;
+        } catch (BadRequestException e) {
+            logger.warn("Erro de validação ao buscar funcionarios por cursor: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao buscar funcionarios por cursor: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar funcionarios: " + e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<FuncionarioDTO>> findByName(String nome, Pageable pageable) {
         if (nome == null || nome.trim().isEmpty()) {
             throw new BadRequestException("Nome não pode estar vazio");
@@ -115,7 +200,7 @@ public class FuncionarioService {
         try {
             logger.info("Procurando funcionarios pelo nome: {}", nome);
 
-            var funcionarios = repository.findFuncionarioByName(nome, pageable);
+            var funcionarios = buscarPagina(nomeIndex.buscar(nome), pageable);
             var funcionariosLinks = funcionarios.map(dto -> {
                 var funcionario = parseObject(dto, FuncionarioDTO.class);
                 addFuncionarioDetailLinks(funcionario);
@@ -131,7 +216,7 @@ public class FuncionarioService {
                     )
             ).withSelfRel();
 
-            var pagedModel = assembler.toModel(funcionariosLinks, findAllLink);
+            var pagedModel = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(funcionariosLinks, findAllLink));
             logger.info("Total de funcionarios encontrados para nome '{}': {}", nome, funcionarios.getTotalElements());
             return pagedModel;
         } catch (BadRequestException e) {
@@ -143,11 +228,28 @@ public class FuncionarioService {
         }
     }
 
+    // O índice já devolve os ids na ordem de relevância; o banco só é consultado pela chave primária da página
+    private Page<Funcionario> buscarPagina(List<Long> ids, Pageable pageable) {
+        int inicio = (int) Math.min(pageable.getOffset(), ids.size());
+        List<Long> idsPagina = ids.subList(inicio, Math.min(inicio + pageable.getPageSize(), ids.size()));
+        Map<Long, Funcionario> porId = repository.findAllById(idsPagina).stream()
+                .collect(Collectors.toMap(Funcionario::getId, Function.identity()));
+        List<Funcionario> pagina = idsPagina.stream().map(porId::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(pagina, pageable, ids.size());
+    }
+
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<FuncionarioDTO>> findByNome(String nome, Pageable pageable) {
         return findByName(nome, pageable);
     }
 
+    @Transactional(readOnly = true)
     public FuncionarioDTO findById(long id) {
+        return findById(id, etag -> false).corpo();
+    }
+
+    @Transactional(readOnly = true)
+    public Versionado<FuncionarioDTO> findById(long id, Predicate<String> naoModificado) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
         }
@@ -157,11 +259,15 @@ public class FuncionarioService {
 
             var entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Id nao encontrado no banco"));
+            String etag = EntityTag.forte(entity.getVersao());
+            if (naoModificado.test(etag)) {
+                return new Versionado<>(etag, null);
+            }
 
             var dto = parseObject(entity, FuncionarioDTO.class);
             addFuncionarioDetailLinks(dto);
             logger.info("Funcionario encontrado: ID {}", id);
-            return dto;
+            return new Versionado<>(etag, dto);
         } catch (ResourceNotFoundException e) {
             logger.warn("Funcionario não encontrado: {}", e.getMessage());
             throw e;
@@ -174,6 +280,7 @@ public class FuncionarioService {
         }
     }
 
+    @Transactional(readOnly = true)
     public FuncionarioDTO findByMatricula(String matricula) {
         if (matricula == null || matricula.trim().isEmpty()) {
             throw new BadRequestException("Matrícula não pode estar vazia");
@@ -201,6 +308,7 @@ public class FuncionarioService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<FuncionarioDTO>> findBySituacao(
             FuncionarioSituacao situacao, Pageable pageable) {
 
@@ -237,7 +345,7 @@ public class FuncionarioService {
                     )
             ).withSelfRel();
 
-            var pagedModel = assembler.toModel(funcionariosDTOPage, findAllLink);
+            var pagedModel = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(funcionariosDTOPage, findAllLink));
             logger.info("Total de funcionarios encontrados para situação '{}': {}", situacao, funcionariosPage.getTotalElements());
             return pagedModel;
         } catch (BadRequestException e) {
@@ -264,6 +372,7 @@ public class FuncionarioService {
             logger.info("Criando um novo funcionario no banco");
 
             var savedEntity = repository.save(funcionario);
+            nomeIndex.indexar(savedEntity);
             logger.info("Funcionario criado com sucesso: ID {}", savedEntity.getId());
             return savedEntity;
         } catch (BadRequestException e) {
@@ -281,7 +390,22 @@ public class FuncionarioService {
         }
     }
 
+    public String etag(long id) {
+        if (id <= 0) {
+            throw new BadRequestException("ID deve ser maior que zero");
+        }
+        return repository.findVersaoById(id)
+                .map(EntityTag::forte)
+                .orElseThrow(() -> new ResourceNotFoundException("Id nao encontrado no banco"));
+    }
+
+    @Transactional
     public FuncionarioDTO update(FuncionarioDTO funcionario) {
+        return update(funcionario, null);
+    }
+
+    @Transactional
+    public FuncionarioDTO update(FuncionarioDTO funcionario, String ifMatch) {
         if (funcionario == null) {
             throw new RequiredObjectIsNullException();
         }
@@ -300,6 +424,9 @@ public class FuncionarioService {
 
             Funcionario entity = repository.findById(funcionario.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Id nao encontrado no banco"));
+            if (ifMatch != null && !EntityTag.corresponde(ifMatch, EntityTag.forte(entity.getVersao()))) {
+                throw new PreconditionFailedException("Funcionário foi alterado por outra requisição: ID " + funcionario.getId());
+            }
 
             entity.setNome(funcionario.getNome());
             entity.setMatricula(funcionario.getMatricula());
@@ -312,22 +439,31 @@ public class FuncionarioService {
             entity.setTelefone(funcionario.getTelefone());
 
             var savedEntity = repository.save(entity);
+            repository.flush();
+            nomeIndex.indexar(savedEntity);
             var dto = parseObject(savedEntity, FuncionarioDTO.class);
             addFuncionarioDetailLinks(dto);
             logger.info("Funcionario atualizado com sucesso: ID {}", funcionario.getId());
             return dto;
-        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException e) {
+        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException | PreconditionFailedException e) {
             logger.warn("Erro de validação ao atualizar funcionario: {}", e.getMessage());
             throw e;
         } catch (org.springframework.dao.DataIntegrityViolationException e) {
             logger.error("Erro de integridade ao atualizar funcionario: {}", e.getMessage(), e);
             throw new BadRequestException("Erro ao atualizar: matrícula duplicada ou dados inválidos");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Conflito de versão ao atualizar funcionario: ID {}", funcionario.getId());
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Funcionário foi alterado por outra requisição: ID " + funcionario.getId());
+            }
+            throw e;
         } catch (Exception e) {
             logger.error("Erro inesperado ao atualizar funcionario: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao atualizar funcionario: " + e.getMessage());
         }
     }
 
+    @Transactional(readOnly = true)
     public Resource exportPage(String acceptHeader) {
         if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
             throw new BadRequestException("Header Accept é obrigatório");
@@ -360,6 +496,25 @@ public class FuncionarioService {
         }
     }
 
+    public StreamingResponseBody exportPageStreaming(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
+            throw new BadRequestException("Header Accept é obrigatório");
+        }
+
+        try {
+            logger.info("Exportando funcionarios em streaming no formato: {}", acceptHeader);
+            StreamingFileExporter exporter = this.exporter.getStreamingExporter(acceptHeader);
+            return streamingExporter.stream(repository::streamAll, funcionario -> parseObject(funcionario, FuncionarioDTO.class), exporter::exportarFuncionarios);
+        } catch (BadRequestException e) {
+            logger.warn("Erro ao exportar funcionarios em streaming: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao exportar arquivo em streaming: {}", e.getMessage(), e);
+            throw new FileStorageException("Erro ao exportar o arquivo: " + e.getMessage(), e);
+        }
+    }
+
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<FuncionarioDTO>> findFuncionarioByAddmitedDate(
             LocalDate startDate, LocalDate endDate, Pageable pageable) {
 
@@ -399,7 +554,7 @@ public class FuncionarioService {
                     )
             ).withSelfRel();
 
-            var pagedModel = assembler.toModel(funcionariosDTOPage, findAllLink);
+            var pagedModel = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(funcionariosDTOPage, findAllLink));
             logger.info("Total de funcionarios encontrados para data: {}", funcionariosPage.getTotalElements());
             return pagedModel;
         } catch (BadRequestException e) {
@@ -411,6 +566,7 @@ public class FuncionarioService {
         }
     }
 
+    @Transactional
     public void delete(long id) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
@@ -423,6 +579,8 @@ public class FuncionarioService {
                     .orElseThrow(() -> new ResourceNotFoundException("Id nao encontrado no banco"));
 
             repository.delete(entity);
+            repository.flush();
+            nomeIndex.remover(id);
             logger.info("Funcionario deletado com sucesso: ID {}", id);
         } catch (ResourceNotFoundException e) {
             logger.warn("Funcionario não encontrado para deletar: {}", e.getMessage());
@@ -436,7 +594,7 @@ public class FuncionarioService {
         }
     }
 
-    public List<FuncionarioDTO> importarArquivo(MultipartFile file) {
+    public ImportacaoJobDTO importarArquivo(MultipartFile file) {
         if (file == null) {
             throw new BadRequestException("Arquivo não pode ser nulo");
         }
@@ -452,48 +610,33 @@ public class FuncionarioService {
         }
 
         try {
-            logger.info("Importando funcionarios a partir do arquivo: {}", fileName);
-
-            try (InputStream inputStream = file.getInputStream()) {
-                FileImporter importer = this.importer.getImporter(fileName);
-
-                List<Funcionario> entities = importer.importarFuncionarios(inputStream).stream()
-                        .map(dto -> {
-                            try {
-                                return repository.save(parseObject(dto, Funcionario.class));
-                            } catch (org.springframework.dao.DataIntegrityViolationException e) {
-                                logger.error("Erro de integridade ao salvar funcionario do arquivo: {}", e.getMessage());
-                                throw new BadRequestException("Dados duplicados ou inválidos no arquivo");
-                            }
-                        })
-                        .toList();
-
-                var result = entities.stream()
-                        .map(entity -> {
-                            var dto = parseObject(entity, FuncionarioDTO.class);
-                            addFuncionarioDetailLinks(dto);
-                            return dto;
-                        })
-                        .toList();
-
-                logger.info("Arquivo importado com sucesso: {} funcionarios", result.size());
-                return result;
-            }
-        } catch (BadRequestException e) {
-            logger.warn("Erro de validação ao importar arquivo: {}", e.getMessage());
+            FileImporter importer = this.importer.getImporter(fileName);
+
+            // O arquivo é gravado em disco e processado em segundo plano; o cliente acompanha pelo id do job
+            logger.info("Agendando importação de funcionarios a partir do arquivo: {}", fileName);
+            return importacaoJobs.iniciar(ImportacaoTipo.FUNCIONARIO, file, (nome, inputStream, progresso) -> {
+                var resultado = batchImporter.importar(nome, consumer -> importer.importarFuncionarios(inputStream, consumer),
+                        funcionarioImportHandler, progresso);
+                // A importação grava via JDBC em lote, sem passar pelo create; o índice é recarregado de uma vez
+                if (resultado.getImportados() > 0) {
+                    nomeIndex.reconstruir();
+                    alteracoes.registrar(Funcionario.class);
+                }
+                return resultado;
+            });
+        } catch (BadRequestException | ServiceUnavailableException | FileStorageException e) {
+            logger.warn("Importação não agendada: {}", e.getMessage());
             throw e;
-        } catch (java.io.IOException e) {
-            logger.error("Erro ao ler arquivo: {}", e.getMessage(), e);
-            throw new FileStorageException("Erro ao ler o arquivo: " + e.getMessage(), e);
-        } catch (org.springframework.dao.DataIntegrityViolationException e) {
-            logger.error("Erro de integridade ao importar funcionarios: {}", e.getMessage(), e);
-            throw new BadRequestException("Erro ao importar: dados duplicados ou inválidos no arquivo");
-        } catch (IllegalArgumentException e) {
-            logger.error("Tipo de arquivo não suportado: {}", e.getMessage(), e);
-            throw new BadRequestException("Tipo de arquivo não suportado: " + fileName);
         } catch (Exception e) {
-            logger.error("Erro inesperado ao importar arquivo: {}", e.getMessage(), e);
+            logger.error("Erro inesperado ao agendar importação: {}", e.getMessage(), e);
             throw new FileStorageException("Erro ao processar o arquivo: " + e.getMessage(), e);
         }
     }
+
+    public ImportacaoJobDTO consultarImportacao(String jobId) {
+        if (jobId == null || jobId.isBlank()) {
+            throw new BadRequestException("Id da importação não pode ser vazio");
+        }
+        return importacaoJobs.consultar(ImportacaoTipo.FUNCIONARIO, jobId);
+    }
 }
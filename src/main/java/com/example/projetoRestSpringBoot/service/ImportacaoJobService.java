@@ -0,0 +1,233 @@
+package com.example.projetoRestSpringBoot.service;
+
+import com.example.projetoRestSpringBoot.config.FileStorageConfig;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoResultadoDTO;
+import com.example.projetoRestSpringBoot.enums.ImportacaoStatus;
+import com.example.projetoRestSpringBoot.enums.ImportacaoTipo;
+import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.exception.ServiceUnavailableException;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportExecutor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class ImportacaoJobService {
+
+    private static final Duration RETENCAO_JOBS_FINALIZADOS = Duration.ofHours(1);
+
+    private final Logger logger = LoggerFactory.getLogger(ImportacaoJobService.class.getName());
+
+    private final Map<String, ImportacaoJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    private FileStorageConfig fileStorageConfig;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ThreadPoolExecutor importacaoExecutor;
+
+    @FunctionalInterface
+    public interface ImportacaoTask {
+        ImportacaoResultadoDTO executar(String fileName, InputStream inputStream,
+                                        BatchImportExecutor.Progresso progresso) throws Exception;
+    }
+
+    private static class ImportacaoJob {
+        final String id;
+        final ImportacaoTipo tipo;
+        final String arquivo;
+        final Path spool;
+        final Instant criadoEm = Instant.now();
+        volatile ImportacaoStatus status = ImportacaoStatus.PENDENTE;
+        volatile Instant iniciadoEm;
+        volatile Instant finalizadoEm;
+        volatile int linhasProcessadas;
+        volatile int importados;
+        volatile int rejeitados;
+        volatile String mensagem;
+        volatile ImportacaoResultadoDTO resultado;
+
+        ImportacaoJob(String id, ImportacaoTipo tipo, String arquivo, Path spool) {
+            this.id = id;
+            this.tipo = tipo;
+            this.arquivo = arquivo;
+            this.spool = spool;
+        }
+    }
+
+    @PostConstruct
+    public void iniciarExecutor() {
+        int threads = Math.max(1, fileStorageConfig.getImportThreads());
+        AtomicInteger contador = new AtomicInteger();
+        // Fila limitada e sem CallerRunsPolicy: se lotar, a requisição recebe 503 em vez de processar na thread do Tomcat
+        importacaoExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, fileStorageConfig.getImportQueueCapacity())),
+                runnable -> new Thread(runnable, "importacao-" + contador.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void encerrarExecutor() {
+        importacaoExecutor.shutdownNow();
+    }
+
+    public ImportacaoJobDTO iniciar(ImportacaoTipo tipo, MultipartFile file, ImportacaoTask task) {
+        String id = UUID.randomUUID().toString();
+        String fileName = file.getOriginalFilename();
+        Path spool = gravarArquivo(id, fileName, file);
+
+        ImportacaoJob job = new ImportacaoJob(id, tipo, fileName, spool);
+        jobs.put(id, job);
+        try {
+            importacaoExecutor.execute(() -> processar(job, task));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            apagarArquivo(spool);
+            logger.warn("Fila de importação cheia, arquivo {} recusado", fileName);
+            throw new ServiceUnavailableException("Muitas importações em andamento, tente novamente em alguns minutos");
+        }
+
+        logger.info("Importação {} de {} agendada para o arquivo {}", id, tipo, fileName);
+        return toDTO(job);
+    }
+
+    public ImportacaoJobDTO consultar(ImportacaoTipo tipo, String id) {
+        ImportacaoJob job = jobs.get(id);
+        if (job == null || job.tipo != tipo) {
+            throw new ResourceNotFoundException("Importação não encontrada: " + id);
+        }
+        return toDTO(job);
+    }
+
+    @Scheduled(fixedDelay = 600000)
+    public void removerJobsFinalizados() {
+        Instant limite = Instant.now().minus(RETENCAO_JOBS_FINALIZADOS);
+        jobs.values().removeIf(job -> job.finalizadoEm != null && job.finalizadoEm.isBefore(limite));
+    }
+
+    private void processar(ImportacaoJob job, ImportacaoTask task) {
+        job.status = ImportacaoStatus.PROCESSANDO;
+        job.iniciadoEm = Instant.now();
+        ImportacaoResultadoDTO resultado = null;
+        Exception erro = null;
+        try (InputStream inputStream = Files.newInputStream(job.spool)) {
+            resultado = task.executar(job.arquivo, inputStream, (linhasLidas, importados, rejeitados) -> {
+                job.linhasProcessadas = linhasLidas;
+                job.importados = importados;
+                job.rejeitados = rejeitados;
+            });
+        } catch (Exception e) {
+            erro = e;
+        }
+        apagarArquivo(job.spool);
+
+        // O status é publicado por último: quem vê CONCLUIDA/FALHOU já encontra o restante preenchido
+        job.finalizadoEm = Instant.now();
+        registrarMetricas(job, erro == null);
+        if (erro == null) {
+            job.resultado = resultado;
+            job.status = ImportacaoStatus.CONCLUIDA;
+            logger.info("Importação {} concluída: {} importados, {} rejeitados", job.id, resultado.getImportados(), resultado.getRejeitados());
+        } else {
+            job.mensagem = erro.getMessage();
+            job.status = ImportacaoStatus.FALHOU;
+            logger.error("Erro na importação {} do arquivo {}: {}", job.id, job.arquivo, erro.getMessage(), erro);
+        }
+    }
+
+    // Linhas importadas e rejeitadas, falhas e vazão por tipo; a vazão usa as linhas lidas até o fim ou até a falha
+    private void registrarMetricas(ImportacaoJob job, boolean sucesso) {
+        String tipo = job.tipo.name().toLowerCase();
+        String resultado = sucesso ? "sucesso" : "erro";
+        Duration duracao = Duration.between(job.iniciadoEm, job.finalizadoEm);
+
+        Timer.builder("importacao.duracao")
+                .tags("tipo", tipo, "resultado", resultado)
+                .register(meterRegistry)
+                .record(duracao);
+        meterRegistry.counter("importacao.linhas", "tipo", tipo, "resultado", "importada").increment(job.importados);
+        meterRegistry.counter("importacao.linhas", "tipo", tipo, "resultado", "rejeitada").increment(job.rejeitados);
+        if (!sucesso) {
+            meterRegistry.counter("importacao.falhas", "tipo", tipo).increment();
+        }
+        DistributionSummary.builder("importacao.linhas.por.segundo")
+                .tags("tipo", tipo)
+                .register(meterRegistry)
+                .record(job.linhasProcessadas * 1000.0 / Math.max(1, duracao.toMillis()));
+    }
+
+    private Path gravarArquivo(String id, String fileName, MultipartFile file) {
+        try {
+            Path diretorio = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+            Files.createDirectories(diretorio);
+            // O nome enviado pelo cliente não entra no caminho, só a extensão
+            String extensao = fileName.contains(".") ? fileName.substring(fileName.lastIndexOf('.')) : "";
+            Path destino = diretorio.resolve(id + extensao.replaceAll("[^A-Za-z0-9.]", ""));
+            file.transferTo(destino);
+            return destino;
+        } catch (IOException e) {
+            logger.error("Erro ao gravar arquivo de importação {}: {}", fileName, e.getMessage(), e);
+            throw new FileStorageException("Erro ao gravar o arquivo para importação: " + e.getMessage(), e);
+        }
+    }
+
+    private void apagarArquivo(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            logger.warn("Não foi possível apagar o arquivo de importação {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private ImportacaoJobDTO toDTO(ImportacaoJob job) {
+        ImportacaoJobDTO dto = new ImportacaoJobDTO();
+        dto.setId(job.id);
+        dto.setTipo(job.tipo);
+        dto.setArquivo(job.arquivo);
+        dto.setStatus(job.status);
+        dto.setCriadoEm(job.criadoEm);
+        dto.setIniciadoEm(job.iniciadoEm);
+        dto.setFinalizadoEm(job.finalizadoEm);
+        dto.setLinhasProcessadas(job.linhasProcessadas);
+        dto.setImportados(job.importados);
+        dto.setRejeitados(job.rejeitados);
+        dto.setMensagem(job.mensagem);
+        dto.setResultado(job.resultado);
+
+        if (job.iniciadoEm != null) {
+            Instant fim = job.finalizadoEm != null ? job.finalizadoEm : Instant.now();
+            long millis = Math.max(1, Duration.between(job.iniciadoEm, fim).toMillis());
+            dto.setLinhasPorSegundo(Math.round(job.linhasProcessadas * 1000.0 / millis * 10) / 10.0);
+        }
+        return dto;
+    }
+}
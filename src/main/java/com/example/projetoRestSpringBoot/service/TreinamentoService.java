@@ -2,45 +2,78 @@ package com.example.projetoRestSpringBoot.service;
 
 import com.example.projetoRestSpringBoot.controller.TreinamentoController;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.dto.request.RelatorioLoteRequestDTO;
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
 import com.example.projetoRestSpringBoot.exception.FileStorageException;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
 import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
 import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
+import com.example.projetoRestSpringBoot.file.exporter.impl.PdfExporter;
+import com.example.projetoRestSpringBoot.config.ReportConfig;
 import com.example.projetoRestSpringBoot.model.Curso;
 import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
 import com.example.projetoRestSpringBoot.repository.CursoRepository;
 import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
 import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import com.example.projetoRestSpringBoot.service.digest.DigestVencimento;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.etag.EntityTag;
+import com.example.projetoRestSpringBoot.service.etag.Versionado;
 import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.service.pagination.KeysetCursor;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObject;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @Service
+@Timed("servico")
 public class TreinamentoService {
 
+    private static final int LOTE_ATUALIZACAO_STATUS = 50_000;
+
     private final Logger logger = LoggerFactory.getLogger(TreinamentoService.class.getName());
 
     @Autowired
@@ -55,9 +88,28 @@ public class TreinamentoService {
     @Autowired
     private CursoRepository cursoRepository;
 
+    @Autowired
+    private StreamingExportExecutor streamingExporter;
+
+    @Autowired
+    private PdfExporter pdfExporter;
+
+    @Autowired
+    private ReportConfig reportConfig;
+
+    @Autowired
+    private AlteracoesTabela alteracoes;
+
+    @Autowired
+    private DigestVencimentoService digestService;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
     @Autowired(required = false)
     private PagedResourcesAssembler<TreinamentoDTO> assembler;
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<TreinamentoDTO>> findAll(Pageable pageable) {
         if (pageable == null) {
             throw new BadRequestException("Parâmetros de paginação não podem ser nulos");
@@ -91,7 +143,7 @@ public class TreinamentoService {
                             String.valueOf(pageable.getSort())
                     )
             ).withSelfRel();
-            var result = assembler.toModel(peopleWithLinks, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(peopleWithLinks, findAllLink));
             HateoasLinkManager.addTreinamentoListPageLinks(result);
             logger.info("Total de treinamentos encontrados: {}", people.getTotalElements());
             return result;
@@ -104,7 +156,57 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
+    public CollectionModel<EntityModel<TreinamentoDTO>> findAllCursor(String cursor, int size, String direction) {
+        if (size <= 0 || size > KeysetCursor.TAMANHO_MAXIMO) {
+            throw new BadRequestException("Parâmetro size deve estar entre 1 e " + KeysetCursor.TAMANHO_MAXIMO);
+        }
+
+        try {
+            logger.info("Procurando todos os treinamentos por cursor");
+            KeysetCursor.Posicao posicao = KeysetCursor.decode(cursor, "dataVencimento", LocalDate::parse, direction);
+            Window<Treinamento> treinamentos = repository.findAllBy(
+                    posicao.scrollPosition(), KeysetCursor.sort("dataVencimento", posicao.direction()), Limit.of(size));
+            List<EntityModel<TreinamentoDTO>> itens = treinamentos.stream().map(entity -> {
+                TreinamentoDTO treinamento = parseObject(entity, TreinamentoDTO.class);
+                if (entity.getFuncionario() != null) {
+                    treinamento.setFuncionarioId(entity.getFuncionario().getId());
+                    treinamento.setFuncionarioNome(entity.getFuncionario().getNome());
+                    treinamento.setFuncionarioMatricula(entity.getFuncionario().getMatricula());
+                    treinamento.setCursoId(entity.getCurso().getId());
+                    treinamento.setCursoNome(entity.getCurso().getNome());
+                }
+                HateoasLinkManager.addTreinamentoDetailLinks(treinamento);
+                return EntityModel.of(treinamento);
+            }).toList();
+
+            Link selfLink = WebMvcLinkBuilder.linkTo(
+                    methodOn(TreinamentoController.class).findAllCursor(cursor, size, direction)
+            ).withSelfRel();
+            var result = CollectionModel.of(itens, selfLink);
+            if (treinamentos.hasNext()) {
+                String proximo = KeysetCursor.encode(treinamentos, "dataVencimento", posicao.direction());
+                result.add(WebMvcLinkBuilder.linkTo(
+                        methodOn(TreinamentoController.class).findAllCursor(proximo, size, direction)
+                ).withRel(IanaLinkRelations.NEXT));
+            }
+            return result;
+        } catch (BadRequestException e) {
+            logger.warn("Erro de validação ao buscar treinamentos por cursor: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao buscar treinamentos por cursor: {}", e.getMessage(), e);
+            throw new RuntimeException("Erro ao buscar treinamentos: " + e.getMessage());
+        }
+    }
+
+    @Transactional(readOnly = true)
     public TreinamentoDTO findById(long id) {
+        return findById(id, etag -> false).corpo();
+    }
+
+    @Transactional(readOnly = true)
+    public Versionado<TreinamentoDTO> findById(long id, Predicate<String> naoModificado) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
         }
@@ -113,6 +215,10 @@ public class TreinamentoService {
             logger.info("Procurando um treinamento pelo ID: {}", id);
             var entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Treinamento não encontrado"));
+            String etag = etag(entity);
+            if (naoModificado.test(etag)) {
+                return new Versionado<>(etag, null);
+            }
 
             var dto = parseObject(entity, TreinamentoDTO.class);
 
@@ -125,7 +231,7 @@ public class TreinamentoService {
             }
             HateoasLinkManager.addTreinamentoDetailLinks(dto);
             logger.info("Treinamento encontrado: ID {}", id);
-            return dto;
+            return new Versionado<>(etag, dto);
         } catch (ResourceNotFoundException e) {
             logger.warn("Treinamento não encontrado: {}", e.getMessage());
             throw e;
@@ -138,6 +244,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<TreinamentoDTO>> findByInstrutor(String instrutor, Pageable pageable) {
         if (instrutor == null || instrutor.trim().isEmpty()) {
             throw new BadRequestException("Nome do instrutor não pode ser vazio");
@@ -179,7 +286,7 @@ public class TreinamentoService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(funcionariosDTOPage, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(funcionariosDTOPage, findAllLink));
             HateoasLinkManager.addTreinamentoListPageLinks(result);
             logger.info("Total de treinamentos encontrados para instrutor '{}': {}", instrutor, treinamentoPage.getTotalElements());
             return result;
@@ -192,6 +299,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<TreinamentoDTO>> findByStatus(TreinamentoStatus status, Pageable pageable) {
         if (status == null) {
             throw new BadRequestException("Status não pode ser nulo");
@@ -231,7 +339,7 @@ public class TreinamentoService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(funcionariosDTOPage, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(funcionariosDTOPage, findAllLink));
             HateoasLinkManager.addTreinamentoListPageLinks(result);
             logger.info("Total de treinamentos encontrados para status '{}': {}", status, treinamentoPage.getTotalElements());
             return result;
@@ -244,6 +352,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<TreinamentoDTO>> findTreinamentoExpiring(LocalDate startDate, LocalDate endDate, Pageable pageable) {
         if (startDate == null || endDate == null) {
             throw new BadRequestException("Datas de início e fim são obrigatórias");
@@ -286,7 +395,7 @@ public class TreinamentoService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(treinamentoPageDTO, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(treinamentoPageDTO, findAllLink));
             HateoasLinkManager.addTreinamentoListPageLinks(result);
             logger.info("Total de treinamentos expirando entre {} e {}: {}", startDate, endDate, treinamentoPage.getTotalElements());
             return result;
@@ -299,6 +408,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<TreinamentoDTO>> findTreinamentoConluded(LocalDate startDate, LocalDate endDate, Pageable pageable) {
         if (startDate == null || endDate == null) {
             throw new BadRequestException("Datas de início e fim são obrigatórias");
@@ -341,7 +451,7 @@ public class TreinamentoService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(treinamentoPageDTO, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(treinamentoPageDTO, findAllLink));
             HateoasLinkManager.addTreinamentoListPageLinks(result);
             logger.info("Total de treinamentos concluídos entre {} e {}: {}", startDate, endDate, treinamentoPage.getTotalElements());
             return result;
@@ -354,6 +464,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public PagedModel<EntityModel<TreinamentoDTO>> findTreinamentosByFuncionario(long id, Pageable pageable) {
         if (id <= 0) {
             throw new BadRequestException("ID do funcionário deve ser maior que zero");
@@ -393,7 +504,7 @@ public class TreinamentoService {
                     )
             ).withSelfRel();
 
-            var result = assembler.toModel(treinamentoPageDTO, findAllLink);
+            var result = TempoEtapas.medir(Etapa.ASSEMBLER, () -> assembler.toModel(treinamentoPageDTO, findAllLink));
             HateoasLinkManager.addTreinamentoListPageLinks(result);
             logger.info("Total de treinamentos encontrados para funcionário {}: {}", id, treinamentoPage.getTotalElements());
             return result;
@@ -406,6 +517,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional
     public Treinamento create(TreinamentoDTO treinamentoDTO) {
         if (treinamentoDTO == null) {
             throw new RequiredObjectIsNullException();
@@ -459,7 +571,22 @@ public class TreinamentoService {
     }
 
 
+    public String etag(long id) {
+        if (id <= 0) {
+            throw new BadRequestException("ID deve ser maior que zero");
+        }
+        return repository.findVersaoById(id)
+                .map(EntityTag::forte)
+                .orElseThrow(() -> new ResourceNotFoundException("Treinamento não encontrado no banco"));
+    }
+
+    @Transactional
     public TreinamentoDTO update(TreinamentoDTO treinamentoDTO) {
+        return update(treinamentoDTO, null);
+    }
+
+    @Transactional
+    public TreinamentoDTO update(TreinamentoDTO treinamentoDTO, String ifMatch) {
         if (treinamentoDTO == null) {
             throw new RequiredObjectIsNullException();
         }
@@ -474,6 +601,9 @@ public class TreinamentoService {
             logger.info("Atualizando um treinamento no banco: ID {}", treinamentoDTO.getId());
             Treinamento entity = repository.findById(treinamentoDTO.getId())
                     .orElseThrow(() -> new ResourceNotFoundException("Treinamento não encontrado no banco"));
+            if (ifMatch != null && !EntityTag.corresponde(ifMatch, etag(entity))) {
+                throw new PreconditionFailedException("Treinamento foi alterado por outra requisição: ID " + treinamentoDTO.getId());
+            }
 
             entity.setDataAgendamento(treinamentoDTO.getDataAgendamento());
             entity.setDataVencimento(treinamentoDTO.getDataVencimento());
@@ -484,7 +614,9 @@ public class TreinamentoService {
                 entity.setStatus(calcularStatus(entity.getDataVencimento()));
             }
 
-            var dto = parseObject(repository.save(entity), TreinamentoDTO.class);
+            var savedEntity = repository.save(entity);
+            repository.flush();
+            var dto = parseObject(savedEntity, TreinamentoDTO.class);
             if (entity.getFuncionario() != null) {
                 dto.setFuncionarioId(entity.getFuncionario().getId());
                 dto.setFuncionarioNome(entity.getFuncionario().getNome());
@@ -495,15 +627,27 @@ public class TreinamentoService {
             HateoasLinkManager.addTreinamentoDetailLinks(dto);
             logger.info("Treinamento atualizado com sucesso: ID {}", treinamentoDTO.getId());
             return dto;
-        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException e) {
+        } catch (BadRequestException | ResourceNotFoundException | RequiredObjectIsNullException | PreconditionFailedException e) {
             logger.warn("Erro de validação ao atualizar treinamento: {}", e.getMessage());
             throw e;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            logger.warn("Conflito de versão ao atualizar treinamento: ID {}", treinamentoDTO.getId());
+            if (ifMatch != null) {
+                throw new PreconditionFailedException("Treinamento foi alterado por outra requisição: ID " + treinamentoDTO.getId());
+            }
+            throw e;
         } catch (Exception e) {
             logger.error("Erro inesperado ao atualizar treinamento: {}", e.getMessage(), e);
             throw new RuntimeException("Erro ao atualizar treinamento: " + e.getMessage());
         }
     }
 
+    // Mesmo formato da consulta findVersaoById do repositório
+    private static String etag(Treinamento entity) {
+        return EntityTag.forte(entity.getVersao(), entity.getFuncionario().getVersao(), entity.getCurso().getVersao());
+    }
+
+    @Transactional
     public void delete(long id) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
@@ -514,6 +658,7 @@ public class TreinamentoService {
             Treinamento entity = repository.findById(id)
                     .orElseThrow(() -> new ResourceNotFoundException("Treinamento não encontrado no banco"));
             repository.delete(entity);
+            repository.flush();
             logger.info("Treinamento deletado com sucesso: ID {}", id);
         } catch (ResourceNotFoundException e) {
             logger.warn("Treinamento não encontrado para deletar: {}", e.getMessage());
@@ -527,6 +672,7 @@ public class TreinamentoService {
         }
     }
 
+    @Transactional(readOnly = true)
     public Resource exportPage(String acceptHeader) {
         if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
             throw new BadRequestException("Header Accept é obrigatório");
@@ -536,22 +682,7 @@ public class TreinamentoService {
             logger.info("Exportando treinamentos no formato: {}", acceptHeader);
 
             var treinamentos = repository.findAll().stream()
-                    .map(treinamento -> {
-                        TreinamentoDTO dto = parseObject(treinamento, TreinamentoDTO.class);
-
-                        if (treinamento.getFuncionario() != null) {
-                            dto.setFuncionarioId(treinamento.getFuncionario().getId());
-                            dto.setFuncionarioNome(treinamento.getFuncionario().getNome());
-                            dto.setFuncionarioMatricula(treinamento.getFuncionario().getMatricula());
-                        }
-
-                        if (treinamento.getCurso() != null) {
-                            dto.setCursoId(treinamento.getCurso().getId());
-                            dto.setCursoNome(treinamento.getCurso().getNome());
-                        }
-
-                        return dto;
-                    })
+                    .map(this::toExportDTO)
                     .collect(Collectors.toList());
 
             if (treinamentos.isEmpty()) {
@@ -574,7 +705,43 @@ public class TreinamentoService {
         }
     }
 
+    public StreamingResponseBody exportPageStreaming(String acceptHeader) {
+        if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
+            throw new BadRequestException("Header Accept é obrigatório");
+        }
+
+        try {
+            logger.info("Exportando treinamentos em streaming no formato: {}", acceptHeader);
+            StreamingFileExporter exporterObj = this.exporter.getStreamingExporter(acceptHeader);
+            return streamingExporter.stream(repository::streamAll, this::toExportDTO, exporterObj::exportTreinamentos);
+        } catch (BadRequestException e) {
+            logger.warn("Erro ao exportar treinamentos em streaming: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao exportar arquivo em streaming: {}", e.getMessage(), e);
+            throw new FileStorageException("Erro ao exportar o arquivo: " + e.getMessage(), e);
+        }
+    }
+
+    private TreinamentoDTO toExportDTO(Treinamento treinamento) {
+        TreinamentoDTO dto = parseObject(treinamento, TreinamentoDTO.class);
+
+        if (treinamento.getFuncionario() != null) {
+            dto.setFuncionarioId(treinamento.getFuncionario().getId());
+            dto.setFuncionarioNome(treinamento.getFuncionario().getNome());
+            dto.setFuncionarioMatricula(treinamento.getFuncionario().getMatricula());
+        }
+
+        if (treinamento.getCurso() != null) {
+            dto.setCursoId(treinamento.getCurso().getId());
+            dto.setCursoNome(treinamento.getCurso().getNome());
+        }
 
+        return dto;
+    }
+
+
+    @Transactional(readOnly = true)
     public Resource exportarPorId(long id) {
         if (id <= 0) {
             throw new BadRequestException("ID deve ser maior que zero");
@@ -611,23 +778,130 @@ public class TreinamentoService {
         }
     }
 
+    public StreamingResponseBody exportarLote(RelatorioLoteRequestDTO lote, String acceptHeader) {
+        if (lote == null) {
+            throw new RequiredObjectIsNullException();
+        }
+        boolean porDepartamento = lote.getDepartamento() != null && !lote.getDepartamento().trim().isEmpty();
+        boolean porFuncionarios = lote.getFuncionarioIds() != null && !lote.getFuncionarioIds().isEmpty();
+        if (porDepartamento == porFuncionarios) {
+            throw new BadRequestException("Informe a lista de funcionários ou o departamento");
+        }
+        if (porFuncionarios && lote.getFuncionarioIds().stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new BadRequestException("IDs de funcionário devem ser maiores que zero");
+        }
+        if (acceptHeader == null || acceptHeader.trim().isEmpty()) {
+            throw new BadRequestException("Header Accept é obrigatório");
+        }
+        boolean mesclar;
+        if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_PDF_VALUE)) {
+            mesclar = true;
+        } else if (acceptHeader.equalsIgnoreCase(MediaTypes.APPLICATION_ZIP_VALUE)) {
+            mesclar = false;
+        } else {
+            throw new BadRequestException("Formato de arquivo nao suportado!");
+        }
+
+        try {
+            List<Long> funcionarioIds;
+            if (porDepartamento) {
+                logger.info("Exportando lote de relatórios do departamento: {}", lote.getDepartamento());
+                funcionarioIds = repository.findFuncionarioIdsComTreinamentoPorDepartamento(lote.getDepartamento().trim());
+            } else {
+                Set<Long> solicitados = new LinkedHashSet<>(lote.getFuncionarioIds());
+                // Recusado antes do IN: a lista vem do cliente e não tem tamanho máximo
+                if (solicitados.size() > reportConfig.getBatchMaxRelatorios()) {
+                    throw new BadRequestException("O lote excede o limite de " + reportConfig.getBatchMaxRelatorios() + " relatórios");
+                }
+                logger.info("Exportando lote de relatórios para {} funcionários", solicitados.size());
+                // Uma única consulta no lugar das verificações de existência feitas por relatório
+                funcionarioIds = repository.findFuncionarioIdsComTreinamento(solicitados);
+                if (funcionarioIds.size() < solicitados.size()) {
+                    logger.warn("{} funcionários sem treinamento foram ignorados no lote", solicitados.size() - funcionarioIds.size());
+                }
+            }
+
+            if (funcionarioIds.isEmpty()) {
+                throw new ResourceNotFoundException("Nenhum treinamento encontrado para exportar");
+            }
+            if (funcionarioIds.size() > reportConfig.getBatchMaxRelatorios()) {
+                throw new BadRequestException("O lote excede o limite de " + reportConfig.getBatchMaxRelatorios() + " relatórios");
+            }
+
+            return outputStream -> {
+                try {
+                    pdfExporter.exportarLote(funcionarioIds, mesclar, outputStream);
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    logger.error("Erro ao exportar lote de relatórios: {}", e.getMessage(), e);
+                    throw new FileStorageException("Erro ao exportar lote de PDF: " + e.getMessage(), e);
+                }
+            };
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            logger.warn("Erro ao exportar lote de relatórios: {}", e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao exportar lote de relatórios: {}", e.getMessage(), e);
+            throw new FileStorageException("Erro ao exportar lote de PDF: " + e.getMessage(), e);
+        }
+    }
+
     @Scheduled(cron = "0 0 0 * * ?")
     public void atualizarStatusTreinamentos() {
+        Timer.Sample amostra = Timer.start(meterRegistry);
+        String resultado = "erro";
         try {
             logger.info("Iniciando atualização automática de status dos treinamentos");
-            List<Treinamento> treinamentos = repository.findAll();
-            for (Treinamento t : treinamentos) {
-                if (t.getDataVencimento() != null) {
-                    t.setStatus(calcularStatus(t.getDataVencimento()));
-                }
-            }
-            repository.saveAll(treinamentos);
-            logger.info("Status de {} treinamentos atualizados com sucesso", treinamentos.size());
+            DigestVencimento digest = new DigestVencimento("Treinamentos");
+            Map<TreinamentoStatus, Integer> alterados = recalcularStatusTreinamentos(LocalDate.now(), digest);
+            alterados.forEach((status, linhas) -> meterRegistry
+                    .counter("job.status.linhas", "entidade", "treinamento", "status", status.name()).increment(linhas));
+            digestService.enviar(digest, "Curso");
+            resultado = "sucesso";
+            logger.info("Status dos treinamentos atualizados: {}", alterados);
         } catch (Exception e) {
             logger.error("Erro ao atualizar status dos treinamentos: {}", e.getMessage(), e);
+        } finally {
+            amostra.stop(meterRegistry.timer("job.status", "entidade", "treinamento", "resultado", resultado));
         }
     }
 
+    // Mesmas regras de calcularStatus, aplicadas com UPDATEs em massa; retorna quantas linhas mudaram para cada status
+    public Map<TreinamentoStatus, Integer> recalcularStatusTreinamentos(LocalDate hoje) {
+        return recalcularStatusTreinamentos(hoje, null);
+    }
+
+    // Com digest, as linhas que vão mudar para vencido ou vencimento próximo são lidas antes de cada UPDATE
+    public Map<TreinamentoStatus, Integer> recalcularStatusTreinamentos(LocalDate hoje, DigestVencimento digest) {
+        LocalDate limiteVencimentoProximo = hoje.plusDays(90);
+        Map<TreinamentoStatus, Integer> alterados = new EnumMap<>(TreinamentoStatus.class);
+        for (TreinamentoStatus status : TreinamentoStatus.values()) {
+            alterados.put(status, 0);
+        }
+
+        long maxId = repository.findMaxId();
+        for (long idInicio = 0; idInicio <= maxId; idInicio += LOTE_ATUALIZACAO_STATUS) {
+            long idFim = idInicio + LOTE_ATUALIZACAO_STATUS - 1;
+            if (digest != null) {
+                digest.registrar("Vencido", repository.findTransicoesVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, idInicio, idFim));
+                digest.registrar("Vencimento próximo", repository.findTransicoesVencimentoEntre(
+                        TreinamentoStatus.VENCIMENTO_PROXIMO, hoje, limiteVencimentoProximo, idInicio, idFim));
+            }
+            alterados.merge(TreinamentoStatus.VENCIDO,
+                    repository.atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, idInicio, idFim), Integer::sum);
+            alterados.merge(TreinamentoStatus.VENCIMENTO_PROXIMO,
+                    repository.atualizarStatusVencimentoEntre(TreinamentoStatus.VENCIMENTO_PROXIMO, hoje, limiteVencimentoProximo, idInicio, idFim), Integer::sum);
+            alterados.merge(TreinamentoStatus.VALIDO,
+                    repository.atualizarStatusVencimentoAPartirDe(TreinamentoStatus.VALIDO, limiteVencimentoProximo, idInicio, idFim), Integer::sum);
+        }
+        // UPDATE em massa não passa pelos listeners do Hibernate
+        if (alterados.values().stream().anyMatch(n -> n > 0)) {
+            alteracoes.registrar(Treinamento.class);
+        }
+        return alterados;
+    }
+
     private TreinamentoStatus calcularStatus(LocalDate dataVencimento) {
         LocalDate hoje = LocalDate.now();
         if (hoje.isAfter(dataVencimento)) {
@@ -0,0 +1,27 @@
+package com.example.projetoRestSpringBoot.service.cache;
+
+import com.example.projetoRestSpringBoot.model.Curso;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Invalidação explícita do cache de segundo nível dos dados de referência.
+// Alterações feitas pelo Hibernate já atualizam o cache; a importação grava por JDBC e precisa disso.
+@Component
+public class CacheReferencia {
+
+    public static final String CURSO = "curso";
+    public static final String PERMISSION = "permission";
+    public static final String USER_PERMISSIONS = "user-permissions";
+    public static final String CURSO_CONSULTAS = "curso-consultas";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public void invalidarCursos() {
+        var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Curso.class);
+        cache.evictQueryRegion(CURSO_CONSULTAS);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.projetoRestSpringBoot.service.digest;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Template HTML com marcadores {{nome}}. É separado em trechos uma única vez;
+// cada render só concatena os trechos com os valores, que são escapados.
+public final class DigestTemplate {
+
+    private final List<String> literais;
+    private final List<String> marcadores;
+
+    private DigestTemplate(List<String> literais, List<String> marcadores) {
+        this.literais = literais;
+        this.marcadores = marcadores;
+    }
+
+    public static DigestTemplate carregar(String caminho) {
+        try (InputStream inputStream = new ClassPathResource(caminho).getInputStream()) {
+            return compilar(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Template não encontrado: " + caminho, e);
+        }
+    }
+
+    public static DigestTemplate compilar(String fonte) {
+        List<String> literais = new ArrayList<>();
+        List<String> marcadores = new ArrayList<>();
+        int posicao = 0;
+        int inicio;
+        while ((inicio = fonte.indexOf("{{", posicao)) >= 0) {
+            int fim = fonte.indexOf("}}", inicio);
+            if (fim < 0) {
+                throw new IllegalArgumentException("Marcador sem fechamento na posição " + inicio);
+            }
+            literais.add(fonte.substring(posicao, inicio));
+            marcadores.add(fonte.substring(inicio + 2, fim).trim());
+            posicao = fim + 2;
+        }
+        literais.add(fonte.substring(posicao));
+        return new DigestTemplate(List.copyOf(literais), List.copyOf(marcadores));
+    }
+
+    public String render(Map<String, String> valores) {
+        StringBuilder html = new StringBuilder(256);
+        renderEm(html, valores);
+        return html.toString();
+    }
+
+    // Valores terminados em "Html" já são HTML montado por outro template e entram sem escape
+    public void renderEm(StringBuilder html, Map<String, String> valores) {
+        for (int i = 0; i < marcadores.size(); i++) {
+            html.append(literais.get(i));
+            String marcador = marcadores.get(i);
+            String valor = valores.getOrDefault(marcador, "");
+            html.append(marcador.endsWith("Html") ? valor : HtmlUtils.htmlEscape(valor, "UTF-8"));
+        }
+        html.append(literais.get(literais.size() - 1));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.projetoRestSpringBoot.service.digest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Acumula as mudanças de status de uma execução do job, já agrupadas por e-mail do funcionário e por departamento.
+// Usado só pela thread do job.
+public class DigestVencimento {
+
+    public record Linha(String situacao, TransicaoVencimento transicao) {
+    }
+
+    private final String titulo;
+    private final Map<String, List<Linha>> porFuncionario = new TreeMap<>();
+    private final Map<String, List<Linha>> porDepartamento = new TreeMap<>();
+    private int total;
+
+    public DigestVencimento(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public void registrar(String situacao, List<TransicaoVencimento> transicoes) {
+        for (TransicaoVencimento transicao : transicoes) {
+            Linha linha = new Linha(situacao, transicao);
+            // Funcionário sem e-mail só aparece no resumo do departamento
+            if (transicao.funcionarioEmail() != null && !transicao.funcionarioEmail().isBlank()) {
+                porFuncionario.computeIfAbsent(transicao.funcionarioEmail().trim().toLowerCase(Locale.ROOT),
+                        k -> new ArrayList<>()).add(linha);
+            }
+            if (transicao.departamento() != null) {
+                porDepartamento.computeIfAbsent(transicao.departamento(), k -> new ArrayList<>()).add(linha);
+            }
+            total++;
+        }
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public Map<String, List<Linha>> porFuncionario() {
+        return porFuncionario;
+    }
+
+    public Map<String, List<Linha>> porDepartamento() {
+        return porDepartamento;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return total == 0;
+    }
+}
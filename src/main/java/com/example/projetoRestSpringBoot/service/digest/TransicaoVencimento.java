@@ -0,0 +1,8 @@
+package com.example.projetoRestSpringBoot.service.digest;
+
+import java.time.LocalDate;
+
+// Linha que o job noturno está prestes a mudar de status; montada direto pela consulta JPQL
+public record TransicaoVencimento(String item, LocalDate dataVencimento, String funcionarioNome,
+                                  String funcionarioEmail, String departamento) {
+}
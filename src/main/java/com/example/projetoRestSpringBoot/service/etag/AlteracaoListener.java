@@ -0,0 +1,24 @@
+package com.example.projetoRestSpringBoot.service.etag;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+// Instanciado pelo Hibernate via SpringBeanContainer; nos testes @DataJpaTest o contador não existe e nada é registrado
+public class AlteracaoListener {
+
+    @Autowired
+    private ObjectProvider<AlteracoesTabela> alteracoes;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void alterado(Object entidade) {
+        if (alteracoes != null) {
+            alteracoes.ifAvailable(a -> a.registrar(Hibernate.getClass(entidade)));
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.projetoRestSpringBoot.service.etag;
+
+import com.example.projetoRestSpringBoot.config.datasource.LeituraConsistente;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Contador de alterações por entidade, base do ETag fraco das listagens.
+// Fica em memória: a época muda a cada subida da aplicação e invalida os ETags emitidos antes.
+@Component
+public class AlteracoesTabela {
+
+    private final String epoca = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Class<?>, Contador> contadores = new ConcurrentHashMap<>();
+
+    // Só existe com réplica de leitura configurada
+    @Autowired(required = false)
+    private LeituraConsistente leituraConsistente;
+
+    // Dentro de uma transação o contador só avança depois do commit, para que uma leitura
+    // concorrente não associe o ETag novo aos dados antigos
+    public void registrar(Class<?> entidade) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    contador(entidade).avancar();
+                }
+            });
+        } else {
+            contador(entidade).avancar();
+        }
+    }
+
+    // Cada alteração conta duas vezes: no commit e de novo quando acaba a janela da réplica. Uma página
+    // montada pela réplica atrasada nesse meio-tempo leva um ETag que deixa de valer quando ela alcança o primário.
+    // Os valores só crescem, então a soma muda sempre que qualquer uma das tabelas muda
+    public String etagFraco(Class<?>... entidades) {
+        long janela = leituraConsistente != null ? leituraConsistente.getJanelaNanos() : 0;
+        long soma = 0;
+        for (Class<?> entidade : entidades) {
+            soma += contador(entidade).valor(janela);
+        }
+        return "W/\"" + epoca + "-" + soma + "\"";
+    }
+
+    private Contador contador(Class<?> entidade) {
+        return contadores.computeIfAbsent(entidade, e -> new Contador());
+    }
+
+    private static final class Contador {
+
+        private final AtomicLong alteracoes = new AtomicLong();
+        private volatile long ultimaAlteracao;
+
+        // O instante é gravado antes do incremento: quem vê o contador novo vê também o instante dele
+        void avancar() {
+            ultimaAlteracao = System.nanoTime();
+            alteracoes.incrementAndGet();
+        }
+
+        long valor(long janela) {
+            long total = alteracoes.get();
+            boolean replicaAlcancou = janela == 0 || total == 0 || System.nanoTime() - ultimaAlteracao >= janela;
+            return total * 2 + (replicaAlcancou ? 1 : 0);
+        }
+    }
+}
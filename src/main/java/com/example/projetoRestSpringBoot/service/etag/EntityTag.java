@@ -0,0 +1,28 @@
+package com.example.projetoRestSpringBoot.service.etag;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+// ETag forte montado a partir das colunas @Version que compõem a representação
+public final class EntityTag {
+
+    private EntityTag() {
+    }
+
+    public static String forte(Object... versoes) {
+        return Arrays.stream(versoes)
+                .map(String::valueOf)
+                .collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    // If-Match usa comparação forte: ETags fracos nunca correspondem e "*" aceita qualquer versão
+    public static boolean corresponde(String ifMatch, String etag) {
+        for (String candidata : ifMatch.split(",")) {
+            String valor = candidata.trim();
+            if (valor.equals("*") || valor.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.projetoRestSpringBoot.service.etag;
+
+// Representação e o ETag da versão que foi lida para montá-la; corpo null quando o cliente já tem essa versão
+public record Versionado<T>(String etag, T corpo) {
+}
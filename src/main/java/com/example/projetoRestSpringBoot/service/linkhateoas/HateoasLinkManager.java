@@ -8,71 +8,125 @@ import com.example.projetoRestSpringBoot.dto.CredencialDTO;
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
 import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+// Os links de detalhe saem do LinkTemplateCache: o methodOn roda uma vez por rota e URI base,
+// e cada DTO só troca o id no href já montado
 public final class HateoasLinkManager {
 
+    private static final long ID = LinkTemplateCache.ID;
+
     private HateoasLinkManager() {
     }
 
     // ============ CURSO LINKS ============
     public static void addCursoDetailLinks(CursoDTO dto) {
-        dto.add(linkTo(methodOn(CursoController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(CursoController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
-        dto.add(linkTo(methodOn(CursoController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(CursoController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, dto, HateoasLinkManager::cursoDetailLinks);
+    }
+
+    private static void cursoDetailLinks(CursoDTO dto) {
+        dto.add(Link.of(LinkTemplateCache.href("curso.findById", dto.getId(),
+                () -> linkTo(methodOn(CursoController.class).findById(ID)))).withSelfRel().withType("GET"));
+        dto.add(Link.of(LinkTemplateCache.href("curso.delete", dto.getId(),
+                () -> linkTo(methodOn(CursoController.class).delete(ID)))).withRel("delete").withType("DELETE"));
+        dto.add(Link.of(LinkTemplateCache.href("curso.update",
+                () -> linkTo(methodOn(CursoController.class).update(null, null)))).withRel("update").withType("PUT"));
+        dto.add(Link.of(LinkTemplateCache.href("curso.findAll",
+                () -> linkTo(methodOn(CursoController.class).findAll(0, 12, "asc")))).withRel("findAll").withType("GET"));
     }
 
     public static void addCursoListPageLinks(PagedModel<EntityModel<CursoDTO>> model) {
-        model.add(linkTo(methodOn(CursoController.class).create(null)).withRel("create").withType("POST"));
-        model.add(linkTo(methodOn(CursoController.class).importarCursos(null)).withRel("importar").withType("POST"));
-        model.add(linkTo(methodOn(CursoController.class).exportPage( null)).withRel("exportPage").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, () -> {
+            model.add(linkTo(methodOn(CursoController.class).create(null)).withRel("create").withType("POST"));
+            model.add(linkTo(methodOn(CursoController.class).importarCursos(null)).withRel("importar").withType("POST"));
+            model.add(linkTo(methodOn(CursoController.class).exportPage( null)).withRel("exportPage").withType("GET"));
+        });
     }
 
     // ============ FUNCIONÁRIO LINKS ============
     public static void addFuncionarioDetailLinks(FuncionarioDTO dto) {
-        dto.add(linkTo(methodOn(FuncionarioController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(FuncionarioController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
-        dto.add(linkTo(methodOn(FuncionarioController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(FuncionarioController.class).findBySituacao(dto.getSituacao(), 0, 12, "asc")).withRel("situacao").withType("GET"));
-        dto.add(linkTo(methodOn(FuncionarioController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, dto, HateoasLinkManager::funcionarioDetailLinks);
+    }
+
+    private static void funcionarioDetailLinks(FuncionarioDTO dto) {
+        dto.add(Link.of(LinkTemplateCache.href("funcionario.findById", dto.getId(),
+                () -> linkTo(methodOn(FuncionarioController.class).findById(ID)))).withSelfRel().withType("GET"));
+        dto.add(Link.of(LinkTemplateCache.href("funcionario.delete", dto.getId(),
+                () -> linkTo(methodOn(FuncionarioController.class).delete(ID)))).withRel("delete").withType("DELETE"));
+        dto.add(Link.of(LinkTemplateCache.href("funcionario.update",
+                () -> linkTo(methodOn(FuncionarioController.class).update(null, null)))).withRel("update").withType("PUT"));
+        // A situação tem poucos valores: um template por valor
+        var situacao = dto.getSituacao();
+        dto.add(Link.of(LinkTemplateCache.href("funcionario.situacao." + situacao,
+                () -> linkTo(methodOn(FuncionarioController.class).findBySituacao(situacao, 0, 12, "asc"))))
+                .withRel("situacao").withType("GET"));
+        dto.add(Link.of(LinkTemplateCache.href("funcionario.findAll",
+                () -> linkTo(methodOn(FuncionarioController.class).findAll(0, 12, "asc")))).withRel("findAll").withType("GET"));
     }
 
     public static void addFuncionarioListPageLinks(PagedModel<EntityModel<FuncionarioDTO>> model) {
-        model.add(linkTo(methodOn(FuncionarioController.class).create(null)).withRel("create").withType("POST"));
-        model.add(linkTo(methodOn(FuncionarioController.class).importarFuncionarios(null)).withRel("importar").withType("POST"));
-        model.add(linkTo(methodOn(FuncionarioController.class).exportPage(null)).withRel("exportPage").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, () -> {
+            model.add(linkTo(methodOn(FuncionarioController.class).create(null)).withRel("create").withType("POST"));
+            model.add(linkTo(methodOn(FuncionarioController.class).importarFuncionarios(null)).withRel("importar").withType("POST"));
+            model.add(linkTo(methodOn(FuncionarioController.class).exportPage(null)).withRel("exportPage").withType("GET"));
+        });
     }
 
     // ============ TREINAMENTO LINKS ============
     public static void addTreinamentoDetailLinks(TreinamentoDTO dto) {
-        dto.add(linkTo(methodOn(TreinamentoController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(TreinamentoController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
-        dto.add(linkTo(methodOn(TreinamentoController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(TreinamentoController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, dto, HateoasLinkManager::treinamentoDetailLinks);
+    }
+
+    private static void treinamentoDetailLinks(TreinamentoDTO dto) {
+        dto.add(Link.of(LinkTemplateCache.href("treinamento.findById", dto.getId(),
+                () -> linkTo(methodOn(TreinamentoController.class).findById(ID)))).withSelfRel().withType("GET"));
+        dto.add(Link.of(LinkTemplateCache.href("treinamento.delete", dto.getId(),
+                () -> linkTo(methodOn(TreinamentoController.class).delete(ID)))).withRel("delete").withType("DELETE"));
+        dto.add(Link.of(LinkTemplateCache.href("treinamento.update",
+                () -> linkTo(methodOn(TreinamentoController.class).update(null, null)))).withRel("update").withType("PUT"));
+        dto.add(Link.of(LinkTemplateCache.href("treinamento.findAll",
+                () -> linkTo(methodOn(TreinamentoController.class).findAll(0, 12, "asc")))).withRel("findAll").withType("GET"));
     }
 
     public static void addTreinamentoListPageLinks(PagedModel<EntityModel<TreinamentoDTO>> model) {
-        model.add(linkTo(methodOn(TreinamentoController.class).create(null)).withRel("create").withType("POST"));
-        model.add(linkTo(methodOn(TreinamentoController.class).exportPage( null)).withRel("exportPage").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, () -> {
+            model.add(linkTo(methodOn(TreinamentoController.class).create(null)).withRel("create").withType("POST"));
+            model.add(linkTo(methodOn(TreinamentoController.class).exportPage( null)).withRel("exportPage").withType("GET"));
+        });
     }
 
     // ============ CREDENCIAL LINKS ============
     public static void addCredencialDetailLinks(CredencialDTO dto) {
-        dto.add(linkTo(methodOn(CredencialController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(CredencialController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
-        dto.add(linkTo(methodOn(CredencialController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(CredencialController.class).findByStatus(dto.getStatus(), 0, 12, "asc")).withRel("status").withType("GET"));
-        dto.add(linkTo(methodOn(CredencialController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, dto, HateoasLinkManager::credencialDetailLinks);
+    }
+
+    private static void credencialDetailLinks(CredencialDTO dto) {
+        dto.add(Link.of(LinkTemplateCache.href("credencial.findById", dto.getId(),
+                () -> linkTo(methodOn(CredencialController.class).findById(ID)))).withSelfRel().withType("GET"));
+        dto.add(Link.of(LinkTemplateCache.href("credencial.delete", dto.getId(),
+                () -> linkTo(methodOn(CredencialController.class).delete(ID)))).withRel("delete").withType("DELETE"));
+        dto.add(Link.of(LinkTemplateCache.href("credencial.update",
+                () -> linkTo(methodOn(CredencialController.class).update(null, null)))).withRel("update").withType("PUT"));
+        var status = dto.getStatus();
+        dto.add(Link.of(LinkTemplateCache.href("credencial.status." + status,
+                () -> linkTo(methodOn(CredencialController.class).findByStatus(status, 0, 12, "asc"))))
+                .withRel("status").withType("GET"));
+        dto.add(Link.of(LinkTemplateCache.href("credencial.findAll",
+                () -> linkTo(methodOn(CredencialController.class).findAll(0, 12, "asc")))).withRel("findAll").withType("GET"));
     }
 
     public static void addCredencialListPageLinks(PagedModel<EntityModel<CredencialDTO>> model) {
-        model.add(linkTo(methodOn(CredencialController.class).create(null)).withRel("create").withType("POST"));
-        model.add(linkTo(methodOn(CredencialController.class).exportPage(null)).withRel("exportPage").withType("GET"));
+        TempoEtapas.medir(Etapa.LINKS, () -> {
+            model.add(linkTo(methodOn(CredencialController.class).create(null)).withRel("create").withType("POST"));
+            model.add(linkTo(methodOn(CredencialController.class).exportPage(null)).withRel("exportPage").withType("GET"));
+        });
     }
 
 }
@@ -0,0 +1,51 @@
+package com.example.projetoRestSpringBoot.service.linkhateoas;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.function.Supplier;
+
+// Guarda o href de cada rota já resolvido pelo WebMvcLinkBuilder, separado pela URI base da requisição
+// (esquema, host, porta e context path), que é a única parte do link que depende da requisição.
+final class LinkTemplateCache {
+
+    // Id usado ao montar o template; no href final ele é trocado pelo id do DTO
+    static final long ID = Long.MAX_VALUE;
+
+    private static final String ID_TEXTO = String.valueOf(ID);
+    private static final String BASE_ATTRIBUTE = LinkTemplateCache.class.getName() + ".base";
+
+    // O host vem do cliente; o limite impede que Host arbitrários façam o cache crescer sem fim
+    private static final Cache<String, String> TEMPLATES = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .build();
+
+    private LinkTemplateCache() {
+    }
+
+    static String href(String rota, Supplier<WebMvcLinkBuilder> builder) {
+        return TEMPLATES.get(base() + ' ' + rota, k -> builder.get().withSelfRel().getHref());
+    }
+
+    static String href(String rota, long id, Supplier<WebMvcLinkBuilder> builder) {
+        return href(rota, builder).replace(ID_TEXTO, String.valueOf(id));
+    }
+
+    // Mesma origem que o WebMvcLinkBuilder usa; calculada uma vez por requisição
+    private static String base() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String base = (String) attributes.getAttribute(BASE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+            attributes.setAttribute(BASE_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.projetoRestSpringBoot.service.pagination;
+
+import com.example.projetoRestSpringBoot.exception.BadRequestException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Token opaco da paginação por cursor: direção, valor da ordenação e id do último item entregue
+public final class KeysetCursor {
+
+    public static final int TAMANHO_MAXIMO = 1000;
+
+    private static final String ID = "id";
+
+    public record Posicao(Direction direction, KeysetScrollPosition scrollPosition) {
+    }
+
+    private KeysetCursor() {
+    }
+
+    // O id entra como desempate para a ordem ser total mesmo com valores repetidos
+    public static Sort sort(String propriedade, Direction direction) {
+        Sort sort = Sort.by(direction, propriedade);
+        return ID.equals(propriedade) ? sort : sort.and(Sort.by(direction, ID));
+    }
+
+    public static Posicao decode(String cursor, String propriedade, Function<String, Object> parser, String direction) {
+        if (cursor == null || cursor.isBlank()) {
+            Direction inicial = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+            return new Posicao(inicial, ScrollPosition.keyset());
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\n", 3);
+            Direction sentido = Direction.valueOf(partes[0]);
+            Map<String, Object> chaves = new LinkedHashMap<>();
+            if (!ID.equals(propriedade)) {
+                chaves.put(propriedade, parser.apply(partes[1]));
+            }
+            chaves.put(ID, Long.valueOf(partes[2]));
+            return new Posicao(sentido, ScrollPosition.forward(chaves));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor inválido");
+        }
+    }
+
+    public static String encode(Window<?> window, String propriedade, Direction direction) {
+        KeysetScrollPosition posicao = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+        Map<String, ?> chaves = posicao.getKeys();
+        String token = direction.name() + "\n" + chaves.get(propriedade) + "\n" + chaves.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.projetoRestSpringBoot.service.search;
+
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.repository.CursoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Busca por nome de curso sem LIKE '%...%' no banco
+@Component
+public class CursoNomeIndex {
+
+    private final Logger logger = LoggerFactory.getLogger(CursoNomeIndex.class);
+
+    private final NomeIndex index = new NomeIndex();
+
+    @Autowired
+    private CursoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.index.rebuild-interval:1800000}",
+            fixedDelayString = "${search.index.rebuild-interval:1800000}")
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        try {
+            index.recarregar(() -> {
+                TransactionTemplate template = new TransactionTemplate(transactionManager);
+                template.setReadOnly(true);
+                return template.execute(status -> {
+                    Map<Long, String[]> carregados = new HashMap<>();
+                    try (Stream<Object[]> linhas = repository.streamNomes()) {
+                        linhas.forEach(linha -> carregados.put((Long) linha[0],
+                                new String[]{(String) linha[1]}));
+                    }
+                    return carregados;
+                });
+            });
+            logger.info("Índice de nomes de cursos carregado: {} registros em {} ms",
+                    index.tamanho(), System.currentTimeMillis() - inicio);
+        } catch (RuntimeException e) {
+            logger.error("Erro ao carregar o índice de nomes de cursos: {}", e.getMessage(), e);
+        }
+    }
+
+    public void indexar(Curso curso) {
+        index.indexar(curso.getId(), curso.getNome());
+    }
+
+    public void remover(long id) {
+        index.remover(id);
+    }
+
+    public List<Long> buscar(String termo) {
+        return index.buscar(termo);
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.projetoRestSpringBoot.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+// Índice invertido de trigramas em memória: cada trigrama aponta para os ids que o contêm.
+// Os textos são guardados sem acento e em minúsculas, então a busca não diferencia "José" de "jose".
+public class NomeIndex {
+
+    private static final int N = 3;
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Recarga agendada, a da subida e a do fim de uma importação podem coincidir; uma espera a outra
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    private Map<String, Set<Long>> postings = new HashMap<>();
+    private Map<Long, String[]> documentos = new HashMap<>();
+    private Carga carga;
+
+    private record Resultado(long id, int relevancia, String nome) {
+    }
+
+    // Alterações feitas enquanto uma recarga lê o banco; são reaplicadas sobre o índice novo (valor null = remoção).
+    // Só a carga que abriu a anotação pode instalar o índice: uma carga substituída no meio é descartada.
+    public static final class Carga {
+        private final Map<Long, String[]> pendentes = new HashMap<>();
+
+        private Carga() {
+        }
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcento = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcento.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    public void indexar(long id, String... campos) {
+        String[] normalizados = normalizarCampos(campos);
+        lock.writeLock().lock();
+        try {
+            aplicar(id, normalizados);
+            if (carga != null) {
+                carga.pendentes.put(id, normalizados);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remover(long id) {
+        lock.writeLock().lock();
+        try {
+            removerDocumento(id);
+            if (carga != null) {
+                carga.pendentes.put(id, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Lê todos os registros e troca o índice; chamadas simultâneas rodam uma depois da outra
+    public void recarregar(Supplier<Map<Long, String[]>> leitura) {
+        recarga.lock();
+        try {
+            Carga atual = iniciarCarga();
+            try {
+                substituir(atual, leitura.get());
+            } catch (RuntimeException e) {
+                cancelarCarga(atual);
+                throw e;
+            }
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    public Carga iniciarCarga() {
+        lock.writeLock().lock();
+        try {
+            carga = new Carga();
+            return carga;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void cancelarCarga(Carga cancelada) {
+        lock.writeLock().lock();
+        try {
+            if (carga == cancelada) {
+                carga = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Monta o índice novo fora do lock e só troca as referências no final, sem travar as buscas durante a carga.
+    // Retorna false quando outra carga começou depois desta e o índice lido aqui já está desatualizado.
+    public boolean substituir(Carga lida, Map<Long, String[]> todos) {
+        Map<String, Set<Long>> novosPostings = new HashMap<>();
+        Map<Long, String[]> novosDocumentos = new HashMap<>(todos.size() * 2);
+        todos.forEach((id, campos) -> {
+            String[] normalizados = normalizarCampos(campos);
+            novosDocumentos.put(id, normalizados);
+            adicionarPostings(novosPostings, id, normalizados);
+        });
+
+        lock.writeLock().lock();
+        try {
+            if (carga != lida) {
+                return false;
+            }
+            postings = novosPostings;
+            documentos = novosDocumentos;
+            carga.pendentes.forEach(this::aplicar);
+            carga = null;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int tamanho() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids que contêm o termo em algum campo, do mais relevante para o menos:
+    // campo igual ao termo, campo começando pelo termo, alguma palavra começando pelo termo e, por último, trecho no meio
+    public List<Long> buscar(String termo) {
+        String consulta = normalizar(termo);
+        if (consulta.isEmpty()) {
+            return List.of();
+        }
+
+        List<Resultado> resultados = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (long id : candidatos(consulta)) {
+                String[] campos = documentos.get(id);
+                int relevancia = relevancia(campos, consulta);
+                if (relevancia >= 0) {
+                    resultados.add(new Resultado(id, relevancia, campos[0]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        resultados.sort(Comparator.comparingInt(Resultado::relevancia)
+                .thenComparing(Resultado::nome)
+                .thenComparingLong(Resultado::id));
+        return resultados.stream().map(Resultado::id).toList();
+    }
+
+    private Set<Long> candidatos(String consulta) {
+        // Termos menores que um trigrama não têm posting próprio; a varredura é só em memória
+        if (consulta.length() < N) {
+            return documentos.keySet();
+        }
+
+        // Interseção começando pela lista mais curta para descartar o máximo de ids logo no início
+        List<Set<Long>> listas = new ArrayList<>();
+        for (String trigrama : trigramas(consulta)) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids == null) {
+                return Set.of();
+            }
+            listas.add(ids);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidatos = new HashSet<>(listas.get(0));
+        for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+            candidatos.retainAll(listas.get(i));
+        }
+        return candidatos;
+    }
+
+    private static int relevancia(String[] campos, String consulta) {
+        int melhor = -1;
+        for (String campo : campos) {
+            int atual;
+            if (campo.equals(consulta)) {
+                atual = 0;
+            } else if (campo.startsWith(consulta)) {
+                atual = 1;
+            } else if (campo.contains(" " + consulta)) {
+                atual = 2;
+            } else if (campo.contains(consulta)) {
+                atual = 3;
+            } else {
+                continue;
+            }
+            if (melhor < 0 || atual < melhor) {
+                melhor = atual;
+            }
+        }
+        return melhor;
+    }
+
+    private void aplicar(long id, String[] normalizados) {
+        removerDocumento(id);
+        if (normalizados != null) {
+            documentos.put(id, normalizados);
+            adicionarPostings(postings, id, normalizados);
+        }
+    }
+
+    private void removerDocumento(long id) {
+        String[] antigos = documentos.remove(id);
+        if (antigos == null) {
+            return;
+        }
+        for (String campo : antigos) {
+            for (String trigrama : trigramas(campo)) {
+                Set<Long> ids = postings.get(trigrama);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(trigrama);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void adicionarPostings(Map<String, Set<Long>> destino, long id, String[] campos) {
+        for (String campo : campos) {
+            for (String trigrama : trigramas(campo)) {
+                destino.computeIfAbsent(trigrama, k -> new HashSet<>()).add(id);
+            }
+        }
+    }
+
+    private static String[] normalizarCampos(String[] campos) {
+        String[] normalizados = new String[campos.length];
+        for (int i = 0; i < campos.length; i++) {
+            normalizados[i] = normalizar(campos[i]);
+        }
+        return normalizados;
+    }
+
+    private static Set<String> trigramas(String texto) {
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + N <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + N));
+        }
+        return trigramas;
+    }
+}
@@ -0,0 +1,17 @@
+-- Índices das consultas filtradas dos repositórios. A ordem das colunas segue filtro + ordenação usada nos controllers,
+-- e o id no final mantém a paginação por cursor (valor, id) resolvida só pelo índice.
+CREATE INDEX `idx_treinamento_vencimento` ON `treinamento` (`data_vencimento`, `id`);
+CREATE INDEX `idx_treinamento_concluido` ON `treinamento` (`data_concluido`, `id`);
+CREATE INDEX `idx_treinamento_status_vencimento` ON `treinamento` (`status`, `data_vencimento`, `id`);
+CREATE INDEX `idx_treinamento_instrutor_concluido` ON `treinamento` (`instrutor`, `data_concluido`);
+
+CREATE INDEX `idx_credencial_vencimento` ON `credencial` (`data_vencimento`, `id`);
+CREATE INDEX `idx_credencial_emissao` ON `credencial` (`data_emissao`, `id`);
+CREATE INDEX `idx_credencial_status_vencimento` ON `credencial` (`status`, `data_vencimento`, `id`);
+
+CREATE INDEX `idx_funcionario_nome` ON `funcionario` (`nome`, `id`);
+CREATE INDEX `idx_funcionario_situacao_nome` ON `funcionario` (`situacao`, `nome`);
+CREATE INDEX `idx_funcionario_admissao` ON `funcionario` (`data_admissao`);
+CREATE INDEX `idx_funcionario_departamento` ON `funcionario` (`departamento`);
+
+CREATE INDEX `idx_curso_nome` ON `curso` (`nome`, `id`);
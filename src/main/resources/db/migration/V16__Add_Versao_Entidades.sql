@@ -0,0 +1,6 @@
+-- Versão de cada registro: controle de concorrência otimista e base dos ETags.
+-- O default cobre os INSERTs em lote da importação, que não passam pelo Hibernate.
+ALTER TABLE `funcionario` ADD COLUMN `versao` BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE `curso` ADD COLUMN `versao` BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE `treinamento` ADD COLUMN `versao` BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE `credencial` ADD COLUMN `versao` BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,20 @@
+-- Fila de e-mails: a requisição só grava aqui e o EmailOutboxWorker envia em lotes
+CREATE TABLE IF NOT EXISTS `email_outbox` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `destinatarios` varchar(1000) NOT NULL,
+  `assunto` varchar(255) DEFAULT NULL,
+  `corpo` text,
+  `anexo_nome` varchar(255) DEFAULT NULL,
+  `anexo_caminho` varchar(500) DEFAULT NULL,
+  `status` varchar(10) NOT NULL,
+  `tentativas` int NOT NULL DEFAULT 0,
+  `proxima_tentativa` datetime(6) NOT NULL,
+  `lote` varchar(36) DEFAULT NULL,
+  `ultimo_erro` varchar(1000) DEFAULT NULL,
+  `criado_em` datetime(6) NOT NULL,
+  `atualizado_em` datetime(6) NOT NULL,
+  `enviado_em` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_email_outbox_status` (`status`, `proxima_tentativa`),
+  KEY `idx_email_outbox_lote` (`lote`)
+) ENGINE=InnoDB;
@@ -0,0 +1,76 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.impl.CsvExporter;
+import com.example.projetoRestSpringBoot.file.exporter.impl.XlsxExporter;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Exportação em streaming de funcionários, como nos endpoints de export, sem o custo do banco.
+// Os bytes vão para um OutputStream que só conta o tamanho.
+// Executar com: mvn -Pbenchmark test -Dbenchmark.include=ExporterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ExporterBenchmark {
+
+    @Param({"10000", "100000"})
+    private int linhas;
+
+    @Param({"csv", "xlsx"})
+    private String formato;
+
+    private List<FuncionarioDTO> funcionarios;
+    private StreamingFileExporter exporter;
+
+    @Setup
+    public void setUp() {
+        MockFuncionario mock = new MockFuncionario();
+        funcionarios = new ArrayList<>(linhas);
+        for (int i = 0; i < linhas; i++) {
+            funcionarios.add(mock.mockDTO(i));
+        }
+        exporter = "csv".equals(formato) ? new CsvExporter() : new XlsxExporter();
+    }
+
+    @Benchmark
+    public long exportarFuncionarios() throws Exception {
+        ContadorOutputStream saida = new ContadorOutputStream();
+        exporter.exportarFuncionarios(funcionarios.stream(), saida);
+        return saida.bytes;
+    }
+
+    static final class ContadorOutputStream extends OutputStream {
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ExporterBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
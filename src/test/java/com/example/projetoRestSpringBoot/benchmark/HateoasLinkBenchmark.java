@@ -0,0 +1,74 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Custo dos links de detalhe de uma página: methodOn por DTO contra o cache de templates.
+// Executar com: mvn -Pbenchmark test -Dbenchmark.include=HateoasLinkBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HateoasLinkBenchmark {
+
+    @Param({"12", "500"})
+    private int tamanhoPagina;
+
+    private final MockFuncionario mock = new MockFuncionario();
+
+    @Setup(Level.Invocation)
+    public void novaRequisicao() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Invocation)
+    public void fimRequisicao() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<FuncionarioDTO> paginaMethodOn() {
+        List<FuncionarioDTO> pagina = pagina();
+        pagina.forEach(MethodOnLinks::addFuncionarioDetailLinks);
+        return pagina;
+    }
+
+    @Benchmark
+    public List<FuncionarioDTO> paginaTemplateCache() {
+        List<FuncionarioDTO> pagina = pagina();
+        pagina.forEach(HateoasLinkManager::addFuncionarioDetailLinks);
+        return pagina;
+    }
+
+    private List<FuncionarioDTO> pagina() {
+        List<FuncionarioDTO> pagina = new ArrayList<>(tamanhoPagina);
+        for (int i = 0; i < tamanhoPagina; i++) {
+            pagina.add(mock.mockDTO(i));
+        }
+        return pagina;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(HateoasLinkBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
+import com.example.projetoRestSpringBoot.file.importer.impl.CsvImporter;
+import com.example.projetoRestSpringBoot.file.importer.impl.XlsxImporter;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Leitura de arquivos de importação de funcionários, só o parse: cada linha vai para o Blackhole,
+// sem validação nem gravação no banco.
+// Executar com: mvn -Pbenchmark test -Dbenchmark.include=ImporterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ImporterBenchmark {
+
+    private static final String[] CABECALHO = {"nome", "cpf", "rg", "dataNascimento", "matricula", "cargo",
+            "departamento", "dataAdmissao", "situacao", "tipoContrato", "email", "telefone"};
+
+    @Param({"10000", "100000"})
+    private int linhas;
+
+    @Param({"csv", "xlsx"})
+    private String formato;
+
+    private byte[] arquivo;
+    private FileImporter importer;
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("csv".equals(formato)) {
+            arquivo = gerarCsv();
+            importer = new CsvImporter();
+        } else {
+            arquivo = gerarXlsx();
+            importer = new XlsxImporter();
+        }
+    }
+
+    @Benchmark
+    public void importarFuncionarios(Blackhole blackhole) throws Exception {
+        importer.importarFuncionarios(new ByteArrayInputStream(arquivo), blackhole::consume);
+    }
+
+    private byte[] gerarCsv() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (CSVPrinter printer = new CSVPrinter(new OutputStreamWriter(saida, StandardCharsets.UTF_8),
+                CSVFormat.Builder.create().setHeader(CABECALHO).build())) {
+            for (int i = 0; i < linhas; i++) {
+                printer.printRecord((Object[]) linha(i));
+            }
+        }
+        return saida.toByteArray();
+    }
+
+    private byte[] gerarXlsx() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(100)) {
+            SXSSFSheet sheet = workbook.createSheet("Funcionarios");
+            preencher(sheet.createRow(0), CABECALHO);
+            for (int i = 0; i < linhas; i++) {
+                preencher(sheet.createRow(i + 1), linha(i));
+            }
+            workbook.write(saida);
+        }
+        return saida.toByteArray();
+    }
+
+    private static void preencher(Row row, String[] valores) {
+        for (int c = 0; c < valores.length; c++) {
+            row.createCell(c).setCellValue(valores[c]);
+        }
+    }
+
+    private static String[] linha(int i) {
+        return new String[]{"Funcionario " + i, String.format("%011d", i), "MG" + i,
+                LocalDate.of(1990, 1, 1).plusDays(i % 5000).toString(), "MAT" + i, "Analista",
+                "Departamento " + (i % 20), LocalDate.of(2020, 1, 1).plusDays(i % 1000).toString(),
+                "ATIVO", "CLT", "funcionario" + i + "@empresa.com", "(31) 99999-0000"};
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ImporterBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.example.projetoRestSpringBoot.security.jwt.JwtTokenProvider;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Custo por requisição autenticada: validação da assinatura e autenticação do token (cache já preenchido).
+// Executar com: mvn -Pbenchmark test -Dbenchmark.include=JwtTokenProviderBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final String SECRET = "53cr3t7";
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        UserDetailsService userDetailsService = username -> User.withUsername(username).password("x").roles("ADMIN").build();
+        ReflectionTestUtils.setField(provider, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+
+        Algorithm algorithm = Algorithm.HMAC256(Base64.getEncoder().encodeToString(SECRET.getBytes()).getBytes());
+        Date agora = new Date();
+        token = JWT.create()
+                .withClaim("roles", List.of("ADMIN"))
+                .withIssuedAt(agora)
+                .withExpiresAt(new Date(agora.getTime() + TimeUnit.HOURS.toMillis(1)))
+                .withSubject("ana")
+                .sign(algorithm);
+        provider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthenticationEmCache() {
+        return provider.getAuthentication(token);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtTokenProviderBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.example.projetoRestSpringBoot.controller.CredencialController;
+import com.example.projetoRestSpringBoot.controller.CursoController;
+import com.example.projetoRestSpringBoot.controller.FuncionarioController;
+import com.example.projetoRestSpringBoot.controller.TreinamentoController;
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// Implementação anterior do HateoasLinkManager, com methodOn por link.
+// Referência para o teste de igualdade dos links e para o HateoasLinkBenchmark.
+public final class MethodOnLinks {
+
+    private MethodOnLinks() {
+    }
+
+    public static void addCursoDetailLinks(CursoDTO dto) {
+        dto.add(linkTo(methodOn(CursoController.class).findById(dto.getId())).withSelfRel().withType("GET"));
+        dto.add(linkTo(methodOn(CursoController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        dto.add(linkTo(methodOn(CursoController.class).update(dto, null)).withRel("update").withType("PUT"));
+        dto.add(linkTo(methodOn(CursoController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+    }
+
+    public static void addFuncionarioDetailLinks(FuncionarioDTO dto) {
+        dto.add(linkTo(methodOn(FuncionarioController.class).findById(dto.getId())).withSelfRel().withType("GET"));
+        dto.add(linkTo(methodOn(FuncionarioController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        dto.add(linkTo(methodOn(FuncionarioController.class).update(dto, null)).withRel("update").withType("PUT"));
+        dto.add(linkTo(methodOn(FuncionarioController.class).findBySituacao(dto.getSituacao(), 0, 12, "asc")).withRel("situacao").withType("GET"));
+        dto.add(linkTo(methodOn(FuncionarioController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+    }
+
+    public static void addTreinamentoDetailLinks(TreinamentoDTO dto) {
+        dto.add(linkTo(methodOn(TreinamentoController.class).findById(dto.getId())).withSelfRel().withType("GET"));
+        dto.add(linkTo(methodOn(TreinamentoController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        dto.add(linkTo(methodOn(TreinamentoController.class).update(dto, null)).withRel("update").withType("PUT"));
+        dto.add(linkTo(methodOn(TreinamentoController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+    }
+
+    public static void addCredencialDetailLinks(CredencialDTO dto) {
+        dto.add(linkTo(methodOn(CredencialController.class).findById(dto.getId())).withSelfRel().withType("GET"));
+        dto.add(linkTo(methodOn(CredencialController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
+        dto.add(linkTo(methodOn(CredencialController.class).update(dto, null)).withRel("update").withType("PUT"));
+        dto.add(linkTo(methodOn(CredencialController.class).findByStatus(dto.getStatus(), 0, 12, "asc")).withRel("status").withType("GET"));
+        dto.add(linkTo(methodOn(CredencialController.class).findAll(0, 12, "asc")).withRel("findAll").withType("GET"));
+    }
+}
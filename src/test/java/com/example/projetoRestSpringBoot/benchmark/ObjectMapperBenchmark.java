@@ -0,0 +1,92 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.mapper.ObjectMapper;
+import com.example.projetoRestSpringBoot.model.Credencial;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCredencial;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCurso;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockTreinamento;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Compara o mapeamento manual com o Dozer.
+// Executar com: mvn -Pbenchmark test -Dbenchmark.include=ObjectMapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+    private Funcionario funcionario;
+    private Curso curso;
+    private Treinamento treinamento;
+    private Credencial credencial;
+
+    @Setup
+    public void setUp() {
+        funcionario = new MockFuncionario().mockEntity(1);
+        curso = new MockCurso().mockEntity(1);
+        treinamento = new MockTreinamento().mockEntity(1);
+        credencial = new MockCredencial().mockEntity(1);
+    }
+
+    @Benchmark
+    public FuncionarioDTO funcionarioManual() {
+        return ObjectMapper.parseObject(funcionario, FuncionarioDTO.class);
+    }
+
+    @Benchmark
+    public FuncionarioDTO funcionarioDozer() {
+        return ObjectMapper.parseObjectWithDozer(funcionario, FuncionarioDTO.class);
+    }
+
+    @Benchmark
+    public CursoDTO cursoManual() {
+        return ObjectMapper.parseObject(curso, CursoDTO.class);
+    }
+
+    @Benchmark
+    public CursoDTO cursoDozer() {
+        return ObjectMapper.parseObjectWithDozer(curso, CursoDTO.class);
+    }
+
+    @Benchmark
+    public TreinamentoDTO treinamentoManual() {
+        return ObjectMapper.parseObject(treinamento, TreinamentoDTO.class);
+    }
+
+    @Benchmark
+    public TreinamentoDTO treinamentoDozer() {
+        return ObjectMapper.parseObjectWithDozer(treinamento, TreinamentoDTO.class);
+    }
+
+    @Benchmark
+    public CredencialDTO credencialManual() {
+        return ObjectMapper.parseObject(credencial, CredencialDTO.class);
+    }
+
+    @Benchmark
+    public CredencialDTO credencialDozer() {
+        return ObjectMapper.parseObjectWithDozer(credencial, CredencialDTO.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ObjectMapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
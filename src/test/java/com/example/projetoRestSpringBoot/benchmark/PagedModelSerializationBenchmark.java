@@ -0,0 +1,107 @@
+package com.example.projetoRestSpringBoot.benchmark;
+
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização de uma página de funcionários com links, nos três formatos que a API negocia.
+// JSON sai em HAL, como nas respostas da API; XML e YAML usam os mapeadores dos conversores.
+// Executar com: mvn -Pbenchmark test -Dbenchmark.include=PagedModelSerializationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PagedModelSerializationBenchmark {
+
+    @Param({"12", "500"})
+    private int tamanhoPagina;
+
+    private PagedModel<EntityModel<FuncionarioDTO>> pagina;
+    private ObjectMapper json;
+    private XmlMapper xml;
+    private YAMLMapper yaml;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName("localhost");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            MockFuncionario mock = new MockFuncionario();
+            List<EntityModel<FuncionarioDTO>> conteudo = new ArrayList<>(tamanhoPagina);
+            for (int i = 0; i < tamanhoPagina; i++) {
+                FuncionarioDTO dto = mock.mockDTO(i);
+                HateoasLinkManager.addFuncionarioDetailLinks(dto);
+                conteudo.add(EntityModel.of(dto));
+            }
+            pagina = PagedModel.of(conteudo, new PagedModel.PageMetadata(tamanhoPagina, 0, tamanhoPagina * 10L, 10),
+                    Link.of("http://localhost:8080/api/funcionario/v1?page=0&size=" + tamanhoPagina));
+            HateoasLinkManager.addFuncionarioListPageLinks(pagina);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        json = new ObjectMapper();
+        json.registerModule(new JavaTimeModule());
+        json.registerModule(new Jackson2HalModule());
+        json.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY,
+                new HalConfiguration(), new DefaultListableBeanFactory()));
+        xml = new XmlMapper();
+        xml.registerModule(new JavaTimeModule());
+        yaml = new YAMLMapper();
+        yaml.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        yaml.registerModule(new JavaTimeModule());
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return json.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] xml() throws Exception {
+        return xml.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] yaml() throws Exception {
+        return yaml.writeValueAsBytes(pagina);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PagedModelSerializationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+}
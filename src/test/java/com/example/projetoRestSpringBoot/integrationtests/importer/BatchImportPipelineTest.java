@@ -0,0 +1,215 @@
+package com.example.projetoRestSpringBoot.integrationtests.importer;
+
+import com.example.projetoRestSpringBoot.dto.ImportacaoErroDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoResultadoDTO;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportExecutor;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportHandler;
+import com.example.projetoRestSpringBoot.file.importer.batch.FuncionarioImportHandler;
+import com.example.projetoRestSpringBoot.file.importer.impl.CsvImporter;
+import com.example.projetoRestSpringBoot.file.importer.impl.XlsxImporter;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({BatchImportExecutor.class, FuncionarioImportHandler.class, CsvImporter.class, XlsxImporter.class})
+// Sem a transação do teste: o executor abre uma transação por lote, como em produção
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchImportPipelineTest {
+
+    private static final String HEADER =
+            "nome,cpf,rg,dataNascimento,matricula,cargo,departamento,dataAdmissao,situacao,tipoContrato,email,telefone\n";
+
+    @Autowired
+    private BatchImportExecutor executor;
+
+    @Autowired
+    private FuncionarioImportHandler handler;
+
+    @Autowired
+    private CsvImporter csvImporter;
+
+    @Autowired
+    private XlsxImporter xlsxImporter;
+
+    @Autowired
+    private FuncionarioRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void csvComLinhasRuinsGravaAsValidasEReportaAsDemais() throws Exception {
+        Funcionario existente = new MockFuncionario().mockEntity(1);
+        existente.setId(null);
+        existente.setCpf("999.000.000-01");
+        repository.save(existente);
+
+        String csv = HEADER +
+                linha("Ana", "111.000.000-01", "RG01", "M001") +
+                linha("Bruno", "111.000.000-02", "RG02", "M002") +
+                // mesmo CPF da linha 2
+                linha("Carla", "111.000.000-01", "RG03", "M003") +
+                // CPF já cadastrado no banco
+                linha("Davi", "999.000.000-01", "RG04", "M004") +
+                "Elisa,111.000.000-05,RG05,data-ruim,M005,Analista,TI,2020-01-01,ATIVO,CLT,e@x.com,11999990000\n" +
+                linha("", "111.000.000-06", "RG06", "M006");
+
+        ImportacaoResultadoDTO resultado = executor.importar("funcionarios.csv",
+                consumer -> csvImporter.importarFuncionarios(stream(csv), consumer), handler);
+
+        assertEquals(6, resultado.getTotalLinhas());
+        assertEquals(2, resultado.getImportados());
+        assertEquals(4, resultado.getRejeitados());
+        assertEquals(List.of(4, 5, 6, 7), resultado.getErros().stream().map(ImportacaoErroDTO::getLinha).toList());
+        assertTrue(resultado.getErros().get(0).getMensagem().startsWith("Duplicado no arquivo"));
+        assertTrue(resultado.getErros().get(1).getMensagem().startsWith("Já cadastrado: CPF"));
+        assertTrue(resultado.getErros().get(2).getMensagem().startsWith("Linha inválida"));
+        assertEquals("Campo nome obrigatório", resultado.getErros().get(3).getMensagem());
+        assertEquals(3, repository.count());
+        assertTrue(repository.findByMatricula("M002").isPresent());
+    }
+
+    @Test
+    void csvMaiorQueUmLoteGravaTodasAsLinhas() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        int total = 1_234;
+        for (int i = 0; i < total; i++) {
+            csv.append(linha("Funcionario " + i, "CPF" + i, "RG" + i, "MAT" + i));
+        }
+
+        ImportacaoResultadoDTO resultado = executor.importar("funcionarios.csv",
+                consumer -> csvImporter.importarFuncionarios(stream(csv.toString()), consumer), handler);
+
+        assertEquals(total, resultado.getImportados());
+        assertEquals(0, resultado.getRejeitados());
+        assertEquals(total, repository.count());
+    }
+
+    @Test
+    void falhaNoBancoAoChecarDuplicadosInterrompeAImportacao() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 600; i++) {
+            csv.append(linha("Funcionario " + i, "CPF" + i, "RG" + i, "MAT" + i));
+        }
+        BatchImportHandler<Funcionario> semBanco = new BatchImportHandler<>() {
+            @Override
+            public String validar(Funcionario item) {
+                return handler.validar(item);
+            }
+
+            @Override
+            public List<String> chaves(Funcionario item) {
+                return handler.chaves(item);
+            }
+
+            @Override
+            public Set<String> chavesExistentes(List<Funcionario> lote) {
+                throw new DataAccessResourceFailureException("Conexão recusada");
+            }
+
+            @Override
+            public void inserir(List<Funcionario> lote) {
+                handler.inserir(lote);
+            }
+        };
+
+        // Antes o erro do lote virava "Linha inválida" na linha 500 e o restante do arquivo se acumulava num lote só
+        assertThrows(DataAccessResourceFailureException.class, () -> executor.importar("funcionarios.csv",
+                consumer -> csvImporter.importarFuncionarios(stream(csv.toString()), consumer), semBanco));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void erroDeQuemConsomeALinhaDoXlsxNaoViraLinhaInvalida() throws Exception {
+        AtomicInteger chamadas = new AtomicInteger();
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class, () ->
+                xlsxImporter.importarFuncionarios(new ByteArrayInputStream(planilhaComUmFuncionario()), linha -> {
+                    chamadas.incrementAndGet();
+                    throw new IllegalStateException("Falha ao gravar");
+                }));
+
+        assertEquals("Falha ao gravar", erro.getMessage());
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void xlsxLidoEmStreamingConverteDatasENumeros() throws Exception {
+        List<Funcionario> lidos = new ArrayList<>();
+        xlsxImporter.importarFuncionarios(new ByteArrayInputStream(planilhaComUmFuncionario()), linha -> lidos.add(linha.valor()));
+
+        assertEquals(1, lidos.size());
+        Funcionario funcionario = lidos.get(0);
+        assertEquals("12345678901", funcionario.getCpf());
+        assertEquals(LocalDate.of(1990, 5, 20), funcionario.getDataNascimento());
+        assertEquals(LocalDate.of(2021, 3, 1), funcionario.getDataAdmissao());
+        assertEquals("11999990000", funcionario.getTelefone());
+    }
+
+    private static byte[] planilhaComUmFuncionario() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.createDataFormat().getFormat("dd/mm/yyyy"));
+            sheet.createRow(0).createCell(0).setCellValue("nome");
+
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("Fernanda");
+            row.createCell(1).setCellValue(12345678901d);
+            row.createCell(2).setCellValue("RG10");
+            row.createCell(3).setCellValue(LocalDate.of(1990, 5, 20));
+            row.getCell(3).setCellStyle(dateStyle);
+            row.createCell(4).setCellValue("M010");
+            row.createCell(5).setCellValue("Analista");
+            row.createCell(6).setCellValue("TI");
+            row.createCell(7).setCellValue("2021-03-01");
+            row.createCell(8).setCellValue("ATIVO");
+            row.createCell(9).setCellValue("CLT");
+            row.createCell(10).setCellValue("f@x.com");
+            row.createCell(11).setCellValue(11999990000d);
+            workbook.write(out);
+        }
+        return out.toByteArray();
+    }
+
+    private static String linha(String nome, String cpf, String rg, String matricula) {
+        return String.join(",", nome, cpf, rg, "1990-01-01", matricula, "Analista", "TI",
+                "2020-01-01", "ATIVO", "CLT", "func@example.com", "11999990000") + "\n";
+    }
+
+    private static InputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
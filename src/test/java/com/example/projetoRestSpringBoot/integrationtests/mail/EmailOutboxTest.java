@@ -0,0 +1,281 @@
+package com.example.projetoRestSpringBoot.integrationtests.mail;
+
+import com.example.projetoRestSpringBoot.config.EmailConfig;
+import com.example.projetoRestSpringBoot.config.EmailOutboxConfig;
+import com.example.projetoRestSpringBoot.config.FileStorageConfig;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.EmailStatusDTO;
+import com.example.projetoRestSpringBoot.dto.request.EmailRequestDTO;
+import com.example.projetoRestSpringBoot.enums.EmailStatus;
+import com.example.projetoRestSpringBoot.exception.BadRequestException;
+import com.example.projetoRestSpringBoot.file.exporter.impl.CsvExporter;
+import com.example.projetoRestSpringBoot.mail.EmailMensagem;
+import com.example.projetoRestSpringBoot.mail.EmailOutboxWorker;
+import com.example.projetoRestSpringBoot.mail.EmailSender;
+import com.example.projetoRestSpringBoot.model.EmailOutbox;
+import com.example.projetoRestSpringBoot.repository.EmailOutboxRepository;
+import com.example.projetoRestSpringBoot.service.EmailService;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Multipart;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// O worker é chamado direto pelo teste (o agendamento fica com intervalo longo para não disputar os
+// lotes); o servidor SMTP é o GreenMail em localhost
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({EmailOutboxTest.SmtpDeTeste.class, EmailService.class, EmailSender.class, EmailOutboxWorker.class,
+        EmailConfig.class, EmailOutboxConfig.class, FileStorageConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.mail.username=projeto@teste.com",
+        "email.outbox.intervalo=3600000",
+        "email.outbox.threads=4",
+        "email.outbox.lote=100",
+        "email.outbox.mensagens-por-conexao=25",
+        "email.outbox.max-tentativas=3",
+        "email.outbox.backoff-inicial=30s",
+        "email.outbox.backoff-maximo=2m"
+})
+class EmailOutboxTest {
+
+    private final Logger logger = LoggerFactory.getLogger(EmailOutboxTest.class);
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private EmailOutboxWorker worker;
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private SmtpContado mailSender;
+
+    @BeforeEach
+    void setUp() {
+        mailSender.conexoes.set(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void enviaAFilaReaproveitandoConexoes() {
+        int total = 250;
+        for (int i = 0; i < total; i++) {
+            emailService.sentSimpleEmail(request("destino" + i + "@teste.com", "Assunto " + i));
+        }
+
+        long inicio = System.nanoTime();
+        worker.processarPendentes();
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        logger.info("{} e-mails em {} s ({} e-mails/s, {} conexões)", total, segundos,
+                Math.round(total / segundos), mailSender.conexoes.get());
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, total));
+        // 100 + 100 + 50: grupos de 25 por conexão
+        assertEquals(10, mailSender.conexoes.get());
+        assertEquals(total, repository.findAll().stream().filter(e -> e.getStatus() == EmailStatus.ENVIADO).count());
+    }
+
+    @Test
+    void falhaReagendaComBackoff() {
+        EmailStatusDTO enfileirado = emailService.sentSimpleEmail(request("ana@teste.com", "Relatório"));
+        greenMail.stop();
+
+        Instant antes = Instant.now();
+        worker.processarPendentes();
+
+        EmailStatusDTO status = emailService.consultar(enfileirado.getId());
+        assertEquals(EmailStatus.PENDENTE, status.getStatus());
+        assertEquals(1, status.getTentativas());
+        assertTrue(status.getProximaTentativa().isAfter(antes.plusSeconds(29)));
+        assertTrue(status.getUltimoErro() != null);
+
+        // Ainda no backoff: o próximo ciclo não tenta de novo
+        worker.processarPendentes();
+        assertEquals(1, emailService.consultar(enfileirado.getId()).getTentativas());
+    }
+
+    @Test
+    void descartaAposMaximoDeTentativas() {
+        EmailStatusDTO enfileirado = emailService.sentSimpleEmail(request("ana@teste.com", "Relatório"));
+        greenMail.stop();
+
+        for (int i = 0; i < 3; i++) {
+            liberarAgora(enfileirado.getId());
+            worker.processarPendentes();
+        }
+
+        EmailStatusDTO status = emailService.consultar(enfileirado.getId());
+        assertEquals(EmailStatus.FALHOU, status.getStatus());
+        assertEquals(3, status.getTentativas());
+        assertNull(status.getProximaTentativa());
+    }
+
+    @Test
+    void poolEncerradoDevolveOLoteParaAFila() throws Exception {
+        EmailStatusDTO enfileirado = emailService.sentSimpleEmail(request("ana@teste.com", "Relatório"));
+        worker.encerrarExecutor();
+        try {
+            worker.processarPendentes();
+        } finally {
+            worker.iniciarExecutor();
+        }
+
+        EmailOutbox email = repository.findById(enfileirado.getId()).orElseThrow();
+        assertEquals(EmailStatus.PENDENTE, email.getStatus());
+        assertEquals(0, email.getTentativas());
+        assertNull(email.getLote());
+
+        worker.processarPendentes();
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        assertEquals(EmailStatus.ENVIADO, emailService.consultar(enfileirado.getId()).getStatus());
+    }
+
+    @Test
+    void backoffDobraAteOMaximo() {
+        assertEquals(Duration.ofSeconds(30), worker.atraso(1));
+        assertEquals(Duration.ofSeconds(60), worker.atraso(2));
+        assertEquals(Duration.ofMinutes(2), worker.atraso(3));
+        assertEquals(Duration.ofMinutes(2), worker.atraso(10));
+    }
+
+    @Test
+    void anexoEnviadoEApagadoDoDisco() throws Exception {
+        MockMultipartFile anexo = new MockMultipartFile("attachment", "relatorio.csv", "text/csv",
+                "id;nome\n1;Java\n".getBytes());
+        EmailStatusDTO enfileirado = emailService.senEmailWithAttachment(
+                "{\"to\":\"ana@teste.com\",\"subject\":\"Relatório\",\"body\":\"Segue\"}", anexo);
+        Path spool = Path.of(repository.findById(enfileirado.getId()).map(EmailOutbox::getAnexoCaminho).orElseThrow());
+        assertTrue(Files.exists(spool));
+
+        worker.processarPendentes();
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        MimeMessage recebida = greenMail.getReceivedMessages()[0];
+        Multipart partes = (Multipart) recebida.getContent();
+        assertEquals("relatorio.csv", partes.getBodyPart(1).getFileName());
+        assertTrue(GreenMailUtil.getBody(partes.getBodyPart(1)).contains("1;Java"));
+        assertFalse(Files.exists(spool));
+        assertEquals(EmailStatus.ENVIADO, emailService.consultar(enfileirado.getId()).getStatus());
+    }
+
+    @Test
+    void saidaDoExportadorVaiComoAnexo() throws Exception {
+        CursoDTO curso = new CursoDTO();
+        curso.setId(1L);
+        curso.setNome("Java");
+        Resource exportado = new CsvExporter().exportCursos(List.of(curso));
+
+        EmailStatusDTO enfileirado = emailService.enviarComAnexo(request("ana@teste.com", "Cursos"), "cursos.csv", exportado);
+        worker.processarPendentes();
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        Multipart partes = (Multipart) greenMail.getReceivedMessages()[0].getContent();
+        assertEquals("cursos.csv", partes.getBodyPart(1).getFileName());
+        assertTrue(GreenMailUtil.getBody(partes.getBodyPart(1)).contains("Java"));
+        assertEquals(EmailStatus.ENVIADO, emailService.consultar(enfileirado.getId()).getStatus());
+    }
+
+    @Test
+    void anexoEmMemoriaEnviadoSemPassarPeloDisco() throws Exception {
+        EmailMensagem mensagem = new EmailMensagem(1L, EmailMensagem.enderecos("ana@teste.com"), "Cursos", "Segue",
+                new EmailMensagem.Anexo("cursos.csv", new ByteArrayResource("id;nome\n1;Java\n".getBytes())));
+
+        assertTrue(emailSender.enviar(List.of(mensagem)).isEmpty());
+
+        assertTrue(greenMail.waitForIncomingEmail(5_000, 1));
+        Multipart partes = (Multipart) greenMail.getReceivedMessages()[0].getContent();
+        assertTrue(GreenMailUtil.getBody(partes.getBodyPart(1)).contains("1;Java"));
+    }
+
+    @Test
+    void enderecoInvalidoRecusadoAoEnfileirar() {
+        assertThrows(BadRequestException.class, () -> emailService.sentSimpleEmail(request("sem arroba", "x")));
+        assertEquals(0, repository.count());
+    }
+
+    private void liberarAgora(Long id) {
+        EmailOutbox email = repository.findById(id).orElseThrow();
+        email.setProximaTentativa(Instant.now().minusSeconds(1));
+        repository.save(email);
+    }
+
+    private static EmailRequestDTO request(String to, String subject) {
+        EmailRequestDTO request = new EmailRequestDTO();
+        request.setTo(to);
+        request.setSubject(subject);
+        request.setBody("<p>Teste</p>");
+        return request;
+    }
+
+    // Conta quantas vezes o JavaMailSender abre uma conexão com o servidor
+    static class SmtpContado extends JavaMailSenderImpl {
+        final AtomicInteger conexoes = new AtomicInteger();
+
+        @Override
+        protected Transport connectTransport() throws MessagingException {
+            conexoes.incrementAndGet();
+            return super.connectTransport();
+        }
+    }
+
+    @TestConfiguration
+    static class SmtpDeTeste {
+        @Bean
+        SmtpContado mailSender() {
+            SmtpContado mailSender = new SmtpContado();
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            return mailSender;
+        }
+    }
+}
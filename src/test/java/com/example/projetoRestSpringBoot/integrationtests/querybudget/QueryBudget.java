@@ -0,0 +1,71 @@
+package com.example.projetoRestSpringBoot.integrationtests.querybudget;
+
+import com.example.projetoRestSpringBoot.profiling.PerfilSql;
+import com.example.projetoRestSpringBoot.profiling.SqlProfiler;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Orçamento de acesso ao banco de uma chamada:
+//
+//     queryBudget.statements(2).linhas(40).verificar(() -> service.findAll(pageable));
+//
+// Statements são os que o Hibernate prepara (contados pelo mesmo inspector do SqlProfilerFilter), linhas são
+// as entidades carregadas do banco. O que passar por JdbcTemplate não entra na conta.
+public class QueryBudget {
+
+    private final Statistics statistics;
+
+    public QueryBudget(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public Orcamento statements(int maximo) {
+        return new Orcamento(maximo, Long.MAX_VALUE);
+    }
+
+    public final class Orcamento {
+
+        private final int maxStatements;
+        private final long maxLinhas;
+
+        private Orcamento(int maxStatements, long maxLinhas) {
+            this.maxStatements = maxStatements;
+            this.maxLinhas = maxLinhas;
+        }
+
+        public Orcamento linhas(long maximo) {
+            return new Orcamento(maxStatements, maximo);
+        }
+
+        public <T> T verificar(ThrowingSupplier<T> chamada) {
+            statistics.clear();
+            PerfilSql perfil = SqlProfiler.iniciar();
+            T resultado;
+            try {
+                resultado = chamada.get();
+            } catch (Throwable e) {
+                throw new AssertionError("A chamada falhou antes de o orçamento ser verificado", e);
+            } finally {
+                SqlProfiler.encerrar();
+            }
+
+            long linhas = statistics.getEntityLoadCount();
+            if (perfil.getStatements() > maxStatements || linhas > maxLinhas) {
+                StringBuilder mensagem = new StringBuilder()
+                        .append("Orçamento de banco estourado: ")
+                        .append(perfil.getStatements()).append(" statements (máximo ").append(maxStatements).append("), ")
+                        .append(linhas).append(" linhas (máximo ").append(maxLinhas == Long.MAX_VALUE ? "livre" : maxLinhas)
+                        .append(")");
+                perfil.getExecucoesPorSql().forEach((sql, execucoes) ->
+                        mensagem.append(System.lineSeparator()).append("  ").append(execucoes).append("x ").append(sql));
+                fail(mensagem.toString());
+            }
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.projetoRestSpringBoot.integrationtests.querybudget;
+
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.enums.CredencialStatus;
+import com.example.projetoRestSpringBoot.enums.CredencialTipo;
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
+import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
+import com.example.projetoRestSpringBoot.file.exporter.impl.CsvExporter;
+import com.example.projetoRestSpringBoot.config.ReportConfig;
+import com.example.projetoRestSpringBoot.file.exporter.impl.PdfExporter;
+import com.example.projetoRestSpringBoot.model.Credencial;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.service.CredencialService;
+import com.example.projetoRestSpringBoot.service.DigestVencimentoService;
+import com.example.projetoRestSpringBoot.service.TreinamentoService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.HateoasPageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Services reais sobre o H2 do perfil de teste. Se uma mudança em consulta, mapeamento ou exportação
+// fizer alguma destas chamadas ir mais vezes ao banco, o teste falha listando os statements executados.
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TreinamentoService.class, CredencialService.class, FileExporterFactory.class, CsvExporter.class,
+        StreamingExportExecutor.class, AlteracoesTabela.class, ReportConfig.class, ServiceQueryBudgetTest.Assembler.class})
+class ServiceQueryBudgetTest {
+
+    private static final int FUNCIONARIOS = 8;
+    private static final int CURSOS = 5;
+    private static final int TREINAMENTOS = FUNCIONARIOS * CURSOS;
+
+    @TestConfiguration
+    static class Assembler {
+        // Mesmo bean que o Spring Data registra fora do slice
+        @Bean
+        PagedResourcesAssembler<?> pagedResourcesAssembler() {
+            return new PagedResourcesAssembler<>(new HateoasPageableHandlerMethodArgumentResolver(), null);
+        }
+    }
+
+    @MockitoBean
+    private PdfExporter pdfExporter;
+
+    @MockitoBean
+    private DigestVencimentoService digestService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TreinamentoService treinamentoService;
+
+    @Autowired
+    private CredencialService credencialService;
+
+    private QueryBudget queryBudget;
+
+    @BeforeEach
+    void setUp() {
+        MockFuncionario mockFuncionario = new MockFuncionario();
+        List<Funcionario> funcionarios = new ArrayList<>();
+        for (int i = 0; i < FUNCIONARIOS; i++) {
+            Funcionario funcionario = mockFuncionario.mockEntity(i);
+            funcionario.setId(null);
+            funcionarios.add(entityManager.persist(funcionario));
+
+            Credencial credencial = new Credencial();
+            credencial.setTipo(CredencialTipo.PERMANENTE);
+            credencial.setFuncionario(funcionario);
+            credencial.setDataEmissao(LocalDate.now().minusMonths(1));
+            credencial.setDataVencimento(LocalDate.now().plusMonths(11));
+            credencial.setStatus(CredencialStatus.VALIDA);
+            entityManager.persist(credencial);
+        }
+
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < CURSOS; i++) {
+            Curso curso = new Curso();
+            curso.setNome("Curso " + i);
+            curso.setCargaHoraria(8);
+            curso.setValidadeMeses(12);
+            curso.setOrigemCurso(CursoOrigem.INTERNO);
+            curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+            cursos.add(entityManager.persist(curso));
+        }
+
+        for (Funcionario funcionario : funcionarios) {
+            for (Curso curso : cursos) {
+                Treinamento treinamento = new Treinamento();
+                treinamento.setFuncionario(funcionario);
+                treinamento.setCurso(curso);
+                treinamento.setDataAgendamento(LocalDate.now().minusMonths(2));
+                treinamento.setDataConcluido(LocalDate.now().minusMonths(1));
+                treinamento.setDataVencimento(LocalDate.now().plusMonths(11));
+                treinamento.setInstrutor("Instrutor");
+                treinamento.setStatus(TreinamentoStatus.VALIDO);
+                entityManager.persist(treinamento);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        queryBudget = new QueryBudget(entityManagerFactory);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void paginaDeTreinamentos() {
+        // Select da página com funcionário e curso mais o count; nenhum SELECT por linha
+        PagedModel<EntityModel<TreinamentoDTO>> pagina = queryBudget.statements(2).linhas(20 + FUNCIONARIOS + CURSOS)
+                .verificar(() -> treinamentoService.findAll(PageRequest.of(0, 20, Sort.by("dataVencimento"))));
+
+        assertEquals(20, pagina.getContent().size());
+    }
+
+    @Test
+    void orcamentoEstouradoListaOsStatements() {
+        AssertionError erro = assertThrows(AssertionError.class, () -> queryBudget.statements(1)
+                .verificar(() -> treinamentoService.findAll(PageRequest.of(0, 20, Sort.by("dataVencimento")))));
+
+        assertTrue(erro.getMessage().startsWith("Orçamento de banco estourado: 2 statements (máximo 1)"), erro.getMessage());
+        assertTrue(erro.getMessage().contains("1x select count("), erro.getMessage());
+    }
+
+    @Test
+    void credenciaisPorStatus() {
+        PagedModel<EntityModel<CredencialDTO>> pagina = queryBudget.statements(2).linhas(5 + 5)
+                .verificar(() -> credencialService.findByStatus(CredencialStatus.VALIDA, PageRequest.of(0, 5)));
+
+        assertEquals(5, pagina.getContent().size());
+    }
+
+    @Test
+    void exportacaoDeTreinamentosEmArquivo() {
+        Resource resource = queryBudget.statements(1).linhas(TREINAMENTOS + FUNCIONARIOS + CURSOS)
+                .verificar(() -> treinamentoService.exportPage(MediaTypes.APPLICATION_TEXT_CSV_VALUE));
+
+        assertTrue(resource.exists());
+    }
+
+    @Test
+    void exportacaoDeTreinamentosEmStreaming() {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        queryBudget.statements(1).linhas(TREINAMENTOS + FUNCIONARIOS + CURSOS).verificar(() -> {
+            treinamentoService.exportPageStreaming(MediaTypes.APPLICATION_TEXT_CSV_VALUE).writeTo(saida);
+            return saida;
+        });
+
+        assertEquals(TREINAMENTOS + 1, saida.toString().lines().count());
+    }
+
+    @Test
+    void exportacaoDeCredenciaisEmArquivo() {
+        Resource resource = queryBudget.statements(1).linhas(FUNCIONARIOS * 2)
+                .verificar(() -> credencialService.exportPage(MediaTypes.APPLICATION_TEXT_CSV_VALUE));
+
+        assertTrue(resource.exists());
+    }
+
+    @Test
+    void exportacaoDeCredenciaisEmStreaming() {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        queryBudget.statements(1).linhas(FUNCIONARIOS * 2).verificar(() -> {
+            credencialService.exportPageStreaming(MediaTypes.APPLICATION_TEXT_CSV_VALUE).writeTo(saida);
+            return saida;
+        });
+
+        assertEquals(FUNCIONARIOS + 1, saida.toString().lines().count());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.mapper.EntityMappers;
+import com.example.projetoRestSpringBoot.model.Curso;
+import org.hibernate.proxy.HibernateProxy;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObject;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EntityProxyMappingTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void proxyDaEntidadeUsaOMapeadorEscritoAMao() {
+        Curso curso = new Curso();
+        curso.setNome("NR-10");
+        curso.setCargaHoraria(40);
+        curso.setValidadeMeses(24);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        Long id = entityManager.persistAndFlush(curso).getId();
+        entityManager.clear();
+
+        Curso referencia = entityManager.getEntityManager().getReference(Curso.class, id);
+        assertTrue(referencia instanceof HibernateProxy);
+
+        try (MockedStatic<EntityMappers> mappers = Mockito.mockStatic(EntityMappers.class, Mockito.CALLS_REAL_METHODS)) {
+            CursoDTO dto = parseObject(referencia, CursoDTO.class);
+
+            assertEquals(id, dto.getId());
+            assertEquals("NR-10", dto.getNome());
+            mappers.verify(() -> EntityMappers.toDTO(any(Curso.class)));
+        }
+    }
+}
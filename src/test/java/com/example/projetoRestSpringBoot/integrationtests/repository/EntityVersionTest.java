@@ -0,0 +1,118 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.repository.CursoRepository;
+import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import com.example.projetoRestSpringBoot.service.etag.EntityTag;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EntityVersionTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private TreinamentoRepository treinamentoRepository;
+
+    private Funcionario funcionario;
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        funcionario = new MockFuncionario().mockEntity(1);
+        funcionario.setId(null);
+        entityManager.persist(funcionario);
+
+        curso = new Curso();
+        curso.setNome("Curso");
+        curso.setCargaHoraria(8);
+        curso.setValidadeMeses(12);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        entityManager.persist(curso);
+        entityManager.flush();
+    }
+
+    @Test
+    void versaoAvancaACadaAtualizacao() {
+        assertEquals(0L, cursoRepository.findVersaoById(curso.getId()).orElseThrow());
+
+        curso.setNome("Curso renomeado");
+        entityManager.flush();
+
+        assertEquals(1L, cursoRepository.findVersaoById(curso.getId()).orElseThrow());
+        assertTrue(cursoRepository.findVersaoById(-1L).isEmpty());
+    }
+
+    @Test
+    void versaoDoTreinamentoIncluiFuncionarioECurso() {
+        Treinamento treinamento = persistir(LocalDate.of(2024, 1, 1));
+        funcionario.setNome("Outro nome");
+        entityManager.flush();
+
+        assertEquals(EntityTag.forte(treinamento.getVersao(), funcionario.getVersao(), curso.getVersao()),
+                EntityTag.forte(treinamentoRepository.findVersaoById(treinamento.getId()).orElseThrow()));
+        assertEquals("\"0-1-0\"", EntityTag.forte(treinamentoRepository.findVersaoById(treinamento.getId()).orElseThrow()));
+    }
+
+    @Test
+    void atualizacaoEmMassaAvancaAVersao() {
+        Long id = persistir(LocalDate.of(2024, 1, 1)).getId();
+        entityManager.clear();
+
+        treinamentoRepository.atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, LocalDate.of(2024, 6, 1), id, id);
+
+        assertEquals(1L, entityManager.find(Treinamento.class, id).getVersao());
+    }
+
+    // Mesmo INSERT da importação em lote, que não informa a versão
+    @Test
+    void insertSemVersaoUsaDefault() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO curso (nome, carga_horaria, validade_meses, origem_curso, tipo_obrigatoriedade) " +
+                "VALUES ('Importado', 4, 6, 'INTERNO', 'OBRIGATORIO')");
+        Long id = jdbc.queryForObject("SELECT id FROM curso WHERE nome = 'Importado'", Long.class);
+
+        assertEquals(0L, cursoRepository.findVersaoById(id).orElseThrow());
+    }
+
+    private Treinamento persistir(LocalDate dataVencimento) {
+        Treinamento treinamento = new Treinamento();
+        treinamento.setFuncionario(funcionario);
+        treinamento.setCurso(curso);
+        treinamento.setDataAgendamento(dataVencimento.minusYears(1));
+        treinamento.setDataConcluido(dataVencimento.minusYears(1));
+        treinamento.setDataVencimento(dataVencimento);
+        treinamento.setInstrutor("Instrutor");
+        treinamento.setStatus(TreinamentoStatus.VALIDO);
+        entityManager.persist(treinamento);
+        entityManager.flush();
+        return treinamento;
+    }
+}
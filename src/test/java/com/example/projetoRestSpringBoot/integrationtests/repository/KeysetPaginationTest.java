@@ -0,0 +1,129 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.exception.BadRequestException;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import com.example.projetoRestSpringBoot.service.pagination.KeysetCursor;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class KeysetPaginationTest {
+
+    private static final int TREINAMENTOS = 40;
+    private static final int TAMANHO_PAGINA = 7;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TreinamentoRepository repository;
+
+    private final List<Treinamento> persistidos = new ArrayList<>();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Funcionario funcionario = new MockFuncionario().mockEntity(1);
+        funcionario.setId(null);
+        entityManager.persist(funcionario);
+
+        Curso curso = new Curso();
+        curso.setNome("Curso");
+        curso.setCargaHoraria(8);
+        curso.setValidadeMeses(12);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        entityManager.persist(curso);
+
+        // Poucas datas distintas para forçar empates e exercitar o desempate pelo id
+        for (int i = 0; i < TREINAMENTOS; i++) {
+            Treinamento treinamento = new Treinamento();
+            treinamento.setFuncionario(funcionario);
+            treinamento.setCurso(curso);
+            treinamento.setDataAgendamento(LocalDate.of(2024, 1, 1));
+            treinamento.setDataConcluido(LocalDate.of(2024, 1, 2));
+            treinamento.setDataVencimento(LocalDate.of(2025, 1, 1).plusDays(i % 4));
+            treinamento.setInstrutor("Instrutor");
+            treinamento.setStatus(TreinamentoStatus.VALIDO);
+            persistidos.add(entityManager.persist(treinamento));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void percorreTodosOsTreinamentosSemRepetirNemPular() {
+        Comparator<Treinamento> ordem = Comparator.comparing(Treinamento::getDataVencimento)
+                .thenComparing(Treinamento::getId);
+
+        assertEquals(esperado(ordem), percorrer("asc"));
+        assertEquals(esperado(ordem.reversed()), percorrer("desc"));
+    }
+
+    @Test
+    void cursorInvalidoGeraBadRequest() {
+        assertThrows(BadRequestException.class,
+                () -> KeysetCursor.decode("nao-e-um-cursor", "dataVencimento", LocalDate::parse, "asc"));
+    }
+
+    private List<Long> esperado(Comparator<Treinamento> ordem) {
+        return persistidos.stream().sorted(ordem).map(Treinamento::getId).toList();
+    }
+
+    private List<Long> percorrer(String direction) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        statistics.clear();
+        do {
+            KeysetCursor.Posicao posicao = KeysetCursor.decode(cursor, "dataVencimento", LocalDate::parse, direction);
+            Window<Treinamento> window = repository.findAllBy(posicao.scrollPosition(),
+                    KeysetCursor.sort("dataVencimento", posicao.direction()), Limit.of(TAMANHO_PAGINA));
+            window.forEach(t -> {
+                t.getFuncionario().getNome();
+                t.getCurso().getNome();
+                ids.add(t.getId());
+            });
+            cursor = window.hasNext() ? KeysetCursor.encode(window, "dataVencimento", posicao.direction()) : null;
+            paginas++;
+        } while (cursor != null);
+
+        // Um único select por página: sem count e sem select por linha para funcionário e curso
+        assertEquals(paginas, statistics.getPrepareStatementCount());
+        return ids;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CredencialStatus;
+import com.example.projetoRestSpringBoot.enums.CredencialTipo;
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.model.Credencial;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.repository.CredencialRepository;
+import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PageQueryStatementCountTest {
+
+    private static final int FUNCIONARIOS = 8;
+    private static final int CURSOS = 5;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TreinamentoRepository treinamentoRepository;
+
+    @Autowired
+    private CredencialRepository credencialRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        MockFuncionario mockFuncionario = new MockFuncionario();
+        List<Funcionario> funcionarios = new ArrayList<>();
+        for (int i = 0; i < FUNCIONARIOS; i++) {
+            Funcionario funcionario = mockFuncionario.mockEntity(i);
+            funcionario.setId(null);
+            funcionarios.add(entityManager.persist(funcionario));
+
+            Credencial credencial = new Credencial();
+            credencial.setTipo(CredencialTipo.PERMANENTE);
+            credencial.setFuncionario(funcionario);
+            credencial.setDataEmissao(LocalDate.now().minusMonths(1));
+            credencial.setDataVencimento(LocalDate.now().plusMonths(11));
+            credencial.setStatus(CredencialStatus.VALIDA);
+            entityManager.persist(credencial);
+        }
+
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 0; i < CURSOS; i++) {
+            Curso curso = new Curso();
+            curso.setNome("Curso " + i);
+            curso.setCargaHoraria(8);
+            curso.setValidadeMeses(12);
+            curso.setOrigemCurso(CursoOrigem.INTERNO);
+            curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+            cursos.add(entityManager.persist(curso));
+        }
+
+        for (Funcionario funcionario : funcionarios) {
+            for (Curso curso : cursos) {
+                Treinamento treinamento = new Treinamento();
+                treinamento.setFuncionario(funcionario);
+                treinamento.setCurso(curso);
+                treinamento.setDataAgendamento(LocalDate.now().minusMonths(2));
+                treinamento.setDataConcluido(LocalDate.now().minusMonths(1));
+                treinamento.setDataVencimento(LocalDate.now().plusMonths(11));
+                treinamento.setInstrutor("Instrutor");
+                treinamento.setStatus(TreinamentoStatus.VALIDO);
+                entityManager.persist(treinamento);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void paginaDeTreinamentosUsaSelectDaPaginaMaisCount() {
+        Page<Treinamento> page = treinamentoRepository.findAll(PageRequest.of(0, 20, Sort.by("dataVencimento")));
+        page.forEach(t -> {
+            t.getFuncionario().getNome();
+            t.getCurso().getNome();
+        });
+
+        assertEquals(20, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Esperado no máximo 2 statements, executados: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void treinamentosPorStatusNaoDisparaSelectPorLinha() {
+        Page<Treinamento> page = treinamentoRepository.findByStatus(TreinamentoStatus.VALIDO, PageRequest.of(1, 15));
+        page.forEach(t -> {
+            t.getFuncionario().getMatricula();
+            t.getCurso().getNome();
+        });
+
+        assertEquals(15, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Esperado no máximo 2 statements, executados: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void paginaDeCredenciaisUsaSelectDaPaginaMaisCount() {
+        Page<Credencial> page = credencialRepository.findAll(PageRequest.of(0, 5, Sort.by("id")));
+        page.forEach(c -> c.getFuncionario().getNome());
+
+        assertEquals(5, page.getNumberOfElements());
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                "Esperado no máximo 2 statements, executados: " + statistics.getPrepareStatementCount());
+    }
+}
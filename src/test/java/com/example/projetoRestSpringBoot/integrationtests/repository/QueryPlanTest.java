@@ -0,0 +1,190 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CredencialStatus;
+import com.example.projetoRestSpringBoot.enums.FuncionarioSituacao;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.repository.CredencialRepository;
+import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
+import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Roda EXPLAIN no SQL que o Hibernate gera para cada consulta filtrada dos repositórios
+// e falha se alguma tabela for lida por varredura completa
+@DataJpaTest
+@ActiveProfiles("test")
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.projetoRestSpringBoot.integrationtests.repository.QueryPlanTest$CapturaSql")
+class QueryPlanTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 12, 31);
+    // Segunda página para o Spring Data também executar o count
+    private static final Pageable PAGINA = PageRequest.of(1, 10);
+
+    public static class CapturaSql implements StatementInspector {
+        static final List<String> SQLS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQLS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TreinamentoRepository treinamentoRepository;
+
+    @Autowired
+    private CredencialRepository credencialRepository;
+
+    @Autowired
+    private FuncionarioRepository funcionarioRepository;
+
+    private final List<String> falhas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        falhas.clear();
+    }
+
+    @Test
+    void consultasDeTreinamentoUsamIndice() {
+        verificar("findTreinamentoExpiring", () -> treinamentoRepository.findTreinamentoExpiring(INICIO, FIM,
+                PageRequest.of(1, 10, Sort.by("dataVencimento"))));
+        verificar("findTreinamentoConluded", () -> treinamentoRepository.findTreinamentoConluded(INICIO, FIM,
+                PageRequest.of(1, 10, Sort.by("dataConcluido"))));
+        verificar("findByStatus", () -> treinamentoRepository.findByStatus(TreinamentoStatus.VALIDO,
+                PageRequest.of(1, 10, Sort.by("dataVencimento"))));
+        verificar("findByInstrutor", () -> treinamentoRepository.findByInstrutor("Instrutor",
+                PageRequest.of(1, 10, Sort.by("dataConcluido"))));
+        verificar("findTreinamentosByFuncionario", () -> treinamentoRepository.findTreinamentosByFuncionario(1L, PAGINA));
+        verificar("findFuncionarioIdsComTreinamento", () -> treinamentoRepository.findFuncionarioIdsComTreinamento(List.of(1L, 2L)));
+        verificar("findFuncionarioIdsComTreinamentoPorDepartamento",
+                () -> treinamentoRepository.findFuncionarioIdsComTreinamentoPorDepartamento("TI"));
+        verificar("atualizarStatusVencimentoAntesDe", () -> treinamentoRepository.atualizarStatusVencimentoAntesDe(
+                TreinamentoStatus.VENCIDO, INICIO, 1, 50_000));
+        verificar("atualizarStatusVencimentoEntre", () -> treinamentoRepository.atualizarStatusVencimentoEntre(
+                TreinamentoStatus.VENCIMENTO_PROXIMO, INICIO, FIM, 1, 50_000));
+        verificar("atualizarStatusVencimentoAPartirDe", () -> treinamentoRepository.atualizarStatusVencimentoAPartirDe(
+                TreinamentoStatus.VALIDO, FIM, 1, 50_000));
+
+        assertTrue(falhas.isEmpty(), String.join("\n\n", falhas));
+    }
+
+    @Test
+    void consultasDeCredencialUsamIndice() {
+        verificar("findCredencialExpiring", () -> credencialRepository.findCredencialExpiring(INICIO, FIM,
+                PageRequest.of(1, 10, Sort.by("dataVencimento"))));
+        verificar("findCredencialEmited", () -> credencialRepository.findCredencialEmited(INICIO, FIM,
+                PageRequest.of(1, 10, Sort.by("dataEmissao"))));
+        verificar("findByStatus", () -> credencialRepository.findByStatus(CredencialStatus.VALIDA,
+                PageRequest.of(1, 10, Sort.by("dataVencimento"))));
+        verificar("atualizarStatusVencimentoAntesDe", () -> credencialRepository.atualizarStatusVencimentoAntesDe(
+                CredencialStatus.VENCIDA, INICIO, 1, 50_000));
+        verificar("atualizarStatusVencimentoEntre", () -> credencialRepository.atualizarStatusVencimentoEntre(
+                CredencialStatus.VENCIMENTO_PROXIMO, INICIO, FIM, 1, 50_000));
+        verificar("atualizarStatusVencimentoAPartirDe", () -> credencialRepository.atualizarStatusVencimentoAPartirDe(
+                CredencialStatus.VALIDA, FIM, 1, 50_000));
+
+        assertTrue(falhas.isEmpty(), String.join("\n\n", falhas));
+    }
+
+    @Test
+    void consultasDeFuncionarioUsamIndice() {
+        verificar("findFuncionarioByAddmitedDate", () -> funcionarioRepository.findFuncionarioByAddmitedDate(INICIO, FIM,
+                PageRequest.of(1, 10, Sort.by("nome"))));
+        verificar("findBySituacao", () -> funcionarioRepository.findBySituacao(FuncionarioSituacao.ATIVO,
+                PageRequest.of(1, 10, Sort.by("nome"))));
+        verificar("findByMatricula", () -> funcionarioRepository.findByMatricula("MAT001"));
+        verificar("findChavesExistentes", () -> funcionarioRepository.findChavesExistentes(
+                List.of("MAT001"), List.of("000.000.000-01"), List.of("RG001")));
+
+        assertTrue(falhas.isEmpty(), String.join("\n\n", falhas));
+    }
+
+    // O schema dos testes vem das entidades; este teste garante que elas e a migration declaram os mesmos índices
+    @Test
+    void indicesDaMigrationExistemNoSchemaDasEntidades() throws Exception {
+        String migration = new ClassPathResource("db/migration/V15__Create_Indexes_Consultas.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+        Matcher matcher = Pattern.compile("CREATE INDEX `(\\w+)` ON `(\\w+)` \\(([^)]+)\\)").matcher(migration);
+        Map<String, String> esperados = new TreeMap<>();
+        while (matcher.find()) {
+            esperados.put(matcher.group(1), matcher.group(2) + "(" + matcher.group(3).replace("`", "").replace(" ", "") + ")");
+        }
+        assertFalse(esperados.isEmpty(), "Nenhum índice encontrado na migration");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Map<String, String> existentes = new TreeMap<>();
+        for (String indice : esperados.keySet()) {
+            List<Map<String, Object>> colunas = jdbc.queryForList(
+                    "SELECT TABLE_NAME, COLUMN_NAME FROM INFORMATION_SCHEMA.INDEX_COLUMNS " +
+                            "WHERE INDEX_NAME = ? ORDER BY ORDINAL_POSITION", indice.toUpperCase(Locale.ROOT));
+            if (!colunas.isEmpty()) {
+                List<String> nomes = colunas.stream().map(c -> ((String) c.get("COLUMN_NAME")).toLowerCase(Locale.ROOT)).toList();
+                existentes.put(indice, ((String) colunas.get(0).get("TABLE_NAME")).toLowerCase(Locale.ROOT)
+                        + "(" + String.join(",", nomes) + ")");
+            }
+        }
+        assertEquals(esperados, existentes);
+    }
+
+    private void verificar(String consulta, Runnable execucao) {
+        CapturaSql.SQLS.clear();
+        execucao.run();
+        List<String> sqls = List.copyOf(CapturaSql.SQLS);
+        assertFalse(sqls.isEmpty(), consulta + " não executou nenhum SQL");
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (String sql : sqls) {
+            String plano = jdbc.query(con -> con.prepareStatement("EXPLAIN " + sql),
+                    rs -> rs.next() ? rs.getString(1) : "");
+            Set<String> varreduras = varredurasCompletas(plano);
+            if (!varreduras.isEmpty()) {
+                falhas.add(consulta + " faz varredura completa em " + varreduras + ":\n" + plano);
+            }
+        }
+    }
+
+    private static Set<String> varredurasCompletas(String plano) {
+        Set<String> tabelas = new TreeSet<>();
+        Matcher matcher = Pattern.compile("/\\* PUBLIC\\.(\\w+)\\.tableScan").matcher(plano);
+        while (matcher.find()) {
+            tabelas.add(matcher.group(1));
+        }
+        return tabelas;
+    }
+}
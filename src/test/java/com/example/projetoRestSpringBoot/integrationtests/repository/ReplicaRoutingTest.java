@@ -0,0 +1,266 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.config.datasource.ReplicaDataSourceConfig;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
+import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportExecutor;
+import com.example.projetoRestSpringBoot.file.importer.batch.CursoImportHandler;
+import com.example.projetoRestSpringBoot.file.importer.factory.FileImporterFactory;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.repository.CursoRepository;
+import com.example.projetoRestSpringBoot.service.CursoService;
+import com.example.projetoRestSpringBoot.service.ImportacaoJobService;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.search.CursoNomeIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Dois bancos H2 fazem o papel de primário e réplica; a "replicação" é uma cópia feita pelo próprio teste,
+// então tudo o que foi gravado depois da última cópia simula o atraso da réplica
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaDataSourceConfig.class, CursoService.class, AlteracoesTabela.class, CacheReferencia.class})
+// Fora do slice do @DataJpaTest; é ela que registra o LeituraConsistente no transaction manager
+@ImportAutoConfiguration(TransactionManagerCustomizationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica_routing_primario;DB_CLOSE_DELAY=-1",
+        "datasource.replica.jdbc-url=jdbc:h2:mem:replica_routing_replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica.username=sa",
+        "datasource.leitura-primario-apos-escrita=1h",
+        // Bancos próprios deste contexto, então o cache de segundo nível pode ficar ligado
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+class ReplicaRoutingTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primario;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private CursoService cursoService;
+
+    @MockitoBean
+    private CursoNomeIndex nomeIndex;
+
+    @MockitoBean
+    private FileImporterFactory importer;
+
+    @MockitoBean
+    private BatchImportExecutor batchImporter;
+
+    @MockitoBean
+    private ImportacaoJobService importacaoJobs;
+
+    @MockitoBean
+    private CursoImportHandler cursoImportHandler;
+
+    @MockitoBean
+    private FileExporterFactory exporter;
+
+    @MockitoBean
+    private StreamingExportExecutor streamingExporter;
+
+    @BeforeEach
+    void setUp() {
+        new JdbcTemplate(primario).update("DELETE FROM curso");
+        entityManagerFactory.getCache().evictAll();
+        replicar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void transacaoSomenteLeituraUsaReplica() throws Exception {
+        // Gravado direto no primário, sem transação do Spring: nada marca a thread como tendo escrito
+        inserirNoPrimario("Java");
+
+        assertEquals(0L, emNovaThread(() -> contar(true)));
+        assertEquals(0L, emNovaThread(cursoRepository::count));
+        assertEquals(1L, emNovaThread(() -> contar(false)));
+
+        replicar();
+
+        assertEquals(1L, emNovaThread(() -> contar(true)));
+    }
+
+    @Test
+    void escritaForaDeRequisicaoLevaLeiturasDaThreadParaPrimario() throws Exception {
+        assertEquals(1L, emNovaThread(() -> {
+            cursoRepository.save(curso("Java"));
+            return contar(true);
+        }));
+        assertEquals(0L, emNovaThread(() -> contar(true)));
+    }
+
+    @Test
+    void escritaDoUsuarioValeParaAsProximasRequisicoesDele() {
+        novaRequisicao("ana");
+        cursoRepository.save(curso("Java"));
+        assertEquals(1L, contar(true));
+
+        novaRequisicao("ana");
+        assertEquals(1L, contar(true));
+
+        novaRequisicao("bruno");
+        assertEquals(0L, contar(true));
+    }
+
+    @Test
+    void transacaoSomenteLeituraNaoMarcaEscrita() {
+        inserirNoPrimario("Java");
+        // Usuário que não aparece nos outros testes: as escritas por usuário valem para o contexto todo
+        novaRequisicao("carla");
+
+        assertEquals(0L, contar(true));
+        assertEquals(0L, contar(true));
+    }
+
+    @Test
+    void putComIfMatchLeAVersaoDoPrimarioMesmoComReplicaAtrasada() {
+        inserirNoPrimario("Java");
+        replicar();
+        long id = new JdbcTemplate(primario).queryForObject("SELECT id FROM curso", Long.class);
+        // Outro usuário alterou o curso e a réplica ainda não recebeu a versão 1
+        new JdbcTemplate(primario).update("UPDATE curso SET nome = 'Java 21', versao = 1 WHERE id = ?", id);
+
+        novaRequisicao("diego");
+        CursoDTO alterado = cursoDTO(id, "Java 21 Avançado");
+        assertThrows(PreconditionFailedException.class, () -> cursoService.update(alterado, "\"0\""));
+
+        novaRequisicao("diego");
+        CursoDTO salvo = cursoService.update(alterado, "\"1\"");
+
+        assertEquals("Java 21 Avançado", salvo.getNome());
+        assertEquals(2L, new JdbcTemplate(primario).queryForObject("SELECT versao FROM curso WHERE id = ?", Long.class, id));
+    }
+
+    @Test
+    void leituraDaReplicaNaoAlimentaOCacheDeSegundoNivel() {
+        inserirNoPrimario("Java");
+        replicar();
+        long id = new JdbcTemplate(primario).queryForObject("SELECT id FROM curso", Long.class);
+
+        novaRequisicao("elisa");
+        assertEquals("Java", cursoService.findById(id).getNome());
+        assertFalse(entityManagerFactory.getCache().contains(Curso.class, id));
+
+        new TransactionTemplate(transactionManager).execute(status -> cursoRepository.findById(id));
+        assertTrue(entityManagerFactory.getCache().contains(Curso.class, id));
+    }
+
+    private long contar(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> cursoRepository.count());
+    }
+
+    private void inserirNoPrimario(String nome) {
+        new JdbcTemplate(primario).update("INSERT INTO curso (nome, carga_horaria, validade_meses, origem_curso, " +
+                "tipo_obrigatoriedade, versao) VALUES (?, 8, 12, 'INTERNO', 'OBRIGATORIO', 0)", nome);
+    }
+
+    // Copia schema e dados do primário para a réplica
+    private void replicar() {
+        List<String> script = new JdbcTemplate(primario).queryForList("SCRIPT NOPASSWORDS NOSETTINGS", String.class);
+        JdbcTemplate jdbcReplica = new JdbcTemplate(replica);
+        jdbcReplica.execute("DROP ALL OBJECTS");
+        script.stream()
+                .filter(sql -> !sql.startsWith("CREATE USER"))
+                .forEach(jdbcReplica::execute);
+    }
+
+    private static void novaRequisicao(String usuario) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(usuario, null, List.of()));
+    }
+
+    // Thread nova e descartada: a marca de escrita por thread de um teste não vaza para outro
+    private static long emNovaThread(Callable<Long> tarefa) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            return executor.submit(tarefa).get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static CursoDTO cursoDTO(long id, String nome) {
+        CursoDTO dto = new CursoDTO();
+        dto.setId(id);
+        dto.setNome(nome);
+        dto.setCargaHoraria(8);
+        dto.setValidadeMeses(12);
+        dto.setOrigemCurso(CursoOrigem.INTERNO);
+        dto.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        return dto;
+    }
+
+    private static Curso curso(String nome) {
+        Curso curso = new Curso();
+        curso.setNome(nome);
+        curso.setCargaHoraria(8);
+        curso.setValidadeMeses(12);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        return curso;
+    }
+}
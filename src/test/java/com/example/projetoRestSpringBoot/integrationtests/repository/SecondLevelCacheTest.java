@@ -0,0 +1,191 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Permission;
+import com.example.projetoRestSpringBoot.model.User;
+import com.example.projetoRestSpringBoot.repository.CursoRepository;
+import com.example.projetoRestSpringBoot.repository.UserRepository;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Cada chamada ao repositório roda na própria transação, como nos services,
+// para o cache de segundo nível ser preenchido nos commits
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(CacheReferencia.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CursoRepository cursoRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheReferencia cacheReferencia;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM user_permission");
+        jdbc.update("DELETE FROM users");
+        jdbc.update("DELETE FROM permission");
+        jdbc.update("DELETE FROM curso");
+        entityManagerFactory.getCache().evictAll();
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    @Test
+    void findByIdDeCursoNaoVaiAoBanco() {
+        Long id = cursoRepository.save(curso("Java")).getId();
+        // Insert com IDENTITY não passa pelo cache: a primeira leitura vai ao banco e preenche a região
+        cursoRepository.findById(id);
+        statistics.clear();
+
+        assertEquals("Java", cursoRepository.findById(id).orElseThrow().getNome());
+        assertEquals("Java", cursoRepository.findById(id).orElseThrow().getNome());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics(CacheReferencia.CURSO).getHitCount());
+    }
+
+    @Test
+    void permissoesDoUsuarioVemDoCache() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Permission permission = new Permission();
+            permission.setDescription("ADMIN");
+            entityManager.persist(permission);
+            entityManager.persist(usuario("admin", permission));
+        });
+
+        userRepository.findByUsername("admin");
+        statistics.clear();
+        User user = userRepository.findByUsername("admin");
+
+        assertEquals(List.of("ADMIN"), user.getRoles());
+        // Só a consulta do usuário; coleção e permissões saem do cache
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getCollectionFetchCount());
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(CacheReferencia.USER_PERMISSIONS).getHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(CacheReferencia.PERMISSION).getHitCount());
+    }
+
+    @Test
+    void listagemPaginadaUsaCacheDeConsultas() {
+        cursoRepository.save(curso("Java"));
+        cursoRepository.save(curso("Spring"));
+        cursoRepository.findAll(PageRequest.of(0, 10));
+        statistics.clear();
+
+        var pagina = cursoRepository.findAll(PageRequest.of(0, 10));
+
+        assertEquals(2, pagina.getTotalElements());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryRegionStatistics(CacheReferencia.CURSO_CONSULTAS).getHitCount() > 0);
+    }
+
+    @Test
+    void cursoAlteradoPeloHibernateInvalidaCacheDeConsultas() {
+        cursoRepository.save(curso("Java"));
+        cursoRepository.findAll(PageRequest.of(0, 10));
+
+        cursoRepository.save(curso("Spring"));
+
+        assertEquals(2, cursoRepository.findAll(PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void importacaoPorJdbcExigeInvalidacaoExplicita() {
+        Long id = cursoRepository.save(curso("Java")).getId();
+        cursoRepository.findById(id);
+        cursoRepository.findAll(PageRequest.of(0, 10));
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("UPDATE curso SET nome = 'Java 21' WHERE id = ?", id);
+        jdbc.update("INSERT INTO curso (nome, carga_horaria, validade_meses, origem_curso, tipo_obrigatoriedade, versao) " +
+                "VALUES ('Importado', 4, 6, 'INTERNO', 'OBRIGATORIO', 0)");
+
+        // Sem invalidação o cache continua com o estado anterior
+        assertEquals("Java", cursoRepository.findById(id).orElseThrow().getNome());
+        assertEquals(1, cursoRepository.findAll(PageRequest.of(0, 10)).getTotalElements());
+
+        cacheReferencia.invalidarCursos();
+
+        assertEquals("Java 21", cursoRepository.findById(id).orElseThrow().getNome());
+        assertEquals(2, cursoRepository.findAll(PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private static Curso curso(String nome) {
+        Curso curso = new Curso();
+        curso.setNome(nome);
+        curso.setCargaHoraria(8);
+        curso.setValidadeMeses(12);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        return curso;
+    }
+
+    private static User usuario(String username, Permission permission) {
+        User user = new User();
+        user.setUsername(username);
+        user.setFullname(username);
+        user.setPassword("senha");
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        user.setEnabled(true);
+        user.setPermissions(List.of(permission));
+        return user;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.profiling.PerfilSql;
+import com.example.projetoRestSpringBoot.profiling.SqlProfiler;
+import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// O inspector e o listener vêm do application.yml; aqui o perfil é aberto à mão, como o SqlProfilerFilter faz
+@DataJpaTest
+@ActiveProfiles("test")
+class SqlProfilerTest {
+
+    private static final int FUNCIONARIOS = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TreinamentoRepository treinamentoRepository;
+
+    @BeforeEach
+    void setUp() {
+        Curso curso = new Curso();
+        curso.setNome("NR-10");
+        curso.setCargaHoraria(8);
+        curso.setValidadeMeses(12);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        entityManager.persist(curso);
+
+        MockFuncionario mockFuncionario = new MockFuncionario();
+        for (int i = 0; i < FUNCIONARIOS; i++) {
+            Funcionario funcionario = mockFuncionario.mockEntity(i);
+            funcionario.setId(null);
+            entityManager.persist(funcionario);
+
+            Treinamento treinamento = new Treinamento();
+            treinamento.setFuncionario(funcionario);
+            treinamento.setCurso(curso);
+            treinamento.setDataAgendamento(LocalDate.now().minusMonths(2));
+            treinamento.setDataConcluido(LocalDate.now().minusMonths(1));
+            treinamento.setDataVencimento(LocalDate.now().plusMonths(11));
+            treinamento.setInstrutor("Instrutor");
+            treinamento.setStatus(TreinamentoStatus.VALIDO);
+            entityManager.persist(treinamento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlProfiler.encerrar();
+    }
+
+    @Test
+    void selectSemFetchDasAssociacoesEagerViraSuspeitaDeNMaisUm() {
+        PerfilSql perfil = SqlProfiler.iniciar();
+
+        // Sem join fetch, cada funcionário EAGER é buscado por um SELECT próprio
+        List<Treinamento> treinamentos = entityManager.getEntityManager()
+                .createQuery("select t from Treinamento t", Treinamento.class)
+                .getResultList();
+
+        assertEquals(FUNCIONARIOS, treinamentos.size());
+        Map<String, Integer> suspeitas = perfil.suspeitasNMaisUm(5);
+        assertEquals(1, suspeitas.size(), "Suspeitas: " + suspeitas);
+        assertEquals(FUNCIONARIOS, suspeitas.values().iterator().next());
+        assertTrue(suspeitas.keySet().iterator().next().contains("funcionario"));
+        assertTrue(perfil.getStatements() >= FUNCIONARIOS + 1);
+        assertTrue(perfil.getNanos() > 0);
+    }
+
+    @Test
+    void paginaComEntityGraphNaoTemSuspeitas() {
+        PerfilSql perfil = SqlProfiler.iniciar();
+
+        treinamentoRepository.findAll(PageRequest.of(0, 20, Sort.by("dataVencimento")))
+                .forEach(t -> t.getFuncionario().getNome());
+
+        assertTrue(perfil.getStatements() <= 2, "Statements: " + perfil.getStatements());
+        assertTrue(perfil.suspeitasNMaisUm(5).isEmpty());
+    }
+
+    @Test
+    void semPerfilAbertoNadaERegistrado() {
+        treinamentoRepository.findAll();
+
+        assertEquals(null, SqlProfiler.atual());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.projetoRestSpringBoot.integrationtests.repository;
+
+import com.example.projetoRestSpringBoot.enums.CursoOrigem;
+import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.model.Funcionario;
+import com.example.projetoRestSpringBoot.model.Treinamento;
+import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class StatusBulkUpdateTest {
+
+    private static final LocalDate HOJE = LocalDate.of(2024, 6, 1);
+    private static final LocalDate LIMITE = HOJE.plusDays(90);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TreinamentoRepository repository;
+
+    private Funcionario funcionario;
+    private Curso curso;
+
+    @BeforeEach
+    void setUp() {
+        funcionario = new MockFuncionario().mockEntity(1);
+        funcionario.setId(null);
+        entityManager.persist(funcionario);
+
+        curso = new Curso();
+        curso.setNome("Curso");
+        curso.setCargaHoraria(8);
+        curso.setValidadeMeses(12);
+        curso.setOrigemCurso(CursoOrigem.INTERNO);
+        curso.setTipoObrigatoriedade(CursoTipoObrigatoriedade.OBRIGATORIO);
+        entityManager.persist(curso);
+    }
+
+    @Test
+    void faixasDeVencimentoSeguemAsRegrasDeCalcularStatus() {
+        Long ontem = persistir(HOJE.minusDays(1), TreinamentoStatus.VALIDO);
+        Long venceHoje = persistir(HOJE, TreinamentoStatus.VALIDO);
+        Long vesperaDoLimite = persistir(LIMITE.minusDays(1), TreinamentoStatus.VALIDO);
+        Long noLimite = persistir(LIMITE, TreinamentoStatus.VENCIMENTO_PROXIMO);
+        Long jaVencido = persistir(HOJE.minusMonths(3), TreinamentoStatus.VENCIDO);
+        entityManager.flush();
+        entityManager.clear();
+
+        long maxId = repository.findMaxId();
+        int vencidos = repository.atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, HOJE, 0, maxId);
+        int proximos = repository.atualizarStatusVencimentoEntre(TreinamentoStatus.VENCIMENTO_PROXIMO, HOJE, LIMITE, 0, maxId);
+        int validos = repository.atualizarStatusVencimentoAPartirDe(TreinamentoStatus.VALIDO, LIMITE, 0, maxId);
+
+        // jaVencido já estava com o status certo e não conta como alteração
+        assertEquals(1, vencidos);
+        assertEquals(2, proximos);
+        assertEquals(1, validos);
+        assertEquals(TreinamentoStatus.VENCIDO, status(ontem));
+        assertEquals(TreinamentoStatus.VENCIMENTO_PROXIMO, status(venceHoje));
+        assertEquals(TreinamentoStatus.VENCIMENTO_PROXIMO, status(vesperaDoLimite));
+        assertEquals(TreinamentoStatus.VALIDO, status(noLimite));
+        assertEquals(TreinamentoStatus.VENCIDO, status(jaVencido));
+    }
+
+    @Test
+    void faixaDeIdsLimitaAsLinhasAtualizadas() {
+        Long primeiro = persistir(HOJE.minusDays(10), TreinamentoStatus.VALIDO);
+        Long segundo = persistir(HOJE.minusDays(10), TreinamentoStatus.VALIDO);
+        entityManager.flush();
+        entityManager.clear();
+
+        int alterados = repository.atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, HOJE, primeiro, primeiro);
+
+        assertEquals(1, alterados);
+        assertEquals(TreinamentoStatus.VENCIDO, status(primeiro));
+        assertEquals(TreinamentoStatus.VALIDO, status(segundo));
+    }
+
+    private Long persistir(LocalDate dataVencimento, TreinamentoStatus status) {
+        Treinamento treinamento = new Treinamento();
+        treinamento.setFuncionario(funcionario);
+        treinamento.setCurso(curso);
+        treinamento.setDataAgendamento(dataVencimento.minusYears(1));
+        treinamento.setDataConcluido(dataVencimento.minusYears(1));
+        treinamento.setDataVencimento(dataVencimento);
+        treinamento.setInstrutor("Instrutor");
+        treinamento.setStatus(status);
+        return entityManager.persistAndGetId(treinamento, Long.class);
+    }
+
+    private TreinamentoStatus status(Long id) {
+        return entityManager.find(Treinamento.class, id).getStatus();
+    }
+}
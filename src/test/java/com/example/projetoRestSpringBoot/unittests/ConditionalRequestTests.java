@@ -0,0 +1,138 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.projetoRestSpringBoot.config.datasource.LeituraConsistente;
+import com.example.projetoRestSpringBoot.controller.CursoController;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
+import com.example.projetoRestSpringBoot.exception.handler.CustomEntityResponseHandler;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.service.CursoService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.etag.Versionado;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCurso;
+
+@ExtendWith(MockitoExtension.class)
+public class ConditionalRequestTests {
+
+    @Mock
+    private CursoService service;
+
+    @Spy
+    private AlteracoesTabela alteracoes = new AlteracoesTabela();
+
+    @InjectMocks
+    private CursoController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setControllerAdvice(new CustomEntityResponseHandler())
+                .build();
+    }
+
+    // Simula o serviço: a versão lida é a 2 e o corpo só é montado se o cliente não a tiver
+    private void cursoNaVersao2() {
+        when(service.findById(eq(1L), any())).thenAnswer(invocation -> {
+            Predicate<String> naoModificado = invocation.getArgument(1);
+            CursoDTO corpo = naoModificado.test("\"2\"") ? null : new MockCurso().mockDTO(1);
+            return new Versionado<>("\"2\"", corpo);
+        });
+    }
+
+    @Test
+    public void findByIdRetornaETagForte() throws Exception {
+        cursoNaVersao2();
+
+        mockMvc.perform(get("/api/curso/v1/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.nome").value("Curso Test 1"));
+    }
+
+    @Test
+    public void findByIdNaoModificadoRetorna304SemCorpo() throws Exception {
+        cursoNaVersao2();
+
+        mockMvc.perform(get("/api/curso/v1/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(content().string(""));
+        verify(service, never()).etag(1L);
+    }
+
+    @Test
+    public void listaUsaETagFracoAteAProximaAlteracao() throws Exception {
+        when(service.findAll(any())).thenAnswer(invocation -> PagedModel.empty());
+
+        String etag = mockMvc.perform(get("/api/curso/v1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/curso/v1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        alteracoes.registrar(Curso.class);
+
+        mockMvc.perform(get("/api/curso/v1").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(service, times(2)).findAll(any());
+    }
+
+    @Test
+    public void listaComReplicaMudaOETagDeNovoAoFimDaJanela() throws Exception {
+        ReflectionTestUtils.setField(alteracoes, "leituraConsistente", new LeituraConsistente(Duration.ofMillis(200)));
+
+        alteracoes.registrar(Curso.class);
+        String duranteAJanela = alteracoes.etagFraco(Curso.class);
+        Thread.sleep(250);
+        String depoisDaJanela = alteracoes.etagFraco(Curso.class);
+
+        assertNotEquals(duranteAJanela, depoisDaJanela);
+        assertEquals(depoisDaJanela, alteracoes.etagFraco(Curso.class));
+    }
+
+    @Test
+    public void updateComIfMatchDesatualizadoRetorna412() throws Exception {
+        when(service.update(any(), eq("\"1\""))).thenThrow(new PreconditionFailedException("Curso foi alterado por outra requisição: ID 1"));
+
+        mockMvc.perform(put("/api/curso/v1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.IF_MATCH, "\"1\"")
+                        .content("{\"id\":1,\"nome\":\"Curso\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+}
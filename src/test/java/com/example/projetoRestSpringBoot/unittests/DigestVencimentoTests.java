@@ -0,0 +1,111 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import com.example.projetoRestSpringBoot.config.DigestConfig;
+import com.example.projetoRestSpringBoot.dto.request.EmailRequestDTO;
+import com.example.projetoRestSpringBoot.service.DigestVencimentoService;
+import com.example.projetoRestSpringBoot.service.EmailService;
+import com.example.projetoRestSpringBoot.service.digest.DigestTemplate;
+import com.example.projetoRestSpringBoot.service.digest.DigestVencimento;
+import com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class DigestVencimentoTests {
+
+    private static final LocalDate VENCIMENTO = LocalDate.of(2024, 6, 1);
+
+    private DigestVencimentoService service;
+    private EmailService emailService;
+    private DigestConfig config;
+
+    @BeforeEach
+    public void setUp() {
+        service = new DigestVencimentoService();
+        emailService = mock(EmailService.class);
+        config = new DigestConfig();
+        ReflectionTestUtils.setField(service, "emailService", emailService);
+        ReflectionTestUtils.setField(service, "config", config);
+    }
+
+    @Test
+    public void agrupaPorFuncionarioEDepartamentoTest() {
+        DigestVencimento digest = new DigestVencimento("Treinamentos");
+        digest.registrar("Vencido", List.of(
+                transicao("NR-10", "Ana", "Ana@Empresa.com", "TI"),
+                transicao("NR-35", "Bruno", "bruno@empresa.com", "RH")));
+        digest.registrar("Vencimento próximo", List.of(
+                transicao("NR-33", "Ana", "ana@empresa.com", "TI"),
+                transicao("NR-12", "Carla", null, "TI")));
+
+        assertEquals(4, digest.getTotal());
+        assertEquals(2, digest.porFuncionario().get("ana@empresa.com").size());
+        assertEquals(1, digest.porFuncionario().get("bruno@empresa.com").size());
+        assertEquals(2, digest.porFuncionario().size());
+        assertEquals(3, digest.porDepartamento().get("TI").size());
+    }
+
+    @Test
+    public void templateCompiladoEscapaValoresTest() {
+        DigestTemplate template = DigestTemplate.compilar("<p>{{nome}}</p>{{ corpoHtml }}<i>{{ausente}}</i>");
+
+        String html = template.render(Map.of("nome", "<Ana & Bruno>", "corpoHtml", "<b>ok</b>"));
+
+        assertEquals("<p>&lt;Ana &amp; Bruno&gt;</p><b>ok</b><i></i>", html);
+        assertThrows(IllegalArgumentException.class, () -> DigestTemplate.compilar("<p>{{nome</p>"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void enfileiraTodosOsResumosEmUmLoteTest() {
+        config.setDepartamentos(Map.of("TI", "gestor.ti@empresa.com"));
+        DigestVencimento digest = new DigestVencimento("Treinamentos");
+        digest.registrar("Vencido", List.of(
+                transicao("NR-10", "Ana", "ana@empresa.com", "TI"),
+                transicao("NR-35", "Bruno", "bruno@empresa.com", "RH")));
+
+        assertEquals(3, service.enviar(digest, "Curso"));
+
+        ArgumentCaptor<List<EmailRequestDTO>> lote = ArgumentCaptor.forClass(List.class);
+        verify(emailService, times(1)).enfileirarLote(lote.capture());
+        List<EmailRequestDTO> emails = lote.getValue();
+        assertEquals(List.of("ana@empresa.com", "bruno@empresa.com", "gestor.ti@empresa.com"),
+                emails.stream().map(EmailRequestDTO::getTo).toList());
+        EmailRequestDTO departamento = emails.get(2);
+        assertTrue(departamento.getBody().contains("NR-10"));
+        assertTrue(departamento.getBody().contains("01/06/2024"));
+        assertTrue(departamento.getBody().contains("responsável por TI"));
+        // RH não tem responsável configurado
+        assertTrue(emails.stream().noneMatch(e -> e.getBody().contains("responsável por RH")));
+    }
+
+    @Test
+    public void digestVazioOuDesabilitadoNaoEnviaTest() {
+        assertEquals(0, service.enviar(new DigestVencimento("Credenciais"), "Credencial"));
+
+        DigestVencimento digest = new DigestVencimento("Credenciais");
+        digest.registrar("Vencida", List.of(transicao("CNH", "Ana", "ana@empresa.com", "TI")));
+        config.setHabilitado(false);
+        assertEquals(0, service.enviar(digest, "Credencial"));
+
+        verify(emailService, never()).enfileirarLote(any());
+    }
+
+    private static TransicaoVencimento transicao(String item, String nome, String email, String departamento) {
+        return new TransicaoVencimento(item, VENCIMENTO, nome, email, departamento);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.contract.StreamingFileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.impl.CsvExporter;
+import com.example.projetoRestSpringBoot.file.exporter.metrics.ExportacaoMetricas;
+import com.example.projetoRestSpringBoot.file.exporter.metrics.FileExporterMedido;
+import com.example.projetoRestSpringBoot.file.exporter.metrics.StreamingFileExporterMedido;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCurso;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExportacaoMetricasTests {
+
+    private SimpleMeterRegistry registry;
+    private List<CursoDTO> cursos;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        cursos = new MockCurso().mockDTOList();
+    }
+
+    @Test
+    public void exportacaoEmArquivoRegistraLinhasEBytes() throws Exception {
+        FileExporter exporter = new FileExporterMedido(new CsvExporter(), new ExportacaoMetricas(registry, "csv"));
+
+        Resource resource = exporter.exportCursos(cursos);
+
+        assertEquals(cursos.size(), registry.get("exportacao.linhas")
+                .tags("formato", "csv", "tipo", "cursos", "modo", "arquivo", "resultado", "sucesso").counter().count());
+        DistributionSummary bytes = registry.get("exportacao.bytes").tags("modo", "arquivo").summary();
+        assertEquals(resource.contentLength(), (long) bytes.totalAmount());
+        assertEquals(1, registry.get("exportacao.duracao").tags("tipo", "cursos").timer().count());
+    }
+
+    @Test
+    public void exportacaoEmStreamingContaLinhasEBytesEscritos() throws Exception {
+        StreamingFileExporter exporter = new StreamingFileExporterMedido(new CsvExporter(), new ExportacaoMetricas(registry, "csv"));
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        exporter.exportCursos(cursos.stream(), saida);
+
+        assertEquals(cursos.size(), registry.get("exportacao.linhas")
+                .tags("modo", "streaming", "resultado", "sucesso").counter().count());
+        assertEquals(saida.size(), (long) registry.get("exportacao.bytes").tags("modo", "streaming").summary().totalAmount());
+    }
+
+    @Test
+    public void falhaNaExportacaoRegistraErro() throws Exception {
+        FileExporter delegate = mock(FileExporter.class);
+        when(delegate.exportCursos(any())).thenThrow(new IllegalStateException("falhou"));
+        FileExporter exporter = new FileExporterMedido(delegate, new ExportacaoMetricas(registry, "xlsx"));
+
+        assertThrows(IllegalStateException.class, () -> exporter.exportCursos(cursos));
+
+        assertEquals(0, registry.get("exportacao.linhas").tags("resultado", "erro").counter().count());
+        assertEquals(1, registry.get("exportacao.duracao").tags("formato", "xlsx", "resultado", "erro").timer().count());
+        assertEquals(0, registry.find("exportacao.bytes").summaries().size());
+    }
+}
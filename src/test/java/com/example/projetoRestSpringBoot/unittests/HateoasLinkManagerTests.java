@@ -0,0 +1,98 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.projetoRestSpringBoot.benchmark.MethodOnLinks;
+import com.example.projetoRestSpringBoot.dto.CredencialDTO;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.FuncionarioDTO;
+import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
+import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCredencial;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCurso;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockTreinamento;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class HateoasLinkManagerTests {
+
+    private final ObjectMapper jackson = new ObjectMapper();
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void linksIguaisAosDoMethodOnSemRequisicao() throws Exception {
+        compararTodos();
+    }
+
+    @Test
+    public void linksIguaisAosDoMethodOnParaCadaUriBase() throws Exception {
+        // A mesma rota precisa de um template por host/porta/context path
+        requisicao("http", "localhost", 8080, "");
+        compararTodos();
+        requisicao("https", "api.exemplo.com", 443, "");
+        compararTodos();
+        requisicao("http", "interno", 9090, "/app");
+        compararTodos();
+        requisicao("http", "localhost", 8080, "");
+        compararTodos();
+    }
+
+    @Test
+    public void idNoHrefSubstituiOTemplate() {
+        requisicao("http", "localhost", 8080, "");
+        CursoDTO dto = new MockCurso().mockDTO(1);
+        dto.setId(Long.MAX_VALUE - 1);
+        HateoasLinkManager.addCursoDetailLinks(dto);
+
+        assertTrue(dto.getRequiredLink("self").getHref()
+                .endsWith("/api/curso/v1/" + (Long.MAX_VALUE - 1)), dto.getRequiredLink("self").getHref());
+    }
+
+    private void compararTodos() throws Exception {
+        comparar(new MockCurso()::mockDTO, HateoasLinkManager::addCursoDetailLinks, MethodOnLinks::addCursoDetailLinks);
+        comparar(new MockFuncionario()::mockDTO, HateoasLinkManager::addFuncionarioDetailLinks,
+                MethodOnLinks::addFuncionarioDetailLinks);
+        comparar(new MockTreinamento()::mockDTO, HateoasLinkManager::addTreinamentoDetailLinks,
+                MethodOnLinks::addTreinamentoDetailLinks);
+        comparar(new MockCredencial()::mockDTO, HateoasLinkManager::addCredencialDetailLinks,
+                MethodOnLinks::addCredencialDetailLinks);
+    }
+
+    private <T extends RepresentationModel<?>> void comparar(IntFunction<T> fabrica, Consumer<T> cache,
+                                                            Consumer<T> methodOn) throws Exception {
+        for (int i = 1; i <= 25; i++) {
+            T esperado = fabrica.apply(i);
+            T atual = fabrica.apply(i);
+            methodOn.accept(esperado);
+            cache.accept(atual);
+
+            // Link.equals também compara as affordances do methodOn, que não aparecem na resposta
+            assertEquals(esperado.getLinks().toString(), atual.getLinks().toString());
+            assertEquals(jackson.writeValueAsString(esperado.getLinks()), jackson.writeValueAsString(atual.getLinks()));
+        }
+    }
+
+    private static void requisicao(String scheme, String host, int porta, String contextPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setScheme(scheme);
+        request.setServerName(host);
+        request.setServerPort(porta);
+        request.setContextPath(contextPath);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
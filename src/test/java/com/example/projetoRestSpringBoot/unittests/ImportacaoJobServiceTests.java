@@ -0,0 +1,160 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.projetoRestSpringBoot.config.FileStorageConfig;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoResultadoDTO;
+import com.example.projetoRestSpringBoot.enums.ImportacaoStatus;
+import com.example.projetoRestSpringBoot.enums.ImportacaoTipo;
+import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.exception.ServiceUnavailableException;
+import com.example.projetoRestSpringBoot.service.ImportacaoJobService;
+
+public class ImportacaoJobServiceTests {
+
+    @TempDir
+    Path uploadDir;
+
+    private ImportacaoJobService service;
+    private FileStorageConfig config;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        service = new ImportacaoJobService();
+        config = new FileStorageConfig();
+        config.setUploadDir(uploadDir.toString());
+        config.setImportThreads(1);
+        config.setImportQueueCapacity(1);
+        ReflectionTestUtils.setField(service, "fileStorageConfig", config);
+        registry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        service.iniciarExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.encerrarExecutor();
+    }
+
+    @Test
+    public void processaArquivoEmSegundoPlanoEReportaProgressoTest() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        ImportacaoJobDTO job = service.iniciar(ImportacaoTipo.FUNCIONARIO, arquivo("funcionarios.csv"),
+                (nome, inputStream, progresso) -> {
+                    String conteudo = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+                    assertEquals("nome\nAna\n", conteudo);
+                    progresso.atualizar(500, 498, 2);
+                    liberar.await(5, TimeUnit.SECONDS);
+                    ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+                    resultado.setArquivo(nome);
+                    resultado.setTotalLinhas(1000);
+                    resultado.setImportados(997);
+                    resultado.setRejeitados(3);
+                    progresso.atualizar(1000, 997, 3);
+                    return resultado;
+                });
+
+        // A resposta volta antes do processamento terminar
+        assertNotNull(job.getId());
+        assertEquals("funcionarios.csv", job.getArquivo());
+
+        ImportacaoJobDTO emAndamento = aguardar(ImportacaoTipo.FUNCIONARIO, job.getId(), dto -> dto.getLinhasProcessadas() == 500);
+        assertEquals(ImportacaoStatus.PROCESSANDO, emAndamento.getStatus());
+        assertEquals(2, emAndamento.getRejeitados());
+
+        liberar.countDown();
+        ImportacaoJobDTO concluido = aguardar(ImportacaoTipo.FUNCIONARIO, job.getId(), dto -> dto.getStatus() == ImportacaoStatus.CONCLUIDA);
+        assertEquals(1000, concluido.getLinhasProcessadas());
+        assertEquals(997, concluido.getResultado().getImportados());
+        assertNotNull(concluido.getFinalizadoEm());
+        assertTrue(concluido.getLinhasPorSegundo() > 0);
+        assertEmpty(uploadDir);
+
+        assertEquals(997, registry.get("importacao.linhas").tags("tipo", "funcionario", "resultado", "importada").counter().count());
+        assertEquals(3, registry.get("importacao.linhas").tags("tipo", "funcionario", "resultado", "rejeitada").counter().count());
+        assertEquals(1, registry.get("importacao.duracao").tags("resultado", "sucesso").timer().count());
+    }
+
+    @Test
+    public void falhaNoProcessamentoFicaRegistradaNoJobTest() throws Exception {
+        ImportacaoJobDTO job = service.iniciar(ImportacaoTipo.CURSO, arquivo("cursos.xlsx"),
+                (nome, inputStream, progresso) -> {
+                    throw new IOException("Planilha corrompida");
+                });
+
+        ImportacaoJobDTO falhou = aguardar(ImportacaoTipo.CURSO, job.getId(), dto -> dto.getStatus() == ImportacaoStatus.FALHOU);
+        assertEquals("Planilha corrompida", falhou.getMensagem());
+        assertEmpty(uploadDir);
+        assertEquals(1, registry.get("importacao.falhas").tags("tipo", "curso").counter().count());
+    }
+
+    @Test
+    public void recusaQuandoAFilaEstaCheiaTest() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        ImportacaoJobService.ImportacaoTask bloqueada = (nome, inputStream, progresso) -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return new ImportacaoResultadoDTO();
+        };
+
+        // Uma thread ocupada e uma vaga na fila
+        service.iniciar(ImportacaoTipo.CURSO, arquivo("a.csv"), bloqueada);
+        service.iniciar(ImportacaoTipo.CURSO, arquivo("b.csv"), bloqueada);
+
+        assertThrows(ServiceUnavailableException.class,
+                () -> service.iniciar(ImportacaoTipo.CURSO, arquivo("c.csv"), bloqueada));
+        liberar.countDown();
+    }
+
+    @Test
+    public void consultaComTipoDiferenteNaoEncontraOJobTest() {
+        ImportacaoJobDTO job = service.iniciar(ImportacaoTipo.CURSO, arquivo("cursos.csv"),
+                (nome, inputStream, progresso) -> new ImportacaoResultadoDTO());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.consultar(ImportacaoTipo.FUNCIONARIO, job.getId()));
+        assertThrows(ResourceNotFoundException.class, () -> service.consultar(ImportacaoTipo.CURSO, "inexistente"));
+    }
+
+    private MockMultipartFile arquivo(String nome) {
+        return new MockMultipartFile("file", nome, "text/csv", "nome\nAna\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImportacaoJobDTO aguardar(ImportacaoTipo tipo, String id, Predicate<ImportacaoJobDTO> condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        ImportacaoJobDTO dto = service.consultar(tipo, id);
+        while (!condicao.test(dto) && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+            dto = service.consultar(tipo, id);
+        }
+        assertTrue(condicao.test(dto), "Condição não atingida, status atual: " + dto.getStatus());
+        return dto;
+    }
+
+    private static void assertEmpty(Path dir) throws IOException {
+        try (var arquivos = Files.list(dir)) {
+            assertFalse(arquivos.findAny().isPresent(), "Arquivo de importação não foi apagado");
+        }
+    }
+}
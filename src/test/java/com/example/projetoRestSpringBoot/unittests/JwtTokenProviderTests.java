@@ -0,0 +1,95 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.projetoRestSpringBoot.exception.InvalidJwtAuthenticationException;
+import com.example.projetoRestSpringBoot.security.jwt.JwtTokenProvider;
+
+public class JwtTokenProviderTests {
+
+    private static final String SECRET = "53cr3t7";
+
+    private JwtTokenProvider provider;
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    public void setUp() {
+        provider = new JwtTokenProvider();
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("ana"))
+                .thenReturn(User.withUsername("ana").password("x").roles("ADMIN").build());
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+    }
+
+    @Test
+    public void autenticacaoDoMesmoTokenConsultaUsuarioUmaVezTest() {
+        String token = token("ana", 60_000);
+
+        Authentication primeira = provider.getAuthentication(token);
+        Authentication segunda = provider.getAuthentication(token);
+
+        assertSame(primeira, segunda);
+        assertEquals("ana", primeira.getName());
+        verify(userDetailsService, times(1)).loadUserByUsername("ana");
+    }
+
+    @Test
+    public void tokensDiferentesNaoCompartilhamEntradaTest() {
+        provider.getAuthentication(token("ana", 60_000));
+        provider.getAuthentication(token("ana", 120_000));
+
+        verify(userDetailsService, times(2)).loadUserByUsername("ana");
+    }
+
+    @Test
+    public void tokenComAssinaturaInvalidaNaoEAceitoTest() {
+        String token = JWT.create()
+                .withSubject("ana")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256("outra-chave"));
+
+        assertThrows(InvalidJwtAuthenticationException.class, () -> provider.getAuthentication(token));
+    }
+
+    @Test
+    public void entradaDoCacheNaoSobreviveAoExpDoTokenTest() throws InterruptedException {
+        String token = token("ana", 1_000);
+        provider.getAuthentication(token);
+
+        Thread.sleep(2_100);
+
+        assertThrows(InvalidJwtAuthenticationException.class, () -> provider.getAuthentication(token));
+    }
+
+    private static String token(String username, long validadeMillis) {
+        // Mesma derivação de chave do JwtTokenProvider.init
+        String chave = Base64.getEncoder().encodeToString(SECRET.getBytes());
+        return JWT.create()
+                .withClaim("roles", List.of("ADMIN"))
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + validadeMillis))
+                .withSubject(username)
+                .sign(Algorithm.HMAC256(chave.getBytes()));
+    }
+}
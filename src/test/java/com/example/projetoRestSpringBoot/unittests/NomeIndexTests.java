@@ -0,0 +1,137 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.projetoRestSpringBoot.service.search.NomeIndex;
+
+public class NomeIndexTests {
+
+    private NomeIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new NomeIndex();
+        index.indexar(1L, "Ana Souza", "MAT001");
+        index.indexar(2L, "João Conceição", "MAT002");
+        index.indexar(3L, "Mariana Joãozinho", "MAT003");
+        index.indexar(4L, "Joana Lima", "MAT004");
+    }
+
+    @Test
+    public void buscaIgnoraAcentoEMaiusculas() {
+        assertEquals(List.of(2L, 3L), index.buscar("JOAO"));
+        assertEquals(List.of(2L), index.buscar("conceicao"));
+    }
+
+    @Test
+    public void prefixoDoNomeVemAntesDePalavraEDeTrechoNoMeio() {
+        // "Ana Souza" começa com o termo, "Mariana" só contém, "Joana" também só contém
+        assertEquals(List.of(1L, 4L, 3L), index.buscar("ana"));
+        assertEquals(List.of(3L), index.buscar("zinho"));
+    }
+
+    @Test
+    public void buscaPelaMatriculaETermosCurtos() {
+        assertEquals(List.of(3L), index.buscar("mat003"));
+        assertEquals(List.of(4L, 2L, 3L), index.buscar("jo"));
+        assertTrue(index.buscar("xyz").isEmpty());
+        assertTrue(index.buscar("  ").isEmpty());
+    }
+
+    @Test
+    public void atualizacaoERemocaoRefletemNaBusca() {
+        index.indexar(2L, "Pedro Alves", "MAT002");
+        assertEquals(List.of(3L), index.buscar("joao"));
+        assertEquals(List.of(2L), index.buscar("pedro"));
+
+        index.remover(2L);
+        assertTrue(index.buscar("pedro").isEmpty());
+        assertEquals(3, index.tamanho());
+    }
+
+    @Test
+    public void alteracaoDuranteRecargaNaoSePerde() {
+        NomeIndex.Carga carga = index.iniciarCarga();
+        // A carga leu o banco antes do novo cadastro e da remoção
+        index.indexar(5L, "Bruno Verly", "MAT005");
+        index.remover(1L);
+        index.substituir(carga, Map.of(
+                1L, new String[]{"Ana Souza", "MAT001"},
+                2L, new String[]{"João Conceição", "MAT002"}));
+
+        assertEquals(List.of(5L), index.buscar("bruno"));
+        assertTrue(index.buscar("ana souza").isEmpty());
+        assertEquals(List.of(2L), index.buscar("joao"));
+        assertEquals(2, index.tamanho());
+    }
+
+    @Test
+    public void cargaSubstituidaNoMeioNaoInstalaIndiceAntigo() {
+        NomeIndex.Carga primeira = index.iniciarCarga();
+        NomeIndex.Carga segunda = index.iniciarCarga();
+        index.indexar(5L, "Bruno Verly", "MAT005");
+
+        assertFalse(index.substituir(primeira, Map.of(9L, new String[]{"Registro Antigo", "MAT009"})));
+        assertTrue(index.buscar("registro").isEmpty());
+
+        assertTrue(index.substituir(segunda, Map.of(1L, new String[]{"Ana Souza", "MAT001"})));
+        assertEquals(List.of(5L), index.buscar("bruno"));
+        assertEquals(2, index.tamanho());
+    }
+
+    @Test
+    public void recargasSimultaneasRodamEmSequencia() throws Exception {
+        CountDownLatch lendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger emAndamento = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> primeira = executor.submit(() -> index.recarregar(() -> {
+                maximo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+                lendo.countDown();
+                aguardar(liberar);
+                emAndamento.decrementAndGet();
+                return Map.of(1L, new String[]{"Ana Souza", "MAT001"});
+            }));
+            lendo.await(5, TimeUnit.SECONDS);
+            Future<?> segunda = executor.submit(() -> index.recarregar(() -> {
+                maximo.accumulateAndGet(emAndamento.incrementAndGet(), Math::max);
+                emAndamento.decrementAndGet();
+                return Map.of(2L, new String[]{"Pedro Alves", "MAT002"});
+            }));
+            Thread.sleep(100);
+            liberar.countDown();
+            primeira.get(5, TimeUnit.SECONDS);
+            segunda.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maximo.get());
+        assertEquals(List.of(2L), index.buscar("pedro"));
+        assertTrue(index.buscar("ana").isEmpty());
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
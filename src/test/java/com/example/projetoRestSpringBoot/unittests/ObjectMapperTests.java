@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObject;
 import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseListObjects;
+import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseObjectWithDozer;
+import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -191,4 +193,23 @@ public class ObjectMapperTests {
         Treinamento outputSeven = outputList.get(7);
         assertEquals(7L, outputSeven.getId());
     }
+
+    // MAPEADORES MANUAIS X DOZER
+    @Test
+    public void mapeadoresManuaisEquivalentesAoDozerTest() {
+        assertMesmoResultado(mockFuncionario.mockEntity(3), FuncionarioDTO.class);
+        assertMesmoResultado(mockFuncionario.mockDTO(3), Funcionario.class);
+        assertMesmoResultado(mockCurso.mockEntity(3), CursoDTO.class);
+        assertMesmoResultado(mockCurso.mockDTO(3), Curso.class);
+        assertMesmoResultado(mockTreinamento.mockEntity(3), TreinamentoDTO.class);
+        assertMesmoResultado(mockTreinamento.mockDTO(3), Treinamento.class);
+        assertMesmoResultado(mockCredencial.mockEntity(3), CredencialDTO.class);
+        assertMesmoResultado(mockCredencial.mockDTO(3), Credencial.class);
+    }
+
+    private <O, D> void assertMesmoResultado(O origin, Class<D> destination) {
+        D manual = parseObject(origin, destination);
+        D dozer = parseObjectWithDozer(origin, destination);
+        assertThat(manual).usingRecursiveComparison().isEqualTo(dozer);
+    }
 }
@@ -0,0 +1,86 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sf.jasperreports.engine.JasperReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.projetoRestSpringBoot.config.ReportConfig;
+import com.example.projetoRestSpringBoot.file.exporter.report.ReportTemplateRegistry;
+
+public class ReportTemplateRegistryTests {
+
+    private ReportTemplateRegistry registry;
+    private ReportConfig config;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new ReportTemplateRegistry();
+        config = new ReportConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(registry, "config", config);
+        ReflectionTestUtils.setField(registry, "meterRegistry", meterRegistry);
+    }
+
+    @Test
+    public void carregaTemplateCompiladoUmaVezTest() throws Exception {
+        registry.carregarTemplates();
+
+        JasperReport primeiro = registry.getReport(ReportTemplateRegistry.TREINAMENTO_REPORT);
+        JasperReport segundo = registry.getReport(ReportTemplateRegistry.TREINAMENTO_REPORT);
+
+        assertNotNull(primeiro);
+        assertSame(primeiro, segundo);
+        assertEquals(2, acessos("hit"));
+        assertEquals(0, acessos("miss"));
+        assertEquals(0, meterRegistry.get("relatorio.template.recargas").functionCounter().count());
+    }
+
+    @Test
+    public void recompilaJrxmlAlteradoComHotReloadTest(@TempDir Path dir) throws Exception {
+        Path source = dir.resolve(ReportTemplateRegistry.TREINAMENTO_REPORT + ".jrxml");
+        try (InputStream in = getClass().getResourceAsStream("/templates/treinamento_report.jrxml")) {
+            Files.copy(in, source, StandardCopyOption.REPLACE_EXISTING);
+        }
+        config.setHotReload(true);
+        config.setSourceDir(dir.toString());
+        registry.carregarTemplates();
+
+        JasperReport original = registry.getReport(ReportTemplateRegistry.TREINAMENTO_REPORT);
+        source.toFile().setLastModified(source.toFile().lastModified() + 5000);
+        JasperReport recarregado = registry.getReport(ReportTemplateRegistry.TREINAMENTO_REPORT);
+
+        assertNotSame(original, recarregado);
+        assertSame(recarregado, registry.getReport(ReportTemplateRegistry.TREINAMENTO_REPORT));
+        assertEquals(1, acessos("miss"));
+        assertEquals(1, meterRegistry.get("relatorio.template.recargas").functionCounter().count());
+    }
+
+    @Test
+    public void registraTempoDePreenchimentoTest() throws Exception {
+        registry.carregarTemplates();
+
+        registry.fill(ReportTemplateRegistry.TREINAMENTO_REPORT, new HashMap<>(), null);
+
+        assertEquals(1, meterRegistry.get("relatorio.preenchimento")
+                .tags("template", ReportTemplateRegistry.TREINAMENTO_REPORT, "resultado", "sucesso").timer().count());
+    }
+
+    private double acessos(String resultado) {
+        return meterRegistry.get("relatorio.template.acessos").tag("resultado", resultado).functionCounter().count();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import com.example.projetoRestSpringBoot.config.ServerTimingConfig;
+import com.example.projetoRestSpringBoot.config.SqlProfilerConfig;
+import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.model.Curso;
+import com.example.projetoRestSpringBoot.profiling.Etapa;
+import com.example.projetoRestSpringBoot.profiling.ServerTimingFilter;
+import com.example.projetoRestSpringBoot.profiling.SqlProfilerFilter;
+import com.example.projetoRestSpringBoot.profiling.SqlProfilerRegistro;
+import com.example.projetoRestSpringBoot.profiling.SqlStatementInspector;
+import com.example.projetoRestSpringBoot.profiling.TempoEtapas;
+import com.example.projetoRestSpringBoot.profiling.TempoSerializacaoAdvice;
+import com.example.projetoRestSpringBoot.service.linkhateoas.HateoasLinkManager;
+import com.example.projetoRestSpringBoot.unittests.mocks.MockCurso;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static com.example.projetoRestSpringBoot.mapper.ObjectMapper.parseListObjects;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ServerTimingFilterTests {
+
+    private SqlProfilerFilter sqlProfilerFilter;
+    private ServerTimingFilter serverTimingFilter;
+    private ServerTimingConfig config;
+
+    @BeforeEach
+    public void setUp() {
+        sqlProfilerFilter = new SqlProfilerFilter();
+        ReflectionTestUtils.setField(sqlProfilerFilter, "config", new SqlProfilerConfig());
+        ReflectionTestUtils.setField(sqlProfilerFilter, "registro", new SqlProfilerRegistro());
+
+        serverTimingFilter = new ServerTimingFilter();
+        config = new ServerTimingConfig();
+        config.setHabilitado(true);
+        ReflectionTestUtils.setField(serverTimingFilter, "config", config);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void cabecalhoTrazAsEtapasExecutadas() throws Exception {
+        MockHttpServletResponse response = executar();
+
+        String serverTiming = response.getHeader("Server-Timing");
+        assertTrue(serverTiming.startsWith("sql;dur="), serverTiming);
+        assertTrue(serverTiming.contains(";desc=\"2 statements\""), serverTiming);
+        assertTrue(serverTiming.contains("mapeamento;dur="), serverTiming);
+        assertTrue(serverTiming.contains("links;dur="), serverTiming);
+        assertTrue(serverTiming.contains("serializacao;dur="), serverTiming);
+        assertTrue(serverTiming.matches(".*, total;dur=\\d+\\.\\d$"), serverTiming);
+        // Nenhuma página montada nesta requisição
+        assertTrue(!serverTiming.contains("assembler"), serverTiming);
+    }
+
+    @Test
+    public void listaMapeadaContaUmaVezSo() {
+        TempoEtapas etapas = TempoEtapas.iniciar();
+        try {
+            parseListObjects(new MockCurso().mockEntityList(), CursoDTO.class);
+        } finally {
+            TempoEtapas.encerrar();
+        }
+
+        assertEquals(1, etapas.getExecucoes(Etapa.MAPEAMENTO));
+        assertTrue(etapas.getNanos(Etapa.MAPEAMENTO) > 0);
+    }
+
+    @Test
+    public void semCabecalhoQuandoDesabilitado() throws Exception {
+        config.setHabilitado(false);
+
+        assertNull(executar().getHeader("Server-Timing"));
+    }
+
+    @Test
+    public void foraDaApiNaoMede() throws Exception {
+        assertNull(executar("/actuator/prometheus").getHeader("Server-Timing"));
+    }
+
+    private MockHttpServletResponse executar() throws Exception {
+        return executar("/api/curso/v1/1");
+    }
+
+    private MockHttpServletResponse executar(String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        SqlStatementInspector inspector = new SqlStatementInspector();
+        FilterChain aplicacao = (req, res) -> {
+            inspector.inspect("select c1_0.id from curso c1_0 where c1_0.id=?");
+            inspector.inspect("select count(*) from curso c1_0");
+            List<Curso> cursos = new MockCurso().mockEntityList();
+            List<CursoDTO> dtos = parseListObjects(cursos, CursoDTO.class);
+            dtos.forEach(HateoasLinkManager::addCursoDetailLinks);
+            new TempoSerializacaoAdvice().beforeBodyWrite(dtos, null, null, null, null, null);
+            res.getWriter().write("[]");
+            res.flushBuffer();
+        };
+        sqlProfilerFilter.doFilter(request, response,
+                (req, res) -> serverTimingFilter.doFilter(req, res, aplicacao));
+        return response;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.projetoRestSpringBoot.unittests;
+
+import com.example.projetoRestSpringBoot.config.SqlProfilerConfig;
+import com.example.projetoRestSpringBoot.dto.PerfilSqlEndpointDTO;
+import com.example.projetoRestSpringBoot.profiling.SqlProfilerFilter;
+import com.example.projetoRestSpringBoot.profiling.SqlProfilerRegistro;
+import com.example.projetoRestSpringBoot.profiling.SqlStatementInspector;
+import com.example.projetoRestSpringBoot.profiling.SqlTempoListener;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlProfilerFilterTests {
+
+    private static final String SELECT_FUNCIONARIO = "select f1_0.id,f1_0.nome from funcionario f1_0 where f1_0.id=?";
+
+    private SqlProfilerFilter filter;
+    private SqlProfilerConfig config;
+    private SqlProfilerRegistro registro;
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+    private final SqlTempoListener listener = new SqlTempoListener();
+
+    @BeforeEach
+    public void setUp() {
+        filter = new SqlProfilerFilter();
+        config = new SqlProfilerConfig();
+        registro = new SqlProfilerRegistro();
+        ReflectionTestUtils.setField(filter, "config", config);
+        ReflectionTestUtils.setField(filter, "registro", registro);
+    }
+
+    @Test
+    public void agrupaPorRotaEApontaSelectRepetido() throws Exception {
+        executar("/api/treinamento/v1/1", 1);
+        executar("/api/treinamento/v1/2", 7);
+
+        List<PerfilSqlEndpointDTO> piores = registro.piores(10);
+        assertEquals(1, piores.size());
+        PerfilSqlEndpointDTO endpoint = piores.get(0);
+        assertEquals("GET /api/treinamento/v1/{id}", endpoint.getEndpoint());
+        assertEquals(2, endpoint.getRequisicoes());
+        assertEquals(5.0, endpoint.getStatementsMedia());
+        assertEquals(8, endpoint.getStatementsMax());
+        assertEquals(1, endpoint.getRequisicoesComNMaisUm());
+        assertEquals(7, endpoint.getSuspeitasNMaisUm().get(SELECT_FUNCIONARIO));
+    }
+
+    // Um SELECT de página mais "repeticoes" vezes o mesmo SELECT por id
+    private MockHttpServletResponse executar(String uri, int repeticoes) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String rota = uri.matches(".*/\\d+$") ? "/api/treinamento/v1/{id}" : uri;
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, rota);
+            statement("select t1_0.id from treinamento t1_0");
+            for (int i = 0; i < repeticoes; i++) {
+                statement(SELECT_FUNCIONARIO);
+            }
+            res.getWriter().write("{}");
+            res.flushBuffer();
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private void statement(String sql) {
+        inspector.inspect(sql);
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+    }
+}
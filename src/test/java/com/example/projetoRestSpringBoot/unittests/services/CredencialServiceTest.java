@@ -7,6 +7,8 @@ import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.repository.CredencialRepository;
 import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
 import com.example.projetoRestSpringBoot.service.CredencialService;
+import com.example.projetoRestSpringBoot.service.DigestVencimentoService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
 import com.example.projetoRestSpringBoot.unittests.mocks.MockCredencial;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,6 +36,7 @@ import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -60,6 +63,12 @@ class CredencialServiceTest {
     @Mock
     FileExporterFactory exporterFactory;
 
+    @Mock
+    AlteracoesTabela alteracoes;
+
+    @Mock
+    DigestVencimentoService digestService;
+
     @BeforeEach
     void setUp() {
         mockCredencial = new MockCredencial();
@@ -385,23 +394,20 @@ class CredencialServiceTest {
 
     @Test
     void atualizarStatusCredenciais() {
-        Credencial credencialValida = mockCredencial.mockEntity(1);
-        credencialValida.setDataVencimento(LocalDate.now().plusMonths(6));
-
-        Credencial credencialProxima = mockCredencial.mockEntity(2);
-        credencialProxima.setDataVencimento(LocalDate.now().plusDays(30));
-
-        Credencial credencialVencida = mockCredencial.mockEntity(3);
-        credencialVencida.setDataVencimento(LocalDate.now().minusDays(1));
-
-        List<Credencial> credenciais = List.of(credencialValida, credencialProxima, credencialVencida);
-
-        when(repository.findAll()).thenReturn(credenciais);
-
-        assertDoesNotThrow(() -> service.atualizarStatusCredenciais(),
-                "Não deve lançar exceção ao atualizar status de credenciais");
-
-        verify(repository, times(1)).findAll();
-        verify(repository, times(1)).saveAll(credenciais);
+        LocalDate hoje = LocalDate.of(2024, 6, 1);
+        LocalDate limite = hoje.plusDays(90);
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.atualizarStatusVencimentoAntesDe(CredencialStatus.VENCIDA, hoje, 0L, 49_999L)).thenReturn(4);
+        when(repository.atualizarStatusVencimentoEntre(CredencialStatus.VENCIMENTO_PROXIMO, hoje, limite, 0L, 49_999L)).thenReturn(1);
+        when(repository.atualizarStatusVencimentoAPartirDe(CredencialStatus.VALIDA, limite, 0L, 49_999L)).thenReturn(0);
+
+        Map<CredencialStatus, Integer> alterados = service.recalcularStatusCredenciais(hoje);
+
+        assertEquals(4, alterados.get(CredencialStatus.VENCIDA));
+        assertEquals(1, alterados.get(CredencialStatus.VENCIMENTO_PROXIMO));
+        assertEquals(0, alterados.get(CredencialStatus.VALIDA));
+        verify(alteracoes).registrar(Credencial.class);
+        verify(repository, never()).findAll();
+        verify(repository, never()).saveAll(any());
     }
 }
@@ -2,18 +2,31 @@ package com.example.projetoRestSpringBoot.unittests.services;
 
 import com.example.projetoRestSpringBoot.enums.CursoOrigem;
 import com.example.projetoRestSpringBoot.enums.CursoTipoObrigatoriedade;
+import com.example.projetoRestSpringBoot.enums.ImportacaoStatus;
+import com.example.projetoRestSpringBoot.enums.ImportacaoTipo;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
 import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
+import com.example.projetoRestSpringBoot.file.exporter.impl.XlsxExporter;
+import com.example.projetoRestSpringBoot.file.importer.batch.BatchImportExecutor;
+import com.example.projetoRestSpringBoot.file.importer.batch.CursoImportHandler;
 import com.example.projetoRestSpringBoot.file.importer.contract.FileImporter;
 import com.example.projetoRestSpringBoot.file.importer.factory.FileImporterFactory;
 import com.example.projetoRestSpringBoot.model.Curso;
 import com.example.projetoRestSpringBoot.repository.CursoRepository;
 import com.example.projetoRestSpringBoot.service.CursoService;
+import com.example.projetoRestSpringBoot.service.cache.CacheReferencia;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.ImportacaoJobService;
+import com.example.projetoRestSpringBoot.service.search.CursoNomeIndex;
 import com.example.projetoRestSpringBoot.unittests.mocks.MockCurso;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -31,17 +44,26 @@ import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import com.example.projetoRestSpringBoot.dto.CursoDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoJobDTO;
+import com.example.projetoRestSpringBoot.dto.ImportacaoResultadoDTO;
 import com.example.projetoRestSpringBoot.exception.BadRequestException;
+import com.example.projetoRestSpringBoot.exception.PreconditionFailedException;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +77,9 @@ class CursoServiceTest {
     @Mock
     CursoRepository repository;
 
+    @Mock
+    CursoNomeIndex nomeIndex;
+
     @Mock
     PagedResourcesAssembler<CursoDTO> assembler;
 
@@ -64,6 +89,21 @@ class CursoServiceTest {
     @Mock
     FileImporterFactory importerFactory;
 
+    @Mock
+    BatchImportExecutor batchImporter;
+
+    @Mock
+    CursoImportHandler cursoImportHandler;
+
+    @Mock
+    ImportacaoJobService importacaoJobs;
+
+    @Mock
+    AlteracoesTabela alteracoes;
+
+    @Mock
+    CacheReferencia cacheReferencia;
+
     @BeforeEach
     void setUp() {
         mockCurso = new MockCurso();
@@ -110,6 +150,22 @@ class CursoServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> service.findById(999L));
     }
 
+    @Test
+    void findByIdUsaAVersaoDaEntidadeLida() {
+        Curso curso = mockCurso.mockEntity(1);
+        curso.setVersao(3L);
+        when(repository.findById(1L)).thenReturn(Optional.of(curso));
+
+        var modificado = service.findById(1L, "\"2\""::equals);
+        var naoModificado = service.findById(1L, "\"3\""::equals);
+
+        assertEquals("\"3\"", modificado.etag());
+        assertEquals(curso.getNome(), modificado.corpo().getNome());
+        assertEquals("\"3\"", naoModificado.etag());
+        assertNull(naoModificado.corpo());
+        verify(repository, never()).findVersaoById(1L);
+    }
+
     @Test
     void findAll() {
         Pageable pageable = PageRequest.of(0, 12, Sort.by("nome").ascending());
@@ -133,8 +189,8 @@ class CursoServiceTest {
     void findByName() {
         Pageable pageable = PageRequest.of(0, 12, Sort.by("nome").ascending());
         Curso curso = mockCurso.mockEntity(1);
-        Page<Curso> page = new PageImpl<>(List.of(curso), pageable, 1);
-        when(repository.findCursoByName("Java", pageable)).thenReturn(page);
+        when(nomeIndex.buscar("Java")).thenReturn(List.of(1L));
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(curso));
 
         PagedModel<EntityModel<CursoDTO>> pagedModel = mock(PagedModel.class);
         when(assembler.toModel(any(Page.class), any(Link.class))).thenReturn(pagedModel);
@@ -142,6 +198,7 @@ class CursoServiceTest {
         var result = service.findByName("Java", pageable);
 
         assertNotNull(result);
+        verify(repository, never()).findAll(any(Pageable.class));
     }
 
     @Test
@@ -181,6 +238,8 @@ class CursoServiceTest {
         assertNotNull(result);
         assertEquals(1L, result.getId());
         assertFalse(result.getLinks().isEmpty());
+        // O Hibernate já atualiza o cache de segundo nível; invalidar é só na importação por JDBC
+        verify(cacheReferencia, never()).invalidarCursos();
     }
 
     @Test
@@ -199,12 +258,71 @@ class CursoServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> service.update(dto));
     }
 
+    @Test
+    void updateComIfMatchAtual() {
+        Curso curso = mockCurso.mockEntity(1);
+        curso.setVersao(3L);
+        CursoDTO dto = mockCurso.mockDTO(1);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(curso));
+        when(repository.save(any(Curso.class))).thenReturn(curso);
+
+        assertNotNull(service.update(dto, "W/\"1\", \"3\""));
+        verify(repository).save(curso);
+    }
+
+    @Test
+    void updateComIfMatchDesatualizado() {
+        Curso curso = mockCurso.mockEntity(1);
+        curso.setVersao(4L);
+        CursoDTO dto = mockCurso.mockDTO(1);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(curso));
+
+        assertThrows(PreconditionFailedException.class, () -> service.update(dto, "\"3\""));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void updateComIfMatchFracoNaoCorresponde() {
+        Curso curso = mockCurso.mockEntity(1);
+        curso.setVersao(3L);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(curso));
+
+        assertThrows(PreconditionFailedException.class, () -> service.update(mockCurso.mockDTO(1), "W/\"3\""));
+    }
+
+    @Test
+    void updateComIfMatchAlteradoAntesDoSave() {
+        Curso curso = mockCurso.mockEntity(1);
+        curso.setVersao(3L);
+
+        when(repository.findById(1L)).thenReturn(Optional.of(curso));
+        when(repository.save(any(Curso.class))).thenThrow(new ObjectOptimisticLockingFailureException(Curso.class, 1L));
+
+        assertThrows(PreconditionFailedException.class, () -> service.update(mockCurso.mockDTO(1), "*"));
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.update(mockCurso.mockDTO(1)));
+    }
+
+    @Test
+    void etag() {
+        when(repository.findVersaoById(1L)).thenReturn(Optional.of(7L));
+        when(repository.findVersaoById(2L)).thenReturn(Optional.empty());
+
+        assertEquals("\"7\"", service.etag(1L));
+        assertThrows(ResourceNotFoundException.class, () -> service.etag(2L));
+        assertThrows(BadRequestException.class, () -> service.etag(0L));
+        verify(repository, never()).findById(any());
+    }
+
     @Test
     void delete() {
         Curso curso = mockCurso.mockEntity(1);
         when(repository.findById(1L)).thenReturn(Optional.of(curso));
 
         assertDoesNotThrow(() -> service.delete(1L));
+        verify(cacheReferencia, never()).invalidarCursos();
     }
 
     @Test
@@ -214,6 +332,29 @@ class CursoServiceTest {
         assertThrows(ResourceNotFoundException.class, () -> service.delete(999L));
     }
 
+    @Test
+    void exportPageXlsxAlemDaJanelaDeLinhas() throws Exception {
+        List<Curso> cursos = new ArrayList<>();
+        for (int i = 1; i <= 350; i++) {
+            cursos.add(mockCurso.mockEntity(i));
+        }
+        when(repository.findAll()).thenReturn(cursos);
+        when(exporterFactory.getExporter(MediaTypes.APPLICATION_XLSX_VALUE)).thenReturn(new XlsxExporter());
+
+        Resource resource = service.exportPage(MediaTypes.APPLICATION_XLSX_VALUE);
+
+        try (InputStream in = resource.getInputStream(); XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            Sheet sheet = workbook.getSheet("cursos");
+            assertEquals(350, sheet.getLastRowNum(), "Todas as linhas devem ser gravadas, inclusive as já descarregadas para disco");
+            assertEquals("nome", sheet.getRow(0).getCell(1).getStringCellValue());
+            assertEquals(350, (long) sheet.getRow(350).getCell(0).getNumericCellValue());
+            assertEquals("Curso Test 350", sheet.getRow(350).getCell(1).getStringCellValue());
+            assertTrue(sheet.getColumnWidth(2) > sheet.getColumnWidth(0), "Largura deve seguir o conteúdo amostrado");
+            assertEquals(sheet.getRow(0).getCell(0).getCellStyle().getIndex(), sheet.getRow(0).getCell(1).getCellStyle().getIndex(),
+                    "Cabeçalho deve reutilizar o mesmo estilo");
+        }
+    }
+
     @Test
     void exportPage() throws Exception {
         List<Curso> cursos = List.of(mockCurso.mockEntity(1));
@@ -232,16 +373,14 @@ class CursoServiceTest {
 
     @Test
     void importarArquivo() throws Exception {
-        Curso curso = mockCurso.mockEntity(1);
-        when(repository.save(any(Curso.class))).thenReturn(curso);
-
         FileImporter importer = mock(FileImporter.class);
-        CursoDTO dto = new CursoDTO();
-        dto.setId(1L);
-        dto.setNome("Curso Test 1");
-        when(importer.importarCursos(any(InputStream.class))).thenReturn(List.of(dto));
         when(importerFactory.getImporter("cursos.xlsx")).thenReturn(importer);
 
+        ImportacaoJobDTO job = new ImportacaoJobDTO();
+        job.setId("job-1");
+        job.setStatus(ImportacaoStatus.PENDENTE);
+        when(importacaoJobs.iniciar(eq(ImportacaoTipo.CURSO), any(MultipartFile.class), any())).thenReturn(job);
+
         MultipartFile file = new MockMultipartFile(
                 "file",
                 "cursos.xlsx",
@@ -250,9 +389,28 @@ class CursoServiceTest {
         );
 
         var result = assertDoesNotThrow(() -> service.importarArquivo(file));
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
+        assertEquals("job-1", result.getId());
+        assertEquals(ImportacaoStatus.PENDENTE, result.getStatus());
+
+        // A tarefa agendada delega ao pipeline em lotes com o handler de curso
+        ArgumentCaptor<ImportacaoJobService.ImportacaoTask> task = ArgumentCaptor.forClass(ImportacaoJobService.ImportacaoTask.class);
+        verify(importacaoJobs).iniciar(eq(ImportacaoTipo.CURSO), same(file), task.capture());
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+        BatchImportExecutor.Progresso progresso = (linhas, importados, rejeitados) -> { };
+        when(batchImporter.importar(eq("cursos.xlsx"), any(), same(cursoImportHandler), same(progresso))).thenReturn(resultado);
+        assertSame(resultado, task.getValue().executar("cursos.xlsx", InputStream.nullInputStream(), progresso));
+        verify(repository, never()).save(any(Curso.class));
+    }
+
+    @Test
+    void consultarImportacao() {
+        ImportacaoJobDTO job = new ImportacaoJobDTO();
+        job.setId("job-1");
+        job.setStatus(ImportacaoStatus.CONCLUIDA);
+        when(importacaoJobs.consultar(ImportacaoTipo.CURSO, "job-1")).thenReturn(job);
+
+        assertSame(job, service.consultarImportacao("job-1"));
+        assertThrows(BadRequestException.class, () -> service.consultarImportacao(" "));
     }
 
     @Test
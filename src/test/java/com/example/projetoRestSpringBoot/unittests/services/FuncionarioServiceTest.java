@@ -6,11 +6,14 @@ import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFacto
 import com.example.projetoRestSpringBoot.model.Funcionario;
 import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
 import com.example.projetoRestSpringBoot.service.FuncionarioService;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
+import com.example.projetoRestSpringBoot.service.search.FuncionarioNomeIndex;
 import com.example.projetoRestSpringBoot.unittests.mocks.MockFuncionario;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -51,12 +54,18 @@ class FuncionarioServiceTest {
     @Mock
     FuncionarioRepository repository;
 
+    @Mock
+    FuncionarioNomeIndex nomeIndex;
+
     @Mock
     PagedResourcesAssembler<FuncionarioDTO> assembler;
 
     @Mock
     FileExporterFactory exporterFactory;
 
+    @Mock
+    AlteracoesTabela alteracoes;
+
     @BeforeEach
     void setUp() {
         mockFuncionario = new MockFuncionario();
@@ -144,9 +153,10 @@ class FuncionarioServiceTest {
                 mockFuncionario.mockEntity(1),
                 mockFuncionario.mockEntity(2)
         );
-        Page<Funcionario> page = new PageImpl<>(funcionarios, pageable, funcionarios.size());
 
-        when(repository.findFuncionarioByName("João", pageable)).thenReturn(page);
+        // O índice define a ordem; o findAllById pode devolver em qualquer ordem
+        when(nomeIndex.buscar("João")).thenReturn(List.of(2L, 1L));
+        when(repository.findAllById(List.of(2L, 1L))).thenReturn(funcionarios);
 
         PagedModel<EntityModel<FuncionarioDTO>> pagedModel = mock(PagedModel.class);
         when(assembler.toModel(any(Page.class), any(Link.class))).thenReturn(pagedModel);
@@ -154,8 +164,10 @@ class FuncionarioServiceTest {
         var result = service.findByName("João", pageable);
 
         assertNotNull(result, "Resultado não deve ser nulo");
-        verify(repository, times(1)).findFuncionarioByName("João", pageable);
-        verify(assembler, times(1)).toModel(any(Page.class), any(Link.class));
+        ArgumentCaptor<Page<FuncionarioDTO>> page = ArgumentCaptor.forClass(Page.class);
+        verify(assembler, times(1)).toModel(page.capture(), any(Link.class));
+        assertEquals(2, page.getValue().getTotalElements());
+        assertEquals(List.of(2L, 1L), page.getValue().map(FuncionarioDTO::getId).getContent());
     }
 
     @Test
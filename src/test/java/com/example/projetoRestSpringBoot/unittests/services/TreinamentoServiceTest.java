@@ -1,6 +1,12 @@
 package com.example.projetoRestSpringBoot.unittests.services;
 
+import com.example.projetoRestSpringBoot.file.exporter.StreamingExportExecutor;
 import com.example.projetoRestSpringBoot.file.exporter.contract.FileExporter;
+import com.example.projetoRestSpringBoot.file.exporter.MediaTypes;
+import com.example.projetoRestSpringBoot.file.exporter.impl.CsvExporter;
+import com.example.projetoRestSpringBoot.file.exporter.impl.PdfExporter;
+import com.example.projetoRestSpringBoot.config.ReportConfig;
+import com.example.projetoRestSpringBoot.dto.request.RelatorioLoteRequestDTO;
 import com.example.projetoRestSpringBoot.file.exporter.factory.FileExporterFactory;
 import com.example.projetoRestSpringBoot.model.Treinamento;
 import com.example.projetoRestSpringBoot.model.Funcionario;
@@ -9,6 +15,10 @@ import com.example.projetoRestSpringBoot.repository.TreinamentoRepository;
 import com.example.projetoRestSpringBoot.repository.FuncionarioRepository;
 import com.example.projetoRestSpringBoot.repository.CursoRepository;
 import com.example.projetoRestSpringBoot.service.TreinamentoService;
+import com.example.projetoRestSpringBoot.service.DigestVencimentoService;
+import com.example.projetoRestSpringBoot.service.digest.DigestVencimento;
+import com.example.projetoRestSpringBoot.service.digest.TransicaoVencimento;
+import com.example.projetoRestSpringBoot.service.etag.AlteracoesTabela;
 import com.example.projetoRestSpringBoot.unittests.mocks.MockTreinamento;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,31 +27,50 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import static org.junit.jupiter.api.Assertions.*;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import com.example.projetoRestSpringBoot.dto.TreinamentoDTO;
 import com.example.projetoRestSpringBoot.enums.TreinamentoStatus;
 import com.example.projetoRestSpringBoot.exception.RequiredObjectIsNullException;
 import com.example.projetoRestSpringBoot.exception.ResourceNotFoundException;
+import com.example.projetoRestSpringBoot.exception.BadRequestException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.inOrder;
+import org.mockito.InOrder;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @ExtendWith(MockitoExtension.class)
@@ -67,9 +96,26 @@ class TreinamentoServiceTest {
     @Mock
     FileExporterFactory exporterFactory;
 
+    @Mock
+    StreamingExportExecutor streamingExporter;
+
+    @Mock
+    PdfExporter pdfExporter;
+
+    @Spy
+    ReportConfig reportConfig = new ReportConfig();
+
+    @Mock
+    AlteracoesTabela alteracoes;
+
+    @Mock
+    DigestVencimentoService digestService;
+
     @BeforeEach
     void setUp() {
         mockTreinamento = new MockTreinamento();
+        // Instância por classe: sem isso o limite alterado por um teste passa para o próximo espião
+        reportConfig = new ReportConfig();
         MockitoAnnotations.openMocks(this);
     }
 
@@ -140,6 +186,31 @@ class TreinamentoServiceTest {
         verify(assembler, times(1)).toModel(any(Page.class), any(Link.class));
     }
 
+    @Test
+    void findAllCursor() {
+        List<Treinamento> treinamentos = List.of(
+                mockTreinamento.mockEntity(1),
+                mockTreinamento.mockEntity(2)
+        );
+        Window<Treinamento> window = Window.from(treinamentos, i -> ScrollPosition.forward(Map.of(
+                "dataVencimento", treinamentos.get(i).getDataVencimento(),
+                "id", treinamentos.get(i).getId())), true);
+        when(repository.findAllBy(any(ScrollPosition.class), any(Sort.class), eq(Limit.of(2)))).thenReturn(window);
+
+        var result = service.findAllCursor(null, 2, "asc");
+
+        assertEquals(2, result.getContent().size());
+        assertTrue(result.getLink(IanaLinkRelations.NEXT).isPresent(), "Deve conter o link next");
+        assertTrue(result.getLink(IanaLinkRelations.NEXT).get().getHref().contains("cursor="));
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void findAllCursorInvalido() {
+        assertThrows(BadRequestException.class, () -> service.findAllCursor("%%%", 10, "asc"));
+        assertThrows(BadRequestException.class, () -> service.findAllCursor(null, 0, "asc"));
+    }
+
     @Test
     void findByInstrutor() {
         Pageable pageable = PageRequest.of(0, 12, Sort.by("dataAgendamento").ascending());
@@ -446,30 +517,152 @@ class TreinamentoServiceTest {
     }
 
     @Test
-    void atualizarStatusTreinamentos() {
-        Treinamento treinamentoValido = mockTreinamento.mockEntity(1);
-        treinamentoValido.setDataVencimento(LocalDate.now().plusMonths(6));
+    @SuppressWarnings("unchecked")
+    void exportPageStreaming() throws Exception {
+        when(repository.streamAll()).thenReturn(Stream.of(mockTreinamento.mockEntity(1), mockTreinamento.mockEntity(2)));
+        when(exporterFactory.getStreamingExporter("text/csv")).thenReturn(new CsvExporter());
+        when(streamingExporter.stream(any(Supplier.class), any(Function.class), any(StreamingExportExecutor.StreamWriter.class)))
+                .thenAnswer(invocation -> {
+                    Supplier<Stream<Treinamento>> source = invocation.getArgument(0);
+                    Function<Treinamento, TreinamentoDTO> mapper = invocation.getArgument(1);
+                    StreamingExportExecutor.StreamWriter<TreinamentoDTO> writer = invocation.getArgument(2);
+                    return (StreamingResponseBody) outputStream -> {
+                        try {
+                            writer.write(source.get().map(mapper), outputStream);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    };
+                });
+
+        StreamingResponseBody body = service.exportPageStreaming("text/csv");
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+
+        String[] linhas = outputStream.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, linhas.length, "Deve conter cabeçalho e uma linha por treinamento");
+        assertTrue(linhas[0].startsWith("Id,Funcionario_Id"));
+        assertTrue(linhas[1].startsWith("1,"));
+        assertTrue(linhas[2].startsWith("2,"));
+        verify(repository, times(1)).streamAll();
+        verify(repository, times(0)).findAll();
+    }
 
-        Treinamento treinamentoProximo = mockTreinamento.mockEntity(2);
-        treinamentoProximo.setDataVencimento(LocalDate.now().plusDays(30));
+    @Test
+    void exportPageStreamingWithoutAcceptHeader() {
+        assertThrows(BadRequestException.class, () -> service.exportPageStreaming(" "),
+                "Deve lançar BadRequestException quando o header Accept está vazio");
+    }
 
-        Treinamento treinamentoVencido = mockTreinamento.mockEntity(3);
-        treinamentoVencido.setDataVencimento(LocalDate.now().minusDays(1));
+    @Test
+    void exportarLote() throws Exception {
+        RelatorioLoteRequestDTO lote = new RelatorioLoteRequestDTO();
+        lote.setFuncionarioIds(List.of(3L, 1L, 2L, 3L));
+        when(repository.findFuncionarioIdsComTreinamento(any())).thenReturn(List.of(1L, 3L));
 
-        List<Treinamento> treinamentos = List.of(treinamentoValido, treinamentoProximo, treinamentoVencido);
-        when(repository.findAll()).thenReturn(treinamentos);
+        StreamingResponseBody body = service.exportarLote(lote, MediaTypes.APPLICATION_ZIP_VALUE);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+
+        verify(repository, times(1)).findFuncionarioIdsComTreinamento(any());
+        verify(pdfExporter, times(1)).exportarLote(eq(List.of(1L, 3L)), eq(false), same(outputStream));
+    }
+
+    @Test
+    void exportarLoteComIdsEDepartamento() {
+        RelatorioLoteRequestDTO lote = new RelatorioLoteRequestDTO();
+        lote.setFuncionarioIds(List.of(1L));
+        lote.setDepartamento("Produção");
+
+        assertThrows(BadRequestException.class, () -> service.exportarLote(lote, MediaTypes.APPLICATION_PDF_VALUE),
+                "Deve exigir ids ou departamento, não ambos");
+    }
+
+    @Test
+    void exportarLoteAcimaDoLimite() throws Exception {
+        RelatorioLoteRequestDTO lote = new RelatorioLoteRequestDTO();
+        lote.setDepartamento("Produção");
+        reportConfig.setBatchMaxRelatorios(2);
+        when(repository.findFuncionarioIdsComTreinamentoPorDepartamento("Produção")).thenReturn(List.of(1L, 2L, 3L));
+
+        assertThrows(BadRequestException.class, () -> service.exportarLote(lote, MediaTypes.APPLICATION_PDF_VALUE));
+        verify(pdfExporter, never()).exportarLote(any(), anyBoolean(), any());
+    }
+
+    @Test
+    void exportarLoteComIdsAcimaDoLimiteNaoConsulta() {
+        RelatorioLoteRequestDTO lote = new RelatorioLoteRequestDTO();
+        lote.setFuncionarioIds(List.of(1L, 2L, 3L, 3L));
+        reportConfig.setBatchMaxRelatorios(2);
+
+        assertThrows(BadRequestException.class, () -> service.exportarLote(lote, MediaTypes.APPLICATION_PDF_VALUE));
+        verify(repository, never()).findFuncionarioIdsComTreinamento(any());
+    }
+
+    @Test
+    void exportarLoteDepartamentoSemTreinamentos() {
+        RelatorioLoteRequestDTO lote = new RelatorioLoteRequestDTO();
+        lote.setDepartamento("Produção");
+        when(repository.findFuncionarioIdsComTreinamentoPorDepartamento("Produção")).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.exportarLote(lote, MediaTypes.APPLICATION_PDF_VALUE));
+    }
+
+    @Test
+    void atualizarStatusTreinamentos() {
+        LocalDate hoje = LocalDate.of(2024, 6, 1);
+        LocalDate limite = hoje.plusDays(90);
+        when(repository.findMaxId()).thenReturn(120_000L);
+        when(repository.atualizarStatusVencimentoAntesDe(eq(TreinamentoStatus.VENCIDO), eq(hoje), anyLong(), anyLong()))
+                .thenReturn(3);
+        when(repository.atualizarStatusVencimentoEntre(eq(TreinamentoStatus.VENCIMENTO_PROXIMO), eq(hoje), eq(limite), anyLong(), anyLong()))
+                .thenReturn(2);
+        when(repository.atualizarStatusVencimentoAPartirDe(eq(TreinamentoStatus.VALIDO), eq(limite), anyLong(), anyLong()))
+                .thenReturn(1);
+
+        Map<TreinamentoStatus, Integer> alterados = service.recalcularStatusTreinamentos(hoje);
+
+        // 120.000 ids em faixas de 50.000 -> 3 faixas
+        assertEquals(9, alterados.get(TreinamentoStatus.VENCIDO));
+        assertEquals(6, alterados.get(TreinamentoStatus.VENCIMENTO_PROXIMO));
+        assertEquals(3, alterados.get(TreinamentoStatus.VALIDO));
+        verify(repository).atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, 0L, 49_999L);
+        verify(repository).atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, 100_000L, 149_999L);
+        verify(alteracoes).registrar(Treinamento.class);
+        verify(repository, never()).findAll();
+        verify(repository, never()).saveAll(any());
+    }
+
+    @Test
+    void atualizarStatusTreinamentosColetaTransicoesAntesDoUpdate() {
+        LocalDate hoje = LocalDate.of(2024, 6, 1);
+        LocalDate limite = hoje.plusDays(90);
+        TransicaoVencimento vencido = new TransicaoVencimento("NR-10", hoje.minusDays(1), "Ana", "ana@empresa.com", "TI");
+        TransicaoVencimento proximo = new TransicaoVencimento("NR-35", hoje.plusDays(10), "Bruno", null, "TI");
+        when(repository.findMaxId()).thenReturn(10L);
+        when(repository.findTransicoesVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, 0L, 49_999L)).thenReturn(List.of(vencido));
+        when(repository.findTransicoesVencimentoEntre(TreinamentoStatus.VENCIMENTO_PROXIMO, hoje, limite, 0L, 49_999L))
+                .thenReturn(List.of(proximo));
+        DigestVencimento digest = new DigestVencimento("Treinamentos");
+
+        service.recalcularStatusTreinamentos(hoje, digest);
+
+        InOrder ordem = inOrder(repository);
+        ordem.verify(repository).findTransicoesVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, 0L, 49_999L);
+        ordem.verify(repository).atualizarStatusVencimentoAntesDe(TreinamentoStatus.VENCIDO, hoje, 0L, 49_999L);
+        assertEquals(2, digest.getTotal());
+        assertEquals(List.of("ana@empresa.com"), List.copyOf(digest.porFuncionario().keySet()));
+        assertEquals(2, digest.porDepartamento().get("TI").size());
+    }
+
+    @Test
+    void atualizarStatusTreinamentosTabelaVazia() {
+        when(repository.findMaxId()).thenReturn(0L);
 
         assertDoesNotThrow(() -> service.atualizarStatusTreinamentos(),
                 "Não deve lançar exceção ao atualizar status");
 
-        verify(repository, times(1)).findAll();
-        verify(repository, times(1)).saveAll(treinamentos);
-
-        assertEquals(TreinamentoStatus.VALIDO, treinamentoValido.getStatus(),
-                "Treinamento com vencimento em 6 meses deve ser VALIDO");
-        assertEquals(TreinamentoStatus.VENCIMENTO_PROXIMO, treinamentoProximo.getStatus(),
-                "Treinamento com vencimento em 30 dias deve ser VENCIMENTO_PROXIMO");
-        assertEquals(TreinamentoStatus.VENCIDO, treinamentoVencido.getStatus(),
-                "Treinamento com vencimento ontem deve ser VENCIDO");
+        verify(repository, times(1)).atualizarStatusVencimentoAntesDe(eq(TreinamentoStatus.VENCIDO), any(), eq(0L), anyLong());
+        verify(repository, never()).findAll();
     }
 }